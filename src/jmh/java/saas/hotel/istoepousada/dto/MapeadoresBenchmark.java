@@ -0,0 +1,278 @@
+package saas.hotel.istoepousada.dto;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mappers dos DTOs sobre ResultSets sintéticos ({@link SimpleResultSet}, sem banco), {@value
+ * #LINHAS} linhas cada, com as colunas e prefixos das consultas reais. {@code pessoaPorNome} e
+ * {@code diariaPorNome} são a leitura antiga, por nome concatenado, como referência.
+ *
+ * <p>Cada invocação lê um ResultSet novo, como cada consulta real, para que a resolução dos índices
+ * pelo {@link java.sql.ResultSetMetaData} entre na medida em vez de ficar na memória do {@link
+ * Colunas} desde o aquecimento.
+ *
+ * <p>{@code ./gradlew jmh -Pjmh.includes=MapeadoresBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeadoresBenchmark {
+  private static final int LINHAS = 1_000;
+
+  private static final String[] PESSOA = {
+    "id", "data_hora_cadastro", "nome", "data_nascimento", "cpf", "rg", "email", "telefone", "pais",
+    "estado", "municipio", "endereco", "complemento", "vezes_hospedado", "cep", "idade", "bairro",
+    "sexo", "numero", "status", "fk_funcionario", "funcionario_nome", "fk_titular", "titular_nome"
+  };
+  private static final String[] QUARTO = {
+    "id", "descricao", "qtd_pessoas", "status", "qtd_cama_casal", "qtd_cama_solteiro", "qtd_rede",
+    "qtd_beliche"
+  };
+  private static final String[] DIARIA = {
+    "data_inicio", "data_fim", "valor", "total", "numero", "quantidade_pessoa", "observacao"
+  };
+  private static final String[] PERNOITE = {
+    "id", "data_entrada", "data_saida", "status", "hora_chegada", "hora_saida", "valor_total",
+    "ativo"
+  };
+  private static final String[] PAGAMENTO = {"id", "descricao", "valor", "data_hora"};
+  private static final String[] TIPO_PAGAMENTO = {"id", "descricao"};
+  private static final String[] EMPRESA = {
+    "id", "razao_social", "nome_fantasia", "cnpj", "telefone", "email", "endereco", "cep", "numero",
+    "complemento", "pais", "estado", "municipio", "bairro", "tipo_empresa", "status"
+  };
+  private static final String[] RELATORIO = {
+    "relatorio_id", "data_hora", "relatorio", "valor", "tipo_pagamento_id",
+    "tipo_pagamento_descricao", "quarto_id", "quarto_descricao"
+  };
+
+  private Tabela pessoas;
+  private Tabela diarias;
+  private Tabela quartos;
+  private Tabela pernoites;
+  private Tabela pagamentos;
+  private Tabela empresas;
+  private Tabela relatorios;
+
+  @Setup
+  public void setup() {
+    pessoas = tabela(new Bloco("pessoa_", PESSOA));
+    quartos = tabela(new Bloco("quarto_", QUARTO));
+    diarias = tabela(new Bloco("diaria_", DIARIA), new Bloco("quarto_", QUARTO));
+    pernoites = tabela(new Bloco("pernoite_", PERNOITE));
+    pagamentos =
+        tabela(
+            new Bloco("diaria_pagamento_", PAGAMENTO),
+            new Bloco("diaria_pagamento_tipo_pagamento_", TIPO_PAGAMENTO));
+    empresas = tabela(new Bloco("empresa_", EMPRESA));
+    relatorios = tabela(new Bloco("", RELATORIO), new Bloco("funcionario_", PESSOA));
+  }
+
+  @Benchmark
+  public void pessoa(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(pessoas); rs.next(); ) bh.consume(Pessoa.mapPessoa(rs));
+  }
+
+  @Benchmark
+  public void pessoaPorNome(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(pessoas); rs.next(); ) bh.consume(pessoaPorNome(rs, "pessoa_"));
+  }
+
+  @Benchmark
+  public void diaria(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(diarias); rs.next(); ) bh.consume(Diaria.mapDiaria(rs));
+  }
+
+  @Benchmark
+  public void diariaPorNome(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(diarias); rs.next(); ) bh.consume(diariaPorNome(rs, "diaria_"));
+  }
+
+  @Benchmark
+  public void quarto(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(quartos); rs.next(); ) bh.consume(Quarto.mapQuarto(rs));
+  }
+
+  @Benchmark
+  public void pernoite(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(pernoites); rs.next(); ) bh.consume(Pernoite.mapPernoite(rs));
+  }
+
+  @Benchmark
+  public void diariaPagamento(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(pagamentos); rs.next(); )
+      bh.consume(DiariaPagamento.mapDiariaPagamento(rs));
+  }
+
+  @Benchmark
+  public void empresa(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(empresas); rs.next(); ) bh.consume(Empresa.mapEmpresa(rs));
+  }
+
+  @Benchmark
+  public void relatorio(Blackhole bh) throws SQLException {
+    for (ResultSet rs = inicio(relatorios); rs.next(); ) bh.consume(Relatorio.mapRelatorio(rs));
+  }
+
+  private record Bloco(String prefix, String[] colunas) {}
+
+  /** Colunas e linhas geradas uma vez; cada {@link #inicio} as serve num ResultSet novo. */
+  private record Tabela(Bloco[] blocos, Object[][] linhas) {}
+
+  /** Um ResultSet novo sobre as linhas da tabela, com os metadados montados de novo. */
+  private static ResultSet inicio(Tabela tabela) {
+    SimpleResultSet rs =
+        new SimpleResultSet(
+            new SimpleRowSource() {
+              private int proxima;
+
+              @Override
+              public Object[] readRow() {
+                return proxima < tabela.linhas().length ? tabela.linhas()[proxima++] : null;
+              }
+
+              @Override
+              public void close() {}
+
+              @Override
+              public void reset() {
+                proxima = 0;
+              }
+            });
+    for (Bloco b : tabela.blocos())
+      for (String c : b.colunas()) rs.addColumn(b.prefix() + c, tipo(c), 0, 0);
+    return rs;
+  }
+
+  /** Colunas tipadas pelo nome, com valores plausíveis e alguns nulos. */
+  private static Tabela tabela(Bloco... blocos) {
+    int total = 0;
+    for (Bloco b : blocos) total += b.colunas().length;
+    Object[][] linhas = new Object[LINHAS][];
+    for (int linha = 0; linha < LINHAS; linha++) {
+      Object[] valores = new Object[total];
+      int i = 0;
+      for (Bloco b : blocos)
+        for (String c : b.colunas()) valores[i++] = valor(c, linha);
+      linhas[linha] = valores;
+    }
+    return new Tabela(blocos, linhas);
+  }
+
+  private static int tipo(String coluna) {
+    if (coluna.equals("id") || coluna.endsWith("_id") || coluna.startsWith("fk_"))
+      return Types.BIGINT;
+    if (coluna.startsWith("data_hora")) return Types.TIMESTAMP;
+    if (coluna.startsWith("data_")) return Types.DATE;
+    if (coluna.startsWith("hora_")) return Types.TIME;
+    if (coluna.startsWith("valor") || coluna.equals("total")) return Types.DOUBLE;
+    if (coluna.startsWith("qtd_")
+        || coluna.startsWith("quantidade")
+        || coluna.equals("numero")
+        || coluna.equals("idade")
+        || coluna.equals("sexo")
+        || coluna.equals("vezes_hospedado")) return Types.INTEGER;
+    if (coluna.equals("ativo")) return Types.BOOLEAN;
+    return Types.VARCHAR;
+  }
+
+  private static Object valor(String coluna, int linha) {
+    if (coluna.equals("status")) return null;
+    if (linha % 7 == 0 && (coluna.startsWith("fk_") || coluna.equals("observacao"))) return null;
+    LocalDate dia = LocalDate.of(2026, 1, 1).plusDays(linha % 365);
+    return switch (tipo(coluna)) {
+      case Types.BIGINT -> (long) linha + 1;
+      case Types.TIMESTAMP -> Timestamp.valueOf(LocalDateTime.of(dia, LocalTime.NOON));
+      case Types.DATE -> Date.valueOf(dia);
+      case Types.TIME -> Time.valueOf("14:00:00");
+      case Types.DOUBLE -> 150.0 + linha;
+      case Types.INTEGER -> linha % 5;
+      case Types.BOOLEAN -> linha % 2 == 0;
+      default -> coluna + " " + linha;
+    };
+  }
+
+  /** {@code Pessoa.mapPessoa} antes do {@link Colunas}. */
+  private static Pessoa pessoaPorNome(ResultSet rs, String prefix) throws SQLException {
+    Long id = rs.getLong(prefix + "id");
+    LocalDateTime dataHoraCadastro =
+        rs.getTimestamp(prefix + "data_hora_cadastro") != null
+            ? rs.getTimestamp(prefix + "data_hora_cadastro").toLocalDateTime()
+            : null;
+    return new Pessoa(
+        id,
+        dataHoraCadastro,
+        rs.getString(prefix + "nome"),
+        rs.getObject(prefix + "data_nascimento", LocalDate.class),
+        rs.getString(prefix + "cpf"),
+        rs.getString(prefix + "rg"),
+        rs.getString(prefix + "email"),
+        rs.getString(prefix + "telefone"),
+        rs.getString(prefix + "pais"),
+        rs.getString(prefix + "estado"),
+        rs.getString(prefix + "municipio"),
+        rs.getString(prefix + "endereco"),
+        rs.getString(prefix + "complemento"),
+        rs.getInt(prefix + "vezes_hospedado"),
+        rs.getString(prefix + "cep"),
+        rs.getObject(prefix + "idade", Integer.class),
+        rs.getString(prefix + "bairro"),
+        rs.getObject(prefix + "sexo", Integer.class),
+        rs.getString(prefix + "numero"),
+        Pessoa.Status.fromDb(rs.getString(prefix + "status")),
+        List.of(),
+        List.of(),
+        rs.getObject(prefix + "fk_funcionario", Long.class),
+        rs.getString(prefix + "funcionario_nome"),
+        rs.getObject(prefix + "fk_titular", Long.class),
+        rs.getString(prefix + "titular_nome"),
+        false,
+        List.of());
+  }
+
+  /** {@code Diaria.mapDiaria} antes do {@link Colunas}, com as leituras repetidas. */
+  private static Diaria diariaPorNome(ResultSet rs, String prefix) throws SQLException {
+    LocalDate dataInicio =
+        rs.getDate(prefix + "data_inicio") != null
+            ? rs.getDate(prefix + "data_inicio").toLocalDate()
+            : null;
+    LocalDate dataFim =
+        rs.getDate(prefix + "data_fim") != null
+            ? rs.getDate(prefix + "data_fim").toLocalDate()
+            : null;
+    Float valorDiaria =
+        rs.getObject(prefix + "valor", Double.class) != null
+            ? rs.getObject(prefix + "valor", Double.class).floatValue()
+            : null;
+    Float total =
+        rs.getObject(prefix + "total", Double.class) != null
+            ? rs.getObject(prefix + "total", Double.class).floatValue()
+            : null;
+    return new Diaria(
+        dataInicio,
+        dataFim,
+        valorDiaria,
+        total,
+        rs.getObject(prefix + "numero", Integer.class),
+        rs.getObject(prefix + "quantidade_pessoa", Integer.class),
+        Quarto.mapQuarto(rs),
+        rs.getString(prefix + "observacao"));
+  }
+}
@@ -0,0 +1,153 @@
+package saas.hotel.istoepousada.repository;
+
+import java.sql.ResultSetMetaData;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Estadia longa (30 diárias × 4 hóspedes × 200 consumos) em H2 modo PostgreSQL: JOIN cartesiano
+ * antigo (linhas lidas coluna a coluna, sem o mapeamento) contra o carregador por coleção.
+ *
+ * <p>{@code ./gradlew jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HistoricoHospedagemBenchmark {
+  private static final long PESSOA_ID = 1L;
+  private static final int DIARIAS = 30;
+  private static final int HOSPEDES = 4;
+  private static final int CONSUMOS = 200;
+  private static final int PAGAMENTOS_POR_DIARIA = 2;
+
+  private static final String SQL_CARTESIANO =
+      """
+        SELECT pe.*, d.*, q.*, dp.representante, p.*, pg.*, tp.*, cs.*, it.*, ci.*, ctp.*
+        FROM pernoite pe
+        JOIN diaria d ON d.pernoite_id = pe.id
+        LEFT JOIN quarto q ON q.id = d.quarto_id
+        JOIN diaria_pessoa dpf ON dpf.diaria_id = d.id AND dpf.pessoa_id = ?
+        LEFT JOIN diaria_pessoa dp ON dp.diaria_id = d.id
+        LEFT JOIN pessoa p ON p.id = dp.pessoa_id
+        LEFT JOIN diaria_pagamento pg ON pg.diaria_id = d.id
+        LEFT JOIN tipo_pagamento tp ON tp.id = pg.tipo_pagamento_id
+        LEFT JOIN diaria_consumo cs ON cs.diaria_id = d.id
+        LEFT JOIN item it ON it.id = cs.item_id
+        LEFT JOIN categoria_item ci ON ci.id = it.fk_categoria
+        LEFT JOIN tipo_pagamento ctp ON ctp.id = cs.tipo_pagamento_id
+        """;
+
+  private JdbcTemplate jdbcTemplate;
+  private HistoricoHospedagemRepository repository;
+
+  @Setup
+  public void setup() {
+    DriverManagerDataSource ds =
+        new DriverManagerDataSource("jdbc:h2:mem:historico;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    jdbcTemplate = new JdbcTemplate(ds);
+    repository = new HistoricoHospedagemRepository(jdbcTemplate);
+
+    jdbcTemplate.execute(
+        """
+        CREATE TABLE pessoa (id BIGINT PRIMARY KEY, data_hora_cadastro TIMESTAMP, nome VARCHAR(200),
+          data_nascimento DATE, cpf VARCHAR(20), rg VARCHAR(20), email VARCHAR(200),
+          telefone VARCHAR(20), pais VARCHAR(50), estado VARCHAR(50), municipio VARCHAR(50),
+          endereco VARCHAR(200), complemento VARCHAR(200), vezes_hospedado INT, cep VARCHAR(10),
+          idade INT, bairro VARCHAR(100), sexo INT, numero VARCHAR(10), status VARCHAR(20),
+          fk_funcionario BIGINT, fk_titular BIGINT);
+        CREATE TABLE quarto (id BIGINT PRIMARY KEY, descricao VARCHAR(100), qtd_pessoas INT,
+          status VARCHAR(20), qtd_cama_casal INT, qtd_cama_solteiro INT, qtd_rede INT,
+          qtd_beliche INT);
+        CREATE TABLE pernoite (id BIGINT PRIMARY KEY, data_entrada DATE, data_saida DATE,
+          status VARCHAR(40), hora_chegada TIME, hora_saida TIME, valor_total DOUBLE PRECISION,
+          ativo BOOLEAN);
+        CREATE TABLE diaria (id BIGINT PRIMARY KEY, pernoite_id BIGINT, quarto_id BIGINT,
+          data_inicio DATE, data_fim DATE, valor_diaria DOUBLE PRECISION,
+          total DOUBLE PRECISION, numero_diaria INT, quantidade_pessoa INT,
+          observacao VARCHAR(200));
+        CREATE TABLE diaria_pessoa (diaria_id BIGINT, pessoa_id BIGINT, representante BOOLEAN);
+        CREATE TABLE tipo_pagamento (id BIGINT PRIMARY KEY, descricao VARCHAR(50));
+        CREATE TABLE diaria_pagamento (id BIGINT PRIMARY KEY, diaria_id BIGINT,
+          descricao VARCHAR(100), valor DOUBLE PRECISION, data_hora_pagamento TIMESTAMP,
+          tipo_pagamento_id BIGINT);
+        CREATE TABLE categoria_item (id BIGINT PRIMARY KEY, descricao VARCHAR(100));
+        CREATE TABLE item (id BIGINT PRIMARY KEY, descricao VARCHAR(100),
+          data_hora_registro_item TIMESTAMP, fk_categoria BIGINT);
+        CREATE TABLE diaria_consumo (id BIGINT PRIMARY KEY, diaria_id BIGINT, item_id BIGINT,
+          data_hora_consumo TIMESTAMP, quantidade INT, tipo_pagamento_id BIGINT);
+        CREATE INDEX ON diaria (pernoite_id);
+        CREATE INDEX ON diaria_pessoa (diaria_id);
+        CREATE INDEX ON diaria_pagamento (diaria_id);
+        CREATE INDEX ON diaria_consumo (diaria_id);
+        """);
+
+    for (long h = 1; h <= HOSPEDES; h++) {
+      jdbcTemplate.update(
+          "INSERT INTO pessoa (id, nome, vezes_hospedado, status) VALUES (?, ?, 1, 'HOSPEDADO')",
+          h,
+          "Hóspede " + h);
+    }
+    jdbcTemplate.update("INSERT INTO quarto (id, descricao, qtd_pessoas) VALUES (1, 'Q1', 4)");
+    jdbcTemplate.update("INSERT INTO tipo_pagamento VALUES (1, 'DINHEIRO')");
+    jdbcTemplate.update("INSERT INTO categoria_item VALUES (1, 'BEBIDAS')");
+    jdbcTemplate.update("INSERT INTO item (id, descricao, fk_categoria) VALUES (1, 'Água', 1)");
+    jdbcTemplate.update(
+        "INSERT INTO pernoite (id, data_entrada, data_saida, status, ativo)"
+            + " VALUES (1, DATE '2026-01-01', DATE '2026-01-31', 'ATIVO', TRUE)");
+
+    long pagamentoId = 0;
+    for (long d = 1; d <= DIARIAS; d++) {
+      jdbcTemplate.update(
+          "INSERT INTO diaria (id, pernoite_id, quarto_id, numero_diaria, quantidade_pessoa,"
+              + " valor_diaria, data_inicio) VALUES (?, 1, 1, ?, ?, 200, ?)",
+          d,
+          d,
+          HOSPEDES,
+          LocalDate.of(2026, 1, 1).plusDays(d - 1));
+      for (long h = 1; h <= HOSPEDES; h++)
+        jdbcTemplate.update("INSERT INTO diaria_pessoa VALUES (?, ?, ?)", d, h, h == 1);
+      for (int p = 0; p < PAGAMENTOS_POR_DIARIA; p++)
+        jdbcTemplate.update(
+            "INSERT INTO diaria_pagamento (id, diaria_id, valor, tipo_pagamento_id)"
+                + " VALUES (?, ?, 100, 1)",
+            ++pagamentoId,
+            d);
+    }
+    for (long c = 1; c <= CONSUMOS; c++) {
+      jdbcTemplate.update(
+          "INSERT INTO diaria_consumo (id, diaria_id, item_id, quantidade, tipo_pagamento_id)"
+              + " VALUES (?, ?, 1, 1, 1)",
+          c,
+          (c % DIARIAS) + 1);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    jdbcTemplate.execute("DROP ALL OBJECTS");
+  }
+
+  @Benchmark
+  public long joinCartesiano() {
+    long[] celulas = {0};
+    jdbcTemplate.query(
+        SQL_CARTESIANO,
+        rs -> {
+          ResultSetMetaData md = rs.getMetaData();
+          for (int i = 1; i <= md.getColumnCount(); i++) if (rs.getObject(i) != null) celulas[0]++;
+        },
+        PESSOA_ID);
+    return celulas[0];
+  }
+
+  @Benchmark
+  public Object carregadorPorColecao() {
+    return repository.buscarHistorico(PESSOA_ID, null, null).orElseThrow();
+  }
+}
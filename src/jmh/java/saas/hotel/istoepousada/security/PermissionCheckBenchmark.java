@@ -0,0 +1,146 @@
+package saas.hotel.istoepousada.security;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.method.HandlerMethod;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
+
+/**
+ * Compara a checagem de permissão antiga (reflexão + conjuntos por requisição) com o índice
+ * pré-compilado do {@link PermissaoRegistry}.
+ *
+ * <p>{@code ./gradlew jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+  @RequireTela("FINANCEIRO")
+  static class ControllerFake {
+    @RequirePermissao({"RELATORIO_CRIAR", "RELATORIO_EDITAR"})
+    public void criar() {}
+  }
+
+  private HandlerMethod handlerMethod;
+  private FuncionarioAuth funcionario;
+  private PermissaoRegistry registry;
+
+  @Setup
+  public void setup() throws Exception {
+    handlerMethod =
+        new HandlerMethod(new ControllerFake(), ControllerFake.class.getMethod("criar"));
+
+    List<FuncionarioAuth.CargoAuth.TelaAuth> telas = new ArrayList<>();
+    for (int t = 0; t < 20; t++) {
+      List<FuncionarioAuth.CargoAuth.PermissaoAuth> perms = new ArrayList<>();
+      for (int p = 0; p < 10; p++) {
+        String codigo = "PERM_" + t + "_" + p;
+        perms.add(new FuncionarioAuth.CargoAuth.PermissaoAuth((long) p, codigo, ""));
+      }
+      telas.add(new FuncionarioAuth.CargoAuth.TelaAuth((long) t, "TELA_" + t, perms));
+    }
+    telas.add(
+        new FuncionarioAuth.CargoAuth.TelaAuth(
+            99L,
+            "Financeiro",
+            List.of(
+                new FuncionarioAuth.CargoAuth.PermissaoAuth(1L, "relatorio_criar", ""),
+                new FuncionarioAuth.CargoAuth.PermissaoAuth(2L, "relatorio_editar", ""))));
+
+    funcionario =
+        new FuncionarioAuth(
+            1L,
+            1L,
+            "bench",
+            1L,
+            "Bench",
+            null,
+            null,
+            new FuncionarioAuth.CargoAuth(1L, "RECEPCIONISTA", telas));
+
+    registry = new PermissaoRegistry();
+    registry.requisito(handlerMethod);
+    registry.compilar(funcionario);
+  }
+
+  @Benchmark
+  public boolean legado() {
+    return checagemLegada(handlerMethod, funcionario);
+  }
+
+  @Benchmark
+  public boolean indice() {
+    PermissaoRegistry.Requisito requisito = registry.requisito(handlerMethod);
+    return requisito == null
+        || requisito.verificar(registry.compilar(funcionario))
+            == PermissaoRegistry.Resultado.PERMITIDO;
+  }
+
+  /** Lógica do PermissionInterceptor antes do índice, sem a escrita da resposta. */
+  private static boolean checagemLegada(HandlerMethod handlerMethod, FuncionarioAuth funcionario) {
+    RequireTela requireTela = handlerMethod.getMethodAnnotation(RequireTela.class);
+    if (requireTela == null)
+      requireTela = handlerMethod.getBeanType().getAnnotation(RequireTela.class);
+
+    RequirePermissao requirePermissao = handlerMethod.getMethodAnnotation(RequirePermissao.class);
+    if (requirePermissao == null)
+      requirePermissao = handlerMethod.getBeanType().getAnnotation(RequirePermissao.class);
+
+    if (requireTela == null && requirePermissao == null) return true;
+
+    String cargoNome = funcionario.cargo() != null ? funcionario.cargo().nome() : null;
+    if ("ADMINISTRADOR".equalsIgnoreCase(safe(cargoNome).trim())) return true;
+
+    List<FuncionarioAuth.CargoAuth.TelaAuth> telas =
+        (funcionario.cargo() == null || funcionario.cargo().telas() == null)
+            ? List.of()
+            : funcionario.cargo().telas();
+
+    FuncionarioAuth.CargoAuth.TelaAuth telaContexto = null;
+    if (requireTela != null) {
+      String telaRequerida = safe(requireTela.value()).trim();
+      telaContexto =
+          telas.stream()
+              .filter(t -> t != null && safe(t.nome()).equalsIgnoreCase(telaRequerida))
+              .findFirst()
+              .orElse(null);
+      if (telaContexto == null) return false;
+    }
+
+    if (requirePermissao != null) {
+      Set<String> required = new HashSet<>();
+      for (String s : requirePermissao.value()) {
+        if (s == null) continue;
+        String n = s.trim().toUpperCase();
+        if (!n.isBlank()) required.add(n);
+      }
+      if (!required.isEmpty()) {
+        Set<String> granted = new HashSet<>();
+        if (telaContexto != null) granted.addAll(codigos(telaContexto));
+        else for (var t : telas) granted.addAll(codigos(t));
+        return granted.containsAll(required);
+      }
+    }
+    return true;
+  }
+
+  private static Set<String> codigos(FuncionarioAuth.CargoAuth.TelaAuth tela) {
+    if (tela == null || tela.permissoes() == null) return Set.of();
+    Set<String> perms = new HashSet<>();
+    for (FuncionarioAuth.CargoAuth.PermissaoAuth p : tela.permissoes()) {
+      if (p == null || p.permissao() == null) continue;
+      String code = p.permissao().trim().toUpperCase();
+      if (!code.isBlank()) perms.add(code);
+    }
+    return perms;
+  }
+
+  private static String safe(String s) {
+    return s == null ? "" : s;
+  }
+}
@@ -0,0 +1,231 @@
+package saas.hotel.istoepousada.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.handler.exceptions.UnavaiableException;
+
+/**
+ * Controle de admissão das requisições que usam o banco.
+ *
+ * <p>Com threads virtuais o Tomcat aceita qualquer número de requisições simultâneas, e todas
+ * disputam as poucas conexões do Hikari; num pico elas esperam sem aparecer em lugar nenhum até o
+ * timeout da conexão. Aqui no máximo {@code db.admissao.limite} requisições ficam ativas. As
+ * demais esperam numa fila por classe de prioridade e são recusadas com 503 e {@code Retry-After}
+ * quando a fila da classe está cheia ou a espera passa do máximo.
+ *
+ * <ul>
+ *   <li>{@link Classe#ALTA} (check-in, lançamentos) pode usar todas as vagas;
+ *   <li>{@link Classe#NORMAL} não usa as {@code reserva-alta} últimas vagas;
+ *   <li>{@link Classe#BAIXA} (relatórios, importação) também não passa de {@code limite-baixa}
+ *       simultâneas.
+ * </ul>
+ *
+ * <p>Uma vaga liberada vai para a classe mais alta com alguém esperando; dentro da classe a ordem é
+ * de chegada. Métricas: {@code db.admissao.espera} e {@code db.admissao.recusadas} (tag {@code
+ * prioridade}; a segunda também {@code motivo}), {@code db.admissao.fila} e {@code
+ * db.admissao.em.uso}.
+ */
+@Component
+public class AdmissaoBanco {
+
+  /** Em ordem de prioridade. */
+  public enum Classe {
+    ALTA,
+    NORMAL,
+    BAIXA
+  }
+
+  private record Regra(int filaMaxima, long esperaMaximaNanos) {}
+
+  private final int limite;
+  private final int limiteNormal;
+  private final int limiteBaixa;
+  private final Duration retryAfter;
+  private final Map<Classe, Regra> regras = new EnumMap<>(Classe.class);
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<Classe, Condition> vez = new EnumMap<>(Classe.class);
+  private final int[] esperando = new int[Classe.values().length];
+  private int emUso;
+  private int emUsoBaixa;
+
+  private final Map<Classe, Timer> espera = new EnumMap<>(Classe.class);
+  private final Map<Classe, Counter> recusadasFila = new EnumMap<>(Classe.class);
+  private final Map<Classe, Counter> recusadasEspera = new EnumMap<>(Classe.class);
+
+  public AdmissaoBanco(
+      Environment environment,
+      MeterRegistry meterRegistry,
+      @Value("${db.admissao.limite:10}") int limite,
+      @Value("${db.admissao.reserva-alta:2}") int reservaAlta,
+      @Value("${db.admissao.limite-baixa:3}") int limiteBaixa,
+      @Value("${db.admissao.retry-after-segundos:2}") long retryAfterSegundos) {
+    if (limite <= reservaAlta)
+      throw new IllegalArgumentException("db.admissao.limite deve ser maior que reserva-alta");
+    this.limite = limite;
+    this.limiteNormal = limite - reservaAlta;
+    this.limiteBaixa = Math.min(limiteBaixa, limiteNormal);
+    this.retryAfter = Duration.ofSeconds(retryAfterSegundos);
+
+    for (Classe classe : Classe.values()) {
+      String prefixo = "db.admissao." + classe.name().toLowerCase() + ".";
+      regras.put(
+          classe,
+          new Regra(
+              environment.getProperty(prefixo + "fila-maxima", Integer.class, 100),
+              TimeUnit.MILLISECONDS.toNanos(
+                  environment.getProperty(prefixo + "espera-maxima-ms", Long.class, 2000L))));
+      vez.put(classe, lock.newCondition());
+
+      String prioridade = classe.name().toLowerCase();
+      espera.put(
+          classe,
+          Timer.builder("db.admissao.espera")
+              .tag("prioridade", prioridade)
+              .description("Espera por uma vaga no banco, das requisições admitidas")
+              .publishPercentileHistogram()
+              .register(meterRegistry));
+      recusadasFila.put(classe, recusadas(meterRegistry, prioridade, "fila"));
+      recusadasEspera.put(classe, recusadas(meterRegistry, prioridade, "espera"));
+      Gauge.builder("db.admissao.fila", this, a -> a.esperando(classe))
+          .tag("prioridade", prioridade)
+          .description("Requisições esperando vaga no banco")
+          .register(meterRegistry);
+    }
+    Gauge.builder("db.admissao.em.uso", this, AdmissaoBanco::emUso)
+        .description("Requisições admitidas em andamento")
+        .register(meterRegistry);
+  }
+
+  private static Counter recusadas(MeterRegistry meterRegistry, String prioridade, String motivo) {
+    return Counter.builder("db.admissao.recusadas")
+        .tag("prioridade", prioridade)
+        .tag("motivo", motivo)
+        .description("Requisições recusadas com 503 por falta de vaga no banco")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Ocupa uma vaga, esperando se preciso; toda entrada bem-sucedida deve ter um {@link
+   * #sair(Classe)}.
+   *
+   * @throws UnavaiableException com {@code Retry-After} se a fila da classe está cheia ou a espera
+   *     passou do máximo
+   */
+  public void entrar(Classe classe) {
+    long inicio = System.nanoTime();
+    int c = classe.ordinal();
+    lock.lock();
+    try {
+      if (esperandoAte(c) > 0 || !cabe(classe)) aguardar(classe);
+      else ocupar(classe);
+    } finally {
+      lock.unlock();
+    }
+    espera.get(classe).record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+  }
+
+  public void sair(Classe classe) {
+    lock.lock();
+    try {
+      emUso--;
+      if (classe == Classe.BAIXA) emUsoBaixa--;
+      sinalizar();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Com o lock. Sai com a vaga ocupada quando a classe tem vez e cabe; senão lança. */
+  private void aguardar(Classe classe) {
+    int c = classe.ordinal();
+    Regra regra = regras.get(classe);
+    if (esperando[c] >= regra.filaMaxima()) {
+      recusadasFila.get(classe).increment();
+      throw recusar();
+    }
+    esperando[c]++;
+    try {
+      long restante = regra.esperaMaximaNanos();
+      while (esperandoAte(c - 1) > 0 || !cabe(classe)) {
+        if (restante <= 0) {
+          recusadasEspera.get(classe).increment();
+          throw recusar();
+        }
+        restante = vez.get(classe).awaitNanos(restante);
+      }
+      ocupar(classe);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UnavaiableException("Espera por vaga no banco interrompida");
+    } finally {
+      esperando[c]--;
+      // depois de ocupar: quem entrou pode não ter usado a última vaga, e quem desistiu (mesmo
+      // depois de sinalizado) passa a vez; acordar antes faria o próximo voltar ao fim da fila
+      sinalizar();
+    }
+  }
+
+  private void ocupar(Classe classe) {
+    emUso++;
+    if (classe == Classe.BAIXA) emUsoBaixa++;
+  }
+
+  private UnavaiableException recusar() {
+    return new UnavaiableException(
+        "Servidor sobrecarregado; tente novamente em " + retryAfter.toSeconds() + "s", retryAfter);
+  }
+
+  private boolean cabe(Classe classe) {
+    return switch (classe) {
+      case ALTA -> emUso < limite;
+      case NORMAL -> emUso < limiteNormal;
+      case BAIXA -> emUso < limiteNormal && emUsoBaixa < limiteBaixa;
+    };
+  }
+
+  /** Esperando nas classes de prioridade 0 a {@code ultima}. */
+  private int esperandoAte(int ultima) {
+    int total = 0;
+    for (int i = 0; i <= ultima; i++) total += esperando[i];
+    return total;
+  }
+
+  /** Com o lock. Acorda o primeiro da classe mais alta com fila, se ele couber. */
+  private void sinalizar() {
+    for (Classe classe : Classe.values()) {
+      if (esperando[classe.ordinal()] == 0) continue;
+      if (cabe(classe)) vez.get(classe).signal();
+      return;
+    }
+  }
+
+  private int esperando(Classe classe) {
+    lock.lock();
+    try {
+      return esperando[classe.ordinal()];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int emUso() {
+    lock.lock();
+    try {
+      return emUso;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
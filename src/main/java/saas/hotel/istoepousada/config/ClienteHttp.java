@@ -0,0 +1,196 @@
+package saas.hotel.istoepousada.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+/**
+ * {@link RestClient} para uma API externa, com timeouts, limite de chamadas simultâneas e circuito.
+ *
+ * <p>Cada cliente tem seu próprio {@link HttpClient}, que mantém as conexões abertas com o host.
+ * Quando as vagas estão ocupadas, a chamada espera até {@link Config#esperaVaga()} e depois é
+ * recusada. Depois de {@link Config#falhasParaAbrir()} falhas seguidas (erro de rede, timeout ou
+ * 5xx), o circuito abre e as chamadas são recusadas sem sair da aplicação por {@link
+ * Config#tempoAberto()}. Em seguida, uma única chamada de teste decide se o circuito fecha. As
+ * recusas são {@link ResourceAccessException}, tratadas como indisponibilidade pelos serviços.
+ *
+ * <p>Métricas, com tag {@code cliente}: {@code http.cliente.requisicoes} (latência com histograma,
+ * tag {@code resultado}), {@code http.cliente.recusadas} (tag {@code motivo}), {@code
+ * http.cliente.em.uso} e {@code http.cliente.circuito.aberto}.
+ */
+public final class ClienteHttp {
+  private static final Logger log = LoggerFactory.getLogger(ClienteHttp.class);
+
+  public record Config(
+      String url,
+      Duration conexaoTimeout,
+      Duration leituraTimeout,
+      int maximoSimultaneas,
+      Duration esperaVaga,
+      int falhasParaAbrir,
+      Duration tempoAberto) {}
+
+  private ClienteHttp() {}
+
+  public static RestClient criar(String nome, Config config, MeterRegistry meterRegistry) {
+    HttpClient httpClient = HttpClient.newBuilder().connectTimeout(config.conexaoTimeout()).build();
+    JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(httpClient);
+    fabrica.setReadTimeout(config.leituraTimeout());
+    return RestClient.builder()
+        .baseUrl(config.url())
+        .requestFactory(fabrica)
+        .requestInterceptor(new Protecao(nome, config, meterRegistry))
+        .build();
+  }
+
+  static final class Protecao implements ClientHttpRequestInterceptor {
+    private enum Estado {
+      FECHADO,
+      ABERTO,
+      MEIO_ABERTO
+    }
+
+    private final String nome;
+    private final Config config;
+    private final Semaphore vagas;
+    private final MeterRegistry meterRegistry;
+    private final Counter recusadasCircuito;
+    private final Counter recusadasLimite;
+
+    private Estado estado = Estado.FECHADO;
+    private int falhasSeguidas;
+    private long abertoAte;
+    private boolean testeEmAndamento;
+
+    Protecao(String nome, Config config, MeterRegistry meterRegistry) {
+      this.nome = nome;
+      this.config = config;
+      this.vagas = new Semaphore(config.maximoSimultaneas());
+      this.meterRegistry = meterRegistry;
+      this.recusadasCircuito = recusadas("circuito");
+      this.recusadasLimite = recusadas("limite");
+      Gauge.builder(
+              "http.cliente.em.uso",
+              vagas,
+              v -> config.maximoSimultaneas() - v.availablePermits())
+          .tag("cliente", nome)
+          .description("Chamadas em andamento")
+          .register(meterRegistry);
+      Gauge.builder("http.cliente.circuito.aberto", this, p -> p.aberto() ? 1 : 0)
+          .tag("cliente", nome)
+          .description("1 enquanto o circuito recusa chamadas")
+          .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+        HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+        throws IOException {
+      ocuparVaga();
+      try {
+        permitir();
+      } catch (RuntimeException e) {
+        vagas.release();
+        throw e;
+      }
+
+      long inicio = System.nanoTime();
+      String resultado = "erro";
+      try {
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getStatusCode().value();
+        resultado = (status / 100) + "xx";
+        if (status >= 500) falha();
+        else sucesso();
+        return response;
+      } catch (IOException | RuntimeException e) {
+        falha();
+        throw e;
+      } finally {
+        vagas.release();
+        Timer.builder("http.cliente.requisicoes")
+            .tag("cliente", nome)
+            .tag("resultado", resultado)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private void ocuparVaga() {
+      boolean ocupada;
+      try {
+        ocupada = vagas.tryAcquire(config.esperaVaga().toNanos(), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ResourceAccessException("Chamada a " + nome + " interrompida");
+      }
+      if (!ocupada) {
+        recusadasLimite.increment();
+        throw new ResourceAccessException(
+            "Chamadas simultâneas a " + nome + " no limite (" + config.maximoSimultaneas() + ")");
+      }
+    }
+
+    private synchronized void permitir() {
+      if (estado == Estado.ABERTO) {
+        if (System.nanoTime() - abertoAte < 0) {
+          recusadasCircuito.increment();
+          throw new ResourceAccessException("Circuito de " + nome + " aberto");
+        }
+        estado = Estado.MEIO_ABERTO;
+        testeEmAndamento = false;
+      }
+      if (estado == Estado.MEIO_ABERTO) {
+        if (testeEmAndamento) {
+          recusadasCircuito.increment();
+          throw new ResourceAccessException("Circuito de " + nome + " em teste");
+        }
+        testeEmAndamento = true;
+      }
+    }
+
+    private synchronized void sucesso() {
+      if (estado != Estado.FECHADO) log.info("Circuito de {} fechado", nome);
+      estado = Estado.FECHADO;
+      falhasSeguidas = 0;
+      testeEmAndamento = false;
+    }
+
+    private synchronized void falha() {
+      if (estado != Estado.MEIO_ABERTO && ++falhasSeguidas < config.falhasParaAbrir()) return;
+      log.warn("Circuito de {} aberto por {}", nome, config.tempoAberto());
+      estado = Estado.ABERTO;
+      abertoAte = System.nanoTime() + config.tempoAberto().toNanos();
+      falhasSeguidas = 0;
+      testeEmAndamento = false;
+    }
+
+    private synchronized boolean aberto() {
+      return estado == Estado.ABERTO && System.nanoTime() - abertoAte < 0;
+    }
+
+    private Counter recusadas(String motivo) {
+      return Counter.builder("http.cliente.recusadas")
+          .tag("cliente", nome)
+          .tag("motivo", motivo)
+          .description("Chamadas recusadas sem sair da aplicação")
+          .register(meterRegistry);
+    }
+  }
+}
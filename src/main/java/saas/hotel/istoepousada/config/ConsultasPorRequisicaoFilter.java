@@ -0,0 +1,38 @@
+package saas.hotel.istoepousada.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Conta as consultas ao banco de cada requisição ({@code jdbc.consultas.por.requisicao}). A tag
+ * {@code uri} é o padrão do mapeamento ({@code /pessoa/{id}}), não o caminho, para não criar uma
+ * série por id.
+ */
+@Component
+public class ConsultasPorRequisicaoFilter extends OncePerRequestFilter {
+  private final JdbcMetricas jdbcMetricas;
+
+  public ConsultasPorRequisicaoFilter(JdbcMetricas jdbcMetricas) {
+    this.jdbcMetricas = jdbcMetricas;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    JdbcMetricas.Requisicao requisicao = jdbcMetricas.abrirRequisicao();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      jdbcMetricas.fecharRequisicao(
+          requisicao, request.getMethod(), padrao == null ? "desconhecida" : padrao.toString());
+    }
+  }
+}
@@ -0,0 +1,211 @@
+package saas.hotel.istoepousada.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource da aplicação com cada statement medido pelo {@link JdbcMetricas}.
+ *
+ * <p>Conexões, statements e ResultSets são envolvidos em proxies. A execução é medida do {@code
+ * execute*} até o ResultSet (ou o statement) ser fechado, que é quando o {@code JdbcTemplate}
+ * terminou de mapear as linhas; as linhas são contadas no {@code next()} ou pelo update count. A
+ * consulta é identificada pelo primeiro método da aplicação na pilha, fora deste pacote.
+ *
+ * <p>Também conta os textos de SQL preparados: o pgjdbc guarda os statements preparados por
+ * conexão, com o texto do SQL como chave, e a partir da {@code prepareThreshold}-ésima execução
+ * passa a usar o statement (e o plano) preparado no servidor. A fração de {@code
+ * jdbc.preparos{sql=repetido}} é a taxa de acerto, e {@code jdbc.sql.distintos} deve parar de
+ * crescer depois do aquecimento.
+ */
+public class DataSourceMonitorado extends DelegatingDataSource {
+  private static final String PACOTE = "saas.hotel.istoepousada.";
+  private static final String PACOTE_CONFIG = PACOTE + "config.";
+  private static final StackWalker PILHA = StackWalker.getInstance();
+
+  private final ObjectProvider<JdbcMetricas> jdbcMetricas;
+  private volatile JdbcMetricas metricas;
+
+  public DataSourceMonitorado(DataSource alvo, ObjectProvider<JdbcMetricas> jdbcMetricas) {
+    super(alvo);
+    this.jdbcMetricas = jdbcMetricas;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return monitorar(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return monitorar(super.getConnection(username, password));
+  }
+
+  private Connection monitorar(Connection conexao) {
+    JdbcMetricas metricas = metricas();
+    if (metricas == null) return conexao;
+    return proxy(
+        Connection.class,
+        (proxy, method, args) -> {
+          Object resultado = invocar(conexao, method, args);
+          if (!(resultado instanceof Statement statement)) return resultado;
+          String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+          if (sql != null) metricas.preparado(sql);
+          Class<?> tipo =
+              statement instanceof CallableStatement
+                  ? CallableStatement.class
+                  : statement instanceof PreparedStatement
+                      ? PreparedStatement.class
+                      : Statement.class;
+          return proxy(tipo, new Monitor(metricas, statement, sql));
+        });
+  }
+
+  /** Obtidas no primeiro uso: o DataSource existe antes das métricas (Flyway). */
+  private JdbcMetricas metricas() {
+    JdbcMetricas m = metricas;
+    if (m == null) metricas = m = jdbcMetricas.getIfAvailable();
+    return m;
+  }
+
+  /** Estado de um statement: parâmetros atuais e a execução em andamento. */
+  private static final class Monitor implements InvocationHandler {
+    private final JdbcMetricas metricas;
+    private final Statement alvo;
+    private final String sqlPreparado;
+    private final Map<Integer, Object> parametros = new TreeMap<>();
+    private JdbcMetricas.Execucao execucao;
+
+    Monitor(JdbcMetricas metricas, Statement alvo, String sqlPreparado) {
+      this.metricas = metricas;
+      this.alvo = alvo;
+      this.sqlPreparado = sqlPreparado;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String nome = method.getName();
+      if (nome.startsWith("execute")) return executar(method, args);
+      if (nome.startsWith("set")
+          && args != null
+          && args.length >= 2
+          && args[0] instanceof Integer indice)
+        parametros.put(indice, nome.equals("setNull") ? null : args[1]);
+      else if (nome.equals("clearParameters")) parametros.clear();
+      else if (nome.equals("close")) terminar();
+
+      Object resultado = invocar(alvo, method, args);
+      if (nome.equals("getResultSet") && resultado instanceof ResultSet rs && execucao != null)
+        return contar(rs, execucao);
+      return resultado;
+    }
+
+    private Object executar(Method method, Object[] args) throws Throwable {
+      terminar();
+      String sql =
+          sqlPreparado != null
+              ? sqlPreparado
+              : args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+      JdbcMetricas.Execucao atual = metricas.iniciar(consultaChamadora(), sql, parametros);
+      execucao = atual;
+      Object resultado;
+      try {
+        resultado = invocar(alvo, method, args);
+      } catch (Throwable e) {
+        atual.erro();
+        terminar();
+        throw e;
+      }
+      if (resultado instanceof ResultSet rs) return contar(rs, atual);
+      // execute() com ResultSet: as linhas são contadas no de getResultSet()
+      if (Boolean.TRUE.equals(resultado)) return resultado;
+      if (Boolean.FALSE.equals(resultado)) atual.linhas(alvo.getUpdateCount());
+      else if (resultado instanceof Number alteradas) atual.linhas(alteradas.longValue());
+      else if (resultado instanceof int[] lote) for (int n : lote) atual.linhas(n);
+      else if (resultado instanceof long[] lote) for (long n : lote) atual.linhas(n);
+      terminar();
+      return resultado;
+    }
+
+    private void terminar() {
+      if (execucao == null) return;
+      execucao.terminar();
+      execucao = null;
+    }
+  }
+
+  private static ResultSet contar(ResultSet rs, JdbcMetricas.Execucao execucao) {
+    return proxy(
+        ResultSet.class,
+        (proxy, method, args) -> {
+          Object resultado = invocar(rs, method, args);
+          switch (method.getName()) {
+            case "next" -> {
+              if (Boolean.TRUE.equals(resultado)) execucao.linha();
+            }
+            case "close" -> execucao.terminar();
+            default -> {}
+          }
+          return resultado;
+        });
+  }
+
+  /**
+   * {@code PessoaRepository.listarPorIds}: classe e método do primeiro quadro da aplicação fora de
+   * {@code config}, sem sufixos de classe interna ou lambda.
+   */
+  static String consultaChamadora() {
+    return PILHA.walk(
+        quadros ->
+            quadros
+                .filter(
+                    q ->
+                        q.getClassName().startsWith(PACOTE)
+                            && !q.getClassName().startsWith(PACOTE_CONFIG))
+                .findFirst()
+                .map(q -> nome(q.getClassName(), q.getMethodName()))
+                .orElse("outros"));
+  }
+
+  static String nome(String classe, String metodo) {
+    return classe(classe) + "." + metodo(metodo);
+  }
+
+  private static String classe(String nome) {
+    String simples = nome.substring(nome.lastIndexOf('.') + 1);
+    int interna = simples.indexOf('$');
+    return interna < 0 ? simples : simples.substring(0, interna);
+  }
+
+  /** {@code lambda$listar$3} vira {@code listar}. */
+  private static String metodo(String nome) {
+    if (!nome.startsWith("lambda$")) return nome;
+    int fim = nome.indexOf('$', 7);
+    return fim < 0 ? nome.substring(7) : nome.substring(7, fim);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, handler);
+  }
+
+  private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(alvo, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+}
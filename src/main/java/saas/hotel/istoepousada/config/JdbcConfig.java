@@ -0,0 +1,24 @@
+package saas.hotel.istoepousada.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JdbcConfig {
+
+  /** Envolve o DataSource do Spring Boot (Hikari) em um {@link DataSourceMonitorado}. */
+  @Bean
+  static BeanPostProcessor dataSourceMonitorado(ObjectProvider<JdbcMetricas> jdbcMetricas) {
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceMonitorado))
+          return new DataSourceMonitorado(dataSource, jdbcMetricas);
+        return bean;
+      }
+    };
+  }
+}
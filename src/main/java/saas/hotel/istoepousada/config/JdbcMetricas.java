@@ -0,0 +1,212 @@
+package saas.hotel.istoepousada.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métricas e log das consultas feitas pelo {@link DataSourceMonitorado}.
+ *
+ * <p>Cada consulta é identificada pelo método do repositório que a fez ({@code
+ * PessoaRepository.listarPorIds}), não pelo SQL, para manter a cardinalidade baixa. Métricas:
+ *
+ * <ul>
+ *   <li>{@code jdbc.consultas} (tags {@code consulta}, {@code resultado}): da execução até fechar o
+ *       ResultSet. O timer de erro só é criado no primeiro erro da consulta; o histograma fica a
+ *       cargo de {@code management.metrics.distribution.percentiles-histogram.jdbc.consultas};
+ *   <li>{@code jdbc.linhas} (tag {@code consulta}): linhas lidas ou alteradas;
+ *   <li>{@code jdbc.consultas.por.requisicao} (tags {@code metodo}, {@code uri}): consultas feitas
+ *       durante uma requisição HTTP. Acima de {@code jdbc.consultas-por-requisicao.alerta} a
+ *       requisição é logada com as consultas repetidas (N+1);
+ *   <li>{@code jdbc.preparos} e {@code jdbc.sql.distintos}: reaproveitamento de statements
+ *       preparados.
+ * </ul>
+ *
+ * <p>Consultas acima de {@code jdbc.consulta-lenta-ms} vão para o logger {@code jdbc.lenta} em
+ * formato chave=valor. Os parâmetros só são formatados para esse log: textos aparecem só com o
+ * tamanho, datas e outros objetos só com o tipo; números e booleanos aparecem.
+ */
+@Component
+public class JdbcMetricas {
+  private static final Logger log = LoggerFactory.getLogger(JdbcMetricas.class);
+  private static final Logger lentas = LoggerFactory.getLogger("jdbc.lenta");
+  private static final int MAXIMO_TEXTOS = 10_000;
+  private static final ThreadLocal<Requisicao> REQUISICAO = new ThreadLocal<>();
+
+  private final MeterRegistry meterRegistry;
+  private final long lentaNanos;
+  private final int alertaPorRequisicao;
+  private final Set<String> textos = ConcurrentHashMap.newKeySet();
+  private final Counter preparosRepetidos;
+  private final Counter preparosNovos;
+  private final Map<String, Medidores> porConsulta = new ConcurrentHashMap<>();
+  private final Map<String, Timer> errosPorConsulta = new ConcurrentHashMap<>();
+
+  private record Medidores(Timer ok, DistributionSummary linhas) {}
+
+  /** Consultas da requisição HTTP em andamento na thread, por consulta. */
+  public static final class Requisicao {
+    private final Map<String, Integer> consultas = new HashMap<>();
+    private int total;
+  }
+
+  public JdbcMetricas(
+      MeterRegistry meterRegistry,
+      @Value("${jdbc.consulta-lenta-ms:500}") long lentaMs,
+      @Value("${jdbc.consultas-por-requisicao.alerta:25}") int alertaPorRequisicao) {
+    this.meterRegistry = meterRegistry;
+    this.lentaNanos = TimeUnit.MILLISECONDS.toNanos(lentaMs);
+    this.alertaPorRequisicao = alertaPorRequisicao;
+    Gauge.builder("jdbc.sql.distintos", textos, Set::size)
+        .description("Textos de SQL distintos preparados desde a inicialização")
+        .register(meterRegistry);
+    this.preparosRepetidos =
+        Counter.builder("jdbc.preparos")
+            .tag("sql", "repetido")
+            .description("Statements preparados, por texto já visto ou novo")
+            .register(meterRegistry);
+    this.preparosNovos =
+        Counter.builder("jdbc.preparos").tag("sql", "novo").register(meterRegistry);
+  }
+
+  /**
+   * Um texto já visto provavelmente está no cache de statements do pgjdbc; um texto novo
+   * certamente não.
+   */
+  void preparado(String sql) {
+    if (textos.contains(sql)) {
+      preparosRepetidos.increment();
+      return;
+    }
+    if (textos.size() < MAXIMO_TEXTOS) textos.add(sql);
+    preparosNovos.increment();
+  }
+
+  Execucao iniciar(String consulta, String sql, Map<Integer, Object> parametros) {
+    Requisicao requisicao = REQUISICAO.get();
+    if (requisicao != null) {
+      requisicao.total++;
+      requisicao.consultas.merge(consulta, 1, Integer::sum);
+    }
+    return new Execucao(consulta, sql, parametros);
+  }
+
+  public Requisicao abrirRequisicao() {
+    Requisicao requisicao = new Requisicao();
+    REQUISICAO.set(requisicao);
+    return requisicao;
+  }
+
+  public void fecharRequisicao(Requisicao requisicao, String metodo, String uri) {
+    REQUISICAO.remove();
+    DistributionSummary.builder("jdbc.consultas.por.requisicao")
+        .tag("metodo", metodo)
+        .tag("uri", uri)
+        .description("Consultas ao banco por requisição HTTP")
+        .register(meterRegistry)
+        .record(requisicao.total);
+    if (requisicao.total < alertaPorRequisicao) return;
+
+    StringJoiner repetidas = new StringJoiner(", ", "[", "]");
+    requisicao.consultas.entrySet().stream()
+        .filter(e -> e.getValue() > 1)
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+        .forEach(e -> repetidas.add(e.getKey() + "=" + e.getValue()));
+    log.warn(
+        "requisicao=\"{} {}\" consultas={} repetidas={}", metodo, uri, requisicao.total, repetidas);
+  }
+
+  /** Uma execução de statement; {@link #terminar()} pode ser chamado mais de uma vez. */
+  final class Execucao {
+    private final String consulta;
+    private final String sql;
+    private final Map<Integer, Object> parametros;
+    private final long inicio = System.nanoTime();
+    private long linhas;
+    private boolean erro;
+    private boolean terminada;
+
+    private Execucao(String consulta, String sql, Map<Integer, Object> parametros) {
+      this.consulta = consulta;
+      this.sql = sql;
+      // o Monitor reaproveita o mapa no próximo execute; formatar só se a consulta for lenta
+      this.parametros = parametros.isEmpty() ? Map.of() : new TreeMap<>(parametros);
+    }
+
+    void linha() {
+      linhas++;
+    }
+
+    void linhas(long quantidade) {
+      if (quantidade > 0) linhas += quantidade;
+    }
+
+    void erro() {
+      erro = true;
+    }
+
+    void terminar() {
+      if (terminada) return;
+      terminada = true;
+      long duracao = System.nanoTime() - inicio;
+      Medidores m = porConsulta.computeIfAbsent(consulta, JdbcMetricas.this::medidores);
+      Timer timer =
+          erro ? errosPorConsulta.computeIfAbsent(consulta, c -> timer(c, "erro")) : m.ok();
+      timer.record(duracao, TimeUnit.NANOSECONDS);
+      m.linhas().record(linhas);
+      if (duracao >= lentaNanos && lentas.isWarnEnabled())
+        lentas.warn(
+            "consulta={} duracao_ms={} linhas={} erro={} sql=\"{}\" parametros={}",
+            consulta,
+            TimeUnit.NANOSECONDS.toMillis(duracao),
+            linhas,
+            erro,
+            sql == null ? "" : sql.replaceAll("\\s+", " ").strip(),
+            parametros.isEmpty() ? "" : redigir(parametros));
+    }
+  }
+
+  private Medidores medidores(String consulta) {
+    return new Medidores(
+        timer(consulta, "ok"),
+        DistributionSummary.builder("jdbc.linhas")
+            .tag("consulta", consulta)
+            .description("Linhas lidas ou alteradas por consulta")
+            .register(meterRegistry));
+  }
+
+  private Timer timer(String consulta, String resultado) {
+    return Timer.builder("jdbc.consultas")
+        .tag("consulta", consulta)
+        .tag("resultado", resultado)
+        .description("Duração das consultas, da execução ao fechamento do ResultSet")
+        .register(meterRegistry);
+  }
+
+  private static String redigir(Map<Integer, Object> parametros) {
+    StringJoiner joiner = new StringJoiner(", ", "[", "]");
+    parametros.forEach((i, v) -> joiner.add(i + "=" + redigir(v)));
+    return joiner.toString();
+  }
+
+  static String redigir(Object valor) {
+    if (valor == null) return "null";
+    if (valor instanceof Number || valor instanceof Boolean) return valor.toString();
+    if (valor instanceof CharSequence texto) return "'***'(" + texto.length() + ")";
+    if (valor instanceof java.sql.Array) return "array";
+    return valor.getClass().getSimpleName();
+  }
+}
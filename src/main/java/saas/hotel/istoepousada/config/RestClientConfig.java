@@ -1,19 +1,48 @@
 package saas.hotel.istoepousada.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.client.RestClient;
 
+/** Clientes das APIs externas; cada um é configurado em {@code http.cliente.<nome>.*}. */
 @Configuration
 public class RestClientConfig {
+  private final Environment environment;
+  private final MeterRegistry meterRegistry;
+
+  public RestClientConfig(Environment environment, MeterRegistry meterRegistry) {
+    this.environment = environment;
+    this.meterRegistry = meterRegistry;
+  }
 
   @Bean("viaCepClient")
   public RestClient restClient() {
-    return RestClient.builder().baseUrl("https://viacep.com.br").build();
+    return cliente("viacep", "https://viacep.com.br");
   }
 
   @Bean("cnpjaClient")
   public RestClient cnpjaClient() {
-    return RestClient.builder().baseUrl("https://open.cnpja.com").build();
+    return cliente("cnpja", "https://open.cnpja.com");
+  }
+
+  private RestClient cliente(String nome, String url) {
+    String prefixo = "http.cliente." + nome + ".";
+    ClienteHttp.Config config =
+        new ClienteHttp.Config(
+            environment.getProperty(prefixo + "url", url),
+            millis(prefixo + "conexao-timeout-ms", 2_000),
+            millis(prefixo + "leitura-timeout-ms", 5_000),
+            environment.getProperty(prefixo + "maximo-simultaneas", Integer.class, 20),
+            millis(prefixo + "espera-vaga-ms", 500),
+            environment.getProperty(prefixo + "falhas-para-abrir", Integer.class, 5),
+            millis(prefixo + "aberto-ms", 30_000));
+    return ClienteHttp.criar(nome, config, meterRegistry);
+  }
+
+  private Duration millis(String propriedade, long padrao) {
+    return Duration.ofMillis(environment.getProperty(propriedade, Long.class, padrao));
   }
 }
@@ -13,13 +13,16 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import saas.hotel.istoepousada.dto.Cargo;
 import saas.hotel.istoepousada.dto.Objeto;
-import saas.hotel.istoepousada.repository.ObjectRepository;
+import saas.hotel.istoepousada.repository.CatalogoCache;
 import saas.hotel.istoepousada.security.RequireTela;
+import saas.hotel.istoepousada.security.SemBanco;
 import saas.hotel.istoepousada.service.CargoService;
 
 @Tag(
@@ -31,11 +34,11 @@ import saas.hotel.istoepousada.service.CargoService;
 public class CargoController {
 
   private final CargoService cargoService;
-  private final ObjectRepository objectRepository;
+  private final CatalogoCache catalogoCache;
 
-  public CargoController(CargoService cargoService, ObjectRepository objectRepository) {
+  public CargoController(CargoService cargoService, CatalogoCache catalogoCache) {
     this.cargoService = cargoService;
-    this.objectRepository = objectRepository;
+    this.catalogoCache = catalogoCache;
   }
 
   @Operation(
@@ -310,8 +313,9 @@ public class CargoController {
                                             ]
                                             """)))
   @GetMapping("/telas")
-  public List<Objeto> telas() {
-    return objectRepository.telas();
+  @SemBanco
+  public ResponseEntity<List<Objeto>> telas() {
+    return comEtag(catalogoCache.get().telas());
   }
 
   @Operation(
@@ -349,7 +353,16 @@ public class CargoController {
                                             ]
                                             """)))
   @GetMapping("/permissoes")
-  public List<Objeto> permissoes(@RequestParam Long telaId) {
-    return objectRepository.permissoes(telaId);
+  @SemBanco
+  public ResponseEntity<List<Objeto>> permissoes(@RequestParam Long telaId) {
+    return comEtag(catalogoCache.get().permissoes(telaId));
+  }
+
+  /** no-cache: o navegador guarda a lista, mas revalida com If-None-Match (304 se não mudou). */
+  private static ResponseEntity<List<Objeto>> comEtag(Objeto.Lista lista) {
+    return ResponseEntity.ok()
+        .eTag(lista.etag())
+        .cacheControl(CacheControl.noCache())
+        .body(lista.itens());
   }
 }
@@ -0,0 +1,113 @@
+package saas.hotel.istoepousada.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+import saas.hotel.istoepousada.dto.Importacao;
+import saas.hotel.istoepousada.security.Prioridade;
+import saas.hotel.istoepousada.security.RequireTela;
+import saas.hotel.istoepousada.service.ImportacaoService;
+
+@Tag(
+    name = "Importação",
+    description = "Importação em massa de hóspedes, empresas e veículos a partir de CSV.")
+@RestController
+@RequestMapping("/importacao")
+@RequireTela("CADASTRO")
+@Prioridade(AdmissaoBanco.Classe.BAIXA)
+public class ImportacaoController {
+  private final ImportacaoService importacaoService;
+
+  public ImportacaoController(ImportacaoService importacaoService) {
+    this.importacaoService = importacaoService;
+  }
+
+  @Operation(
+      summary = "Enviar CSV para importação",
+      description =
+          """
+          Recebe um CSV (UTF-8, separado por ';' ou ',') e processa em segundo plano.
+          A primeira linha é o cabeçalho com os nomes das colunas, em qualquer ordem;
+          nome e cpf são obrigatórios. Colunas aceitas:
+          nome, cpf, data_nascimento (dd/MM/yyyy), rg, email, telefone, pais, estado,
+          municipio, endereco, complemento, cep, bairro, sexo (0/1), numero,
+          empresa_cnpj, empresa_razao_social, empresa_nome_fantasia, empresa_telefone,
+          empresa_email, veiculo_placa, veiculo_modelo, veiculo_marca, veiculo_ano, veiculo_cor.
+
+          Pessoas são identificadas pelo CPF, empresas pelo CNPJ e veículos pela placa (só
+          dígitos/letras): o que já existe é atualizado/vinculado, o resto é criado. Linhas
+          inválidas são ignoradas e listadas em /importacao/{id}/erros; as válidas são gravadas
+          numa única transação. Acompanhe o andamento em /importacao/{id}.
+          """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "202",
+        description = "Importação iniciada",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = Importacao.class))),
+    @ApiResponse(responseCode = "400", description = "Arquivo vazio ou cabeçalho inválido")
+  })
+  @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public Importacao importar(
+      @Parameter(description = "Arquivo CSV") @RequestParam("arquivo") MultipartFile arquivo) {
+    return importacaoService.iniciar(arquivo);
+  }
+
+  @Operation(
+      summary = "Andamento da importação",
+      description = "Situação, etapa atual, bytes já carregados e contadores da importação.")
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Importação",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = Importacao.class))),
+    @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+  })
+  @GetMapping("/{id}")
+  public Importacao buscar(
+      @Parameter(description = "ID da importação", example = "1") @PathVariable Long id) {
+    return importacaoService.buscar(id);
+  }
+
+  @Operation(
+      summary = "Linhas rejeitadas (paginado)",
+      description = "Erros de validação por linha do arquivo (o cabeçalho é a linha 1).")
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Página de erros",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = Page.class))),
+    @ApiResponse(responseCode = "404", description = "Importação não encontrada")
+  })
+  @GetMapping("/{id}/erros")
+  public Page<Importacao.Erro> listarErros(
+      @Parameter(description = "ID da importação", example = "1") @PathVariable Long id,
+      @Parameter(description = "Número da página (0-based)", example = "0")
+          @RequestParam(defaultValue = "0")
+          int page,
+      @Parameter(description = "Tamanho da página", example = "50")
+          @RequestParam(defaultValue = "50")
+          int size) {
+    return importacaoService.listarErros(id, PageRequest.of(page, size));
+  }
+}
@@ -9,13 +9,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
 import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import saas.hotel.istoepousada.dto.EmpresaResponse;
 import saas.hotel.istoepousada.dto.Endereco;
 import saas.hotel.istoepousada.dto.Objeto;
+import saas.hotel.istoepousada.security.RequireTela;
+import saas.hotel.istoepousada.security.SemBanco;
 import saas.hotel.istoepousada.service.EnderecoService;
 
 @Tag(
@@ -27,9 +32,13 @@ import saas.hotel.istoepousada.service.EnderecoService;
 public class LocalidadeController {
 
   private final EnderecoService enderecoService;
+  private final CacheControl cacheControl;
 
-  public LocalidadeController(EnderecoService enderecoService) {
+  public LocalidadeController(
+      EnderecoService enderecoService,
+      @Value("${localidade.cache-control.max-age-segundos:3600}") long maxAgeSegundos) {
     this.enderecoService = enderecoService;
+    this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSegundos)).cachePublic();
   }
 
   @Operation(
@@ -74,6 +83,7 @@ public class LocalidadeController {
         description = "CNPJ não encontrado ou dados não cadastrados no banco")
   })
   @GetMapping("/cnpj/{cnpj}")
+  @SemBanco
   public ResponseEntity<EmpresaResponse> buscarPorCnpj(
       @Parameter(
               description = "CNPJ a ser consultado (sem formatação)",
@@ -119,6 +129,7 @@ public class LocalidadeController {
         description = "CEP não encontrado ou dados não cadastrados no banco")
   })
   @GetMapping("/cep/{cep}")
+  @SemBanco
   public ResponseEntity<Endereco> buscarPorCep(
       @Parameter(
               description = "CEP a ser consultado (com ou sem formatação)",
@@ -150,12 +161,13 @@ public class LocalidadeController {
                                         { "id": 1, "descricao": "Brasil" },
                                         { "id": 2, "descricao": "Portugal" }
                                       ]
-                                      """)))
+                                      """))),
+    @ApiResponse(responseCode = "304", description = "Lista não mudou (If-None-Match)")
   })
   @GetMapping("/paises")
+  @SemBanco
   public ResponseEntity<List<Objeto>> listarPaises() {
-    List<Objeto> response = enderecoService.listarPaises();
-    return ResponseEntity.ok(response);
+    return comEtag(enderecoService.listarPaises());
   }
 
   @Operation(
@@ -180,14 +192,15 @@ public class LocalidadeController {
                                         { "id": 11, "descricao": "Piauí" }
                                       ]
                                       """))),
+    @ApiResponse(responseCode = "304", description = "Lista não mudou (If-None-Match)"),
     @ApiResponse(responseCode = "400", description = "Parâmetro inválido")
   })
   @GetMapping("/estados/{pais}")
+  @SemBanco
   public ResponseEntity<List<Objeto>> listarEstadosPorPais(
       @Parameter(description = "ID do país (pais)", example = "1", required = true) @PathVariable
           Long pais) {
-    List<Objeto> response = enderecoService.listarEstados(pais);
-    return ResponseEntity.ok(response);
+    return comEtag(enderecoService.listarEstados(pais));
   }
 
   @Operation(
@@ -212,14 +225,32 @@ public class LocalidadeController {
                                         { "id": 101, "descricao": "Imperatriz" }
                                       ]
                                       """))),
+    @ApiResponse(responseCode = "304", description = "Lista não mudou (If-None-Match)"),
     @ApiResponse(responseCode = "400", description = "Parâmetro inválido")
   })
   @GetMapping("/municipios/{estado}")
+  @SemBanco
   public ResponseEntity<List<Objeto>> listarMunicipiosPorEstado(
       @Parameter(description = "ID do estado (estado)", example = "10", required = true)
           @PathVariable
           Long estado) {
-    List<Objeto> response = enderecoService.listarMunicipios(estado);
-    return ResponseEntity.ok(response);
+    return comEtag(enderecoService.listarMunicipios(estado));
+  }
+
+  @Operation(
+      summary = "Recarregar países, estados e municípios",
+      description =
+          "Relê do banco as listas de país/estado/município mantidas em memória. Use após alterar essas tabelas direto no banco.")
+  @ApiResponses({@ApiResponse(responseCode = "204", description = "Listas recarregadas")})
+  @PostMapping("/localidades/recarregar")
+  @RequireTela("ADMIN")
+  public ResponseEntity<Void> recarregar() {
+    enderecoService.recarregarLocalidades();
+    return ResponseEntity.noContent().build();
+  }
+
+  /** Com If-None-Match igual ao ETag, o Spring responde 304 sem corpo. */
+  private ResponseEntity<List<Objeto>> comEtag(Objeto.Lista lista) {
+    return ResponseEntity.ok().eTag(lista.etag()).cacheControl(cacheControl).body(lista.itens());
   }
 }
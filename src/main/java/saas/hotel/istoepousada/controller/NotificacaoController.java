@@ -12,18 +12,27 @@ import java.util.List;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
 import saas.hotel.istoepousada.dto.Notificacao;
+import saas.hotel.istoepousada.dto.TokenStream;
+import saas.hotel.istoepousada.security.JwtUtil;
+import saas.hotel.istoepousada.security.SemBanco;
+import saas.hotel.istoepousada.security.TokenNaUrl;
 import saas.hotel.istoepousada.service.NotificacaoService;
 
 @Tag(name = "Notificações", description = "Consulta das notificações mais recentes.")
 @RestController
 @RequestMapping("/notificacoes")
+@SemBanco
 public class NotificacaoController {
 
   private final NotificacaoService notificacaoService;
+  private final JwtUtil jwtUtil;
 
-  public NotificacaoController(NotificacaoService notificacaoService) {
+  public NotificacaoController(NotificacaoService notificacaoService, JwtUtil jwtUtil) {
     this.notificacaoService = notificacaoService;
+    this.jwtUtil = jwtUtil;
   }
 
   @Operation(
@@ -63,4 +72,57 @@ public class NotificacaoController {
       @RequestParam Integer quantidade) {
     return ResponseEntity.ok(notificacaoService.listarUltimasPorPessoa(pessoaId, quantidade));
   }
+
+  @Operation(
+      summary = "Acompanhar notificações em tempo real (SSE)",
+      description =
+          """
+                    Abre um stream Server-Sent Events. Na conexão envia as últimas notificações
+                    (pela quantidade informada) e depois cada nova notificação como evento
+                    "notificacao". Ao reconectar com o header Last-Event-ID, envia apenas as
+                    notificações perdidas. Se pessoaId for informado, só as notificações da pessoa.
+
+                    O EventSource do navegador não envia o header Authorization: nesse caso passe
+                    em ?token= um token de POST /notificacoes/stream/token. Ele vale poucos
+                    segundos, então peça outro a cada nova conexão.
+                    """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Stream de notificações",
+        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+    @ApiResponse(responseCode = "401", description = "Sem header Authorization nem token válido")
+  })
+  @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @TokenNaUrl
+  public SseEmitter stream(
+      @Parameter(description = "ID da pessoa", example = "10") @RequestParam(required = false)
+          Long pessoaId,
+      @Parameter(description = "Quantidade de notificações enviadas na conexão", example = "20")
+          @RequestParam(defaultValue = "20")
+          Integer quantidade,
+      @Parameter(description = "Id do último evento recebido (reconexão)")
+          @RequestHeader(name = "Last-Event-ID", required = false)
+          String lastEventId) {
+    return notificacaoService.stream(pessoaId, quantidade, lastEventId);
+  }
+
+  @Operation(
+      summary = "Gerar token para o stream de notificações",
+      description =
+          """
+                    Devolve um token de vida curta para o parâmetro token de /notificacoes/stream.
+                    Ele não serve como Bearer nos demais endpoints.
+                    """)
+  @ApiResponse(
+      responseCode = "200",
+      description = "Token do stream",
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = TokenStream.class)))
+  @PostMapping("/stream/token")
+  public TokenStream tokenStream(@RequestAttribute("funcionario") FuncionarioAuth funcionario) {
+    return new TokenStream(jwtUtil.gerarTokenStream(funcionario), jwtUtil.getStreamTokenSegundos());
+  }
 }
@@ -6,14 +6,24 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
 import saas.hotel.istoepousada.dto.Objeto;
-import saas.hotel.istoepousada.repository.ObjectRepository;
+import saas.hotel.istoepousada.repository.CatalogoCache;
+import saas.hotel.istoepousada.security.PermissaoRegistry;
+import saas.hotel.istoepousada.security.RequireTela;
+import saas.hotel.istoepousada.security.SemBanco;
 
 @Tag(
     name = "Enums (Combos)",
@@ -21,12 +31,15 @@ import saas.hotel.istoepousada.repository.ObjectRepository;
         "Endpoints utilitários para listar opções usadas em combobox (ex.: tipo de pagamento, telas e permissões).")
 @RestController
 @RequestMapping("/enum")
+@SemBanco
 public class ObjectController {
 
-  private final ObjectRepository objectRepository;
+  private final CatalogoCache catalogoCache;
+  private final PermissaoRegistry permissaoRegistry;
 
-  public ObjectController(ObjectRepository objectRepository) {
-    this.objectRepository = objectRepository;
+  public ObjectController(CatalogoCache catalogoCache, PermissaoRegistry permissaoRegistry) {
+    this.catalogoCache = catalogoCache;
+    this.permissaoRegistry = permissaoRegistry;
   }
 
   @Operation(
@@ -57,7 +70,68 @@ public class ObjectController {
                                   ]
                                   """)))
   @GetMapping("/tipo-pagamento")
-  public List<Objeto> tipoPagamentoEnum() {
-    return objectRepository.tipoPagamento();
+  public ResponseEntity<List<Objeto>> tipoPagamentoEnum() {
+    Objeto.Lista lista = catalogoCache.get().tiposPagamento();
+    return ResponseEntity.ok()
+        .eTag(lista.etag())
+        .cacheControl(CacheControl.noCache())
+        .body(lista.itens());
+  }
+
+  @Operation(
+      summary = "Catálogo completo de combos",
+      description =
+          """
+                  Tipos de pagamento, telas, permissões por tela (chave = id da tela) e cargos numa
+                  única resposta, para carregar ao abrir o sistema.
+
+                  Envie o ETag recebido em If-None-Match: enquanto nenhum cargo/tela/permissão/tipo
+                  de pagamento mudar, a resposta é 304 sem corpo. Cada lista também traz o próprio
+                  ETag, o mesmo devolvido por /enum/tipo-pagamento, /telas e /permissoes.
+
+                  Telas, permissões e cargos só vêm para quem tem a tela ADMIN, como /telas e
+                  /permissoes; os demais recebem só os tipos de pagamento, com outro ETag.
+                  """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Catálogo",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogoCache.Catalogo.class))),
+    @ApiResponse(responseCode = "304", description = "Catálogo não mudou (If-None-Match)")
+  })
+  @GetMapping("/catalogo")
+  public ResponseEntity<CatalogoCache.Catalogo> catalogo(
+      @RequestAttribute("funcionario") FuncionarioAuth funcionario) {
+    CatalogoCache.Catalogo catalogo =
+        permissaoRegistry.temTela(funcionario, "ADMIN")
+            ? catalogoCache.get()
+            : catalogoCache.semAdmin();
+    return ResponseEntity.ok()
+        .eTag(catalogo.etag())
+        .cacheControl(CacheControl.noCache())
+        .varyBy(HttpHeaders.AUTHORIZATION)
+        .body(catalogo);
+  }
+
+  @Operation(
+      summary = "Recarregar catálogo",
+      description =
+          """
+                  Descarta o catálogo em memória desta instância; a próxima leitura vem do banco.
+                  Para alterações feitas direto no banco ou por outra instância, que de outro modo
+                  só aparecem depois de catalogo.cache.ttl-segundos.
+                  """)
+  @ApiResponses({
+    @ApiResponse(responseCode = "204", description = "Catálogo descartado"),
+    @ApiResponse(responseCode = "403", description = "Sem acesso à tela ADMIN")
+  })
+  @PostMapping("/catalogo/recarregar")
+  @RequireTela("ADMIN")
+  public ResponseEntity<Void> recarregarCatalogo() {
+    catalogoCache.invalidar();
+    return ResponseEntity.noContent().build();
   }
 }
@@ -18,9 +18,12 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
 import saas.hotel.istoepousada.dto.HistoricoHospedagem;
 import saas.hotel.istoepousada.dto.Pessoa;
 import saas.hotel.istoepousada.dto.PessoaBatchRequest;
+import saas.hotel.istoepousada.dto.PessoaCursorPage;
+import saas.hotel.istoepousada.security.Prioridade;
 import saas.hotel.istoepousada.security.RequireTela;
 import saas.hotel.istoepousada.service.HistoricoHospedagemService;
 import saas.hotel.istoepousada.service.PessoaService;
@@ -83,6 +86,81 @@ public class PessoaController {
     return pessoaService.buscar(id, termo, placaVeiculo, status, pageable);
   }
 
+  @Operation(
+      summary = "Listar pessoas paginadas por cursor (keyset)",
+      description =
+          """
+          Lista pessoas ordenadas por nome usando paginação por cursor.
+          - after: cursor retornado em nextCursor da página anterior (omitir na primeira página)
+          - contar=true: inclui totalElements (executa COUNT, evite em buscas por digitação)
+
+          Diferente da listagem por página/offset, o custo de qualquer página é o mesmo da primeira.
+          """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Página de pessoas",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = PessoaCursorPage.class))),
+    @ApiResponse(responseCode = "400", description = "Cursor inválido")
+  })
+  @GetMapping("/cursor")
+  public PessoaCursorPage listarPorCursor(
+      @Parameter(description = "Termo para busca por nome (ILIKE) ou CPF exato sem ponto e traço")
+          @RequestParam(required = false)
+          String termo,
+      @Parameter(description = "Termo para busca por placa de veiculo sem ponto e traço")
+          @RequestParam(required = false)
+          String placaVeiculo,
+      @Parameter(description = "Filtra pelo status da pessoa", example = "HOSPEDADO")
+          @RequestParam(required = false)
+          Pessoa.Status status,
+      @Parameter(description = "Cursor opaco da página anterior (nextCursor)")
+          @RequestParam(required = false)
+          String after,
+      @Parameter(description = "Tamanho da página", example = "10")
+          @RequestParam(defaultValue = "10")
+          int size,
+      @Parameter(description = "Se true, retorna o total de registros", example = "false")
+          @RequestParam(defaultValue = "false")
+          boolean contar) {
+    return pessoaService.buscarPorCursor(termo, placaVeiculo, status, after, size, contar);
+  }
+
+  @Operation(
+      summary = "Pesquisar pessoas (autocomplete)",
+      description =
+          """
+          Busca ranqueada para a recepção, sem paginação nem COUNT. O termo é comparado com:
+          - nome sem acento (prefixo, início de palavra e trecho do nome)
+          - CPF, RG e e-mail normalizados (exato ou prefixo)
+          - telefone (trecho dos dígitos)
+
+          Retorna no máximo `limite` pessoas, da mais relevante para a menos relevante.
+          """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Pessoas encontradas",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                array = @ArraySchema(schema = @Schema(implementation = Pessoa.class)))),
+    @ApiResponse(responseCode = "400", description = "Limite inválido")
+  })
+  @GetMapping("/search")
+  public List<Pessoa> pesquisar(
+      @Parameter(description = "Nome, CPF, RG, telefone ou e-mail", example = "joao")
+          @RequestParam
+          String q,
+      @Parameter(description = "Quantidade máxima de resultados (1 a 50)", example = "10")
+          @RequestParam(defaultValue = "10")
+          Integer limite) {
+    return pessoaService.pesquisar(q, limite);
+  }
+
   @Operation(
       summary = "Criar pessoas",
       description = "Cria um titular (titularId=null) e seus acompanhantes.")
@@ -97,6 +175,7 @@ public class PessoaController {
     @ApiResponse(responseCode = "400", description = "Requisição inválida")
   })
   @PostMapping
+  @Prioridade(AdmissaoBanco.Classe.ALTA)
   @ResponseStatus(HttpStatus.CREATED)
   public List<Pessoa> criar(
       @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -192,6 +271,7 @@ public class PessoaController {
     @ApiResponse(responseCode = "404", description = "Pessoa não encontrada")
   })
   @PutMapping("/{id}")
+  @Prioridade(AdmissaoBanco.Classe.ALTA)
   public Pessoa atualizar(
       @Parameter(description = "ID da pessoa", example = "10", required = true) @PathVariable
           Long id,
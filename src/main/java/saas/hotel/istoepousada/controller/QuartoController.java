@@ -8,26 +8,36 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+import saas.hotel.istoepousada.dto.Disponibilidade;
 import saas.hotel.istoepousada.dto.Quarto;
+import saas.hotel.istoepousada.security.Prioridade;
 import saas.hotel.istoepousada.security.RequireTela;
+import saas.hotel.istoepousada.service.DisponibilidadeService;
 import saas.hotel.istoepousada.service.QuartoService;
 
 @Tag(name = "Quartos", description = "Endpoints de cadastro e consulta de quartos.")
 @RestController
 @RequestMapping("/quarto")
 @RequireTela("APARTAMENTOS")
+@Prioridade(AdmissaoBanco.Classe.ALTA)
 public class QuartoController {
 
   private final QuartoService quartoService;
+  private final DisponibilidadeService disponibilidadeService;
 
-  public QuartoController(QuartoService quartoService) {
+  public QuartoController(
+      QuartoService quartoService, DisponibilidadeService disponibilidadeService) {
     this.quartoService = quartoService;
+    this.disponibilidadeService = disponibilidadeService;
   }
 
   @Operation(
@@ -72,6 +82,50 @@ public class QuartoController {
     return quartoService.buscar(id, termo, status, pageable);
   }
 
+  @Operation(
+      summary = "Disponibilidade de quartos num período",
+      description =
+          """
+                    Retorna, para cada quarto com capacidade para a quantidade de pessoas, se ele
+                    está livre em todo o período [inicio, fim) e as ocupações que cruzam o período.
+                    - inicio: dia da entrada (inclusivo)
+                    - fim: dia da saída (exclusivo)
+                    - pessoas: capacidade mínima (opcional)
+
+                    Considera as diárias de pernoites não cancelados.
+                    """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Disponibilidade por quarto",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = Disponibilidade.class))),
+    @ApiResponse(responseCode = "400", description = "Período ou quantidade de pessoas inválidos")
+  })
+  @GetMapping("/disponibilidade")
+  public Disponibilidade disponibilidade(
+      @Parameter(
+              description = "Dia da entrada (yyyy-MM-dd)",
+              required = true,
+              example = "2025-01-10")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate inicio,
+      @Parameter(
+              description = "Dia da saída (yyyy-MM-dd)",
+              required = true,
+              example = "2025-01-12")
+          @RequestParam
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate fim,
+      @Parameter(description = "Quantidade de pessoas", example = "2")
+          @RequestParam(required = false)
+          Integer pessoas) {
+    return disponibilidadeService.buscar(inicio, fim, pessoas);
+  }
+
   @Operation(summary = "Criar quarto", description = "Cria um novo quarto.")
   @ApiResponses({
     @ApiResponse(
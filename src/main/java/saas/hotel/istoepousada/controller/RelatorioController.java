@@ -8,16 +8,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
 import saas.hotel.istoepousada.dto.Relatorio;
 import saas.hotel.istoepousada.dto.RelatorioExtratoResponse;
+import saas.hotel.istoepousada.security.Prioridade;
 import saas.hotel.istoepousada.security.RequireTela;
 import saas.hotel.istoepousada.service.RelatorioService;
 
@@ -27,6 +33,7 @@ import saas.hotel.istoepousada.service.RelatorioService;
 @RestController
 @RequestMapping("/relatorios")
 @RequireTela("FINANCEIRO")
+@Prioridade(AdmissaoBanco.Classe.BAIXA)
 public class RelatorioController {
 
   private final RelatorioService relatorioService;
@@ -90,6 +97,80 @@ public class RelatorioController {
         id, dataInicio, dataFim, funcionarioId, quartoId, tipoPagamentoId, valores, pageable);
   }
 
+  @Operation(
+      summary = "Exportar extrato (CSV/XLSX)",
+      description =
+          """
+                    Exporta os lançamentos do período com os mesmos filtros da listagem,
+                    sem paginação. As linhas são lidas do banco por cursor e escritas direto na resposta, então o
+                    consumo de memória não depende do tamanho do período.
+
+                    - formato: CSV (separador ';', vírgula decimal) ou XLSX
+                    """)
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Arquivo do extrato",
+        content = {
+          @Content(mediaType = "text/csv"),
+          @Content(
+              mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+        })
+  })
+  @GetMapping("/exportar")
+  public void exportar(
+      @Parameter(description = "Formato do arquivo", example = "CSV")
+          @RequestParam(defaultValue = "CSV")
+          Relatorio.Formato formato,
+      @Parameter(description = "Data inicial (yyyy-MM-dd)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate dataInicio,
+      @Parameter(description = "Data final (yyyy-MM-dd)")
+          @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+          LocalDate dataFim,
+      @Parameter(description = "ID da pessoa (funcionário responsável)")
+          @RequestParam(required = false)
+          Long funcionarioId,
+      @Parameter(description = "ID do quarto") @RequestParam(required = false) Long quartoId,
+      @Parameter(description = "ID do tipo de pagamento") @RequestParam(required = false)
+          Long tipoPagamentoId,
+      @Parameter(
+              description = "Filtro por tipo de valor: ENTRADA (valor > 0) ou SAIDA (valor < 0)",
+              example = "ENTRADA")
+          @RequestParam(required = false)
+          Relatorio.Valores valores,
+      HttpServletResponse response)
+      throws IOException {
+
+    boolean xlsx = formato == Relatorio.Formato.XLSX;
+    String arquivo =
+        "extrato_%s_%s.%s"
+            .formatted(
+                dataInicio == null ? "" : dataInicio,
+                dataFim == null ? "" : dataFim,
+                xlsx ? "xlsx" : "csv");
+
+    response.setContentType(
+        xlsx
+            ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+            : "text/csv; charset=UTF-8");
+    response.setHeader(
+        HttpHeaders.CONTENT_DISPOSITION,
+        ContentDisposition.attachment().filename(arquivo).build().toString());
+
+    relatorioService.exportar(
+        formato,
+        dataInicio,
+        dataFim,
+        funcionarioId,
+        quartoId,
+        tipoPagamentoId,
+        valores,
+        response.getOutputStream());
+  }
+
   @Operation(
       summary = "Criar relatório",
       description =
@@ -110,6 +191,7 @@ public class RelatorioController {
     @ApiResponse(responseCode = "400", description = "Requisição inválida")
   })
   @PostMapping
+  @Prioridade(AdmissaoBanco.Classe.ALTA)
   @ResponseStatus(HttpStatus.CREATED)
   public Relatorio criar(
       @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -157,6 +239,7 @@ public class RelatorioController {
     @ApiResponse(responseCode = "404", description = "Relatório não encontrado")
   })
   @PutMapping("/{id}")
+  @Prioridade(AdmissaoBanco.Classe.ALTA)
   public Relatorio atualizar(
       @Parameter(description = "ID do relatório", example = "10", required = true) @PathVariable
           Long id,
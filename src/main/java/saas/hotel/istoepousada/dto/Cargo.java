@@ -10,6 +10,9 @@ public record Cargo(
     @Schema(description = "ID do cargo") Long id,
     @Schema(description = "Nome do cargo") String cargo,
     @Schema(description = "Telas/permissões associadas") List<Tela> telas) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int CARGO = COLUNAS.coluna("cargo");
 
   public Cargo(Long id, String cargo) {
     this(id, cargo, List.of());
@@ -24,7 +27,8 @@ public record Cargo(
   }
 
   public static Cargo mapCargo(ResultSet rs, String prefix) throws SQLException {
-    return new Cargo(rs.getLong(prefix + "id"), rs.getString(prefix + "cargo"));
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    return new Cargo(linha.getLong(ID), linha.getString(CARGO));
   }
 
   public record Request(Long id, String descricao, List<Long> telasIds, List<Long> permissoesIds) {}
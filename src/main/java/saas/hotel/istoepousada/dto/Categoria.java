@@ -4,14 +4,16 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public record Categoria(Long id, String categoria) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int CATEGORIA = COLUNAS.coluna("categoria");
 
   public static Categoria mapCategoria(ResultSet rs) throws SQLException {
     return mapCategoria(rs, "categoria_");
   }
 
   public static Categoria mapCategoria(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
-    String categoria = rs.getString(prefix + "categoria");
-    return new Categoria(id, categoria);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    return new Categoria(linha.getLongOuNulo(ID), linha.getString(CATEGORIA));
   }
 }
@@ -0,0 +1,6 @@
+package saas.hotel.istoepousada.dto;
+
+import java.time.LocalDateTime;
+
+/** Resposta da ViaCEP guardada em {@code cep_cache} e quando foi consultada. */
+public record CepSalvo(ViaCep viaCep, LocalDateTime atualizadoEm) {}
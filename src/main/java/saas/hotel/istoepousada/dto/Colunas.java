@@ -0,0 +1,161 @@
+package saas.hotel.istoepousada.dto;
+
+import java.lang.ref.WeakReference;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Colunas lidas por um mapper, com os índices resolvidos uma vez por ResultSet e prefixo.
+ *
+ * <p>Ler por nome ({@code rs.getString(prefix + "nome")}) concatena o nome e procura a coluna em
+ * toda linha. Aqui o mapper declara as colunas uma vez:
+ *
+ * <pre>{@code
+ * private static final Colunas COLUNAS = new Colunas();
+ * private static final int ID = COLUNAS.coluna("id");
+ *
+ * Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+ * Long id = linha.getLongOuNulo(ID);
+ * }</pre>
+ *
+ * <p>A primeira linha de cada ResultSet resolve os índices pelos rótulos do {@link
+ * ResultSetMetaData}; as demais leem só por índice, com os getters primitivos e {@code wasNull()}.
+ * A resolução fica numa memória pequena por thread, com o ResultSet por referência fraca. Coluna
+ * ausente só é erro se for lida, como na leitura por nome.
+ */
+public final class Colunas {
+  private static final int ENTRADAS = 4;
+
+  private final List<String> nomes = new ArrayList<>();
+  private final ThreadLocal<Resolvidas[]> memoria =
+      ThreadLocal.withInitial(() -> new Resolvidas[ENTRADAS]);
+
+  private record Resolvidas(WeakReference<ResultSet> rs, String prefix, int[] indices) {}
+
+  /** Registra a coluna e devolve o seu número; só na inicialização da classe do mapper. */
+  public int coluna(String nome) {
+    nomes.add(nome);
+    return nomes.size() - 1;
+  }
+
+  public Linha linha(ResultSet rs, String prefix) throws SQLException {
+    Resolvidas[] entradas = memoria.get();
+    for (Resolvidas r : entradas)
+      if (r != null && r.rs().get() == rs && r.prefix().equals(prefix)) return new Linha(rs, r);
+
+    Resolvidas nova = new Resolvidas(new WeakReference<>(rs), prefix, resolver(rs, prefix));
+    System.arraycopy(entradas, 0, entradas, 1, ENTRADAS - 1);
+    entradas[0] = nova;
+    return new Linha(rs, nova);
+  }
+
+  private int[] resolver(ResultSet rs, String prefix) throws SQLException {
+    ResultSetMetaData md = rs.getMetaData();
+    Map<String, Integer> porRotulo = new HashMap<>();
+    for (int i = md.getColumnCount(); i >= 1; i--)
+      porRotulo.put(md.getColumnLabel(i).toLowerCase(Locale.ROOT), i); // a primeira vence
+
+    int[] indices = new int[nomes.size()];
+    Arrays.fill(indices, -1);
+    for (int c = 0; c < indices.length; c++) {
+      Integer i = porRotulo.get((prefix + nomes.get(c)).toLowerCase(Locale.ROOT));
+      if (i != null) indices[c] = i;
+    }
+    return indices;
+  }
+
+  /** A linha atual do ResultSet, lida pelos números devolvidos por {@link #coluna(String)}. */
+  public final class Linha {
+    private final ResultSet rs;
+    private final Resolvidas resolvidas;
+
+    private Linha(ResultSet rs, Resolvidas resolvidas) {
+      this.rs = rs;
+      this.resolvidas = resolvidas;
+    }
+
+    private int indice(int coluna) throws SQLException {
+      int i = resolvidas.indices()[coluna];
+      if (i < 0)
+        throw new SQLException(
+            "Coluna não encontrada: " + resolvidas.prefix() + nomes.get(coluna));
+      return i;
+    }
+
+    /** 0 quando nulo, como {@link ResultSet#getLong(int)}. */
+    public long getLong(int coluna) throws SQLException {
+      return rs.getLong(indice(coluna));
+    }
+
+    /** 0 quando nulo, como {@link ResultSet#getInt(int)}. */
+    public int getInt(int coluna) throws SQLException {
+      return rs.getInt(indice(coluna));
+    }
+
+    /** {@code false} quando nulo, como {@link ResultSet#getBoolean(int)}. */
+    public boolean getBoolean(int coluna) throws SQLException {
+      return rs.getBoolean(indice(coluna));
+    }
+
+    public Long getLongOuNulo(int coluna) throws SQLException {
+      long valor = rs.getLong(indice(coluna));
+      return rs.wasNull() ? null : valor;
+    }
+
+    public Integer getIntegerOuNulo(int coluna) throws SQLException {
+      int valor = rs.getInt(indice(coluna));
+      return rs.wasNull() ? null : valor;
+    }
+
+    public Double getDoubleOuNulo(int coluna) throws SQLException {
+      double valor = rs.getDouble(indice(coluna));
+      return rs.wasNull() ? null : valor;
+    }
+
+    public Float getFloatOuNulo(int coluna) throws SQLException {
+      double valor = rs.getDouble(indice(coluna));
+      return rs.wasNull() ? null : (float) valor;
+    }
+
+    public Boolean getBooleanOuNulo(int coluna) throws SQLException {
+      boolean valor = rs.getBoolean(indice(coluna));
+      return rs.wasNull() ? null : valor;
+    }
+
+    public String getString(int coluna) throws SQLException {
+      return rs.getString(indice(coluna));
+    }
+
+    public LocalDate getLocalDate(int coluna) throws SQLException {
+      Date data = rs.getDate(indice(coluna));
+      return data == null ? null : data.toLocalDate();
+    }
+
+    public LocalDateTime getLocalDateTime(int coluna) throws SQLException {
+      Timestamp dataHora = rs.getTimestamp(indice(coluna));
+      return dataHora == null ? null : dataHora.toLocalDateTime();
+    }
+
+    public LocalTime getLocalTime(int coluna) throws SQLException {
+      Time hora = rs.getTime(indice(coluna));
+      return hora == null ? null : hora.toLocalTime();
+    }
+
+    public <T> T getObject(int coluna, Class<T> tipo) throws SQLException {
+      return rs.getObject(indice(coluna), tipo);
+    }
+  }
+}
@@ -15,37 +15,28 @@ public record Diaria(
     Integer quantidadePessoas,
     Quarto quarto,
     String observacao) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int DATA_INICIO = COLUNAS.coluna("data_inicio");
+  private static final int DATA_FIM = COLUNAS.coluna("data_fim");
+  private static final int VALOR = COLUNAS.coluna("valor");
+  private static final int TOTAL = COLUNAS.coluna("total");
+  private static final int NUMERO = COLUNAS.coluna("numero");
+  private static final int QUANTIDADE_PESSOA = COLUNAS.coluna("quantidade_pessoa");
+  private static final int OBSERVACAO = COLUNAS.coluna("observacao");
 
   public static Diaria mapDiaria(ResultSet rs) throws SQLException {
     return mapDiaria(rs, "diaria_");
   }
 
   public static Diaria mapDiaria(ResultSet rs, String prefix) throws SQLException {
-    LocalDate dataInicio =
-        rs.getDate(prefix + "data_inicio") != null
-            ? rs.getDate(prefix + "data_inicio").toLocalDate()
-            : null;
-
-    LocalDate dataFim =
-        rs.getDate(prefix + "data_fim") != null
-            ? rs.getDate(prefix + "data_fim").toLocalDate()
-            : null;
-
-    Float valorDiaria =
-        rs.getObject(prefix + "valor", Double.class) != null
-            ? rs.getObject(prefix + "valor", Double.class).floatValue()
-            : null;
-
-    Float total =
-        rs.getObject(prefix + "total", Double.class) != null
-            ? rs.getObject(prefix + "total", Double.class).floatValue()
-            : null;
-
-    Integer numeroDiaria = rs.getObject(prefix + "numero", Integer.class);
-
-    Integer quantidadePessoas = rs.getObject(prefix + "quantidade_pessoa", Integer.class);
-
-    String observacao = rs.getString(prefix + "observacao");
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    LocalDate dataInicio = linha.getLocalDate(DATA_INICIO);
+    LocalDate dataFim = linha.getLocalDate(DATA_FIM);
+    Float valorDiaria = linha.getFloatOuNulo(VALOR);
+    Float total = linha.getFloatOuNulo(TOTAL);
+    Integer numeroDiaria = linha.getIntegerOuNulo(NUMERO);
+    Integer quantidadePessoas = linha.getIntegerOuNulo(QUANTIDADE_PESSOA);
+    String observacao = linha.getString(OBSERVACAO);
 
     Quarto quarto = mapQuarto(rs);
 
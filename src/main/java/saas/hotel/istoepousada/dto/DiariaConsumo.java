@@ -9,21 +9,22 @@ import java.time.LocalDateTime;
 
 public record DiariaConsumo(
     Long id, LocalDateTime data_hora, Item item, Integer quantidade, TipoPagamento tipo_pagamento) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DATA_HORA = COLUNAS.coluna("data_hora");
+  private static final int QUANTIDADE = COLUNAS.coluna("quantidade");
 
   public static DiariaConsumo mapDiariaConsumo(ResultSet rs) throws SQLException {
     return mapDiariaConsumo(rs, "diaria_consumo_");
   }
 
   public static DiariaConsumo mapDiariaConsumo(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
     if (id == null) return null;
 
-    LocalDateTime dataHora =
-        rs.getTimestamp(prefix + "data_hora") != null
-            ? rs.getTimestamp(prefix + "data_hora").toLocalDateTime()
-            : null;
-
-    Integer quantidade = rs.getObject(prefix + "quantidade", Integer.class);
+    LocalDateTime dataHora = linha.getLocalDateTime(DATA_HORA);
+    Integer quantidade = linha.getIntegerOuNulo(QUANTIDADE);
 
     TipoPagamento tipoPagamento = mapTipoPagamento(rs, "tipo_pagamento_cons_");
 
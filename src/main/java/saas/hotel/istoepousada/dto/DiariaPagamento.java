@@ -8,6 +8,11 @@ import java.time.LocalDateTime;
 
 public record DiariaPagamento(
     Long id, String descricao, Float valor, LocalDateTime data_hora, TipoPagamento tipo_pagamento) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+  private static final int VALOR = COLUNAS.coluna("valor");
+  private static final int DATA_HORA = COLUNAS.coluna("data_hora");
 
   public static DiariaPagamento mapDiariaPagamento(ResultSet rs) throws SQLException {
     return mapDiariaPagamento(rs, "diaria_pagamento_");
@@ -15,19 +20,13 @@ public record DiariaPagamento(
 
   public static DiariaPagamento mapDiariaPagamento(ResultSet rs, String prefix)
       throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
     if (id == null) return null;
 
-    String descricao = rs.getString(prefix + "descricao");
-
-    Float valor = null;
-    Object v = rs.getObject(prefix + "valor");
-    if (v instanceof Number n) valor = n.floatValue();
-
-    LocalDateTime dataHora =
-        rs.getTimestamp(prefix + "data_hora") != null
-            ? rs.getTimestamp(prefix + "data_hora").toLocalDateTime()
-            : null;
+    String descricao = linha.getString(DESCRICAO);
+    Float valor = linha.getFloatOuNulo(VALOR);
+    LocalDateTime dataHora = linha.getLocalDateTime(DATA_HORA);
 
     // >>> AQUI: usar o mesmo prefixo do pagamento para o tipo de pagamento <<<
     TipoPagamento tipoPagamento = mapTipoPagamento(rs, prefix + "tipo_pagamento_");
@@ -0,0 +1,32 @@
+package saas.hotel.istoepousada.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Disponibilidade dos quartos num período")
+public record Disponibilidade(
+    @Schema(description = "Início do período (inclusivo)") @JsonFormat(pattern = "dd/MM/yyyy")
+        LocalDate inicio,
+    @Schema(description = "Fim do período (exclusivo, dia da saída)")
+        @JsonFormat(pattern = "dd/MM/yyyy")
+        LocalDate fim,
+    @Schema(description = "Quartos com capacidade para a quantidade de pessoas")
+        List<QuartoDisponibilidade> quartos) {
+
+  @Schema(description = "Disponibilidade de um quarto")
+  public record QuartoDisponibilidade(
+      @Schema(description = "Quarto") Quarto quarto,
+      @Schema(description = "Livre durante todo o período") boolean disponivel,
+      @Schema(description = "Ocupações que cruzam o período, recortadas a ele")
+          List<Periodo> ocupacoes) {}
+
+  @Schema(description = "Intervalo de datas [inicio, fim)")
+  public record Periodo(
+      @Schema(description = "Primeiro dia ocupado") @JsonFormat(pattern = "dd/MM/yyyy")
+          LocalDate inicio,
+      @Schema(description = "Dia em que o quarto volta a ficar livre")
+          @JsonFormat(pattern = "dd/MM/yyyy")
+          LocalDate fim) {}
+}
@@ -66,29 +66,48 @@ public record Empresa(
         newPessoas);
   }
 
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int RAZAO_SOCIAL = COLUNAS.coluna("razao_social");
+  private static final int NOME_FANTASIA = COLUNAS.coluna("nome_fantasia");
+  private static final int CNPJ = COLUNAS.coluna("cnpj");
+  private static final int TELEFONE = COLUNAS.coluna("telefone");
+  private static final int EMAIL = COLUNAS.coluna("email");
+  private static final int ENDERECO = COLUNAS.coluna("endereco");
+  private static final int CEP = COLUNAS.coluna("cep");
+  private static final int NUMERO = COLUNAS.coluna("numero");
+  private static final int COMPLEMENTO = COLUNAS.coluna("complemento");
+  private static final int PAIS = COLUNAS.coluna("pais");
+  private static final int ESTADO = COLUNAS.coluna("estado");
+  private static final int MUNICIPIO = COLUNAS.coluna("municipio");
+  private static final int BAIRRO = COLUNAS.coluna("bairro");
+  private static final int TIPO_EMPRESA = COLUNAS.coluna("tipo_empresa");
+  private static final int STATUS = COLUNAS.coluna("status");
+
   public static Empresa mapEmpresa(ResultSet rs) throws SQLException {
     return mapEmpresa(rs, "empresa_");
   }
 
   public static Empresa mapEmpresa(ResultSet rs, String prefix) throws SQLException {
-    String statusDb = rs.getString(prefix + "status");
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    String statusDb = linha.getString(STATUS);
     Empresa.Status status = statusDb != null ? Empresa.Status.valueOf(statusDb) : null;
     return new Empresa(
-        rs.getLong(prefix + "id"),
-        rs.getString(prefix + "razao_social"),
-        rs.getString(prefix + "nome_fantasia"),
-        rs.getString(prefix + "cnpj"),
-        rs.getString(prefix + "telefone"),
-        rs.getString(prefix + "email"),
-        rs.getString(prefix + "endereco"),
-        rs.getString(prefix + "cep"),
-        rs.getString(prefix + "numero"),
-        rs.getString(prefix + "complemento"),
-        rs.getString(prefix + "pais"),
-        rs.getString(prefix + "estado"),
-        rs.getString(prefix + "municipio"),
-        rs.getString(prefix + "bairro"),
-        rs.getString(prefix + "tipo_empresa"),
+        linha.getLong(ID),
+        linha.getString(RAZAO_SOCIAL),
+        linha.getString(NOME_FANTASIA),
+        linha.getString(CNPJ),
+        linha.getString(TELEFONE),
+        linha.getString(EMAIL),
+        linha.getString(ENDERECO),
+        linha.getString(CEP),
+        linha.getString(NUMERO),
+        linha.getString(COMPLEMENTO),
+        linha.getString(PAIS),
+        linha.getString(ESTADO),
+        linha.getString(MUNICIPIO),
+        linha.getString(BAIRRO),
+        linha.getString(TIPO_EMPRESA),
         status,
         List.of());
   }
@@ -27,6 +27,13 @@ public record Funcionario(
     return new Funcionario(this.id, this.pessoa, this.dataAdmissao, this.cargo, usuario);
   }
 
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DATA_ADMISSAO = COLUNAS.coluna("data_admissao");
+  private static final int USUARIO_ID = COLUNAS.coluna("usuario_id");
+  private static final int USUARIO_USERNAME = COLUNAS.coluna("usuario_username");
+  private static final int USUARIO_BLOQUEADO = COLUNAS.coluna("usuario_bloqueado");
+
   public static Funcionario mapFuncionario(ResultSet rs) throws SQLException {
     return mapFuncionario(rs, "");
   }
@@ -35,20 +42,21 @@ public record Funcionario(
     Pessoa pessoa = Pessoa.mapPessoa(rs, prefix + "pessoa_");
     Cargo cargo = Cargo.mapCargo(rs, prefix + "cargo_");
 
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
     Usuario.UsuarioResponse usuario = null;
-    Long usuarioId = rs.getObject(prefix + "usuario_id", Long.class);
+    Long usuarioId = linha.getLongOuNulo(USUARIO_ID);
     if (usuarioId != null && usuarioId > 0) {
       usuario =
           new Usuario.UsuarioResponse(
               usuarioId,
-              rs.getString(prefix + "usuario_username"),
-              rs.getBoolean(prefix + "usuario_bloqueado"));
+              linha.getString(USUARIO_USERNAME),
+              linha.getBoolean(USUARIO_BLOQUEADO));
     }
 
     return new Funcionario(
-        rs.getLong(prefix + "id"),
+        linha.getLong(ID),
         pessoa,
-        rs.getObject(prefix + "data_admissao", LocalDate.class),
+        linha.getObject(DATA_ADMISSAO, LocalDate.class),
         cargo,
         usuario);
   }
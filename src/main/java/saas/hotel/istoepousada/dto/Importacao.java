@@ -0,0 +1,108 @@
+package saas.hotel.istoepousada.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+@Schema(description = "Importação de pessoas/empresas/veículos por CSV")
+public record Importacao(
+    @Schema(description = "ID da importação") Long id,
+    @Schema(description = "Nome do arquivo enviado") String arquivo,
+    @Schema(description = "Situação da importação") Status status,
+    @Schema(description = "Etapa atual") Fase fase,
+    @Schema(description = "Bytes do arquivo já enviados ao banco (etapa CARREGANDO)")
+        Long bytesLidos,
+    @Schema(description = "Tamanho do arquivo em bytes") Long bytesTotal,
+    @Schema(description = "Linhas de dados no arquivo") Integer totalLinhas,
+    @Schema(description = "Linhas rejeitadas na validação") Integer linhasComErro,
+    @Schema(description = "Pessoas novas") Integer pessoasInseridas,
+    @Schema(description = "Pessoas já cadastradas (mesmo CPF) atualizadas")
+        Integer pessoasAtualizadas,
+    @Schema(description = "Empresas novas") Integer empresasInseridas,
+    @Schema(description = "Veículos novos") Integer veiculosInseridos,
+    @Schema(description = "Vínculos pessoa × empresa criados") Integer vinculosEmpresa,
+    @Schema(description = "Mensagem de erro quando a importação falha") String mensagem,
+    @Schema(description = "Início") @JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
+        LocalDateTime criadoEm,
+    @Schema(description = "Fim") @JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
+        LocalDateTime concluidoEm) {
+
+  public Importacao withBytesLidos(Long bytesLidos) {
+    return new Importacao(
+        id,
+        arquivo,
+        status,
+        fase,
+        bytesLidos,
+        bytesTotal,
+        totalLinhas,
+        linhasComErro,
+        pessoasInseridas,
+        pessoasAtualizadas,
+        empresasInseridas,
+        veiculosInseridos,
+        vinculosEmpresa,
+        mensagem,
+        criadoEm,
+        concluidoEm);
+  }
+
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int ARQUIVO = COLUNAS.coluna("arquivo");
+  private static final int STATUS = COLUNAS.coluna("status");
+  private static final int FASE = COLUNAS.coluna("fase");
+  private static final int BYTES_TOTAL = COLUNAS.coluna("bytes_total");
+  private static final int TOTAL_LINHAS = COLUNAS.coluna("total_linhas");
+  private static final int LINHAS_COM_ERRO = COLUNAS.coluna("linhas_com_erro");
+  private static final int PESSOAS_INSERIDAS = COLUNAS.coluna("pessoas_inseridas");
+  private static final int PESSOAS_ATUALIZADAS = COLUNAS.coluna("pessoas_atualizadas");
+  private static final int EMPRESAS_INSERIDAS = COLUNAS.coluna("empresas_inseridas");
+  private static final int VEICULOS_INSERIDOS = COLUNAS.coluna("veiculos_inseridos");
+  private static final int VINCULOS_EMPRESA = COLUNAS.coluna("vinculos_empresa");
+  private static final int MENSAGEM = COLUNAS.coluna("mensagem");
+  private static final int CRIADO_EM = COLUNAS.coluna("criado_em");
+  private static final int CONCLUIDO_EM = COLUNAS.coluna("concluido_em");
+
+  public static Importacao mapImportacao(ResultSet rs) throws SQLException {
+    Colunas.Linha linha = COLUNAS.linha(rs, "");
+    return new Importacao(
+        linha.getLong(ID),
+        linha.getString(ARQUIVO),
+        Status.valueOf(linha.getString(STATUS)),
+        Fase.valueOf(linha.getString(FASE)),
+        null,
+        linha.getLong(BYTES_TOTAL),
+        linha.getInt(TOTAL_LINHAS),
+        linha.getInt(LINHAS_COM_ERRO),
+        linha.getInt(PESSOAS_INSERIDAS),
+        linha.getInt(PESSOAS_ATUALIZADAS),
+        linha.getInt(EMPRESAS_INSERIDAS),
+        linha.getInt(VEICULOS_INSERIDOS),
+        linha.getInt(VINCULOS_EMPRESA),
+        linha.getString(MENSAGEM),
+        linha.getLocalDateTime(CRIADO_EM),
+        linha.getLocalDateTime(CONCLUIDO_EM));
+  }
+
+  public enum Status {
+    PROCESSANDO,
+    CONCLUIDO,
+    ERRO
+  }
+
+  public enum Fase {
+    RECEBIDO,
+    CARREGANDO,
+    VALIDANDO,
+    GRAVANDO,
+    FINALIZADO
+  }
+
+  @Schema(description = "Linha rejeitada na validação")
+  public record Erro(
+      @Schema(description = "Linha do arquivo (o cabeçalho é a linha 1)") Integer linha,
+      @Schema(description = "Motivo") String mensagem) {}
+}
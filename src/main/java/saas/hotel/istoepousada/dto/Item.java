@@ -8,21 +8,22 @@ import java.time.LocalDateTime;
 
 public record Item(
     Long id, String descricao, Categoria categoria, LocalDateTime data_hora_registro) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+  private static final int DATA_HORA_REGISTRO = COLUNAS.coluna("data_hora_registro");
 
   public static Item mapItem(ResultSet rs) throws SQLException {
     return mapItem(rs, "item_");
   }
 
   public static Item mapItem(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
     if (id == null) return null;
 
-    String descricao = rs.getString(prefix + "descricao");
-
-    LocalDateTime dh =
-        rs.getTimestamp(prefix + "data_hora_registro") != null
-            ? rs.getTimestamp(prefix + "data_hora_registro").toLocalDateTime()
-            : null;
+    String descricao = linha.getString(DESCRICAO);
+    LocalDateTime dh = linha.getLocalDateTime(DATA_HORA_REGISTRO);
 
     Categoria categoria = mapCategoria(rs, "categoria_item_");
 
@@ -3,7 +3,6 @@ package saas.hotel.istoepousada.dto;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
 import java.time.LocalDateTime;
 
 public record Notificacao(
@@ -12,15 +11,20 @@ public record Notificacao(
     String nome,
     String descricao,
     @JsonFormat(pattern = "dd/MM/yyyy HH:mm") LocalDateTime dataHora) {
-  public static Notificacao mapNotificacao(ResultSet rs) throws SQLException {
-    Timestamp ts = rs.getTimestamp("data_hora");
-    LocalDateTime dataHora = ts != null ? ts.toLocalDateTime() : null;
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int FK_PESSOA = COLUNAS.coluna("fk_pessoa");
+  private static final int NOME_PESSOA = COLUNAS.coluna("nome_pessoa");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+  private static final int DATA_HORA = COLUNAS.coluna("data_hora");
 
+  public static Notificacao mapNotificacao(ResultSet rs) throws SQLException {
+    Colunas.Linha linha = COLUNAS.linha(rs, "");
     return new Notificacao(
-        rs.getLong("id"),
-        rs.getLong("fk_pessoa"),
-        rs.getString("nome_pessoa"),
-        rs.getString("descricao"),
-        dataHora);
+        linha.getLong(ID),
+        linha.getLong(FK_PESSOA),
+        linha.getString(NOME_PESSOA),
+        linha.getString(DESCRICAO),
+        linha.getLocalDateTime(DATA_HORA));
   }
 }
@@ -1,8 +1,43 @@
 package saas.hotel.istoepousada.dto;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
 import org.springframework.jdbc.core.RowMapper;
 
 public record Objeto(Long id, String descricao) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+
   public static final RowMapper<Objeto> mapObjeto =
-      (rs, rowNum) -> new Objeto(rs.getLong("id"), rs.getString("descricao"));
+      (rs, rowNum) -> {
+        Colunas.Linha linha = COLUNAS.linha(rs, "");
+        return new Objeto(linha.getLong(ID), linha.getString(DESCRICAO));
+      };
+
+  /** Lista de combo pronta para resposta HTTP; o ETag já vem entre aspas. */
+  public record Lista(List<Objeto> itens, String etag) {
+    public static Lista de(List<Objeto> itens) {
+      return new Lista(List.copyOf(itens), Objeto.etag(List.of(itens)));
+    }
+  }
+
+  /** ETag forte (entre aspas) do conteúdo das listas: mesmas listas, mesmo ETag. */
+  public static String etag(List<List<Objeto>> listas) {
+    MessageDigest sha;
+    try {
+      sha = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    for (List<Objeto> lista : listas) {
+      for (Objeto o : lista)
+        sha.update((o.id() + "\t" + o.descricao() + "\n").getBytes(StandardCharsets.UTF_8));
+      sha.update((byte) 0);
+    }
+    return "\"" + HexFormat.of().formatHex(sha.digest(), 0, 16) + "\"";
+  }
 }
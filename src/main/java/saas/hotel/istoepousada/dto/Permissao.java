@@ -10,12 +10,18 @@ public record Permissao(
     @Schema(description = "Nome da permissão") String permissao,
     @Schema(description = "Descrição da permissão") String descricao,
     @Schema(description = "ID da tela") Long telaId) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int PERMISSAO = COLUNAS.coluna("permissao");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+  private static final int FK_TELA = COLUNAS.coluna("fk_tela");
 
   public static Permissao mapPermissao(ResultSet rs, String prefix) throws SQLException {
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
     return new Permissao(
-        rs.getLong(prefix + "id"),
-        rs.getString(prefix + "permissao"),
-        rs.getString(prefix + "descricao"),
-        rs.getLong(prefix + "fk_tela"));
+        linha.getLong(ID),
+        linha.getString(PERMISSAO),
+        linha.getString(DESCRICAO),
+        linha.getLong(FK_TELA));
   }
 }
@@ -15,41 +15,33 @@ public record Pernoite(
     LocalTime hora_saida,
     Float valot_total,
     Boolean ativo) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DATA_ENTRADA = COLUNAS.coluna("data_entrada");
+  private static final int DATA_SAIDA = COLUNAS.coluna("data_saida");
+  private static final int STATUS = COLUNAS.coluna("status");
+  private static final int HORA_CHEGADA = COLUNAS.coluna("hora_chegada");
+  private static final int HORA_SAIDA = COLUNAS.coluna("hora_saida");
+  private static final int VALOR_TOTAL = COLUNAS.coluna("valor_total");
+  private static final int ATIVO = COLUNAS.coluna("ativo");
 
   public static Pernoite mapPernoite(ResultSet rs) throws SQLException {
     return mapPernoite(rs, "pernoite_");
   }
 
   public static Pernoite mapPernoite(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
+    LocalDate dataEntrada = linha.getLocalDate(DATA_ENTRADA);
+    LocalDate dataSaida = linha.getLocalDate(DATA_SAIDA);
 
-    LocalDate dataEntrada =
-        rs.getDate(prefix + "data_entrada") != null
-            ? rs.getDate(prefix + "data_entrada").toLocalDate()
-            : null;
-
-    LocalDate dataSaida =
-        rs.getDate(prefix + "data_saida") != null
-            ? rs.getDate(prefix + "data_saida").toLocalDate()
-            : null;
-
-    String statusStr = rs.getString(prefix + "status");
+    String statusStr = linha.getString(STATUS);
     Pernoite.Status status = (statusStr == null) ? null : Pernoite.Status.valueOf(statusStr);
 
-    LocalTime horaChegada =
-        rs.getTime(prefix + "hora_chegada") != null
-            ? rs.getTime(prefix + "hora_chegada").toLocalTime()
-            : null;
-
-    LocalTime horaSaida =
-        rs.getTime(prefix + "hora_saida") != null
-            ? rs.getTime(prefix + "hora_saida").toLocalTime()
-            : null;
-
-    Double valorTotalDb = rs.getObject(prefix + "valor_total", Double.class);
-    Float valorTotal = valorTotalDb != null ? valorTotalDb.floatValue() : null;
-
-    Boolean ativo = rs.getObject(prefix + "ativo", Boolean.class);
+    LocalTime horaChegada = linha.getLocalTime(HORA_CHEGADA);
+    LocalTime horaSaida = linha.getLocalTime(HORA_SAIDA);
+    Float valorTotal = linha.getFloatOuNulo(VALOR_TOTAL);
+    Boolean ativo = linha.getBooleanOuNulo(ATIVO);
 
     return new Pernoite(
         id, dataEntrada, dataSaida, status, horaChegada, horaSaida, valorTotal, ativo);
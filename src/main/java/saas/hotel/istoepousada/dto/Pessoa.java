@@ -289,46 +289,70 @@ public record Pessoa(
         safe);
   }
 
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DATA_HORA_CADASTRO = COLUNAS.coluna("data_hora_cadastro");
+  private static final int NOME = COLUNAS.coluna("nome");
+  private static final int DATA_NASCIMENTO = COLUNAS.coluna("data_nascimento");
+  private static final int CPF = COLUNAS.coluna("cpf");
+  private static final int RG = COLUNAS.coluna("rg");
+  private static final int EMAIL = COLUNAS.coluna("email");
+  private static final int TELEFONE = COLUNAS.coluna("telefone");
+  private static final int PAIS = COLUNAS.coluna("pais");
+  private static final int ESTADO = COLUNAS.coluna("estado");
+  private static final int MUNICIPIO = COLUNAS.coluna("municipio");
+  private static final int ENDERECO = COLUNAS.coluna("endereco");
+  private static final int COMPLEMENTO = COLUNAS.coluna("complemento");
+  private static final int VEZES_HOSPEDADO = COLUNAS.coluna("vezes_hospedado");
+  private static final int CEP = COLUNAS.coluna("cep");
+  private static final int IDADE = COLUNAS.coluna("idade");
+  private static final int BAIRRO = COLUNAS.coluna("bairro");
+  private static final int SEXO = COLUNAS.coluna("sexo");
+  private static final int NUMERO = COLUNAS.coluna("numero");
+  private static final int STATUS = COLUNAS.coluna("status");
+  private static final int FK_FUNCIONARIO = COLUNAS.coluna("fk_funcionario");
+  private static final int FUNCIONARIO_NOME = COLUNAS.coluna("funcionario_nome");
+  private static final int FK_TITULAR = COLUNAS.coluna("fk_titular");
+  private static final int TITULAR_NOME = COLUNAS.coluna("titular_nome");
+
   public static Pessoa mapPessoa(ResultSet rs) throws SQLException {
     return mapPessoa(rs, "pessoa_");
   }
 
   public static Pessoa mapPessoa(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getLong(prefix + "id");
-    LocalDateTime dataHoraCadastro =
-        rs.getTimestamp(prefix + "data_hora_cadastro") != null
-            ? rs.getTimestamp(prefix + "data_hora_cadastro").toLocalDateTime()
-            : null;
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLong(ID);
+    LocalDateTime dataHoraCadastro = linha.getLocalDateTime(DATA_HORA_CADASTRO);
 
-    LocalDate dataNascimento = rs.getObject(prefix + "data_nascimento", LocalDate.class);
-    String statusDb = rs.getString(prefix + "status");
+    LocalDate dataNascimento = linha.getObject(DATA_NASCIMENTO, LocalDate.class);
+    String statusDb = linha.getString(STATUS);
     Status status = Status.fromDb(statusDb);
 
-    Long funcionarioId = rs.getObject(prefix + "fk_funcionario", Long.class);
-    String funcionarioNome = rs.getString(prefix + "funcionario_nome");
-    Long titularId = rs.getObject(prefix + "fk_titular", Long.class);
-    String titularNome = rs.getString(prefix + "titular_nome");
+    Long funcionarioId = linha.getLongOuNulo(FK_FUNCIONARIO);
+    String funcionarioNome = linha.getString(FUNCIONARIO_NOME);
+    Long titularId = linha.getLongOuNulo(FK_TITULAR);
+    String titularNome = linha.getString(TITULAR_NOME);
 
     return new Pessoa(
         id,
         dataHoraCadastro,
-        rs.getString(prefix + "nome"),
+        linha.getString(NOME),
         dataNascimento,
-        rs.getString(prefix + "cpf"),
-        rs.getString(prefix + "rg"),
-        rs.getString(prefix + "email"),
-        rs.getString(prefix + "telefone"),
-        rs.getString(prefix + "pais"),
-        rs.getString(prefix + "estado"),
-        rs.getString(prefix + "municipio"),
-        rs.getString(prefix + "endereco"),
-        rs.getString(prefix + "complemento"),
-        rs.getInt(prefix + "vezes_hospedado"),
-        rs.getString(prefix + "cep"),
-        rs.getObject(prefix + "idade", Integer.class),
-        rs.getString(prefix + "bairro"),
-        rs.getObject(prefix + "sexo", Integer.class),
-        rs.getString(prefix + "numero"),
+        linha.getString(CPF),
+        linha.getString(RG),
+        linha.getString(EMAIL),
+        linha.getString(TELEFONE),
+        linha.getString(PAIS),
+        linha.getString(ESTADO),
+        linha.getString(MUNICIPIO),
+        linha.getString(ENDERECO),
+        linha.getString(COMPLEMENTO),
+        linha.getInt(VEZES_HOSPEDADO),
+        linha.getString(CEP),
+        linha.getIntegerOuNulo(IDADE),
+        linha.getString(BAIRRO),
+        linha.getIntegerOuNulo(SEXO),
+        linha.getString(NUMERO),
         status,
         List.of(),
         List.of(),
@@ -0,0 +1,39 @@
+package saas.hotel.istoepousada.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+@Schema(description = "Página de pessoas paginada por cursor (keyset)")
+public record PessoaCursorPage(
+    @Schema(description = "Pessoas da página") List<Pessoa> content,
+    @Schema(description = "Cursor para a próxima página (null quando não há mais registros)")
+        String nextCursor,
+    @Schema(description = "Tamanho da página solicitado") Integer size,
+    @Schema(description = "Total de registros (somente quando contar=true)") Long totalElements) {
+
+  /** Posição (nome, id) da última pessoa retornada. Serializada como token opaco. */
+  public record Cursor(String nome, Long id) {
+
+    public String encode() {
+      String raw = id + ":" + (nome == null ? "" : nome);
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+      if (token == null || token.isBlank()) return null;
+      try {
+        String raw =
+            new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        int sep = raw.indexOf(':');
+        if (sep <= 0) throw new IllegalArgumentException("Cursor inválido.");
+        return new Cursor(raw.substring(sep + 1), Long.parseLong(raw.substring(0, sep)));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Cursor inválido.", e);
+      }
+    }
+  }
+}
@@ -13,23 +13,34 @@ public record Quarto(
     Integer qtd_cama_solteiro,
     Integer qtd_rede,
     Integer qtd_beliche) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
+  private static final int QTD_PESSOAS = COLUNAS.coluna("qtd_pessoas");
+  private static final int STATUS = COLUNAS.coluna("status");
+  private static final int QTD_CAMA_CASAL = COLUNAS.coluna("qtd_cama_casal");
+  private static final int QTD_CAMA_SOLTEIRO = COLUNAS.coluna("qtd_cama_solteiro");
+  private static final int QTD_REDE = COLUNAS.coluna("qtd_rede");
+  private static final int QTD_BELICHE = COLUNAS.coluna("qtd_beliche");
+
   public static Quarto mapQuarto(ResultSet rs) throws SQLException {
     return mapQuarto(rs, "quarto_");
   }
 
   public static Quarto mapQuarto(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
-    String descricao = rs.getString(prefix + "descricao");
-    Integer qtdPessoas = rs.getObject(prefix + "qtd_pessoas", Integer.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
+    String descricao = linha.getString(DESCRICAO);
+    Integer qtdPessoas = linha.getIntegerOuNulo(QTD_PESSOAS);
 
-    String statusDb = rs.getString(prefix + "status");
+    String statusDb = linha.getString(STATUS);
     StatusQuarto status =
         (statusDb == null || statusDb.isBlank()) ? null : StatusQuarto.valueOf(statusDb);
 
-    Integer camaCasal = rs.getObject(prefix + "qtd_cama_casal", Integer.class);
-    Integer camaSolteiro = rs.getObject(prefix + "qtd_cama_solteiro", Integer.class);
-    Integer rede = rs.getObject(prefix + "qtd_rede", Integer.class);
-    Integer beliche = rs.getObject(prefix + "qtd_beliche", Integer.class);
+    Integer camaCasal = linha.getIntegerOuNulo(QTD_CAMA_CASAL);
+    Integer camaSolteiro = linha.getIntegerOuNulo(QTD_CAMA_SOLTEIRO);
+    Integer rede = linha.getIntegerOuNulo(QTD_REDE);
+    Integer beliche = linha.getIntegerOuNulo(QTD_BELICHE);
 
     return new Quarto(id, descricao, qtdPessoas, status, camaCasal, camaSolteiro, rede, beliche);
   }
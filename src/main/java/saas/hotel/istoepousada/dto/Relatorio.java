@@ -32,24 +32,30 @@ public record Relatorio(
         this.quartoDescricao);
   }
 
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int RELATORIO_ID = COLUNAS.coluna("relatorio_id");
+  private static final int DATA_HORA = COLUNAS.coluna("data_hora");
+  private static final int RELATORIO = COLUNAS.coluna("relatorio");
+  private static final int VALOR = COLUNAS.coluna("valor");
+  private static final int TIPO_PAGAMENTO_ID = COLUNAS.coluna("tipo_pagamento_id");
+  private static final int TIPO_PAGAMENTO_DESCRICAO = COLUNAS.coluna("tipo_pagamento_descricao");
+  private static final int QUARTO_ID = COLUNAS.coluna("quarto_id");
+  private static final int QUARTO_DESCRICAO = COLUNAS.coluna("quarto_descricao");
+
   public static Relatorio mapRelatorio(ResultSet rs) throws SQLException {
     Pessoa funcionario = Pessoa.mapPessoa(rs, "funcionario_");
 
-    LocalDateTime dataHora =
-        rs.getTimestamp("data_hora") != null
-            ? rs.getTimestamp("data_hora").toLocalDateTime()
-            : null;
-
+    Colunas.Linha linha = COLUNAS.linha(rs, "");
     return new Relatorio(
-        rs.getLong("relatorio_id"),
-        dataHora,
-        rs.getString("relatorio"),
-        rs.getObject("valor", Double.class),
+        linha.getLong(RELATORIO_ID),
+        linha.getLocalDateTime(DATA_HORA),
+        linha.getString(RELATORIO),
+        linha.getDoubleOuNulo(VALOR),
         funcionario,
-        rs.getObject("tipo_pagamento_id", Long.class),
-        rs.getString("tipo_pagamento_descricao"),
-        rs.getObject("quarto_id", Long.class),
-        rs.getString("quarto_descricao"));
+        linha.getLongOuNulo(TIPO_PAGAMENTO_ID),
+        linha.getString(TIPO_PAGAMENTO_DESCRICAO),
+        linha.getLongOuNulo(QUARTO_ID),
+        linha.getString(QUARTO_DESCRICAO));
   }
 
   @Schema(description = "Request para criar/atualizar relatório")
@@ -66,4 +72,9 @@ public record Relatorio(
     ENTRADA,
     SAIDA
   }
+
+  public enum Formato {
+    CSV,
+    XLSX
+  }
 }
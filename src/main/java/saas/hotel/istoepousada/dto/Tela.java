@@ -12,6 +12,10 @@ public record Tela(
     @Schema(description = "Nome da tela", example = "DASHBOARD") String nome,
     @Schema(description = "Descrição da tela") String descricao,
     @Schema(description = "Permissões granulares dentro da tela") List<Permissao> permissoes) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int NOME = COLUNAS.coluna("nome");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
 
   public Tela(Long id, String nome, String descricao) {
     this(id, nome, descricao, List.of());
@@ -23,10 +27,8 @@ public record Tela(
   }
 
   public static Tela mapTela(ResultSet rs, String prefix) throws SQLException {
-    return new Tela(
-        rs.getLong(prefix + "id"),
-        rs.getString(prefix + "nome"),
-        rs.getString(prefix + "descricao"));
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    return new Tela(linha.getLong(ID), linha.getString(NOME), linha.getString(DESCRICAO));
   }
 
   @Override
@@ -4,16 +4,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public record TipoPagamento(Long id, String descricao) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int DESCRICAO = COLUNAS.coluna("descricao");
 
   public static TipoPagamento mapTipoPagamento(ResultSet rs) throws SQLException {
     return mapTipoPagamento(rs, "tipo_pagamento_");
   }
 
   public static TipoPagamento mapTipoPagamento(ResultSet rs, String prefix) throws SQLException {
-    Long id = rs.getObject(prefix + "id", Long.class);
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
+    Long id = linha.getLongOuNulo(ID);
     if (id == null) return null;
-    String descricao = rs.getString(prefix + "descricao");
-    return new TipoPagamento(id, descricao);
+    return new TipoPagamento(id, linha.getString(DESCRICAO));
   }
 
   public enum StatusPagamento {
@@ -0,0 +1,8 @@
+package saas.hotel.istoepousada.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Token curto para abrir o stream de notificações (parâmetro token da URL)")
+public record TokenStream(
+    @Schema(description = "Token JWT válido só para /notificacoes/stream") String token,
+    @Schema(description = "Validade do token em segundos", example = "60") long expiraEmSegundos) {}
@@ -36,16 +36,23 @@ public record Usuario(
     return new Usuario(this.id, this.username, this.senha, bloqueado);
   }
 
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int USERNAME = COLUNAS.coluna("username");
+  private static final int SENHA = COLUNAS.coluna("senha");
+  private static final int BLOQUEADO = COLUNAS.coluna("bloqueado");
+
   public static Usuario mapUsuario(ResultSet rs) throws SQLException {
     return mapUsuario(rs, "");
   }
 
   public static Usuario mapUsuario(ResultSet rs, String prefix) throws SQLException {
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
     return new Usuario(
-        rs.getLong(prefix + "id"),
-        rs.getString(prefix + "username"),
-        rs.getString(prefix + "senha"),
-        rs.getBoolean(prefix + "bloqueado"));
+        linha.getLong(ID),
+        linha.getString(USERNAME),
+        linha.getString(SENHA),
+        linha.getBoolean(BLOQUEADO));
   }
 
   @Schema(description = "Resposta sem a senha (para segurança)")
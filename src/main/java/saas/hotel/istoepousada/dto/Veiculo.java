@@ -4,27 +4,30 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public record Veiculo(Long id, String modelo, String marca, Integer ano, String placa, String cor) {
+  private static final Colunas COLUNAS = new Colunas();
+  private static final int ID = COLUNAS.coluna("id");
+  private static final int MODELO = COLUNAS.coluna("modelo");
+  private static final int MARCA = COLUNAS.coluna("marca");
+  private static final int ANO = COLUNAS.coluna("ano");
+  private static final int PLACA = COLUNAS.coluna("placa");
+  private static final int COR = COLUNAS.coluna("cor");
+
   public Veiculo withId(Long id) {
     return new Veiculo(id, modelo, marca, ano, placa, cor);
   }
 
   public static Veiculo mapVeiculo(java.sql.ResultSet rs) throws java.sql.SQLException {
-    return new Veiculo(
-        rs.getLong("id"),
-        rs.getString("modelo"),
-        rs.getString("marca"),
-        rs.getObject("ano", Integer.class),
-        rs.getString("placa"),
-        rs.getString("cor"));
+    return mapVeiculo(rs, "");
   }
 
   public static Veiculo mapVeiculo(ResultSet rs, String prefix) throws SQLException {
+    Colunas.Linha linha = COLUNAS.linha(rs, prefix);
     return new Veiculo(
-        rs.getLong(prefix + "id"),
-        rs.getString(prefix + "modelo"),
-        rs.getString(prefix + "marca"),
-        rs.getObject(prefix + "ano", Integer.class),
-        rs.getString(prefix + "placa"),
-        rs.getString(prefix + "cor"));
+        linha.getLong(ID),
+        linha.getString(MODELO),
+        linha.getString(MARCA),
+        linha.getIntegerOuNulo(ANO),
+        linha.getString(PLACA),
+        linha.getString(COR));
   }
 }
@@ -5,7 +5,10 @@ import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.BadSqlGrammarException;
@@ -17,6 +20,8 @@ import saas.hotel.istoepousada.handler.exceptions.*;
 @ControllerAdvice
 @Order(HIGHEST_PRECEDENCE)
 public class ResourceExceptionHandler {
+  private static final Logger log = LoggerFactory.getLogger(ResourceExceptionHandler.class);
+
   static final String INTERNAL_SERVER_ERROR = "Erro interno no servidor";
   static final String BAD_SQL_GRAMAR = "SQL COM ERRO DE SINTAXE.";
   static final String UNAUTHORIZED = "Não autorizado";
@@ -37,7 +42,7 @@ public class ResourceExceptionHandler {
             NOT_FOUND,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
     return ResponseEntity.status(HttpStatus.NOT_FOUND.value()).body(error);
   }
 
@@ -51,7 +56,7 @@ public class ResourceExceptionHandler {
             UNAUTHORIZED,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
     return ResponseEntity.status(HttpStatus.UNAUTHORIZED.value()).body(error);
   }
 
@@ -65,7 +70,7 @@ public class ResourceExceptionHandler {
             CONFLICT,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
     return ResponseEntity.status(HttpStatus.CONFLICT.value()).body(error);
   }
 
@@ -79,8 +84,12 @@ public class ResourceExceptionHandler {
             UNAVAIABLE,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
-    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value()).body(error);
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+    var response = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE.value());
+    if (e.getRetryAfter() != null)
+      response.header(
+          HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())));
+    return response.body(error);
   }
 
   @ExceptionHandler(TimeOutException.class)
@@ -93,7 +102,7 @@ public class ResourceExceptionHandler {
             TIME_OUT,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
     return ResponseEntity.status(HttpStatus.REQUEST_TIMEOUT.value()).body(error);
   }
 
@@ -107,7 +116,7 @@ public class ResourceExceptionHandler {
             ARGUMENTO_INVALIDO,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
     return ResponseEntity.status(HttpStatus.BAD_REQUEST.value()).body(error);
   }
 
@@ -121,7 +130,7 @@ public class ResourceExceptionHandler {
             INTERNAL_SERVER_ERROR,
             BAD_SQL_GRAMAR + " " + Objects.requireNonNull(e.getSQLException()).getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.error("{} {}", request.getMethod(), request.getRequestURI(), e);
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(error);
   }
 
@@ -135,7 +144,7 @@ public class ResourceExceptionHandler {
             NULL_POINTER,
             e.getMessage(),
             request.getRequestURI());
-    e.printStackTrace();
+    log.error("{} {}", request.getMethod(), request.getRequestURI(), e);
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR.value()).body(error);
   }
 
@@ -1,11 +1,32 @@
 package saas.hotel.istoepousada.handler.exceptions;
 
+import java.time.Duration;
+
 public class UnavaiableException extends RuntimeException {
+  /** Enviado no cabeçalho {@code Retry-After}, quando informado. */
+  private final Duration retryAfter;
+
   public UnavaiableException(String message) {
     super(message);
+    this.retryAfter = null;
   }
 
   public UnavaiableException(String message, Throwable cause) {
     super(message, cause);
+    this.retryAfter = null;
+  }
+
+  public UnavaiableException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public UnavaiableException(String message, Throwable cause, Duration retryAfter) {
+    super(message, cause);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
   }
 }
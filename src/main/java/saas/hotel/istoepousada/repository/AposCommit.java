@@ -0,0 +1,24 @@
+package saas.hotel.istoepousada.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidação de cache que roda na hora e de novo depois do commit da transação corrente, para que
+ * uma leitura concorrente feita antes do commit não devolva ao cache a versão anterior.
+ */
+final class AposCommit {
+  private AposCommit() {}
+
+  static void agoraEAposCommit(Runnable invalidacao) {
+    invalidacao.run();
+    if (TransactionSynchronizationManager.isSynchronizationActive())
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              invalidacao.run();
+            }
+          });
+  }
+}
@@ -24,11 +24,17 @@ import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 public class CargoRepository {
 
   private final JdbcTemplate jdbcTemplate;
+  private final CatalogoCache catalogoCache;
 
-  public CargoRepository(JdbcTemplate jdbcTemplate) {
+  public CargoRepository(JdbcTemplate jdbcTemplate, CatalogoCache catalogoCache) {
     this.jdbcTemplate = jdbcTemplate;
+    this.catalogoCache = catalogoCache;
   }
 
+  /**
+   * Uma linha por (cargo, tela, permissão). A permissão só entra na linha da própria tela e quando
+   * está vinculada ao cargo, então o grafo inteiro é montado a partir deste único SELECT.
+   */
   private static final String SELECT_WITH_TELAS_PERMISSOES =
       """
                 SELECT
@@ -44,84 +50,64 @@ public class CargoRepository {
                 FROM cargo c
                 LEFT JOIN cargo_tela ct ON ct.cargo_id = c.id
                 LEFT JOIN tela t ON t.id = ct.tela_id
-                LEFT JOIN cargo_permissao cp ON cp.fk_cargo = c.id
-                LEFT JOIN permissao p ON p.id = cp.fk_permissao AND p.fk_tela = t.id
+                LEFT JOIN permissao p
+                  ON p.fk_tela = t.id
+                 AND EXISTS (
+                   SELECT 1 FROM cargo_permissao cp
+                   WHERE cp.fk_cargo = c.id AND cp.fk_permissao = p.id
+                 )
                 """;
 
-  private final ResultSetExtractor<List<Cargo>> CARGO_WITH_TELAS_PERMISSOES_EXTRACTOR =
+  private static final ResultSetExtractor<List<Cargo>> CARGO_WITH_TELAS_PERMISSOES_EXTRACTOR =
       rs -> {
         Map<Long, Cargo> cargoMap = new LinkedHashMap<>();
         Map<Long, Map<Long, Tela>> telasPorCargo = new HashMap<>();
-        Map<Long, Set<Long>> permissoesPorTela = new HashMap<>();
+        Map<Long, Map<Long, Map<Long, Permissao>>> permissoesPorCargoTela = new HashMap<>();
 
         while (rs.next()) {
           Long cargoId = rs.getLong("cargo_id");
 
           if (!cargoMap.containsKey(cargoId)) {
-            Cargo cargo = mapCargo(rs, "cargo_");
-            cargoMap.put(cargoId, cargo);
+            cargoMap.put(cargoId, mapCargo(rs, "cargo_"));
             telasPorCargo.put(cargoId, new LinkedHashMap<>());
+            permissoesPorCargoTela.put(cargoId, new HashMap<>());
           }
 
-          Long telaId = rs.getLong("tela_id");
-          if (!rs.wasNull() && telaId != null && telaId > 0) {
-            Map<Long, Tela> telasMap = telasPorCargo.get(cargoId);
-
-            if (!telasMap.containsKey(telaId)) {
-              Tela tela = Tela.mapTela(rs, "tela_");
-              telasMap.put(telaId, tela);
-              permissoesPorTela.put(telaId, new HashSet<>());
-            }
-
-            Long permissaoId = rs.getLong("permissao_id");
-            if (!rs.wasNull() && permissaoId != null && permissaoId > 0) {
-              Long permissaoTelaId = rs.getLong("permissao_fk_tela");
-              if (permissaoTelaId.equals(telaId)) {
-                permissoesPorTela.get(telaId).add(permissaoId);
-              }
-            }
+          long telaId = rs.getLong("tela_id");
+          if (rs.wasNull() || telaId <= 0) continue;
+
+          Map<Long, Tela> telasMap = telasPorCargo.get(cargoId);
+          Map<Long, Map<Long, Permissao>> permissoesPorTela = permissoesPorCargoTela.get(cargoId);
+          if (!telasMap.containsKey(telaId)) {
+            telasMap.put(telaId, Tela.mapTela(rs, "tela_"));
+            permissoesPorTela.put(telaId, new LinkedHashMap<>());
           }
+
+          long permissaoId = rs.getLong("permissao_id");
+          if (rs.wasNull() || permissaoId <= 0) continue;
+
+          Map<Long, Permissao> permissoes = permissoesPorTela.get(telaId);
+          if (!permissoes.containsKey(permissaoId))
+            permissoes.put(permissaoId, Permissao.mapPermissao(rs, "permissao_"));
         }
 
-        List<Cargo> result = new ArrayList<>();
+        List<Cargo> result = new ArrayList<>(cargoMap.size());
         for (Map.Entry<Long, Cargo> entry : cargoMap.entrySet()) {
           Long cargoId = entry.getKey();
-          Cargo cargo = entry.getValue();
-          Map<Long, Tela> telasMap = telasPorCargo.get(cargoId);
+          Map<Long, Map<Long, Permissao>> permissoesPorTela = permissoesPorCargoTela.get(cargoId);
 
           List<Tela> telas = new ArrayList<>();
-          for (Map.Entry<Long, Tela> telaEntry : telasMap.entrySet()) {
-            Long telaId = telaEntry.getKey();
-            Tela tela = telaEntry.getValue();
-
-            List<Permissao> permissoes = buscarPermissoesPorCargoTela(cargoId, telaId);
+          for (Tela tela : telasPorCargo.get(cargoId).values()) {
+            List<Permissao> permissoes = new ArrayList<>(permissoesPorTela.get(tela.id()).values());
             telas.add(tela.withPermissoes(permissoes));
           }
 
-          result.add(cargo.withTelas(telas));
+          result.add(entry.getValue().withTelas(telas));
         }
 
         return result;
       };
 
-  private List<Permissao> buscarPermissoesPorCargoTela(Long cargoId, Long telaId) {
-    String sql =
-        """
-                SELECT
-                  p.id          AS permissao_id,
-                  p.permissao   AS permissao_permissao,
-                  p.descricao   AS permissao_descricao,
-                  p.fk_tela     AS permissao_fk_tela
-                FROM cargo_permissao cp
-                INNER JOIN permissao p ON p.id = cp.fk_permissao
-                WHERE cp.fk_cargo = ? AND p.fk_tela = ?
-                ORDER BY p.permissao
-                """;
-
-    return jdbcTemplate.query(
-        sql, (rs, rowNum) -> Permissao.mapPermissao(rs, "permissao_"), cargoId, telaId);
-  }
-
   public Page<Cargo> buscarCargoPorIdOuNome(
       Long id, String termo, Long pessoaId, Pageable pageable) {
     boolean hasId = id != null;
@@ -180,18 +166,15 @@ public class CargoRepository {
 
     if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
 
-    String inPlaceholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-
     String pageSql =
-        (SELECT_WITH_TELAS_PERMISSOES
-                + """
-      WHERE c.id IN (%s)
+        SELECT_WITH_TELAS_PERMISSOES
+            + """
+      WHERE c.id = ANY(?)
       ORDER BY c.cargo, t.nome, p.permissao
-      """)
-            .formatted(inPlaceholders);
+      """;
 
     List<Cargo> content =
-        jdbcTemplate.query(pageSql, CARGO_WITH_TELAS_PERMISSOES_EXTRACTOR, ids.toArray());
+        jdbcTemplate.query(pageSql, CARGO_WITH_TELAS_PERMISSOES_EXTRACTOR, SqlArray.ids(ids));
     return new PageImpl<>(Objects.requireNonNull(content), pageable, total);
   }
 
@@ -228,6 +211,7 @@ public class CargoRepository {
         keyHolder.getKeys() != null && keyHolder.getKeys().containsKey("id")
             ? ((Number) keyHolder.getKeys().get("id")).longValue()
             : null;
+    catalogoCache.invalidar();
 
     if (cargo.telasIds() != null && !cargo.telasIds().isEmpty()) {
       vincularCargoTelas(generatedId, cargo.telasIds(), true);
@@ -246,6 +230,7 @@ public class CargoRepository {
         jdbcTemplate.update(
             "UPDATE cargo SET cargo = ? WHERE id = ?", cargo.descricao().trim(), cargo.id());
     if (rows == 0) throw new NotFoundException("Cargo não cadastrado para o id: " + cargo.id());
+    catalogoCache.invalidar();
 
     if (cargo.telasIds() != null) {
       jdbcTemplate.update("DELETE FROM cargo_tela WHERE cargo_id = ?", cargo.id());
@@ -271,6 +256,7 @@ public class CargoRepository {
     jdbcTemplate.update("DELETE FROM cargo_tela WHERE cargo_id = ?", id);
     jdbcTemplate.update("DELETE FROM cargo_permissao WHERE fk_cargo = ?", id);
     jdbcTemplate.update("DELETE FROM cargo WHERE id = ?", id);
+    catalogoCache.invalidar();
   }
 
   @Transactional
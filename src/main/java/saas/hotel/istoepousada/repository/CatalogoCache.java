@@ -0,0 +1,123 @@
+package saas.hotel.istoepousada.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.Objeto;
+import saas.hotel.istoepousada.dto.Objeto.Lista;
+
+/**
+ * Tabelas de combo (tipo_pagamento, tela, permissao, cargo) em memória, com número de versão.
+ *
+ * <p>{@link #invalidar()} avança a versão (na hora e de novo após o commit); a leitura seguinte
+ * recarrega as quatro tabelas se a cópia for de uma versão anterior. Cada lista tem um ETag do
+ * conteúdo, então uma escrita que não muda a lista não invalida o cache do navegador.
+ *
+ * <p>A versão é local: uma escrita feita em outra instância, ou direto no banco, aparece aqui
+ * depois de {@code catalogo.cache.ttl-segundos} ou de {@link #invalidar()} (recarga pelo admin).
+ */
+@Component
+public class CatalogoCache {
+  private final ObjectRepository objectRepository;
+  private final long ttlNanos;
+  private final AtomicLong versao = new AtomicLong();
+  private final ReentrantLock recarga = new ReentrantLock();
+  private volatile Carga atual;
+
+  private record Carga(long versao, long carregadaEm, Catalogo completo, Catalogo semAdmin) {}
+
+  /**
+   * {@code etag} cobre todas as listas presentes (endpoint de bootstrap); na variante sem acesso à
+   * tela ADMIN só há tipos de pagamento.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public record Catalogo(
+      long versao,
+      String etag,
+      Lista tiposPagamento,
+      Lista telas,
+      Map<Long, Lista> permissoesPorTela,
+      Lista cargos) {
+    private static final Lista SEM_PERMISSOES = Lista.de(List.of());
+
+    public Lista permissoes(Long telaId) {
+      if (permissoesPorTela == null) return SEM_PERMISSOES;
+      return permissoesPorTela.getOrDefault(telaId, SEM_PERMISSOES);
+    }
+  }
+
+  public CatalogoCache(
+      ObjectRepository objectRepository,
+      @Value("${catalogo.cache.ttl-segundos:300}") long ttlSegundos) {
+    this.objectRepository = objectRepository;
+    this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+  }
+
+  public Catalogo get() {
+    return carga().completo();
+  }
+
+  /** Só os tipos de pagamento, com ETag próprio: o catálogo de quem não tem a tela ADMIN. */
+  public Catalogo semAdmin() {
+    return carga().semAdmin();
+  }
+
+  /** Chamado pelas escritas em cargo e pela recarga manual. */
+  public void invalidar() {
+    AposCommit.agoraEAposCommit(versao::incrementAndGet);
+  }
+
+  private Carga carga() {
+    Carga c = atual;
+    if (valida(c)) return c;
+    recarga.lock();
+    try {
+      if (!valida(atual)) atual = carregar(versao.get());
+      return atual;
+    } finally {
+      recarga.unlock();
+    }
+  }
+
+  private boolean valida(Carga c) {
+    return c != null
+        && c.versao() == versao.get()
+        && System.nanoTime() - c.carregadaEm() < ttlNanos;
+  }
+
+  private Carga carregar(long v) {
+    List<Objeto> tiposPagamento = objectRepository.tipoPagamento();
+    List<Objeto> telas = objectRepository.telas();
+    Map<Long, List<Objeto>> permissoes = objectRepository.permissoesPorTela();
+    List<Objeto> cargos = objectRepository.cargos();
+
+    List<List<Objeto>> todas = new ArrayList<>(List.of(tiposPagamento, telas, cargos));
+    Map<Long, Lista> permissoesPorTela = new HashMap<>();
+    permissoes.forEach(
+        (telaId, itens) -> {
+          permissoesPorTela.put(telaId, Lista.de(itens));
+          todas.add(List.of(new Objeto(telaId, null)));
+          todas.add(itens);
+        });
+
+    Lista tipos = Lista.de(tiposPagamento);
+    Catalogo completo =
+        new Catalogo(
+            v,
+            Objeto.etag(todas),
+            tipos,
+            Lista.de(telas),
+            Map.copyOf(permissoesPorTela),
+            Lista.de(cargos));
+    Catalogo semAdmin =
+        new Catalogo(v, Objeto.etag(List.of(tiposPagamento)), tipos, null, null, null);
+    return new Carga(v, System.nanoTime(), completo, semAdmin);
+  }
+}
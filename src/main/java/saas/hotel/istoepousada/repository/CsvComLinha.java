@@ -0,0 +1,98 @@
+package saas.hotel.istoepousada.repository;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * CSV com o número da linha física em que cada registro começa acrescentado como última coluna,
+ * para a staging guardar a linha que o usuário vê no editor. Um campo entre aspas pode ter quebras
+ * de linha, então o registro N não está na linha N + 1. {@code \r\n} e {@code \r} contam como uma
+ * quebra; linhas vazias passam sem número.
+ */
+final class CsvComLinha extends Reader {
+  private final Reader origem;
+  private final char delimitador;
+  private final char[] entrada = new char[8192];
+  private final StringBuilder saida = new StringBuilder();
+  private int entregues;
+  private boolean fim;
+
+  private int linha;
+  private int inicioRegistro;
+  private boolean registroVazio = true;
+  private boolean entreAspas;
+  private boolean depoisDeCr;
+
+  /** {@code primeiraLinha}: linha física do primeiro caractere de {@code origem}. */
+  CsvComLinha(Reader origem, char delimitador, int primeiraLinha) {
+    this.origem = origem;
+    this.delimitador = delimitador;
+    this.linha = primeiraLinha;
+    this.inicioRegistro = primeiraLinha;
+  }
+
+  @Override
+  public int read(char[] destino, int off, int len) throws IOException {
+    if (len == 0) return 0;
+    while (entregues == saida.length()) {
+      if (fim) return -1;
+      saida.setLength(0);
+      entregues = 0;
+      int lidos = origem.read(entrada);
+      if (lidos < 0) {
+        fim = true;
+        if (!registroVazio) terminarRegistro();
+      } else {
+        for (int i = 0; i < lidos; i++) processar(entrada[i]);
+      }
+    }
+    int n = Math.min(len, saida.length() - entregues);
+    saida.getChars(entregues, entregues + n, destino, off);
+    entregues += n;
+    return n;
+  }
+
+  private void processar(char c) {
+    if (depoisDeCr) {
+      depoisDeCr = false;
+      if (c == '\n') {
+        if (entreAspas) saida.append(c);
+        return;
+      }
+    }
+
+    if (entreAspas) {
+      saida.append(c);
+      if (c == '"') entreAspas = false;
+      else if (c == '\n') linha++;
+      else if (c == '\r') {
+        linha++;
+        depoisDeCr = true;
+      }
+      return;
+    }
+
+    if (c == '\n' || c == '\r') {
+      if (!registroVazio) terminarRegistro();
+      else saida.append('\n');
+      linha++;
+      inicioRegistro = linha;
+      depoisDeCr = c == '\r';
+      return;
+    }
+
+    saida.append(c);
+    registroVazio = false;
+    if (c == '"') entreAspas = true;
+  }
+
+  private void terminarRegistro() {
+    saida.append(delimitador).append(inicioRegistro).append('\n');
+    registroVazio = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    origem.close();
+  }
+}
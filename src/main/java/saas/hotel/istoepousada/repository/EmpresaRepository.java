@@ -23,9 +23,11 @@ import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 @Repository
 public class EmpresaRepository {
   private final JdbcTemplate jdbcTemplate;
+  private final PessoaCache pessoaCache;
 
-  public EmpresaRepository(JdbcTemplate jdbcTemplate) {
+  public EmpresaRepository(JdbcTemplate jdbcTemplate, PessoaCache pessoaCache) {
     this.jdbcTemplate = jdbcTemplate;
+    this.pessoaCache = pessoaCache;
   }
 
   private final ResultSetExtractor<List<Empresa>> EMPRESA_COM_PESSOAS_EXTRACTOR =
@@ -158,18 +160,15 @@ public class EmpresaRepository {
 
     if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
 
-    String inPlaceholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-
     String pageSql =
-        (baseSelect
-                + """
-        WHERE e.id IN (%s)
+        baseSelect
+            + """
+        WHERE e.id = ANY(?)
         ORDER BY e.razao_social, p.nome
-        """)
-            .formatted(inPlaceholders);
+        """;
 
     List<Empresa> content =
-        jdbcTemplate.query(pageSql, EMPRESA_COM_PESSOAS_EXTRACTOR, ids.toArray());
+        jdbcTemplate.query(pageSql, EMPRESA_COM_PESSOAS_EXTRACTOR, SqlArray.ids(ids));
     return new PageImpl<>(Objects.requireNonNull(content), pageable, total);
   }
 
@@ -281,6 +280,7 @@ public class EmpresaRepository {
         empresa.tipoEmpresa(),
         status,
         empresa.id());
+    pessoaCache.invalidarEmpresa(empresa.id());
   }
 
   @Transactional
@@ -291,5 +291,6 @@ public class EmpresaRepository {
             ? "INSERT INTO empresa_pessoa (fk_empresa, fk_pessoa) VALUES (?, ?) ON CONFLICT DO NOTHING"
             : "DELETE FROM empresa_pessoa WHERE fk_empresa = ? AND fk_pessoa = ?";
     jdbcTemplate.update(sql, empresaId, pessoaId);
+    pessoaCache.invalidarPessoas(Collections.singletonList(pessoaId));
   }
 }
@@ -245,11 +245,10 @@ public class FuncionarioRepository {
 
     if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
 
-    String inPlaceholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-    String pageSql =
-        baseSelect + " WHERE f.id IN (" + inPlaceholders + ") " + " ORDER BY p.nome ASC";
+    String pageSql = baseSelect + " WHERE f.id = ANY(?) ORDER BY p.nome ASC";
 
-    List<Funcionario> content = jdbcTemplate.query(pageSql, FUNCIONARIO_EXTRACTOR, ids.toArray());
+    List<Funcionario> content =
+        jdbcTemplate.query(pageSql, FUNCIONARIO_EXTRACTOR, SqlArray.ids(ids));
 
     return new PageImpl<>(Objects.requireNonNull(content), pageable, total);
   }
@@ -1,12 +1,11 @@
 package saas.hotel.istoepousada.repository;
 
-import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlTypeValue;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import saas.hotel.istoepousada.dto.*;
@@ -20,35 +19,26 @@ public class HistoricoHospedagemRepository {
     this.jdbcTemplate = jdbcTemplate;
   }
 
+  /**
+   * Carrega o histórico em consultas separadas por coleção (diárias, hóspedes, pagamentos,
+   * consumos), todas chaveadas pelos ids das diárias, e monta o grafo em memória. Evita o produto
+   * hóspedes × pagamentos × consumos de um único JOIN: o volume cresce linearmente com a estadia.
+   */
   @Transactional(readOnly = true)
   public Optional<HistoricoHospedagem> buscarHistorico(
       Long pessoaId, LocalDate dataInicio, LocalDate dataFim) {
     if (pessoaId == null) return Optional.empty();
 
-    if (dataInicio == null && dataFim == null) {
-      Long ultimoPernoiteId = buscarUltimoPernoiteId(pessoaId).orElse(null);
-      if (ultimoPernoiteId == null) return Optional.empty();
-
-      String sql =
-          buildBaseSql()
-              + """
-              WHERE dpf.pessoa_id = ?
-                AND pe.id = ?
-              ORDER BY pe.data_entrada DESC, d.numero_diaria ASC, d.data_inicio ASC, dp.representante DESC, p.nome ASC
-              """;
-
-      HistoricoHospedagem historico =
-          jdbcTemplate.query(sql, HISTORICO_EXTRACTOR(), pessoaId, pessoaId, ultimoPernoiteId);
-
-      return Optional.ofNullable(historico);
-    }
-
-    StringBuilder where = new StringBuilder(" WHERE dpf.pessoa_id = ? ");
+    StringBuilder where = new StringBuilder();
     List<Object> params = new ArrayList<>();
     params.add(pessoaId);
-    params.add(pessoaId);
 
-    if (dataInicio != null && dataFim != null) {
+    if (dataInicio == null && dataFim == null) {
+      Long ultimoPernoiteId = buscarUltimoPernoiteId(pessoaId).orElse(null);
+      if (ultimoPernoiteId == null) return Optional.empty();
+      where.append(" AND pe.id = ? ");
+      params.add(ultimoPernoiteId);
+    } else if (dataInicio != null && dataFim != null) {
       where.append(" AND pe.data_entrada <= ? AND pe.data_saida >= ? ");
       params.add(dataFim);
       params.add(dataInicio);
@@ -60,21 +50,40 @@ public class HistoricoHospedagemRepository {
       params.add(dataFim);
     }
 
-    String sql =
-        buildBaseSql()
+    Map<Long, PernoiteAgg> pernoites = new LinkedHashMap<>();
+    Map<Long, DiariaAgg> diarias = new LinkedHashMap<>();
+
+    jdbcTemplate.query(
+        SELECT_DIARIAS
             + where
-            + """
-              ORDER BY pe.data_entrada DESC, d.numero_diaria ASC, d.data_inicio ASC, dp.representante DESC, p.nome ASC
-              """;
+            + " ORDER BY pe.data_entrada DESC, pe.id, d.numero_diaria ASC, d.data_inicio ASC, d.id",
+        rs -> {
+          Long pernoiteId = rs.getLong("pernoite_id");
+          PernoiteAgg pAgg = pernoites.get(pernoiteId);
+          if (pAgg == null) {
+            pAgg = new PernoiteAgg(Pernoite.mapPernoite(rs, "pernoite_"));
+            pernoites.put(pernoiteId, pAgg);
+          }
+          Long diariaId = rs.getLong("diaria_id");
+          DiariaAgg dAgg = new DiariaAgg(Diaria.mapDiaria(rs, "diaria_"));
+          pAgg.diarias.put(diariaId, dAgg);
+          diarias.put(diariaId, dAgg);
+        },
+        params.toArray());
+
+    if (pernoites.isEmpty()) return Optional.empty();
+
+    SqlTypeValue diariaIds = SqlArray.ids(diarias.keySet());
 
-    HistoricoHospedagem historico =
-        jdbcTemplate.query(sql, HISTORICO_EXTRACTOR(), params.toArray());
+    carregarHospedes(diarias, diariaIds);
+    carregarPagamentos(diarias, diariaIds);
+    carregarConsumos(diarias, diariaIds);
 
-    return Optional.ofNullable(historico);
+    return Optional.of(montar(pernoites));
   }
 
-  private String buildBaseSql() {
-    return """
+  private static final String SELECT_DIARIAS =
+      """
         SELECT
           pe.id                 AS pernoite_id,
           pe.data_entrada       AS pernoite_data_entrada,
@@ -101,230 +110,213 @@ public class HistoricoHospedagemRepository {
           q.qtd_cama_casal      AS quarto_qtd_cama_casal,
           q.qtd_cama_solteiro   AS quarto_qtd_cama_solteiro,
           q.qtd_rede            AS quarto_qtd_rede,
-          q.qtd_beliche         AS quarto_qtd_beliche,
-
-          dp.representante      AS diaria_pessoa_representante,
-
-          p.id                  AS pessoa_id,
-          p.data_hora_cadastro  AS pessoa_data_hora_cadastro,
-          p.nome                AS pessoa_nome,
-          p.data_nascimento     AS pessoa_data_nascimento,
-          p.cpf                 AS pessoa_cpf,
-          p.rg                  AS pessoa_rg,
-          p.email               AS pessoa_email,
-          p.telefone            AS pessoa_telefone,
-          p.pais                AS pessoa_pais,
-          p.estado              AS pessoa_estado,
-          p.municipio           AS pessoa_municipio,
-          p.endereco            AS pessoa_endereco,
-          p.complemento         AS pessoa_complemento,
-          p.vezes_hospedado     AS pessoa_vezes_hospedado,
-          p.cep                 AS pessoa_cep,
-          p.idade               AS pessoa_idade,
-          p.bairro              AS pessoa_bairro,
-          p.sexo                AS pessoa_sexo,
-          p.numero              AS pessoa_numero,
-          p.status              AS pessoa_status,
-
-          pg.id                  AS diaria_pagamento_id,
-          pg.descricao           AS diaria_pagamento_descricao,
-          pg.valor               AS diaria_pagamento_valor,
-          pg.data_hora_pagamento AS diaria_pagamento_data_hora,
-          tp.id                  AS diaria_pagamento_tipo_pagamento_id,
-          tp.descricao           AS diaria_pagamento_tipo_pagamento_descricao,
-
-          cs.id                 AS diaria_consumo_id,
-          cs.data_hora_consumo  AS diaria_consumo_data_hora,
-          cs.quantidade         AS diaria_consumo_quantidade,
-          ctp.id                AS consumo_tipo_pagamento_id,
-          ctp.descricao         AS consumo_tipo_pagamento_descricao,
-
-          it.id                      AS item_id,
-          it.descricao               AS item_descricao,
-          it.data_hora_registro_item AS item_data_hora,
-          ci.id                      AS categoria_id,
-          ci.descricao               AS categoria_categoria,
-
-          p.fk_funcionario               AS pessoa_fk_funcionario,
-          p.fk_titular                   AS pessoa_fk_titular,
-
-          func.nome                      AS pessoa_funcionario_nome,
-          titular.nome                   AS pessoa_titular_nome
-
+          q.qtd_beliche         AS quarto_qtd_beliche
         FROM pernoite pe
         JOIN diaria d ON d.pernoite_id = pe.id
         LEFT JOIN quarto q ON q.id = d.quarto_id
-
-        JOIN diaria_pessoa dpf ON dpf.diaria_id = d.id AND dpf.pessoa_id = ?
-        LEFT JOIN diaria_pessoa dp ON dp.diaria_id = d.id
-        LEFT JOIN pessoa p ON p.id = dp.pessoa_id
-
-        LEFT JOIN diaria_pagamento pg ON pg.diaria_id = d.id
-        LEFT JOIN tipo_pagamento tp ON tp.id = pg.tipo_pagamento_id
-
-        LEFT JOIN diaria_consumo cs ON cs.diaria_id = d.id
-        LEFT JOIN item it ON it.id = cs.item_id
-        LEFT JOIN categoria_item ci ON ci.id = it.fk_categoria
-        LEFT JOIN tipo_pagamento ctp ON ctp.id = cs.tipo_pagamento_id
-
-        LEFT JOIN pessoa func ON func.id = p.fk_funcionario
-        LEFT JOIN pessoa titular ON titular.id = p.fk_titular
+        WHERE EXISTS (
+          SELECT 1 FROM diaria_pessoa dpf WHERE dpf.diaria_id = d.id AND dpf.pessoa_id = ?
+        )
         """;
-  }
 
-  private ResultSetExtractor<HistoricoHospedagem> HISTORICO_EXTRACTOR() {
-    return rs -> {
-      Map<Long, PernoiteAgg> pernoites = new LinkedHashMap<>();
-      Set<Integer> qtdPessoasSet = new TreeSet<>();
-
-      while (rs.next()) {
-        Long pernoiteId = rs.getObject("pernoite_id", Long.class);
-        if (pernoiteId == null) continue;
-
-        PernoiteAgg pAgg =
-            pernoites.computeIfAbsent(
-                pernoiteId,
-                id -> {
-                  try {
-                    return new PernoiteAgg(Pernoite.mapPernoite(rs, "pernoite_"));
-                  } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                  }
-                });
-
-        Long diariaId = rs.getObject("diaria_id", Long.class);
-        if (diariaId == null) continue;
-
-        DiariaAgg dAgg =
-            pAgg.diarias.computeIfAbsent(
-                diariaId,
-                id -> {
-                  try {
-                    return new DiariaAgg(Diaria.mapDiaria(rs, "diaria_"));
-                  } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                  }
-                });
-
-        Integer qtdPessoas = rs.getObject("diaria_quantidade_pessoa", Integer.class);
-        if (qtdPessoas != null) qtdPessoasSet.add(qtdPessoas);
-
-        Long hospedeId = rs.getObject("pessoa_id", Long.class);
-        if (hospedeId != null) {
-          boolean representante =
-              Boolean.TRUE.equals(rs.getObject("diaria_pessoa_representante", Boolean.class));
-          Pessoa pessoa = Pessoa.mapPessoa(rs, "pessoa_");
-
-          if (representante) {
-            dAgg.representante = pessoa;
-          } else {
-            dAgg.acompanhantes.putIfAbsent(hospedeId, pessoa);
-          }
-        }
+  /** Vínculos diária→hóspede (só ids) e, à parte, cada pessoa distinta mapeada uma única vez. */
+  private void carregarHospedes(Map<Long, DiariaAgg> diarias, SqlTypeValue diariaIds) {
+    String pessoasSql =
+        """
+            SELECT
+              p.id                  AS pessoa_id,
+              p.data_hora_cadastro  AS pessoa_data_hora_cadastro,
+              p.nome                AS pessoa_nome,
+              p.data_nascimento     AS pessoa_data_nascimento,
+              p.cpf                 AS pessoa_cpf,
+              p.rg                  AS pessoa_rg,
+              p.email               AS pessoa_email,
+              p.telefone            AS pessoa_telefone,
+              p.pais                AS pessoa_pais,
+              p.estado              AS pessoa_estado,
+              p.municipio           AS pessoa_municipio,
+              p.endereco            AS pessoa_endereco,
+              p.complemento         AS pessoa_complemento,
+              p.vezes_hospedado     AS pessoa_vezes_hospedado,
+              p.cep                 AS pessoa_cep,
+              p.idade               AS pessoa_idade,
+              p.bairro              AS pessoa_bairro,
+              p.sexo                AS pessoa_sexo,
+              p.numero              AS pessoa_numero,
+              p.status              AS pessoa_status,
+              p.fk_funcionario      AS pessoa_fk_funcionario,
+              p.fk_titular          AS pessoa_fk_titular,
+              func.nome             AS pessoa_funcionario_nome,
+              titular.nome          AS pessoa_titular_nome
+            FROM pessoa p
+            LEFT JOIN pessoa func ON func.id = p.fk_funcionario
+            LEFT JOIN pessoa titular ON titular.id = p.fk_titular
+            WHERE p.id IN (SELECT dp.pessoa_id FROM diaria_pessoa dp WHERE dp.diaria_id = ANY(?))
+            """;
+
+    Map<Long, Pessoa> pessoas = new HashMap<>();
+    jdbcTemplate.query(
+        pessoasSql,
+        rs -> {
+          pessoas.put(rs.getLong("pessoa_id"), Pessoa.mapPessoa(rs, "pessoa_"));
+        },
+        diariaIds);
+
+    String vinculosSql =
+        """
+            SELECT dp.diaria_id, dp.pessoa_id, dp.representante
+            FROM diaria_pessoa dp
+            JOIN pessoa p ON p.id = dp.pessoa_id
+            WHERE dp.diaria_id = ANY(?)
+            ORDER BY dp.diaria_id, dp.representante DESC, p.nome ASC
+            """;
+
+    jdbcTemplate.query(
+        vinculosSql,
+        rs -> {
+          DiariaAgg dAgg = diarias.get(rs.getLong("diaria_id"));
+          Pessoa pessoa = pessoas.get(rs.getLong("pessoa_id"));
+          if (dAgg == null || pessoa == null) return;
+
+          if (rs.getBoolean("representante")) dAgg.representante = pessoa;
+          else dAgg.acompanhantes.putIfAbsent(pessoa.id(), pessoa);
+        },
+        diariaIds);
+  }
 
-        Long pagId = rs.getObject("diaria_pagamento_id", Long.class);
-        if (pagId != null) {
+  private void carregarPagamentos(Map<Long, DiariaAgg> diarias, SqlTypeValue diariaIds) {
+    String sql =
+        """
+            SELECT
+              pg.diaria_id           AS diaria_id,
+              pg.id                  AS diaria_pagamento_id,
+              pg.descricao           AS diaria_pagamento_descricao,
+              pg.valor               AS diaria_pagamento_valor,
+              pg.data_hora_pagamento AS diaria_pagamento_data_hora,
+              tp.id                  AS diaria_pagamento_tipo_pagamento_id,
+              tp.descricao           AS diaria_pagamento_tipo_pagamento_descricao
+            FROM diaria_pagamento pg
+            LEFT JOIN tipo_pagamento tp ON tp.id = pg.tipo_pagamento_id
+            WHERE pg.diaria_id = ANY(?)
+            ORDER BY pg.diaria_id, pg.data_hora_pagamento, pg.id
+            """;
+
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          DiariaAgg dAgg = diarias.get(rs.getLong("diaria_id"));
           DiariaPagamento pagamento = DiariaPagamento.mapDiariaPagamento(rs, "diaria_pagamento_");
-          if (pagamento.tipo_pagamento() == null) {
-            Long tpId = rs.getObject("tipo_pagamento_id", Long.class);
-            String tpDesc = rs.getString("tipo_pagamento_descricao");
-            TipoPagamento tp =
-                (tpId == null && tpDesc == null) ? null : new TipoPagamento(tpId, tpDesc);
-            pagamento =
-                new DiariaPagamento(
-                    pagamento.id(),
-                    pagamento.descricao(),
-                    pagamento.valor(),
-                    pagamento.data_hora(),
-                    tp);
-          }
-
-          dAgg.pagamentos.putIfAbsent(pagId, pagamento);
-        }
-
-        Long consId = rs.getObject("diaria_consumo_id", Long.class);
-        if (consId != null) {
-          LocalDateTime dh =
-              rs.getTimestamp("diaria_consumo_data_hora") != null
-                  ? rs.getTimestamp("diaria_consumo_data_hora").toLocalDateTime()
-                  : null;
-
-          Integer quantidade = rs.getObject("diaria_consumo_quantidade", Integer.class);
-          Item item = Item.mapItem(rs, "item_");
+          if (dAgg != null && pagamento != null) dAgg.pagamentos.put(pagamento.id(), pagamento);
+        },
+        diariaIds);
+  }
 
+  private void carregarConsumos(Map<Long, DiariaAgg> diarias, SqlTypeValue diariaIds) {
+    String sql =
+        """
+            SELECT
+              cs.diaria_id               AS diaria_id,
+              cs.id                      AS diaria_consumo_id,
+              cs.data_hora_consumo       AS diaria_consumo_data_hora,
+              cs.quantidade              AS diaria_consumo_quantidade,
+              ctp.id                     AS consumo_tipo_pagamento_id,
+              ctp.descricao              AS consumo_tipo_pagamento_descricao,
+
+              it.id                      AS item_id,
+              it.descricao               AS item_descricao,
+              it.data_hora_registro_item AS item_data_hora_registro,
+              ci.id                      AS categoria_item_id,
+              ci.descricao               AS categoria_item_categoria
+            FROM diaria_consumo cs
+            LEFT JOIN item it ON it.id = cs.item_id
+            LEFT JOIN categoria_item ci ON ci.id = it.fk_categoria
+            LEFT JOIN tipo_pagamento ctp ON ctp.id = cs.tipo_pagamento_id
+            WHERE cs.diaria_id = ANY(?)
+            ORDER BY cs.diaria_id, cs.data_hora_consumo, cs.id
+            """;
+
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          DiariaAgg dAgg = diarias.get(rs.getLong("diaria_id"));
+          if (dAgg == null) return;
+
+          Timestamp ts = rs.getTimestamp("diaria_consumo_data_hora");
           Long tpId = rs.getObject("consumo_tipo_pagamento_id", Long.class);
           String tpDesc = rs.getString("consumo_tipo_pagamento_descricao");
           TipoPagamento tp =
               (tpId == null && tpDesc == null) ? null : new TipoPagamento(tpId, tpDesc);
 
-          DiariaConsumo consumo = new DiariaConsumo(consId, dh, item, quantidade, tp);
-          dAgg.consumos.putIfAbsent(consId, consumo);
-        }
-      }
-
-      if (pernoites.isEmpty()) return null;
-
-      List<HistoricoHospedagem.DadosPernoite> pernoitesOut = new ArrayList<>(pernoites.size());
+          Long consId = rs.getLong("diaria_consumo_id");
+          dAgg.consumos.put(
+              consId,
+              new DiariaConsumo(
+                  consId,
+                  ts == null ? null : ts.toLocalDateTime(),
+                  Item.mapItem(rs, "item_"),
+                  rs.getObject("diaria_consumo_quantidade", Integer.class),
+                  tp));
+        },
+        diariaIds);
+  }
 
-      float valorTotalGeral = 0f;
-      int totalDiasHospedado = 0;
+  private HistoricoHospedagem montar(Map<Long, PernoiteAgg> pernoites) {
+    Set<Integer> qtdPessoasSet = new TreeSet<>();
+    List<HistoricoHospedagem.DadosPernoite> pernoitesOut = new ArrayList<>(pernoites.size());
 
-      for (PernoiteAgg pAgg : pernoites.values()) {
-        List<HistoricoHospedagem.DadosPernoite.DadosDiaria> diariasOut =
-            new ArrayList<>(pAgg.diarias.size());
+    float valorTotalGeral = 0f;
+    int totalDiasHospedado = 0;
 
-        float valorTotalHospedagem = 0f;
+    for (PernoiteAgg pAgg : pernoites.values()) {
+      List<HistoricoHospedagem.DadosPernoite.DadosDiaria> diariasOut =
+          new ArrayList<>(pAgg.diarias.size());
 
-        for (DiariaAgg dAgg : pAgg.diarias.values()) {
-          totalDiasHospedado++;
+      float valorTotalHospedagem = 0f;
 
-          float base =
-              dAgg.diaria.total() != null
-                  ? safe(dAgg.diaria.total())
-                  : safe(dAgg.diaria.valorDiaria());
+      for (DiariaAgg dAgg : pAgg.diarias.values()) {
+        totalDiasHospedado++;
+        if (dAgg.diaria.quantidadePessoas() != null)
+          qtdPessoasSet.add(dAgg.diaria.quantidadePessoas());
 
-          float somaPag =
-              (float)
-                  dAgg.pagamentos.values().stream()
-                      .filter(Objects::nonNull)
-                      .map(DiariaPagamento::valor)
-                      .filter(Objects::nonNull)
-                      .mapToDouble(Float::doubleValue)
-                      .sum();
+        float base =
+            dAgg.diaria.total() != null
+                ? safe(dAgg.diaria.total())
+                : safe(dAgg.diaria.valorDiaria());
 
-          float somaCons = 0f;
+        float somaPag = 0f;
+        for (DiariaPagamento pagamento : dAgg.pagamentos.values())
+          somaPag += safe(pagamento.valor());
 
-          float subTotal = base + somaPag + somaCons;
-          valorTotalHospedagem += subTotal;
+        float subTotal = base + somaPag;
+        valorTotalHospedagem += subTotal;
 
-          diariasOut.add(
-              new HistoricoHospedagem.DadosPernoite.DadosDiaria(
-                  dAgg.diaria,
-                  dAgg.representante,
-                  new ArrayList<>(dAgg.acompanhantes.values()),
-                  new ArrayList<>(dAgg.pagamentos.values()),
-                  new ArrayList<>(dAgg.consumos.values()),
-                  subTotal));
-        }
+        diariasOut.add(
+            new HistoricoHospedagem.DadosPernoite.DadosDiaria(
+                dAgg.diaria,
+                dAgg.representante,
+                new ArrayList<>(dAgg.acompanhantes.values()),
+                new ArrayList<>(dAgg.pagamentos.values()),
+                new ArrayList<>(dAgg.consumos.values()),
+                subTotal));
+      }
 
-        valorTotalGeral += valorTotalHospedagem;
+      valorTotalGeral += valorTotalHospedagem;
 
-        pernoitesOut.add(
-            new HistoricoHospedagem.DadosPernoite(pAgg.pernoite, diariasOut, valorTotalHospedagem));
-      }
+      pernoitesOut.add(
+          new HistoricoHospedagem.DadosPernoite(pAgg.pernoite, diariasOut, valorTotalHospedagem));
+    }
 
-      String tipoHospedagem =
-          qtdPessoasSet.isEmpty()
-              ? null
-              : qtdPessoasSet.stream()
-                  .map(this::mapTipoHospedagem)
-                  .distinct()
-                  .reduce((a, b) -> a + ", " + b)
-                  .orElse(null);
-
-      return new HistoricoHospedagem(
-          tipoHospedagem, pernoitesOut.size(), totalDiasHospedado, valorTotalGeral, pernoitesOut);
-    };
+    String tipoHospedagem =
+        qtdPessoasSet.isEmpty()
+            ? null
+            : qtdPessoasSet.stream()
+                .map(this::mapTipoHospedagem)
+                .distinct()
+                .reduce((a, b) -> a + ", " + b)
+                .orElse(null);
+
+    return new HistoricoHospedagem(
+        tipoHospedagem, pernoitesOut.size(), totalDiasHospedado, valorTotalGeral, pernoitesOut);
   }
 
   private Optional<Long> buscarUltimoPernoiteId(Long pessoaId) {
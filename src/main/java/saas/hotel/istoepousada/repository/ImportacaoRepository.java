@@ -0,0 +1,491 @@
+package saas.hotel.istoepousada.repository;
+
+import static saas.hotel.istoepousada.dto.Importacao.mapImportacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.postgresql.PGConnection;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import saas.hotel.istoepousada.dto.Importacao;
+import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
+
+/**
+ * Importação por CSV: o arquivo vai inteiro para {@code importacao_staging} via {@code COPY}, é
+ * validado e deduplicado em SQL e só então é gravado em pessoa/empresa/veiculo numa transação.
+ */
+@Repository
+public class ImportacaoRepository {
+
+  /** Colunas aceitas no cabeçalho do CSV (mesmos nomes de {@code importacao_staging}). */
+  public static final Set<String> COLUNAS =
+      Set.of(
+          "nome",
+          "cpf",
+          "data_nascimento",
+          "rg",
+          "email",
+          "telefone",
+          "pais",
+          "estado",
+          "municipio",
+          "endereco",
+          "complemento",
+          "cep",
+          "bairro",
+          "sexo",
+          "numero",
+          "empresa_cnpj",
+          "empresa_razao_social",
+          "empresa_nome_fantasia",
+          "empresa_telefone",
+          "empresa_email",
+          "veiculo_placa",
+          "veiculo_modelo",
+          "veiculo_marca",
+          "veiculo_ano",
+          "veiculo_cor");
+
+  /**
+   * A razão social de um CNPJ novo só conta se vier de uma linha que passa nas demais regras: é
+   * dessas linhas que {@link #INSERIR_EMPRESAS} tira a empresa.
+   */
+  private static final String VALIDAR =
+      """
+            WITH linhas AS (
+                SELECT s.*
+                FROM importacao_staging s
+                WHERE s.importacao_id = ?
+            ),
+            ultima_por_cpf AS (
+                SELECT cpf_norm, max(linha) AS linha
+                FROM linhas
+                WHERE length(cpf_norm) = 11
+                GROUP BY cpf_norm
+                HAVING count(*) > 1
+            ),
+            cnpj_cadastrado AS (
+                SELECT DISTINCT regexp_replace(e.cnpj, '\\D', '', 'g') AS cnpj_norm
+                FROM empresa e
+                WHERE e.cnpj IS NOT NULL
+            ),
+            falhas_linha AS (
+                SELECT l.seq, l.linha, f.mensagem
+                FROM linhas l
+                LEFT JOIN ultima_por_cpf u ON u.cpf_norm = l.cpf_norm
+                CROSS JOIN LATERAL (
+                    VALUES
+                        (coalesce(btrim(l.nome), '') = '',
+                         'nome é obrigatório'),
+                        (coalesce(length(l.cpf_norm), 0) <> 11,
+                         concat('CPF inválido: ', l.cpf)),
+                        (l.data_nascimento IS NOT NULL
+                             AND importacao_data(l.data_nascimento) IS NULL,
+                         concat('data_nascimento inválida (use dd/MM/yyyy): ', l.data_nascimento)),
+                        (l.sexo IS NOT NULL AND btrim(l.sexo) NOT IN ('0', '1'),
+                         'sexo deve ser 0 (feminino) ou 1 (masculino)'),
+                        (l.empresa_cnpj IS NOT NULL AND coalesce(length(l.cnpj_norm), 0) <> 14,
+                         concat('CNPJ inválido: ', l.empresa_cnpj)),
+                        (l.veiculo_ano IS NOT NULL AND btrim(l.veiculo_ano) !~ '^\\d{4}$',
+                         concat('veiculo_ano inválido: ', l.veiculo_ano)),
+                        (l.placa_norm IS NULL
+                             AND (l.veiculo_modelo IS NOT NULL OR l.veiculo_marca IS NOT NULL),
+                         'veiculo_placa é obrigatória quando há veículo'),
+                        (u.linha IS NOT NULL AND u.linha <> l.linha,
+                         concat('CPF repetido no arquivo; vale a linha ', u.linha))
+                ) AS f(falhou, mensagem)
+                WHERE f.falhou
+            ),
+            cnpj_com_razao AS (
+                SELECT l.cnpj_norm
+                FROM linhas l
+                WHERE l.cnpj_norm IS NOT NULL
+                  AND coalesce(btrim(l.empresa_razao_social), '') <> ''
+                  AND NOT EXISTS (SELECT 1 FROM falhas_linha fl WHERE fl.seq = l.seq)
+                GROUP BY l.cnpj_norm
+            ),
+            falhas AS (
+                SELECT seq, linha, mensagem FROM falhas_linha
+                UNION ALL
+                SELECT l.seq, l.linha,
+                       'empresa_razao_social é obrigatória para empresa não cadastrada'
+                FROM linhas l
+                WHERE length(l.cnpj_norm) = 14
+                  AND NOT EXISTS (SELECT 1 FROM cnpj_com_razao r WHERE r.cnpj_norm = l.cnpj_norm)
+                  AND NOT EXISTS (SELECT 1 FROM cnpj_cadastrado c WHERE c.cnpj_norm = l.cnpj_norm)
+            ),
+            erros AS (
+                INSERT INTO importacao_erro (importacao_id, linha, mensagem)
+                SELECT ?, linha, mensagem FROM falhas
+            ),
+            invalidas AS (
+                UPDATE importacao_staging s
+                SET valido = false
+                WHERE s.importacao_id = ?
+                  AND s.seq IN (SELECT seq FROM falhas)
+                RETURNING 1
+            )
+            UPDATE importacao
+            SET total_linhas = (SELECT count(*) FROM linhas),
+                linhas_com_erro = (SELECT count(*) FROM invalidas)
+            WHERE id = ?
+            """;
+
+  private static final String INSERIR_EMPRESAS =
+      """
+            INSERT INTO empresa (razao_social, nome_fantasia, cnpj, telefone, email)
+            SELECT DISTINCT ON (s.cnpj_norm)
+                btrim(s.empresa_razao_social),
+                NULLIF(btrim(s.empresa_nome_fantasia), ''),
+                s.cnpj_norm,
+                s.empresa_telefone,
+                s.empresa_email
+            FROM importacao_staging s
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND s.cnpj_norm IS NOT NULL
+              AND coalesce(btrim(s.empresa_razao_social), '') <> ''
+              AND NOT EXISTS (
+                  SELECT 1 FROM empresa e WHERE regexp_replace(e.cnpj, '\\D', '', 'g') = s.cnpj_norm
+              )
+            ORDER BY s.cnpj_norm, s.seq DESC
+            """;
+
+  /** Pessoa já cadastrada (mesmo CPF): campos vazios no arquivo mantêm o valor atual. */
+  private static final String ATUALIZAR_PESSOAS =
+      """
+            UPDATE pessoa p SET
+                nome = btrim(s.nome),
+                data_nascimento = coalesce(importacao_data(s.data_nascimento), p.data_nascimento),
+                idade = coalesce(
+                    date_part('year', age(importacao_data(s.data_nascimento)))::int, p.idade),
+                rg = coalesce(s.rg, p.rg),
+                email = coalesce(s.email, p.email),
+                telefone = coalesce(s.telefone, p.telefone),
+                pais = coalesce(s.pais, p.pais),
+                estado = coalesce(s.estado, p.estado),
+                municipio = coalesce(s.municipio, p.municipio),
+                endereco = coalesce(s.endereco, p.endereco),
+                complemento = coalesce(s.complemento, p.complemento),
+                cep = coalesce(s.cep, p.cep),
+                bairro = coalesce(s.bairro, p.bairro),
+                sexo = coalesce(btrim(s.sexo)::int, p.sexo),
+                numero = coalesce(s.numero, p.numero)
+            FROM importacao_staging s
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND p.cpf_busca = s.cpf_norm
+            """;
+
+  private static final String INSERIR_PESSOAS =
+      """
+            INSERT INTO pessoa (
+                data_hora_cadastro,
+                nome,
+                data_nascimento,
+                cpf,
+                rg,
+                email,
+                telefone,
+                pais,
+                estado,
+                municipio,
+                endereco,
+                complemento,
+                vezes_hospedado,
+                cep,
+                idade,
+                bairro,
+                sexo,
+                numero,
+                fk_funcionario
+            )
+            SELECT
+                now(),
+                btrim(s.nome),
+                importacao_data(s.data_nascimento),
+                btrim(s.cpf),
+                s.rg,
+                s.email,
+                s.telefone,
+                s.pais,
+                s.estado,
+                s.municipio,
+                s.endereco,
+                s.complemento,
+                0,
+                s.cep,
+                date_part('year', age(importacao_data(s.data_nascimento)))::int,
+                s.bairro,
+                btrim(s.sexo)::int,
+                s.numero,
+                ?
+            FROM importacao_staging s
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND NOT EXISTS (SELECT 1 FROM pessoa p WHERE p.cpf_busca = s.cpf_norm)
+            """;
+
+  private static final String INSERIR_VEICULOS =
+      """
+            INSERT INTO veiculo (modelo, marca, ano, placa, cor)
+            SELECT DISTINCT ON (s.placa_norm)
+                s.veiculo_modelo,
+                s.veiculo_marca,
+                btrim(s.veiculo_ano)::int,
+                s.placa_norm,
+                s.veiculo_cor
+            FROM importacao_staging s
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND s.placa_norm IS NOT NULL
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM veiculo v
+                  WHERE upper(regexp_replace(v.placa, '[^0-9A-Za-z]', '', 'g')) = s.placa_norm
+              )
+            ORDER BY s.placa_norm, s.seq DESC
+            """;
+
+  /** Placa repetida no arquivo: vale a última linha, como no vínculo feito pela tela. */
+  private static final String VINCULAR_VEICULOS =
+      """
+            INSERT INTO pessoa_veiculo (pessoa_id, veiculo_id, vinculo_ativo)
+            SELECT DISTINCT ON (v.id) p.id, v.id, true
+            FROM importacao_staging s
+            JOIN pessoa p ON p.cpf_busca = s.cpf_norm
+            JOIN veiculo v ON upper(regexp_replace(v.placa, '[^0-9A-Za-z]', '', 'g')) = s.placa_norm
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND s.placa_norm IS NOT NULL
+            ORDER BY v.id, s.seq DESC, p.id
+            ON CONFLICT (veiculo_id)
+            DO UPDATE SET
+              pessoa_id = EXCLUDED.pessoa_id,
+              vinculo_ativo = true
+            """;
+
+  private static final String VINCULAR_EMPRESAS =
+      """
+            INSERT INTO empresa_pessoa (fk_empresa, fk_pessoa)
+            SELECT DISTINCT e.id, p.id
+            FROM importacao_staging s
+            JOIN pessoa p ON p.cpf_busca = s.cpf_norm
+            JOIN empresa e ON regexp_replace(e.cnpj, '\\D', '', 'g') = s.cnpj_norm
+            WHERE s.importacao_id = ?
+              AND s.valido
+              AND s.cnpj_norm IS NOT NULL
+            ON CONFLICT DO NOTHING
+            """;
+
+  private static final String SELECT_IMPORTACAO =
+      """
+            SELECT id, arquivo, status, fase, bytes_total, total_linhas, linhas_com_erro,
+                   pessoas_inseridas, pessoas_atualizadas, empresas_inseridas,
+                   veiculos_inseridos, vinculos_empresa, mensagem, criado_em, concluido_em
+            FROM importacao
+            """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final PessoaCache pessoaCache;
+
+  public ImportacaoRepository(JdbcTemplate jdbcTemplate, PessoaCache pessoaCache) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.pessoaCache = pessoaCache;
+  }
+
+  public Long criar(String arquivo, long bytesTotal, Long funcionarioId, String instancia) {
+    return jdbcTemplate.queryForObject(
+        """
+            INSERT INTO importacao (arquivo, bytes_total, fk_funcionario, instancia)
+            VALUES (?, ?, ?, ?)
+            RETURNING id
+            """,
+        Long.class,
+        arquivo,
+        bytesTotal,
+        funcionarioId,
+        instancia);
+  }
+
+  public Importacao findByIdOrThrow(Long id) {
+    if (id == null) throw new IllegalArgumentException("id é obrigatório.");
+    try {
+      return jdbcTemplate.queryForObject(
+          SELECT_IMPORTACAO + " WHERE id = ?", (rs, rowNum) -> mapImportacao(rs), id);
+    } catch (EmptyResultDataAccessException ex) {
+      throw new NotFoundException("Importação não encontrada para o id: " + id);
+    }
+  }
+
+  public Page<Importacao.Erro> listarErros(Long importacaoId, Pageable pageable) {
+    Long total =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM importacao_erro WHERE importacao_id = ?",
+            Long.class,
+            importacaoId);
+    if (total == null || total == 0) return new PageImpl<>(List.of(), pageable, 0);
+
+    List<Importacao.Erro> erros =
+        jdbcTemplate.query(
+            """
+                SELECT linha, mensagem
+                FROM importacao_erro
+                WHERE importacao_id = ?
+                ORDER BY linha, mensagem
+                LIMIT ? OFFSET ?
+                """,
+            (rs, rowNum) -> new Importacao.Erro(rs.getInt("linha"), rs.getString("mensagem")),
+            importacaoId,
+            pageable.getPageSize(),
+            pageable.getOffset());
+    return new PageImpl<>(erros, pageable, total);
+  }
+
+  public void atualizarFase(Long id, Importacao.Fase fase) {
+    jdbcTemplate.update(
+        "UPDATE importacao SET fase = ?, atualizado_em = now() WHERE id = ?", fase.name(), id);
+  }
+
+  /** Sinal de vida das importações que esta instância ainda está processando. */
+  public void sinalizar(Collection<Long> ids) {
+    if (ids.isEmpty()) return;
+    jdbcTemplate.update(
+        """
+            UPDATE importacao SET atualizado_em = now()
+            WHERE id = ANY(?) AND status = 'PROCESSANDO'
+            """,
+        SqlArray.ids(ids));
+  }
+
+  /**
+   * Envia o CSV (sem o cabeçalho, que ocupa a linha 1) para {@code importacao_staging}, com a linha
+   * física de cada registro. {@code colunas} precisam estar em {@link #COLUNAS} e o delimitador
+   * deve ser {@code ;} ou {@code ,}.
+   */
+  @Transactional
+  public long carregar(Long id, List<String> colunas, char delimitador, Reader dados) {
+    if (!COLUNAS.containsAll(colunas)) throw new IllegalArgumentException("Coluna desconhecida.");
+    if (delimitador != ';' && delimitador != ',')
+      throw new IllegalArgumentException("Delimitador inválido: " + delimitador);
+
+    // o DEFAULT de importacao_staging.importacao_id lê esta configuração (só nesta transação)
+    jdbcTemplate.queryForObject(
+        "SELECT set_config('importacao.id', ?, true)", String.class, id.toString());
+
+    String copy =
+        "COPY importacao_staging ("
+            + String.join(", ", colunas)
+            + ", linha) FROM STDIN WITH (FORMAT csv, DELIMITER '"
+            + delimitador
+            + "')";
+    Long linhas =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                con -> {
+                  try {
+                    return con.unwrap(PGConnection.class)
+                        .getCopyAPI()
+                        .copyIn(copy, new CsvComLinha(dados, delimitador, 2));
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+
+    jdbcTemplate.execute("ANALYZE importacao_staging");
+    return linhas == null ? 0 : linhas;
+  }
+
+  /** Registra os erros por linha e marca as linhas rejeitadas. */
+  @Transactional
+  public void validar(Long id) {
+    jdbcTemplate.update(VALIDAR, id, id, id, id);
+  }
+
+  /** Grava as linhas válidas e conclui a importação, tudo na mesma transação. */
+  @Transactional
+  public void gravar(Long id, Long funcionarioId) {
+    int empresas = jdbcTemplate.update(INSERIR_EMPRESAS, id);
+    int atualizadas = jdbcTemplate.update(ATUALIZAR_PESSOAS, id);
+    int inseridas = jdbcTemplate.update(INSERIR_PESSOAS, funcionarioId, id);
+    int veiculos = jdbcTemplate.update(INSERIR_VEICULOS, id);
+    jdbcTemplate.update(VINCULAR_VEICULOS, id);
+    int vinculos = jdbcTemplate.update(VINCULAR_EMPRESAS, id);
+
+    int concluida =
+        jdbcTemplate.update(
+            """
+            UPDATE importacao SET
+                status = 'CONCLUIDO',
+                fase = 'FINALIZADO',
+                pessoas_inseridas = ?,
+                pessoas_atualizadas = ?,
+                empresas_inseridas = ?,
+                veiculos_inseridos = ?,
+                vinculos_empresa = ?,
+                concluido_em = now(),
+                atualizado_em = now()
+            WHERE id = ? AND status = 'PROCESSANDO'
+            """,
+            inseridas,
+            atualizadas,
+            empresas,
+            veiculos,
+            vinculos,
+            id);
+    // outra instância já a deu como interrompida: desfaz a gravação
+    if (concluida == 0) throw new IllegalStateException("Importação interrompida");
+    pessoaCache.invalidarTodos();
+  }
+
+  public void falhar(Long id, String mensagem) {
+    jdbcTemplate.update(
+        """
+            UPDATE importacao
+            SET status = 'ERRO', mensagem = ?, concluido_em = now(), atualizado_em = now()
+            WHERE id = ? AND status = 'PROCESSANDO'
+            """,
+        mensagem,
+        id);
+  }
+
+  public void limparStaging(Long id) {
+    jdbcTemplate.update("DELETE FROM importacao_staging WHERE importacao_id = ?", id);
+  }
+
+  /**
+   * Importações em andamento sem sinal de vida há {@code expiraMinutos}: a instância que as
+   * processava parou. As que outra instância ainda processa continuam sendo sinalizadas e ficam.
+   */
+  public int interromperPendentes(long expiraMinutos) {
+    Integer interrompidas =
+        jdbcTemplate.queryForObject(
+            """
+            WITH interrompidas AS (
+                UPDATE importacao
+                SET status = 'ERRO', mensagem = 'Importação interrompida', concluido_em = now()
+                WHERE status = 'PROCESSANDO'
+                  AND atualizado_em < now() - make_interval(mins => ?)
+                RETURNING id
+            ),
+            staging AS (
+                DELETE FROM importacao_staging
+                WHERE importacao_id IN (SELECT id FROM interrompidas)
+            )
+            SELECT count(*)::int FROM interrompidas
+            """,
+            Integer.class,
+            (int) expiraMinutos);
+    return interrompidas == null ? 0 : interrompidas;
+  }
+}
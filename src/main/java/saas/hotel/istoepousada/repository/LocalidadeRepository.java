@@ -2,14 +2,18 @@ package saas.hotel.istoepousada.repository;
 
 import static saas.hotel.istoepousada.dto.Objeto.*;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.client.RestClient;
+import saas.hotel.istoepousada.dto.CepSalvo;
 import saas.hotel.istoepousada.dto.CnpjaResponse;
 import saas.hotel.istoepousada.dto.Objeto;
 import saas.hotel.istoepousada.dto.ViaCep;
@@ -65,6 +69,44 @@ public class LocalidadeRepository {
     return jdbcTemplate.query(sql, mapObjeto, estado);
   }
 
+  /** Estados de todos os países, por país e em ordem de descrição (carga de LocalidadeSnapshot). */
+  public Map<Long, List<Objeto>> listarEstadosAgrupadosPorPais() {
+    String sql =
+        """
+                SELECT id, descricao, fk_pais AS pai
+                FROM public.estado
+                ORDER BY fk_pais, descricao
+            """;
+
+    return agruparPorPai(sql);
+  }
+
+  /** Municípios de todos os estados, por estado e em ordem de descrição. */
+  public Map<Long, List<Objeto>> listarMunicipiosAgrupadosPorEstado() {
+    String sql =
+        """
+                SELECT id, descricao, fk_estado AS pai
+                FROM public.municipio
+                ORDER BY fk_estado, descricao
+            """;
+
+    return agruparPorPai(sql);
+  }
+
+  private Map<Long, List<Objeto>> agruparPorPai(String sql) {
+    Map<Long, List<Objeto>> porPai = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          long pai = rs.getLong("pai");
+          if (rs.wasNull()) return;
+          porPai
+              .computeIfAbsent(pai, k -> new ArrayList<>())
+              .add(new Objeto(rs.getLong("id"), rs.getString("descricao")));
+        });
+    return porPai;
+  }
+
   public ViaCep buscarPorCep(String cep) {
     String cepLimpo = limparCep(cep);
     return viaCepClient
@@ -75,64 +117,91 @@ public class LocalidadeRepository {
         .body(ViaCep.class);
   }
 
-  public CnpjaResponse buscarPorCnpj(String cnpj) {
-    String cnpjLimpo = limparCnpj(cnpj);
-    return cnpjaClient
-        .get()
-        .uri("/office/{cnpj}", cnpjLimpo)
-        .accept(MediaType.APPLICATION_JSON)
-        .retrieve()
-        .body(CnpjaResponse.class);
-  }
-
-  public Optional<Objeto> buscarPaisPorNome(String nomePais) {
+  /** CEP (só dígitos) já consultado na ViaCEP. */
+  public Optional<CepSalvo> buscarCepCache(String cep) {
     String sql =
         """
-                SELECT id, descricao
-                FROM public.pais
-                WHERE LOWER(TRIM(descricao)) = LOWER(TRIM(?))
-                LIMIT 1
+                SELECT cep, logradouro, complemento, bairro, localidade, uf, estado, ibge, ddd,
+                       atualizado_em
+                FROM cep_cache
+                WHERE cep = ?
             """;
 
-    try {
-      return Optional.ofNullable(jdbcTemplate.queryForObject(sql, mapObjeto, nomePais));
-    } catch (EmptyResultDataAccessException e) {
-      return Optional.empty();
-    }
+    return jdbcTemplate
+        .query(
+            sql,
+            (rs, rowNum) ->
+                new CepSalvo(
+                    new ViaCep(
+                        rs.getString("cep"),
+                        rs.getString("logradouro"),
+                        rs.getString("complemento"),
+                        null,
+                        rs.getString("bairro"),
+                        rs.getString("localidade"),
+                        rs.getString("uf"),
+                        rs.getString("estado"),
+                        null,
+                        rs.getString("ibge"),
+                        null,
+                        rs.getString("ddd"),
+                        null,
+                        false),
+                    rs.getTimestamp("atualizado_em").toLocalDateTime()),
+            cep)
+        .stream()
+        .findFirst();
   }
 
-  public Optional<Objeto> buscarEstadoPorNome(String nomeEstado) {
-    String sql =
+  public void salvarCepCache(String cep, ViaCep viaCep) {
+    Object[] params = {
+      viaCep.logradouro(),
+      viaCep.complemento(),
+      viaCep.bairro(),
+      viaCep.localidade(),
+      viaCep.uf(),
+      viaCep.estado(),
+      viaCep.ibge(),
+      viaCep.ddd(),
+      new Timestamp(System.currentTimeMillis()),
+      cep
+    };
+    int atualizados =
+        jdbcTemplate.update(
+            """
+                UPDATE cep_cache SET
+                    logradouro = ?,
+                    complemento = ?,
+                    bairro = ?,
+                    localidade = ?,
+                    uf = ?,
+                    estado = ?,
+                    ibge = ?,
+                    ddd = ?,
+                    atualizado_em = ?
+                WHERE cep = ?
+                """,
+            params);
+    if (atualizados > 0) return;
+    jdbcTemplate.update(
         """
-                SELECT id, descricao
-                FROM public.estado
-                WHERE LOWER(TRIM(descricao)) = LOWER(TRIM(?))
-                LIMIT 1
-            """;
-
-    try {
-      return Optional.ofNullable(jdbcTemplate.queryForObject(sql, mapObjeto, nomeEstado));
-    } catch (EmptyResultDataAccessException e) {
-      return Optional.empty();
-    }
+            INSERT INTO cep_cache (
+                logradouro, complemento, bairro, localidade, uf, estado, ibge, ddd,
+                atualizado_em, cep
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT DO NOTHING
+            """,
+        params);
   }
 
-  public Optional<Objeto> buscarMunicipioPorNome(String nomeMunicipio, Long estadoId) {
-    String sql =
-        """
-                SELECT id, descricao
-                FROM public.municipio
-                WHERE LOWER(TRIM(descricao)) = LOWER(TRIM(?))
-                  AND fk_estado = ?
-                LIMIT 1
-            """;
-
-    try {
-      return Optional.ofNullable(
-          jdbcTemplate.queryForObject(sql, mapObjeto, nomeMunicipio, estadoId));
-    } catch (EmptyResultDataAccessException e) {
-      return Optional.empty();
-    }
+  public CnpjaResponse buscarPorCnpj(String cnpj) {
+    String cnpjLimpo = limparCnpj(cnpj);
+    return cnpjaClient
+        .get()
+        .uri("/office/{cnpj}", cnpjLimpo)
+        .accept(MediaType.APPLICATION_JSON)
+        .retrieve()
+        .body(CnpjaResponse.class);
   }
 
   private String limparCep(String cep) {
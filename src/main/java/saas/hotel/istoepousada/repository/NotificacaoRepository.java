@@ -2,13 +2,18 @@ package saas.hotel.istoepousada.repository;
 
 import static saas.hotel.istoepousada.dto.Notificacao.mapNotificacao;
 
-import java.time.LocalDateTime;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.List;
-import org.springframework.dao.EmptyResultDataAccessException;
+import java.util.Map;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import saas.hotel.istoepousada.dto.Notificacao;
-import saas.hotel.istoepousada.dto.Pessoa;
 
 @Repository
 public class NotificacaoRepository {
@@ -43,19 +48,56 @@ public class NotificacaoRepository {
     return jdbcTemplate.query(sql, (rs, rowNum) -> mapNotificacao(rs), pessoaId, quantidade);
   }
 
-  public Notificacao criar(Pessoa pessoa, String descricao) {
+  /**
+   * Grava as notificações num único batch JDBC e as devolve, na mesma ordem, com o id gerado.
+   */
+  public List<Notificacao> inserirLote(List<Notificacao> notificacoes) {
+    if (notificacoes == null || notificacoes.isEmpty()) return List.of();
     String sql =
         """
                 INSERT INTO notificacao (fk_pessoa, nome_pessoa, descricao, data_hora)
-                VALUES (?, ?, ?, NOW())
-                RETURNING id, fk_pessoa, nome_pessoa, descricao, data_hora
+                VALUES (?, ?, ?, ?)
                 """;
+    KeyHolder keyHolder = new GeneratedKeyHolder();
 
-    try {
-      return jdbcTemplate.queryForObject(
-          sql, (rs, rowNum) -> mapNotificacao(rs), pessoa.id(), pessoa.nome(), descricao);
-    } catch (EmptyResultDataAccessException ex) {
-      return new Notificacao(null, pessoa.id(), pessoa.nome(), descricao, LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        connection -> connection.prepareStatement(sql, new String[] {"id"}),
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Notificacao n = notificacoes.get(i);
+            ps.setObject(1, n.fkPessoa());
+            ps.setString(2, n.nome());
+            ps.setString(3, n.descricao());
+            ps.setTimestamp(4, Timestamp.valueOf(n.dataHora()));
+          }
+
+          @Override
+          public int getBatchSize() {
+            return notificacoes.size();
+          }
+        },
+        keyHolder);
+
+    List<Map<String, Object>> chaves = keyHolder.getKeyList();
+    if (chaves.size() != notificacoes.size())
+      throw new IllegalStateException(
+          "Lote de notificações gravado com "
+              + chaves.size()
+              + " ids para "
+              + notificacoes.size()
+              + " linhas");
+    List<Notificacao> gravadas = new ArrayList<>(notificacoes.size());
+    for (int i = 0; i < notificacoes.size(); i++) {
+      Notificacao n = notificacoes.get(i);
+      gravadas.add(
+          new Notificacao(
+              ((Number) chaves.get(i).get("id")).longValue(),
+              n.fkPessoa(),
+              n.nome(),
+              n.descricao(),
+              n.dataHora()));
     }
+    return gravadas;
   }
 }
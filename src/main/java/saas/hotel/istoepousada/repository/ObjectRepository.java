@@ -1,6 +1,9 @@
 package saas.hotel.istoepousada.repository;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import saas.hotel.istoepousada.dto.Objeto;
@@ -21,11 +24,17 @@ public class ObjectRepository {
     return jdbcTemplate.query("select id, nome as descricao from tela", Objeto.mapObjeto);
   }
 
-  public List<Objeto> permissoes(Long telaId) {
-    return jdbcTemplate.query(
-        "select id, permissao.permissao as descricao from permissao where fk_tela = ?",
-        Objeto.mapObjeto,
-        telaId);
+  /** Permissões de todas as telas, agrupadas por tela. */
+  public Map<Long, List<Objeto>> permissoesPorTela() {
+    Map<Long, List<Objeto>> porTela = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        "select id, permissao.permissao as descricao, fk_tela from permissao order by fk_tela, id",
+        rs -> {
+          porTela
+              .computeIfAbsent(rs.getLong("fk_tela"), k -> new ArrayList<>())
+              .add(new Objeto(rs.getLong("id"), rs.getString("descricao")));
+        });
+    return porTela;
   }
 
   public List<Objeto> cargos() {
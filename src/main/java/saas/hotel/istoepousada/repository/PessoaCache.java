@@ -0,0 +1,98 @@
+package saas.hotel.istoepousada.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.Empresa;
+import saas.hotel.istoepousada.dto.Pessoa;
+import saas.hotel.istoepousada.dto.Veiculo;
+
+/**
+ * Cache de {@link Pessoa} completas por id (ver {@link PessoaRepository#findByIdEmCache}).
+ *
+ * <p>Uma escrita remove a própria pessoa e toda entrada que a exibe: titular, acompanhantes,
+ * funcionário responsável, empresa ou veículo. A remoção acontece na hora e de novo após o commit,
+ * para que uma leitura concorrente não devolva ao cache a versão anterior. O TTL só limita
+ * alterações feitas direto no banco.
+ */
+@Component
+public class PessoaCache {
+  private final Cache<Long, Pessoa> cache;
+
+  public PessoaCache(
+      @Value("${pessoa.cache.tamanho:2000}") long tamanho,
+      @Value("${pessoa.cache.ttl-segundos:300}") long ttlSegundos,
+      MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(tamanho)
+            .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "pessoa");
+    Gauge.builder("cache.taxa.acerto", cache, c -> c.stats().hitRate())
+        .tag("cache", "pessoa")
+        .description("Fração das leituras de pessoa servidas pelo cache")
+        .register(meterRegistry);
+  }
+
+  /** Pessoa em cache ou carregada por {@code carregar} (exceções do carregamento propagam). */
+  public Pessoa get(Long id, Function<Long, Pessoa> carregar) {
+    return cache.get(id, carregar);
+  }
+
+  public void invalidarPessoas(Collection<Long> pessoaIds) {
+    Set<Long> ids = semNulos(pessoaIds);
+    if (ids.isEmpty()) return;
+    remover(
+        p ->
+            ids.contains(p.id())
+                || ids.contains(p.titularId())
+                || ids.contains(p.funcionarioId())
+                || contem(p.acompanhantes(), Pessoa::id, ids));
+  }
+
+  public void invalidarEmpresa(Long empresaId) {
+    if (empresaId == null) return;
+    Set<Long> ids = semNulos(List.of(empresaId));
+    remover(p -> contem(p.empresasVinculadas(), Empresa::id, ids));
+  }
+
+  public void invalidarVeiculos(Collection<Long> veiculoIds) {
+    Set<Long> ids = semNulos(veiculoIds);
+    if (ids.isEmpty()) return;
+    remover(p -> contem(p.veiculos(), Veiculo::id, ids));
+  }
+
+  /** Escritas em massa (importação), em que não vale a pena saber quem foi afetado. */
+  public void invalidarTodos() {
+    AposCommit.agoraEAposCommit(cache::invalidateAll);
+  }
+
+  private void remover(Predicate<Pessoa> afetada) {
+    AposCommit.agoraEAposCommit(() -> cache.asMap().values().removeIf(afetada));
+  }
+
+  private static <T> boolean contem(List<T> itens, Function<T, Long> id, Set<Long> ids) {
+    if (itens == null) return false;
+    for (T item : itens) if (ids.contains(id.apply(item))) return true;
+    return false;
+  }
+
+  private static Set<Long> semNulos(Collection<Long> ids) {
+    Set<Long> set = new HashSet<>();
+    if (ids != null) for (Long id : ids) if (id != null) set.add(id);
+    return set;
+  }
+}
@@ -0,0 +1,321 @@
+package saas.hotel.istoepousada.repository;
+
+import static saas.hotel.istoepousada.dto.Veiculo.mapVeiculo;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.*;
+import java.util.function.Function;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import saas.hotel.istoepousada.dto.Pessoa;
+import saas.hotel.istoepousada.dto.Veiculo;
+import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
+
+/**
+ * Gravação em lote de pessoas, veículos e vínculos (check-in de grupo).
+ *
+ * <p>Cada operação é um único comando ou um batch JDBC, então o número de idas ao banco não depende
+ * do tamanho do grupo. Os INSERTs recebem uma coluna por array ({@code unnest}), então o texto do
+ * SQL é sempre o mesmo. O id de cada linha vem da sequence antes do INSERT e volta junto com a
+ * posição na lista ({@code WITH ORDINALITY}), sem depender da ordem do {@code RETURNING}.
+ */
+@Repository
+public class PessoaLoteRepository {
+  private final JdbcTemplate jdbcTemplate;
+  private final PessoaCache pessoaCache;
+
+  public PessoaLoteRepository(JdbcTemplate jdbcTemplate, PessoaCache pessoaCache) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.pessoaCache = pessoaCache;
+  }
+
+  /**
+   * Insere as pessoas sem id e atualiza as demais. Devolve os ids na ordem de {@code pessoas}.
+   */
+  public List<Long> salvar(List<Pessoa> pessoas, Long funcionarioId) {
+    List<Pessoa> novas = new ArrayList<>();
+    List<Pessoa> existentes = new ArrayList<>();
+    for (Pessoa p : pessoas) (p.id() == null ? novas : existentes).add(p);
+
+    Iterator<Long> idsNovos = inserir(novas, funcionarioId).iterator();
+    atualizar(existentes, funcionarioId);
+
+    List<Long> ids = new ArrayList<>(pessoas.size());
+    for (Pessoa p : pessoas) ids.add(p.id() == null ? idsNovos.next() : p.id());
+
+    Set<Long> afetadas = new HashSet<>(ids);
+    for (Pessoa p : pessoas) afetadas.add(p.titularId());
+    pessoaCache.invalidarPessoas(afetadas);
+    return ids;
+  }
+
+  private List<Long> inserir(List<Pessoa> pessoas, Long funcionarioId) {
+    if (pessoas.isEmpty()) return List.of();
+    String sql =
+        """
+            WITH novas AS (
+                SELECT nextval(pg_get_serial_sequence('pessoa', 'id')) AS id, v.*
+                FROM unnest(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) WITH ORDINALITY
+                    AS v(nome, data_nascimento, cpf, rg, email, telefone, pais, estado, municipio,
+                         endereco, complemento, cep, idade, bairro, sexo, numero, fk_titular,
+                         ordem)
+            ), inseridas AS (
+                INSERT INTO pessoa (
+                    id,
+                    data_hora_cadastro,
+                    nome,
+                    data_nascimento,
+                    cpf,
+                    rg,
+                    email,
+                    telefone,
+                    pais,
+                    estado,
+                    municipio,
+                    endereco,
+                    complemento,
+                    vezes_hospedado,
+                    cep,
+                    idade,
+                    bairro,
+                    sexo,
+                    numero,
+                    fk_funcionario,
+                    fk_titular
+                ) OVERRIDING SYSTEM VALUE
+                SELECT id, now(), nome, data_nascimento, cpf, rg, email, telefone, pais, estado,
+                       municipio, endereco, complemento, 0, cep, idade, bairro, sexo, numero, ?,
+                       fk_titular
+                FROM novas
+                RETURNING id
+            )
+            SELECT n.ordem, n.id FROM novas n JOIN inseridas USING (id)
+            """;
+
+    Long[] ids = new Long[pessoas.size()];
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          ids[rs.getInt("ordem") - 1] = rs.getLong("id");
+        },
+        SqlArray.textos(campo(pessoas, Pessoa::nome)),
+        SqlArray.datas(campo(pessoas, Pessoa::dataNascimento)),
+        SqlArray.textos(campo(pessoas, Pessoa::cpf)),
+        SqlArray.textos(campo(pessoas, Pessoa::rg)),
+        SqlArray.textos(campo(pessoas, Pessoa::email)),
+        SqlArray.textos(campo(pessoas, Pessoa::telefone)),
+        SqlArray.textos(campo(pessoas, Pessoa::pais)),
+        SqlArray.textos(campo(pessoas, Pessoa::estado)),
+        SqlArray.textos(campo(pessoas, Pessoa::municipio)),
+        SqlArray.textos(campo(pessoas, Pessoa::endereco)),
+        SqlArray.textos(campo(pessoas, Pessoa::complemento)),
+        SqlArray.textos(campo(pessoas, Pessoa::cep)),
+        SqlArray.inteiros(campo(pessoas, Pessoa::idade)),
+        SqlArray.textos(campo(pessoas, Pessoa::bairro)),
+        SqlArray.inteiros(campo(pessoas, Pessoa::sexo)),
+        SqlArray.textos(campo(pessoas, Pessoa::numero)),
+        SqlArray.ids(campo(pessoas, Pessoa::titularId)),
+        funcionarioId);
+    return todos(ids);
+  }
+
+  private void atualizar(List<Pessoa> pessoas, Long funcionarioId) {
+    if (pessoas.isEmpty()) return;
+    String sql =
+        """
+                UPDATE pessoa SET
+                    nome = ?,
+                    data_nascimento = ?,
+                    idade = ?,
+                    cpf = ?,
+                    rg = ?,
+                    email = ?,
+                    telefone = ?,
+                    pais = ?,
+                    estado = ?,
+                    municipio = ?,
+                    endereco = ?,
+                    complemento = ?,
+                    cep = ?,
+                    bairro = ?,
+                    sexo = ?,
+                    numero = ?,
+                    status = ?::pessoa_status,
+                    fk_funcionario = ?,
+                    fk_titular = ?
+                WHERE id = ?
+                """;
+
+    List<Object[]> args = new ArrayList<>(pessoas.size());
+    for (Pessoa p : pessoas) {
+      Integer idade =
+          p.dataNascimento() != null
+              ? Period.between(p.dataNascimento(), LocalDate.now()).getYears()
+              : null;
+      String status = p.status() == null ? Pessoa.Status.ATIVO.toDb() : p.status().toDb();
+      args.add(
+          new Object[] {
+            p.nome(),
+            p.dataNascimento() != null ? Date.valueOf(p.dataNascimento()) : null,
+            idade,
+            p.cpf(),
+            p.rg(),
+            p.email(),
+            p.telefone(),
+            p.pais(),
+            p.estado(),
+            p.municipio(),
+            p.endereco(),
+            p.complemento(),
+            p.cep(),
+            p.bairro(),
+            p.sexo(),
+            p.numero(),
+            status,
+            funcionarioId,
+            p.titularId(),
+            p.id()
+          });
+    }
+
+    int[] linhas = jdbcTemplate.batchUpdate(sql, args);
+    for (int i = 0; i < linhas.length; i++)
+      if (linhas[i] == 0)
+        throw new NotFoundException("Pessoa não encontrada para o id: " + pessoas.get(i).id());
+  }
+
+  /** Veículos de cada pessoa, na mesma ordem de {@link VeiculoRepository#findAllByPessoaId}. */
+  public Map<Long, List<Veiculo>> veiculosPorPessoa(Collection<Long> pessoaIds) {
+    if (pessoaIds.isEmpty()) return Map.of();
+    String sql =
+        """
+                SELECT pv.pessoa_id, v.id, v.modelo, v.marca, v.ano, v.placa, v.cor
+                FROM pessoa_veiculo pv
+                JOIN veiculo v ON v.id = pv.veiculo_id
+                WHERE pv.pessoa_id = ANY(?)
+                ORDER BY pv.pessoa_id, pv.vinculo_ativo DESC NULLS LAST, v.marca, v.modelo, v.placa
+                """;
+
+    Map<Long, List<Veiculo>> map = new HashMap<>();
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          map.computeIfAbsent(rs.getLong("pessoa_id"), k -> new ArrayList<>()).add(mapVeiculo(rs));
+        },
+        SqlArray.ids(pessoaIds));
+    return map;
+  }
+
+  /** Insere os veículos e devolve os ids na ordem de {@code veiculos}. */
+  public List<Long> inserirVeiculos(List<Veiculo> veiculos) {
+    if (veiculos.isEmpty()) return List.of();
+    String sql =
+        """
+            WITH novos AS (
+                SELECT nextval(pg_get_serial_sequence('veiculo', 'id')) AS id, v.*
+                FROM unnest(?, ?, ?, ?, ?) WITH ORDINALITY
+                    AS v(modelo, marca, ano, placa, cor, ordem)
+            ), inseridos AS (
+                INSERT INTO veiculo (id, modelo, marca, ano, placa, cor) OVERRIDING SYSTEM VALUE
+                SELECT id, modelo, marca, ano, placa, cor FROM novos
+                RETURNING id
+            )
+            SELECT n.ordem, n.id FROM novos n JOIN inseridos USING (id)
+            """;
+
+    Long[] ids = new Long[veiculos.size()];
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          ids[rs.getInt("ordem") - 1] = rs.getLong("id");
+        },
+        SqlArray.textos(campo(veiculos, Veiculo::modelo)),
+        SqlArray.textos(campo(veiculos, Veiculo::marca)),
+        SqlArray.inteiros(campo(veiculos, Veiculo::ano)),
+        SqlArray.textos(campo(veiculos, Veiculo::placa)),
+        SqlArray.textos(campo(veiculos, Veiculo::cor)));
+    return todos(ids);
+  }
+
+  public void atualizarVeiculos(List<Veiculo> veiculos) {
+    if (veiculos.isEmpty()) return;
+    String sql =
+        """
+                UPDATE veiculo SET
+                  modelo = ?,
+                  marca = ?,
+                  ano = ?,
+                  placa = ?,
+                  cor = ?
+                WHERE id = ?
+                """;
+    List<Object[]> args = new ArrayList<>(veiculos.size());
+    for (Veiculo v : veiculos)
+      args.add(new Object[] {v.modelo(), v.marca(), v.ano(), v.placa(), v.cor(), v.id()});
+    jdbcTemplate.batchUpdate(sql, args);
+    pessoaCache.invalidarVeiculos(veiculos.stream().map(Veiculo::id).toList());
+  }
+
+  /**
+   * Vincula cada veículo (chave) à pessoa (valor) com {@code vinculo_ativo = true}, movendo o
+   * vínculo se o veículo estiver ligado a outra pessoa.
+   */
+  public void vincularVeiculos(Map<Long, Long> pessoaPorVeiculo) {
+    if (pessoaPorVeiculo.isEmpty()) return;
+    String sql =
+        """
+                INSERT INTO pessoa_veiculo (pessoa_id, veiculo_id, vinculo_ativo)
+                SELECT pessoa_id, veiculo_id, true
+                FROM unnest(?, ?) AS v(pessoa_id, veiculo_id)
+                ON CONFLICT (veiculo_id)
+                DO UPDATE SET
+                  pessoa_id = EXCLUDED.pessoa_id,
+                  vinculo_ativo = true
+                """;
+    List<Long> pessoaIds = new ArrayList<>(pessoaPorVeiculo.size());
+    List<Long> veiculoIds = new ArrayList<>(pessoaPorVeiculo.size());
+    pessoaPorVeiculo.forEach(
+        (veiculoId, pessoaId) -> {
+          pessoaIds.add(pessoaId);
+          veiculoIds.add(veiculoId);
+        });
+    jdbcTemplate.update(sql, SqlArray.ids(pessoaIds), SqlArray.ids(veiculoIds));
+    pessoaCache.invalidarVeiculos(pessoaPorVeiculo.keySet());
+    pessoaCache.invalidarPessoas(pessoaPorVeiculo.values());
+  }
+
+  /** Vincula todas as pessoas a todas as empresas num único INSERT. */
+  public void vincularEmpresas(Collection<Long> empresaIds, Collection<Long> pessoaIds) {
+    if (empresaIds.isEmpty() || pessoaIds.isEmpty()) return;
+
+    Set<Long> encontradas =
+        new HashSet<>(
+            jdbcTemplate.queryForList(
+                "SELECT id FROM empresa WHERE id = ANY(?)", Long.class, SqlArray.ids(empresaIds)));
+    for (Long empresaId : empresaIds)
+      if (!encontradas.contains(empresaId))
+        throw new NotFoundException("Empresa não cadastrada para o id: " + empresaId);
+
+    String sql =
+        """
+                INSERT INTO empresa_pessoa (fk_empresa, fk_pessoa)
+                SELECT e.id, p.id
+                FROM unnest(?) AS e(id), unnest(?) AS p(id)
+                ON CONFLICT DO NOTHING
+                """;
+    jdbcTemplate.update(sql, SqlArray.ids(empresaIds), SqlArray.ids(pessoaIds));
+    pessoaCache.invalidarPessoas(pessoaIds);
+  }
+
+  private static <T, C> List<C> campo(List<T> itens, Function<T, C> campo) {
+    return itens.stream().map(campo).toList();
+  }
+
+  private static List<Long> todos(Long[] ids) {
+    for (Long id : ids)
+      if (id == null) throw new IllegalStateException("INSERT em lote não devolveu todos os ids.");
+    return Arrays.asList(ids);
+  }
+}
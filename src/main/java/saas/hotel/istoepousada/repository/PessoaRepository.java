@@ -9,6 +9,7 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.sql.Types;
+import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.Period;
 import java.util.*;
@@ -33,9 +34,11 @@ import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 public class PessoaRepository {
   Logger log = LoggerFactory.getLogger(PessoaRepository.class);
   private final JdbcTemplate jdbcTemplate;
+  private final PessoaCache pessoaCache;
 
-  public PessoaRepository(JdbcTemplate jdbcTemplate) {
+  public PessoaRepository(JdbcTemplate jdbcTemplate, PessoaCache pessoaCache) {
     this.jdbcTemplate = jdbcTemplate;
+    this.pessoaCache = pessoaCache;
   }
 
   private final ResultSetExtractor<List<Pessoa>> PESSOA_COM_EMPRESAS_EXTRACTOR =
@@ -77,17 +80,9 @@ public class PessoaRepository {
             .toList();
       };
 
-  public Page<Pessoa> buscar(
-      Long id, String termo, String placaVeiculo, Pessoa.Status status, Pageable pageable) {
-    boolean hasId = id != null;
-    boolean hasTermo = termo != null && !termo.trim().isEmpty();
-    boolean hasPlaca = placaVeiculo != null && !placaVeiculo.trim().isEmpty();
-    String placaTrim = hasPlaca ? placaVeiculo.trim().toUpperCase() : null;
-    String termoTrim = hasTermo ? termo.trim() : null;
-    String search = hasTermo ? "%" + termoTrim + "%" : null;
-
-    String baseSelect =
-        """
+  /** Pessoa com empresa e veículo ativo; {@code %s} é a origem das linhas de pessoa. */
+  private static final String PESSOA_COMPLETA_DE =
+      """
                 SELECT
                     p.id                   AS pessoa_id,
                     p.data_hora_cadastro   AS pessoa_data_hora_cadastro,
@@ -138,7 +133,7 @@ public class PessoaRepository {
                     v.ano                  AS veiculo_ano,
                     v.placa                AS veiculo_placa,
                     v.cor                  AS veiculo_cor
-                FROM pessoa p
+                FROM %s p
                 LEFT JOIN pessoa func ON func.id = p.fk_funcionario
                 LEFT JOIN pessoa titular ON titular.id = p.fk_titular
                 LEFT JOIN LATERAL (
@@ -161,39 +156,15 @@ public class PessoaRepository {
                  ) v ON true
             """;
 
-    StringBuilder where = new StringBuilder(" WHERE 1=1 ");
-    List<Object> params = new ArrayList<>();
-
-    if (hasId) {
-      where.append(" AND p.id = ? ");
-      params.add(id);
-    }
-
-    if (hasTermo) {
-      where.append(" AND (p.nome ILIKE ? OR p.cpf = ?) ");
-      params.add(search);
-      params.add(termoTrim);
-    }
+  private static final String SELECT_PESSOA_COMPLETA = PESSOA_COMPLETA_DE.formatted("pessoa");
 
-    if (status != null) {
-      where.append(" AND p.status = ?::public.pessoa_status ");
-      params.add(status.toDb());
-    }
+  private record Filtro(String where, List<Object> params) {}
 
-    if (hasPlaca) {
-      where.append(
-          """
-          AND EXISTS (
-              SELECT 1
-              FROM pessoa_veiculo pv
-              JOIN veiculo v ON v.id = pv.veiculo_id
-              WHERE pv.pessoa_id = p.id
-                AND pv.vinculo_ativo = true
-                AND UPPER(v.placa) = ?
-          )
-          """);
-      params.add(placaTrim);
-    }
+  public Page<Pessoa> buscar(
+      Long id, String termo, String placaVeiculo, Pessoa.Status status, Pageable pageable) {
+    Filtro filtro = montarFiltro(id, termo, placaVeiculo, status);
+    String where = filtro.where();
+    List<Object> params = filtro.params();
 
     Long total;
     try {
@@ -227,21 +198,263 @@ public class PessoaRepository {
 
     if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
 
-    String inPlaceholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-
     String pageSql =
-        baseSelect
-            + " WHERE p.id IN ("
-            + inPlaceholders
-            + ") "
-            + " ORDER BY p.data_hora_cadastro desc, e.razao_social";
+        SELECT_PESSOA_COMPLETA
+            + " WHERE p.id = ANY(?) ORDER BY p.data_hora_cadastro desc, e.razao_social";
 
     List<Pessoa> content =
-        jdbcTemplate.query(pageSql, PESSOA_COM_EMPRESAS_EXTRACTOR, ids.toArray());
+        jdbcTemplate.query(pageSql, PESSOA_COM_EMPRESAS_EXTRACTOR, SqlArray.ids(ids));
     List<Pessoa> enriched = adicionarAcompanhantesParaTitulares(content);
     return new PageImpl<>(Objects.requireNonNull(enriched), pageable, total);
   }
 
+  /**
+   * Paginação por cursor (keyset) ordenada por (nome, id).
+   *
+   * <p>Em vez de {@code OFFSET}, a próxima página começa logo após o último (nome, id) retornado,
+   * usando o índice {@code idx_pessoa_nome_id}. Assim o custo de qualquer página é o mesmo da
+   * primeira. O {@code COUNT(*)} só é executado quando {@code contar = true}.
+   */
+  public PessoaCursorPage buscarPorCursor(
+      String termo,
+      String placaVeiculo,
+      Pessoa.Status status,
+      PessoaCursorPage.Cursor after,
+      int size,
+      boolean contar) {
+    if (size <= 0) throw new IllegalArgumentException("size deve ser maior que 0.");
+
+    Filtro filtro = montarFiltro(null, termo, placaVeiculo, status);
+
+    Long total = null;
+    if (contar) {
+      try {
+        total =
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pessoa p" + filtro.where(),
+                Long.class,
+                filtro.params().toArray());
+      } catch (EmptyResultDataAccessException ex) {
+        total = 0L;
+      }
+    }
+
+    StringBuilder where = new StringBuilder(filtro.where());
+    List<Object> idsParams = new ArrayList<>(filtro.params());
+    if (after != null) {
+      where.append(" AND (p.nome, p.id) > (?, ?) ");
+      idsParams.add(after.nome());
+      idsParams.add(after.id());
+    }
+
+    String idsSql =
+        """
+                SELECT p.id, p.nome
+                FROM pessoa p
+            """
+            + where
+            + """
+            ORDER BY p.nome ASC, p.id ASC
+            LIMIT ?
+        """;
+
+    // busca 1 registro a mais para saber se existe próxima página sem precisar de COUNT
+    idsParams.add(size + 1);
+
+    List<PessoaCursorPage.Cursor> chaves =
+        jdbcTemplate.query(
+            idsSql,
+            (rs, rowNum) -> new PessoaCursorPage.Cursor(rs.getString("nome"), rs.getLong("id")),
+            idsParams.toArray());
+
+    boolean temProxima = chaves.size() > size;
+    if (temProxima) chaves = chaves.subList(0, size);
+    if (chaves.isEmpty()) return new PessoaCursorPage(List.of(), null, size, total);
+
+    List<Long> ids = chaves.stream().map(PessoaCursorPage.Cursor::id).toList();
+    String pageSql = SELECT_PESSOA_COMPLETA + " WHERE p.id = ANY(?) ORDER BY p.nome ASC, p.id ASC";
+
+    List<Pessoa> content =
+        jdbcTemplate.query(pageSql, PESSOA_COM_EMPRESAS_EXTRACTOR, SqlArray.ids(ids));
+    List<Pessoa> enriched = adicionarAcompanhantesParaTitulares(content);
+
+    String nextCursor = temProxima ? chaves.getLast().encode() : null;
+    return new PessoaCursorPage(Objects.requireNonNull(enriched), nextCursor, size, total);
+  }
+
+  /**
+   * Busca ranqueada para autocomplete da recepção (top-K, sem COUNT).
+   *
+   * <p>Usa as colunas normalizadas {@code *_busca} (migração V2): nome sem acento por prefixo,
+   * início de palavra e substring via índice de trigramas; CPF, RG e e-mail por igualdade/prefixo;
+   * telefone por trecho dos dígitos. Cada ramo já é limitado a {@code limite} linhas e o resultado
+   * final é ordenado pela melhor pontuação de cada pessoa.
+   */
+  public List<Pessoa> pesquisar(String termo, int limite) {
+    String texto = normalizarBusca(termo);
+    if (texto.isEmpty()) return List.of();
+
+    String digitos = termo.replaceAll("\\D", "");
+    String documento = termo.toUpperCase().replaceAll("[^0-9A-Z]", "");
+    boolean temLetras = texto.chars().anyMatch(Character::isLetter);
+    boolean pareceEmail = texto.contains("@");
+
+    List<String> ramos = new ArrayList<>();
+    List<Object> params = new ArrayList<>();
+
+    if (temLetras && !pareceEmail) {
+      String like = escaparLike(texto);
+      ramos.add(
+          """
+          (SELECT p.id,
+                  CASE WHEN p.nome_busca LIKE ? THEN 3
+                       WHEN p.nome_busca LIKE ? THEN 2
+                       ELSE 1 END + similarity(p.nome_busca, ?)::float8 AS score
+             FROM pessoa p
+            WHERE %s
+            ORDER BY score DESC
+            LIMIT ?)
+          """
+              .formatted(
+                  texto.length() >= 3
+                      ? "p.nome_busca LIKE ?"
+                      : "(p.nome_busca LIKE ? OR p.nome_busca LIKE ?)"));
+      params.add(like + "%");
+      params.add("% " + like + "%");
+      params.add(texto);
+      if (texto.length() >= 3) {
+        params.add("%" + like + "%");
+      } else {
+        params.add(like + "%");
+        params.add("% " + like + "%");
+      }
+      params.add(limite);
+    }
+
+    if (digitos.length() >= 3 && digitos.length() == documento.length()) {
+      ramos.add(ramoPrefixo("cpf_busca", 10, 5));
+      params.addAll(List.of(digitos, digitos, proximoPrefixo(digitos), limite));
+
+      ramos.add(
+          """
+          (SELECT p.id,
+                  CASE WHEN p.telefone_busca LIKE ? THEN 4 ELSE 3.5 END::float8 AS score
+             FROM pessoa p
+            WHERE p.telefone_busca LIKE ?
+            LIMIT ?)
+          """);
+      params.add("%" + digitos);
+      params.add("%" + digitos + "%");
+      params.add(limite);
+    }
+
+    if (documento.length() >= 3) {
+      ramos.add(ramoPrefixo("rg_busca", 9, 4.5));
+      params.addAll(List.of(documento, documento, proximoPrefixo(documento), limite));
+    }
+
+    if (texto.length() >= 3 && !texto.contains(" ")) {
+      ramos.add(ramoPrefixo("email_busca", 10, pareceEmail ? 5 : 2.5));
+      params.addAll(List.of(texto, texto, proximoPrefixo(texto), limite));
+    }
+
+    if (ramos.isEmpty()) return List.of();
+
+    String rankSql =
+        "SELECT c.id, MAX(c.score) AS score FROM ("
+            + String.join(" UNION ALL ", ramos)
+            + ") c GROUP BY c.id ORDER BY score DESC, c.id LIMIT ?";
+    params.add(limite);
+
+    List<Long> ids =
+        jdbcTemplate.query(rankSql, (rs, rowNum) -> rs.getLong("id"), params.toArray());
+    if (ids.isEmpty()) return List.of();
+
+    String pageSql = SELECT_PESSOA_COMPLETA + " WHERE p.id = ANY(?)";
+
+    List<Pessoa> pessoas =
+        jdbcTemplate.query(pageSql, PESSOA_COM_EMPRESAS_EXTRACTOR, SqlArray.ids(ids));
+
+    Map<Long, Integer> posicao = new HashMap<>();
+    for (int i = 0; i < ids.size(); i++) posicao.put(ids.get(i), i);
+
+    return Objects.requireNonNull(pessoas).stream()
+        .sorted(Comparator.comparing(p -> posicao.getOrDefault(p.id(), Integer.MAX_VALUE)))
+        .toList();
+  }
+
+  private static String ramoPrefixo(String coluna, double scoreExato, double scorePrefixo) {
+    return """
+        (SELECT p.id,
+                CASE WHEN p.%1$s = ? THEN %2$s ELSE %3$s END::float8 AS score
+           FROM pessoa p
+          WHERE p.%1$s ~>=~ ? AND p.%1$s ~<~ ?
+          LIMIT ?)
+        """
+        .formatted(coluna, scoreExato, scorePrefixo);
+  }
+
+  private static String normalizarBusca(String termo) {
+    if (termo == null) return "";
+    String semAcento =
+        Normalizer.normalize(termo, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    return semAcento.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+  }
+
+  private static String escaparLike(String s) {
+    return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
+  private static String proximoPrefixo(String prefixo) {
+    char ultimo = prefixo.charAt(prefixo.length() - 1);
+    return prefixo.substring(0, prefixo.length() - 1) + (char) (ultimo + 1);
+  }
+
+  private Filtro montarFiltro(Long id, String termo, String placaVeiculo, Pessoa.Status status) {
+    boolean hasId = id != null;
+    boolean hasTermo = termo != null && !termo.trim().isEmpty();
+    boolean hasPlaca = placaVeiculo != null && !placaVeiculo.trim().isEmpty();
+    String placaTrim = hasPlaca ? placaVeiculo.trim().toUpperCase() : null;
+    String termoTrim = hasTermo ? termo.trim() : null;
+    String search = hasTermo ? "%" + termoTrim + "%" : null;
+
+    StringBuilder where = new StringBuilder(" WHERE 1=1 ");
+    List<Object> params = new ArrayList<>();
+
+    if (hasId) {
+      where.append(" AND p.id = ? ");
+      params.add(id);
+    }
+
+    if (hasTermo) {
+      where.append(" AND (p.nome ILIKE ? OR p.cpf = ?) ");
+      params.add(search);
+      params.add(termoTrim);
+    }
+
+    if (status != null) {
+      where.append(" AND p.status = ?::public.pessoa_status ");
+      params.add(status.toDb());
+    }
+
+    if (hasPlaca) {
+      where.append(
+          """
+          AND EXISTS (
+              SELECT 1
+              FROM pessoa_veiculo pv
+              JOIN veiculo v ON v.id = pv.veiculo_id
+              WHERE pv.pessoa_id = p.id
+                AND pv.vinculo_ativo = true
+                AND UPPER(v.placa) = ?
+          )
+          """);
+      params.add(placaTrim);
+    }
+
+    return new Filtro(where.toString(), params);
+  }
+
   private List<Pessoa> adicionarAcompanhantesParaTitulares(List<Pessoa> pessoas) {
     if (pessoas == null || pessoas.isEmpty()) return pessoas;
 
@@ -266,10 +479,36 @@ public class PessoaRepository {
         .toList();
   }
 
+  /** Pessoas completas (empresa e veículo ativo) pelos ids, numa única consulta. */
+  public List<Pessoa> listarPorIds(Collection<Long> ids) {
+    if (ids == null || ids.isEmpty()) return List.of();
+    return jdbcTemplate.query(
+        SELECT_PESSOA_COMPLETA + " WHERE p.id = ANY(?)",
+        PESSOA_COM_EMPRESAS_EXTRACTOR,
+        SqlArray.ids(ids));
+  }
+
+  /** Pessoa completa e, se for titular, seus acompanhantes (uma ou duas consultas). */
   public Pessoa findById(Long id) {
-    Page<Pessoa> page = buscar(id, null, null, null, Pageable.ofSize(1));
-    if (page.isEmpty()) throw new NotFoundException("Pessoa não encontrada para o id: " + id);
-    return page.getContent().getFirst();
+    List<Pessoa> pessoas =
+        jdbcTemplate.query(
+            SELECT_PESSOA_COMPLETA + " WHERE p.id = ?", PESSOA_COM_EMPRESAS_EXTRACTOR, id);
+    return unica(pessoas, id);
+  }
+
+  /**
+   * Mesma pessoa de {@link #findById}, servida do {@link PessoaCache} quando possível. Para
+   * leituras repetidas, como o funcionário logado em cada escrita.
+   */
+  public Pessoa findByIdEmCache(Long id) {
+    if (id == null) throw new NotFoundException("Pessoa não encontrada para o id: " + id);
+    return pessoaCache.get(id, this::findById);
+  }
+
+  private Pessoa unica(List<Pessoa> pessoas, Long id) {
+    if (pessoas == null || pessoas.isEmpty())
+      throw new NotFoundException("Pessoa não encontrada para o id: " + id);
+    return adicionarAcompanhantesParaTitulares(pessoas).getFirst();
   }
 
   @Transactional
@@ -277,8 +516,7 @@ public class PessoaRepository {
     if (pessoa.id() == null) {
       return insert(pessoa, funcionarioId);
     } else {
-      update(pessoa, funcionarioId);
-      return findById(pessoa.id());
+      return update(pessoa, funcionarioId);
     }
   }
 
@@ -347,14 +585,21 @@ public class PessoaRepository {
     Long generatedId =
         keys != null && keys.containsKey("id") ? ((Number) keys.get("id")).longValue() : null;
 
+    // a lista de acompanhantes do titular mudou
+    pessoaCache.invalidarPessoas(Collections.singletonList(pessoa.titularId()));
+
     return pessoa.withId(generatedId);
   }
 
+  /**
+   * Atualiza e devolve a pessoa completa na mesma instrução ({@code UPDATE ... RETURNING} numa
+   * CTE). Lança {@link NotFoundException} se o id não existir.
+   */
   @Transactional
-  public void update(Pessoa pessoa, Long funcionarioId) {
-    findById(pessoa.id());
+  public Pessoa update(Pessoa pessoa, Long funcionarioId) {
     String sql =
         """
+                    WITH atualizada AS (
                         UPDATE pessoa SET
                             nome = ?,
                             data_nascimento = ?,
@@ -376,7 +621,10 @@ public class PessoaRepository {
                             fk_funcionario = ?,
                             fk_titular = ?
                         WHERE id = ?
-                    """;
+                        RETURNING *
+                    )
+                    """
+            + PESSOA_COMPLETA_DE.formatted("atualizada");
 
     Date dataNascimentoSql =
         pessoa.dataNascimento() != null ? Date.valueOf(pessoa.dataNascimento()) : null;
@@ -388,56 +636,71 @@ public class PessoaRepository {
 
     String status = pessoa.status() == null ? Pessoa.Status.ATIVO.toDb() : pessoa.status().toDb();
 
-    jdbcTemplate.update(
-        sql,
-        pessoa.nome(),
-        dataNascimentoSql,
-        idade,
-        pessoa.cpf(),
-        pessoa.rg(),
-        pessoa.email(),
-        pessoa.telefone(),
-        pessoa.pais(),
-        pessoa.estado(),
-        pessoa.municipio(),
-        pessoa.endereco(),
-        pessoa.complemento(),
-        pessoa.cep(),
-        pessoa.bairro(),
-        pessoa.sexo(),
-        pessoa.numero(),
-        status,
-        funcionarioId,
-        pessoa.titularId(),
-        pessoa.id());
+    List<Pessoa> atualizada =
+        jdbcTemplate.query(
+            sql,
+            PESSOA_COM_EMPRESAS_EXTRACTOR,
+            pessoa.nome(),
+            dataNascimentoSql,
+            idade,
+            pessoa.cpf(),
+            pessoa.rg(),
+            pessoa.email(),
+            pessoa.telefone(),
+            pessoa.pais(),
+            pessoa.estado(),
+            pessoa.municipio(),
+            pessoa.endereco(),
+            pessoa.complemento(),
+            pessoa.cep(),
+            pessoa.bairro(),
+            pessoa.sexo(),
+            pessoa.numero(),
+            status,
+            funcionarioId,
+            pessoa.titularId(),
+            pessoa.id());
+    pessoaCache.invalidarPessoas(Arrays.asList(pessoa.id(), pessoa.titularId()));
+    return unica(atualizada, pessoa.id());
   }
 
   @Transactional
   public void alterarStatus(Long id, Pessoa.Status status) {
-    var pessoa = findById(id);
-    Pessoa.Status oldStatus = pessoa.status();
-    String sql = "UPDATE pessoa SET status = ?::pessoa_status WHERE id = ?";
-    jdbcTemplate.update(sql, status.toDb(), id);
+    // o self-join enxerga a linha antes do UPDATE: o status antigo vem no RETURNING
+    String sql =
+        """
+                UPDATE pessoa p
+                SET status = ?::pessoa_status
+                FROM pessoa antes
+                WHERE antes.id = p.id
+                  AND p.id = ?
+                RETURNING antes.status AS status_antigo
+            """;
+    List<String> antigo =
+        jdbcTemplate.query(sql, (rs, rowNum) -> rs.getString("status_antigo"), status.toDb(), id);
+    if (antigo.isEmpty()) throw new NotFoundException("Pessoa não encontrada para o id: " + id);
+    pessoaCache.invalidarPessoas(List.of(id));
     log.info(
         "Usuário: [{}] alterou o status de: {} -> {} do cliente: [{}]",
         "usuario",
-        oldStatus,
+        Pessoa.Status.fromDb(antigo.getFirst()),
         status,
-        pessoa);
+        id);
   }
 
   @Transactional
   public void incrementarHospedagem(Long id) {
-    var pessoa = findById(id);
     String sql =
         """
                 UPDATE pessoa
                 SET vezes_hospedado = COALESCE(vezes_hospedado, 0) + 1
                 WHERE id = ?
+                RETURNING vezes_hospedado
             """;
-    jdbcTemplate.update(sql, id);
-    log.info(
-        "Cliente: {}, Incrementado hospedagem (1), Total: {}", pessoa, pessoa.vezesHospedado());
+    List<Integer> total = jdbcTemplate.queryForList(sql, Integer.class, id);
+    if (total.isEmpty()) throw new NotFoundException("Pessoa não encontrada para o id: " + id);
+    pessoaCache.invalidarPessoas(List.of(id));
+    log.info("Cliente: {}, Incrementado hospedagem (1), Total: {}", id, total.getFirst());
   }
 
   public Long getFuncionarioPessoaIdFromRequest() {
@@ -459,8 +722,6 @@ public class PessoaRepository {
   private Map<Long, List<Pessoa>> buscarAcompanhantesPorTitularIds(List<Long> titularIds) {
     if (titularIds == null || titularIds.isEmpty()) return Map.of();
 
-    String inPlaceholders = String.join(",", Collections.nCopies(titularIds.size(), "?"));
-
     String sql =
         """
             SELECT
@@ -491,9 +752,9 @@ public class PessoaRepository {
             FROM pessoa p
             LEFT JOIN pessoa func ON func.id = p.fk_funcionario
             LEFT JOIN pessoa titular ON titular.id = p.fk_titular
-            WHERE p.fk_titular IN ("""
-            + inPlaceholders
-            + ") ORDER BY p.fk_titular, p.nome";
+            WHERE p.fk_titular = ANY(?)
+            ORDER BY p.fk_titular, p.nome
+            """;
 
     return jdbcTemplate.query(
         sql,
@@ -507,6 +768,6 @@ public class PessoaRepository {
           }
           return map;
         },
-        titularIds.toArray());
+        SqlArray.ids(titularIds));
   }
 }
@@ -1,15 +1,15 @@
 package saas.hotel.istoepousada.repository;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.*;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.*;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import saas.hotel.istoepousada.dto.Disponibilidade;
 import saas.hotel.istoepousada.dto.Quarto;
 import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 
@@ -102,15 +102,11 @@ public class QuartoRepository {
 
     if (ids.isEmpty()) return new PageImpl<>(List.of(), pageable, total);
 
-    String in = String.join(",", Collections.nCopies(ids.size(), "?"));
-
     String pageSql =
         baseSelect
-            + " WHERE quarto.id IN ("
-            + in
-            + ") ORDER BY quarto.descricao ASC NULLS LAST, quarto.id ASC";
+            + " WHERE quarto.id = ANY(?) ORDER BY quarto.descricao ASC NULLS LAST, quarto.id ASC";
 
-    List<Quarto> content = jdbcTemplate.query(pageSql, QUARTO_EXTRACTOR, ids.toArray());
+    List<Quarto> content = jdbcTemplate.query(pageSql, QUARTO_EXTRACTOR, SqlArray.ids(ids));
     return new PageImpl<>(Objects.requireNonNull(content), pageable, total);
   }
 
@@ -140,6 +136,70 @@ public class QuartoRepository {
     }
   }
 
+  public List<Quarto> listarPorIds(Collection<Long> ids) {
+    if (ids == null || ids.isEmpty()) return List.of();
+    String sql =
+        """
+                SELECT
+                  quarto.id              AS quarto_id,
+                  quarto.descricao       AS quarto_descricao,
+                  quarto.qtd_pessoas     AS quarto_qtd_pessoas,
+                  quarto.status          AS quarto_status,
+                  quarto.qtd_cama_casal  AS quarto_qtd_cama_casal,
+                  quarto.qtd_cama_solteiro AS quarto_qtd_cama_solteiro,
+                  quarto.qtd_rede        AS quarto_qtd_rede,
+                  quarto.qtd_beliche     AS quarto_qtd_beliche
+                FROM public.quarto quarto
+                WHERE quarto.id = ANY(?)
+                """;
+    return jdbcTemplate.query(sql, QUARTO_EXTRACTOR, SqlArray.ids(ids));
+  }
+
+  /** Versão de ocupação de cada quarto (mantida por trigger em diaria, pernoite e quarto). */
+  public Map<Long, Long> buscarVersoesOcupacao() {
+    Map<Long, Long> versoes = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT quarto_id, versao FROM public.quarto_ocupacao_versao",
+        rs -> {
+          versoes.put(rs.getLong("quarto_id"), rs.getLong("versao"));
+        });
+    return versoes;
+  }
+
+  /**
+   * Períodos ocupados por diárias de pernoites não cancelados, por quarto, ordenados pelo início.
+   */
+  public Map<Long, List<Disponibilidade.Periodo>> listarOcupacoes(Collection<Long> quartoIds) {
+    if (quartoIds == null || quartoIds.isEmpty()) return Map.of();
+    String sql =
+        """
+                SELECT
+                  d.quarto_id       AS quarto_id,
+                  lower(d.periodo)  AS inicio,
+                  upper(d.periodo)  AS fim
+                FROM public.diaria d
+                LEFT JOIN public.pernoite pe ON pe.id = d.pernoite_id
+                WHERE d.quarto_id = ANY(?)
+                  AND d.periodo IS NOT NULL
+                  AND (pe.status IS NULL OR pe.status::text <> 'CANCELADO')
+                ORDER BY d.quarto_id, lower(d.periodo)
+                """;
+
+    Map<Long, List<Disponibilidade.Periodo>> ocupacoes = new HashMap<>();
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          ocupacoes
+              .computeIfAbsent(rs.getLong("quarto_id"), k -> new ArrayList<>())
+              .add(
+                  new Disponibilidade.Periodo(
+                      rs.getObject("inicio", LocalDate.class),
+                      rs.getObject("fim", LocalDate.class)));
+        },
+        quartoIds.toArray());
+    return ocupacoes;
+  }
+
   @Transactional
   public Quarto insert(Quarto quarto) {
     if (quarto == null) throw new IllegalArgumentException("Quarto é obrigatório.");
@@ -157,34 +217,30 @@ public class QuartoRepository {
                   qtd_beliche,
                   fk_categoria
                 ) VALUES (?, ?, CAST(? AS public.quarto_status), ?, ?, ?, ?, ?)
+                RETURNING *
                 """;
 
-    KeyHolder keyHolder = new GeneratedKeyHolder();
-
-    jdbcTemplate.update(
-        con -> {
-          PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-          ps.setString(1, quarto.descricao());
-          setIntOrNull(ps, 2, quarto.quantidade_pessoas());
-          setStringOrNull(
-              ps, 3, quarto.status_quarto() == null ? null : quarto.status_quarto().name());
-          setIntOrNull(ps, 4, quarto.qtd_cama_casal());
-          setIntOrNull(ps, 5, quarto.qtd_cama_solteiro());
-          setIntOrNull(ps, 6, quarto.qtd_rede());
-          setIntOrNull(ps, 7, quarto.qtd_beliche());
-          ps.setNull(8, Types.INTEGER);
-
-          return ps;
-        },
-        keyHolder);
-
-    Long id =
-        keyHolder.getKeys() != null && keyHolder.getKeys().containsKey("id")
-            ? ((Number) keyHolder.getKeys().get("id")).longValue()
-            : null;
-
-    if (id == null) throw new IllegalStateException("Registro salvo sem ID (verifique RETURNING).");
-    return findByIdOrThrow(id);
+    List<Quarto> salvo =
+        jdbcTemplate.query(
+            con -> {
+              PreparedStatement ps = con.prepareStatement(sql);
+              ps.setString(1, quarto.descricao());
+              setIntOrNull(ps, 2, quarto.quantidade_pessoas());
+              setStringOrNull(
+                  ps, 3, quarto.status_quarto() == null ? null : quarto.status_quarto().name());
+              setIntOrNull(ps, 4, quarto.qtd_cama_casal());
+              setIntOrNull(ps, 5, quarto.qtd_cama_solteiro());
+              setIntOrNull(ps, 6, quarto.qtd_rede());
+              setIntOrNull(ps, 7, quarto.qtd_beliche());
+              ps.setNull(8, Types.INTEGER);
+
+              return ps;
+            },
+            (rs, rowNum) -> Quarto.mapQuarto(rs, ""));
+
+    if (salvo.isEmpty())
+      throw new IllegalStateException("Registro salvo sem ID (verifique RETURNING).");
+    return salvo.getFirst();
   }
 
   @Transactional
@@ -204,11 +260,13 @@ public class QuartoRepository {
                   qtd_rede = ?,
                   qtd_beliche = ?
                 WHERE id = ?
+                RETURNING *
                 """;
 
-    int rows =
-        jdbcTemplate.update(
+    List<Quarto> atualizado =
+        jdbcTemplate.query(
             sql,
+            (rs, rowNum) -> Quarto.mapQuarto(rs, ""),
             quarto.descricao(),
             quarto.quantidade_pessoas(),
             quarto.status_quarto() == null ? null : quarto.status_quarto().name(),
@@ -218,8 +276,8 @@ public class QuartoRepository {
             quarto.qtd_beliche(),
             id);
 
-    if (rows == 0) throw new NotFoundException("Quarto não encontrado para o id: " + id);
-    return findByIdOrThrow(id);
+    if (atualizado.isEmpty()) throw new NotFoundException("Quarto não encontrado para o id: " + id);
+    return atualizado.getFirst();
   }
 
   @Transactional
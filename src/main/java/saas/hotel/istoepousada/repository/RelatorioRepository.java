@@ -3,10 +3,13 @@ package saas.hotel.istoepousada.repository;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.*;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
@@ -19,10 +22,24 @@ import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 @Repository
 public class RelatorioRepository {
 
+  private static final int EXPORT_FETCH_SIZE = 1000;
+
   private final JdbcTemplate jdbcTemplate;
+  private final MotorExtrato motorExtrato;
+
+  /** Motor usado pelo extrato sem id ({@code relatorio.extrato.motor}). */
+  public enum MotorExtrato {
+    /** Totais e dias a partir de {@code relatorio_dia_agg}. */
+    AGREGADO,
+    /** Totais, dias e linhas da página num único SELECT sobre {@code relatorio}. */
+    CONSULTA_UNICA
+  }
 
-  public RelatorioRepository(JdbcTemplate jdbcTemplate) {
+  public RelatorioRepository(
+      JdbcTemplate jdbcTemplate,
+      @Value("${relatorio.extrato.motor:AGREGADO}") MotorExtrato motorExtrato) {
     this.jdbcTemplate = jdbcTemplate;
+    this.motorExtrato = motorExtrato;
   }
 
   private final ResultSetExtractor<List<Relatorio>> RELATORIO_EXTRACTOR =
@@ -32,32 +49,8 @@ public class RelatorioRepository {
         return list;
       };
 
-  private static Float toFloat(Double v) {
-    return v == null ? 0f : v.floatValue();
-  }
-
-  private record Totais(Double totalEntradas, Double totalSaidas) {}
-
-  private record TotaisDinheiro(Double totalDinheiro, Double totalDinheiroSaida) {}
-
-  public RelatorioExtratoResponse buscar(
-      Long id,
-      LocalDate dataInicio,
-      LocalDate dataFim,
-      Long funcionarioId,
-      Long quartoId,
-      Long tipoPagamentoId,
-      Relatorio.Valores valores,
-      Pageable pageable) {
-
-    String baseFrom =
-        """
-            FROM relatorio r
-            INNER JOIN pessoa pbase ON pbase.id = r.fk_funcionario
-            """;
-
-    String baseSelect =
-        """
+  private static final String SELECT_RELATORIO =
+      """
             SELECT
                 r.id                 AS relatorio_id,
                 r.data_hora          AS data_hora,
@@ -102,6 +95,24 @@ public class RelatorioRepository {
             LEFT JOIN quarto q ON q.id = r.quarto_id
             """;
 
+  private static Float toFloat(Double v) {
+    return v == null ? 0f : v.floatValue();
+  }
+
+  private record Totais(Double totalEntradas, Double totalSaidas) {}
+
+  private record TotaisDinheiro(Double totalDinheiro, Double totalDinheiroSaida) {}
+
+  private record Filtro(String where, List<Object> params) {}
+
+  /** Filtros de {@code buscar} sobre {@code relatorio r}, exceto o tipo de pagamento. */
+  private Filtro filtroBase(
+      Long id,
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Relatorio.Valores valores) {
     StringBuilder whereBase = new StringBuilder(" WHERE 1=1 ");
     List<Object> paramsBase = new ArrayList<>();
 
@@ -129,6 +140,36 @@ public class RelatorioRepository {
       if (valores == Relatorio.Valores.ENTRADA) whereBase.append(" AND r.valor > 0 ");
       else if (valores == Relatorio.Valores.SAIDA) whereBase.append(" AND r.valor < 0 ");
     }
+    return new Filtro(whereBase.toString(), paramsBase);
+  }
+
+  public RelatorioExtratoResponse buscar(
+      Long id,
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      Pageable pageable) {
+
+    // busca por id (getByIdOrThrow) continua nas linhas cruas; o extrato usa o motor configurado
+    if (id == null && motorExtrato == MotorExtrato.CONSULTA_UNICA)
+      return buscarEmConsultaUnica(
+          dataInicio, dataFim, funcionarioId, quartoId, tipoPagamentoId, valores, pageable);
+    if (id == null)
+      return buscarPorAgregado(
+          dataInicio, dataFim, funcionarioId, quartoId, tipoPagamentoId, valores, pageable);
+
+    String baseFrom =
+        """
+            FROM relatorio r
+            INNER JOIN pessoa pbase ON pbase.id = r.fk_funcionario
+            """;
+
+    Filtro filtro = filtroBase(id, dataInicio, dataFim, funcionarioId, quartoId, valores);
+    String whereBase = filtro.where();
+    List<Object> paramsBase = filtro.params();
 
     StringBuilder whereList = new StringBuilder(whereBase);
     List<Object> paramsList = new ArrayList<>(paramsBase);
@@ -203,37 +244,383 @@ public class RelatorioRepository {
           new PageImpl<>(List.of(), pageable, totalDias));
     }
 
-    StringBuilder dayRanges = new StringBuilder(" WHERE 1=1 ");
-
     String whereListStr = whereList.toString();
+    Map<LocalDate, Float> totalDiaMap =
+        buscarTotaisPorDiaPositivos(baseFrom, whereListStr, paramsList, dias);
+    List<RelatorioDia> grupos = carregarDias(whereListStr, paramsList, dias, totalDiaMap);
+
+    Page<RelatorioDia> pageDias = new PageImpl<>(grupos, pageable, totalDias);
+
+    return new RelatorioExtratoResponse(
+        balancoGeral,
+        totalEntradas,
+        totalSaidas,
+        totalDinheiro,
+        totalDinheiroSaida,
+        balancoDinheiro,
+        pageDias);
+  }
+
+  /**
+   * Extrato lido de {@code relatorio_dia_agg}: totais, contagem e página de dias saem do agregado
+   * (custo proporcional ao número de dias, não de lançamentos) e só os dias visíveis tocam {@code
+   * relatorio}.
+   */
+  private RelatorioExtratoResponse buscarPorAgregado(
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      Pageable pageable) {
+
+    StringBuilder whereAgg = new StringBuilder(" WHERE 1=1 ");
+    List<Object> paramsAgg = new ArrayList<>();
+
+    StringBuilder whereList = new StringBuilder(" WHERE 1=1 ");
+    List<Object> paramsList = new ArrayList<>();
 
-    StringBuilder ranges = new StringBuilder();
-    List<Object> rangeParams = new ArrayList<>();
+    if (dataInicio != null) {
+      whereAgg.append(" AND a.dia >= ? ");
+      paramsAgg.add(dataInicio);
+      whereList.append(" AND r.data_hora >= ? ");
+      paramsList.add(Timestamp.valueOf(dataInicio.atStartOfDay()));
+    }
+    if (dataFim != null) {
+      whereAgg.append(" AND a.dia <= ? ");
+      paramsAgg.add(dataFim);
+      whereList.append(" AND r.data_hora < ? ");
+      paramsList.add(Timestamp.valueOf(dataFim.plusDays(1).atStartOfDay()));
+    }
+    if (funcionarioId != null) {
+      whereAgg.append(" AND a.fk_funcionario = ? ");
+      paramsAgg.add(funcionarioId);
+      whereList.append(" AND r.fk_funcionario = ? ");
+      paramsList.add(funcionarioId);
+    }
+    if (quartoId != null) {
+      whereAgg.append(" AND a.quarto_id = ? ");
+      paramsAgg.add(quartoId);
+      whereList.append(" AND r.quarto_id = ? ");
+      paramsList.add(quartoId);
+    }
 
-    for (int i = 0; i < dias.size(); i++) {
-      if (i > 0) ranges.append(" OR ");
-      ranges.append("(r.data_hora >= ? AND r.data_hora < ?)");
-      rangeParams.add(Timestamp.valueOf(dias.get(i).atStartOfDay()));
-      rangeParams.add(Timestamp.valueOf(dias.get(i).plusDays(1).atStartOfDay()));
+    String entradas = "a.total_entradas";
+    String saidas = "a.total_saidas";
+    String temLancamento = "a.qtd > 0";
+    if (valores == Relatorio.Valores.ENTRADA) {
+      saidas = "0";
+      temLancamento = "a.qtd_entradas > 0";
+      whereList.append(" AND r.valor > 0 ");
+    } else if (valores == Relatorio.Valores.SAIDA) {
+      entradas = "0";
+      temLancamento = "a.qtd_saidas > 0";
+      whereList.append(" AND r.valor < 0 ");
     }
 
+    String doTipo = "TRUE";
+    List<Object> paramsTotais = new ArrayList<>();
+    if (tipoPagamentoId != null) {
+      doTipo = "a.fk_tipo_pagamento = ?";
+      paramsTotais.add(tipoPagamentoId);
+      paramsTotais.add(tipoPagamentoId);
+      paramsTotais.add(tipoPagamentoId);
+      whereList.append(" AND r.fk_tipo_pagamento = ? ");
+      paramsList.add(tipoPagamentoId);
+    }
+    paramsTotais.addAll(paramsAgg);
+
+    String totaisSql =
+        """
+            SELECT
+              COALESCE(SUM(%1$s) FILTER (WHERE %3$s), 0)::float8 AS total_entradas,
+              COALESCE(SUM(%2$s) FILTER (WHERE %3$s), 0)::float8 AS total_saidas,
+              COALESCE(SUM(%1$s) FILTER (WHERE a.fk_tipo_pagamento = 1), 0)::float8
+                AS total_dinheiro,
+              COALESCE(SUM(%2$s) FILTER (WHERE a.fk_tipo_pagamento = 1), 0)::float8
+                AS total_dinheiro_saida,
+              COUNT(DISTINCT a.dia) FILTER (WHERE %3$s AND %4$s) AS total_dias
+            FROM relatorio_dia_agg a
+            """
+                .formatted(entradas, saidas, doTipo, temLancamento)
+            + whereAgg;
+
+    Map<String, Object> totais = jdbcTemplate.queryForMap(totaisSql, paramsTotais.toArray());
+
+    Float totalEntradas = toFloat(asDouble(totais.get("total_entradas")));
+    Float totalSaidas = toFloat(asDouble(totais.get("total_saidas")));
+    Float balancoGeral = totalEntradas + totalSaidas;
+
+    Float totalDinheiro = toFloat(asDouble(totais.get("total_dinheiro")));
+    Float totalDinheiroSaida = toFloat(asDouble(totais.get("total_dinheiro_saida")));
+    Float balancoDinheiro = totalDinheiro + totalDinheiroSaida;
+
+    Number qtdDias = (Number) totais.get("total_dias");
+    long totalDias = qtdDias == null ? 0L : qtdDias.longValue();
+
+    if (totalDias == 0) {
+      return new RelatorioExtratoResponse(
+          balancoGeral,
+          totalEntradas,
+          totalSaidas,
+          totalDinheiro,
+          totalDinheiroSaida,
+          balancoDinheiro,
+          new PageImpl<>(List.of(), pageable, 0));
+    }
+
+    String diasSql =
+        """
+            SELECT a.dia AS dia, COALESCE(SUM(%s), 0)::float8 AS total_dia
+            FROM relatorio_dia_agg a
+            """
+                .formatted(entradas)
+            + whereAgg
+            + " AND "
+            + temLancamento
+            + (tipoPagamentoId != null ? " AND a.fk_tipo_pagamento = ? " : " ")
+            + """
+        GROUP BY a.dia
+        ORDER BY a.dia DESC
+        LIMIT ? OFFSET ?
+        """;
+
+    List<Object> diasParams = new ArrayList<>(paramsAgg);
+    if (tipoPagamentoId != null) diasParams.add(tipoPagamentoId);
+    diasParams.add(pageable.getPageSize());
+    diasParams.add((int) pageable.getOffset());
+
+    Map<LocalDate, Float> totalDiaMap = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        diasSql,
+        rs -> {
+          totalDiaMap.put(
+              rs.getObject("dia", LocalDate.class),
+              toFloat(rs.getObject("total_dia", Double.class)));
+        },
+        diasParams.toArray());
+
+    List<LocalDate> dias = new ArrayList<>(totalDiaMap.keySet());
+    List<RelatorioDia> grupos =
+        dias.isEmpty()
+            ? List.of()
+            : carregarDias(whereList.toString(), paramsList, dias, totalDiaMap);
+
+    return new RelatorioExtratoResponse(
+        balancoGeral,
+        totalEntradas,
+        totalSaidas,
+        totalDinheiro,
+        totalDinheiroSaida,
+        balancoDinheiro,
+        new PageImpl<>(grupos, pageable, totalDias));
+  }
+
+  /**
+   * Extrato num único round trip: {@code GROUPING SETS ((dia), ())} dá os totais por dia e gerais,
+   * os dias da página saem do mesmo agregado e as linhas são juntadas só para esses dias.
+   */
+  private RelatorioExtratoResponse buscarEmConsultaUnica(
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      Pageable pageable) {
+
+    Filtro filtro = filtroBase(null, dataInicio, dataFim, funcionarioId, quartoId, valores);
+
+    List<Object> params = new ArrayList<>();
+    String emLista = "TRUE";
+    if (tipoPagamentoId != null) {
+      emLista = "r.fk_tipo_pagamento = ?";
+      params.add(tipoPagamentoId);
+    }
+    params.addAll(filtro.params());
+    params.add(pageable.getPageSize());
+    params.add((int) pageable.getOffset());
+
+    String sql =
+        """
+            WITH base AS (
+              SELECT r.id, r.valor, r.fk_tipo_pagamento, DATE(r.data_hora) AS dia, %s AS em_lista
+              FROM relatorio r
+              INNER JOIN pessoa pbase ON pbase.id = r.fk_funcionario
+              %s
+            ),
+            agg AS (
+              SELECT
+                dia,
+                GROUPING(dia) AS geral,
+                SUM(CASE WHEN em_lista AND valor > 0 THEN valor ELSE 0 END) AS entradas,
+                SUM(CASE WHEN em_lista AND valor < 0 THEN valor ELSE 0 END) AS saidas,
+                SUM(CASE WHEN fk_tipo_pagamento = 1 AND valor > 0 THEN valor ELSE 0 END)
+                  AS dinheiro,
+                SUM(CASE WHEN fk_tipo_pagamento = 1 AND valor < 0 THEN valor ELSE 0 END)
+                  AS dinheiro_saida,
+                COUNT(*) FILTER (WHERE em_lista) AS qtd_lista
+              FROM base
+              GROUP BY GROUPING SETS ((dia), ())
+            ),
+            totais AS (
+              SELECT
+                COALESCE(g.entradas, 0)::float8       AS total_entradas,
+                COALESCE(g.saidas, 0)::float8         AS total_saidas,
+                COALESCE(g.dinheiro, 0)::float8       AS total_dinheiro,
+                COALESCE(g.dinheiro_saida, 0)::float8 AS total_dinheiro_saida,
+                (SELECT COUNT(*) FROM agg x WHERE x.geral = 0 AND x.qtd_lista > 0) AS total_dias
+              FROM agg g
+              WHERE g.geral = 1
+            ),
+            dias AS (
+              SELECT a.dia, COALESCE(a.entradas, 0)::float8 AS total_dia
+              FROM agg a
+              WHERE a.geral = 0 AND a.qtd_lista > 0
+              ORDER BY a.dia DESC
+              LIMIT ? OFFSET ?
+            ),
+            pagina AS (
+              %s
+              INNER JOIN base b ON b.id = r.id AND b.em_lista
+              INNER JOIN dias dp ON dp.dia = b.dia
+            )
+            SELECT t.*, d.dia AS pagina_dia, d.total_dia AS pagina_total_dia, pg.*
+            FROM totais t
+            LEFT JOIN dias d ON TRUE
+            LEFT JOIN pagina pg ON DATE(pg.data_hora) = d.dia
+            ORDER BY d.dia DESC NULLS LAST, pg.data_hora DESC NULLS LAST, pg.relatorio_id DESC
+            """
+            .formatted(emLista, filtro.where(), SELECT_RELATORIO);
+
+    return jdbcTemplate.query(
+        sql,
+        rs -> {
+          Float totalEntradas = 0f;
+          Float totalSaidas = 0f;
+          Float totalDinheiro = 0f;
+          Float totalDinheiroSaida = 0f;
+          long totalDias = 0L;
+
+          Map<LocalDate, Float> totalDiaMap = new LinkedHashMap<>();
+          Map<LocalDate, List<Relatorio>> porDia = new LinkedHashMap<>();
+
+          boolean primeira = true;
+          while (rs.next()) {
+            if (primeira) {
+              totalEntradas = toFloat(rs.getObject("total_entradas", Double.class));
+              totalSaidas = toFloat(rs.getObject("total_saidas", Double.class));
+              totalDinheiro = toFloat(rs.getObject("total_dinheiro", Double.class));
+              totalDinheiroSaida = toFloat(rs.getObject("total_dinheiro_saida", Double.class));
+              totalDias = rs.getLong("total_dias");
+              primeira = false;
+            }
+
+            LocalDate dia = rs.getObject("pagina_dia", LocalDate.class);
+            if (dia == null) continue;
+            if (!totalDiaMap.containsKey(dia)) {
+              totalDiaMap.put(dia, toFloat(rs.getObject("pagina_total_dia", Double.class)));
+              porDia.put(dia, new ArrayList<>());
+            }
+            rs.getLong("relatorio_id");
+            if (!rs.wasNull()) porDia.get(dia).add(Relatorio.mapRelatorio(rs));
+          }
+
+          List<RelatorioDia> grupos =
+              totalDiaMap.entrySet().stream()
+                  .map(e -> new RelatorioDia(e.getKey(), e.getValue(), porDia.get(e.getKey())))
+                  .toList();
+
+          return new RelatorioExtratoResponse(
+              totalEntradas + totalSaidas,
+              totalEntradas,
+              totalSaidas,
+              totalDinheiro,
+              totalDinheiroSaida,
+              totalDinheiro + totalDinheiroSaida,
+              new PageImpl<>(grupos, pageable, totalDias));
+        },
+        params.toArray());
+  }
+
+  /**
+   * Percorre os lançamentos do filtro num cursor forward-only ({@code fetchSize}), entregando uma
+   * linha por vez ao handler. Precisa rodar dentro de transação para o driver do PostgreSQL usar o
+   * cursor em vez de carregar o resultado inteiro.
+   */
+  public void exportar(
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      RowCallbackHandler handler) {
+
+    Filtro filtro = filtroBase(null, dataInicio, dataFim, funcionarioId, quartoId, valores);
+    StringBuilder where = new StringBuilder(filtro.where());
+    List<Object> params = new ArrayList<>(filtro.params());
+    if (tipoPagamentoId != null) {
+      where.append(" AND r.fk_tipo_pagamento = ? ");
+      params.add(tipoPagamentoId);
+    }
+
+    String sql =
+        """
+            SELECT
+                r.id           AS relatorio_id,
+                r.data_hora    AS data_hora,
+                r.relatorio    AS relatorio,
+                r.valor        AS valor,
+                tp.descricao   AS tipo_pagamento_descricao,
+                q.id           AS quarto_id,
+                q.descricao    AS quarto_descricao,
+                p.nome         AS funcionario_nome
+            FROM relatorio r
+            INNER JOIN pessoa p ON p.id = r.fk_funcionario
+            LEFT JOIN tipo_pagamento tp ON tp.id = r.fk_tipo_pagamento
+            LEFT JOIN quarto q ON q.id = r.quarto_id
+            """
+            + where
+            + " ORDER BY r.data_hora, r.id";
+
+    jdbcTemplate.query(
+        connection -> {
+          PreparedStatement ps =
+              connection.prepareStatement(
+                  sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+          ps.setFetchSize(EXPORT_FETCH_SIZE);
+          new ArgumentPreparedStatementSetter(params.toArray()).setValues(ps);
+          return ps;
+        },
+        handler);
+  }
+
+  /** Lançamentos dos dias visíveis na página, agrupados por dia na ordem de {@code dias}. */
+  private List<RelatorioDia> carregarDias(
+      String whereList,
+      List<Object> paramsList,
+      List<LocalDate> dias,
+      Map<LocalDate, Float> totalDiaMap) {
+    // faixa do primeiro ao último dia (usa o índice em data_hora) e, dentro dela, só os dias da
+    // página; o texto do SQL não depende de quantos dias a página tem
+    LocalDate primeiro = Collections.min(dias);
+    LocalDate ultimo = Collections.max(dias);
     String pageSql =
-        baseSelect
-            + whereListStr
-            + " AND ("
-            + ranges
-            + ") "
+        SELECT_RELATORIO
+            + whereList
+            + " AND r.data_hora >= ? AND r.data_hora < ? AND DATE(r.data_hora) = ANY(?) "
             + " ORDER BY DATE(r.data_hora) DESC, r.data_hora DESC NULLS LAST, r.id DESC";
 
     List<Object> pageParams = new ArrayList<>(paramsList);
-    pageParams.addAll(rangeParams);
+    pageParams.add(Timestamp.valueOf(primeiro.atStartOfDay()));
+    pageParams.add(Timestamp.valueOf(ultimo.plusDays(1).atStartOfDay()));
+    pageParams.add(SqlArray.datas(dias));
 
     List<Relatorio> relatorios =
         jdbcTemplate.query(pageSql, RELATORIO_EXTRACTOR, pageParams.toArray());
 
-    Map<LocalDate, Float> totalDiaMap =
-        buscarTotaisPorDiaPositivos(baseFrom, whereListStr, paramsList, dias);
-
     Map<LocalDate, List<Relatorio>> porDia = new LinkedHashMap<>();
     for (LocalDate d : dias) porDia.put(d, new ArrayList<>());
     for (Relatorio r : relatorios) {
@@ -241,24 +628,16 @@ public class RelatorioRepository {
       if (dia != null && porDia.containsKey(dia)) porDia.get(dia).add(r);
     }
 
-    List<RelatorioDia> grupos =
-        dias.stream()
-            .map(
-                d ->
-                    new RelatorioDia(
-                        d, totalDiaMap.getOrDefault(d, 0f), porDia.getOrDefault(d, List.of())))
-            .toList();
-
-    Page<RelatorioDia> pageDias = new PageImpl<>(grupos, pageable, totalDias);
+    return dias.stream()
+        .map(
+            d ->
+                new RelatorioDia(
+                    d, totalDiaMap.getOrDefault(d, 0f), porDia.getOrDefault(d, List.of())))
+        .toList();
+  }
 
-    return new RelatorioExtratoResponse(
-        balancoGeral,
-        totalEntradas,
-        totalSaidas,
-        totalDinheiro,
-        totalDinheiroSaida,
-        balancoDinheiro,
-        pageDias);
+  private static Double asDouble(Object v) {
+    return v == null ? null : ((Number) v).doubleValue();
   }
 
   @Transactional
@@ -328,19 +707,15 @@ public class RelatorioRepository {
     return getByIdOrThrow(id);
   }
 
+  /** Um lançamento pelo id, numa consulta (sem os totais e a paginação do extrato). */
   private Relatorio getByIdOrThrow(Long id) {
     if (id == null) throw new IllegalStateException("Registro salvo sem ID (verifique RETURNING).");
 
-    RelatorioExtratoResponse resp =
-        buscar(id, null, null, null, null, null, null, Pageable.ofSize(1));
-    if (resp == null || resp.page() == null || resp.page().isEmpty())
-      throw new NotFoundException("Relatório não encontrado para o id: " + id);
-
-    RelatorioDia dia = resp.page().getContent().getFirst();
-    if (dia.content() == null || dia.content().isEmpty())
+    List<Relatorio> relatorios =
+        jdbcTemplate.query(SELECT_RELATORIO + " WHERE r.id = ?", RELATORIO_EXTRACTOR, id);
+    if (relatorios == null || relatorios.isEmpty())
       throw new NotFoundException("Relatório não encontrado para o id: " + id);
-
-    return dia.content().getFirst();
+    return relatorios.getFirst();
   }
 
   private Totais buscarTotaisGerais(String baseFromCount, String where, List<Object> params) {
@@ -394,8 +769,6 @@ public class RelatorioRepository {
       String baseFrom, String whereList, List<Object> paramsList, List<LocalDate> dias) {
     if (dias == null || dias.isEmpty()) return Map.of();
 
-    String in = String.join(",", Collections.nCopies(dias.size(), "?"));
-
     String sql =
         """
             SELECT
@@ -404,13 +777,11 @@ public class RelatorioRepository {
             """
             + baseFrom
             + whereList
-            + " AND DATE(r.data_hora) IN ("
-            + in
-            + ") "
+            + " AND DATE(r.data_hora) = ANY(?) "
             + " GROUP BY DATE(r.data_hora) ";
 
     List<Object> params = new ArrayList<>(paramsList);
-    params.addAll(dias);
+    params.add(SqlArray.datas(dias));
 
     return jdbcTemplate.query(
         sql,
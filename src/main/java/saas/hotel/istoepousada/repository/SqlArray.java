@@ -0,0 +1,63 @@
+package saas.hotel.istoepousada.repository;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+/**
+ * Coleção passada como um único parâmetro array, para {@code coluna = ANY(?)} no lugar de {@code
+ * IN (?, ?, ...)}.
+ *
+ * <p>Com {@code IN} o texto do SQL muda com o tamanho da lista, e cada texto novo é um statement
+ * novo para o pgjdbc: não reaproveita o statement preparado no servidor nem o plano. Com o array o
+ * texto é sempre o mesmo. Também serve para {@code unnest(?, ?)} no lugar de {@code VALUES (?, ?),
+ * ...}.
+ */
+public final class SqlArray {
+  private SqlArray() {}
+
+  /** {@code bigint[]}. */
+  public static SqlTypeValue ids(Collection<? extends Number> ids) {
+    Long[] valores = new Long[ids.size()];
+    int i = 0;
+    for (Number id : ids) valores[i++] = id == null ? null : id.longValue();
+    return array("bigint", valores);
+  }
+
+  /** {@code integer[]}. */
+  public static SqlTypeValue inteiros(Collection<Integer> inteiros) {
+    return array("integer", inteiros.toArray(new Integer[0]));
+  }
+
+  /** {@code text[]}. */
+  public static SqlTypeValue textos(Collection<String> textos) {
+    return array("text", textos.toArray(new String[0]));
+  }
+
+  /** {@code date[]}. */
+  public static SqlTypeValue datas(Collection<LocalDate> datas) {
+    Date[] valores = new Date[datas.size()];
+    int i = 0;
+    for (LocalDate d : datas) valores[i++] = d == null ? null : Date.valueOf(d);
+    return array("date", valores);
+  }
+
+  private static SqlTypeValue array(String tipo, Object[] valores) {
+    return new AbstractSqlTypeValue() {
+      @Override
+      protected Object createTypeValue(Connection con, int sqlType, String typeName)
+          throws SQLException {
+        return con.createArrayOf(tipo, valores);
+      }
+
+      @Override
+      public String toString() {
+        return tipo + "[" + valores.length + "]";
+      }
+    };
+  }
+}
@@ -7,7 +7,6 @@ import java.security.NoSuchAlgorithmException;
 import java.sql.PreparedStatement;
 import java.sql.Statement;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -112,11 +111,9 @@ public class UsuarioRepository {
       return new PageImpl<>(List.of(), pageable, total);
     }
 
-    String inPlaceholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-    String pageSql =
-        baseSelect + " WHERE u.id IN (" + inPlaceholders + ") " + " ORDER BY u.username";
+    String pageSql = baseSelect + " WHERE u.id = ANY(?) ORDER BY u.username";
 
-    List<Usuario> content = jdbcTemplate.query(pageSql, USUARIO_EXTRACTOR, ids.toArray());
+    List<Usuario> content = jdbcTemplate.query(pageSql, USUARIO_EXTRACTOR, SqlArray.ids(ids));
     return new PageImpl<>(Objects.requireNonNull(content), pageable, total);
   }
 
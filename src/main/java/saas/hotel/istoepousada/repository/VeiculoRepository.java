@@ -2,6 +2,7 @@ package saas.hotel.istoepousada.repository;
 
 import static saas.hotel.istoepousada.dto.Veiculo.mapVeiculo;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.dao.EmptyResultDataAccessException;
@@ -13,9 +14,11 @@ import saas.hotel.istoepousada.dto.Veiculo;
 @Repository
 public class VeiculoRepository {
   private final JdbcTemplate jdbcTemplate;
+  private final PessoaCache pessoaCache;
 
-  public VeiculoRepository(JdbcTemplate jdbcTemplate) {
+  public VeiculoRepository(JdbcTemplate jdbcTemplate, PessoaCache pessoaCache) {
     this.jdbcTemplate = jdbcTemplate;
+    this.pessoaCache = pessoaCache;
   }
 
   public Optional<Veiculo> findById(Long id) {
@@ -91,6 +94,7 @@ public class VeiculoRepository {
           veiculo.placa(),
           veiculo.cor(),
           veiculo.id());
+      pessoaCache.invalidarVeiculos(List.of(veiculo.id()));
     }
     vincularPessoa(pessoa_id, veiculo.id());
 
@@ -116,6 +120,7 @@ public class VeiculoRepository {
                   vinculo_ativo = true
                 """;
     jdbcTemplate.update(sql, pessoaId, veiculoId);
+    invalidarVinculo(pessoaId, veiculoId);
   }
 
   @Transactional
@@ -131,5 +136,12 @@ public class VeiculoRepository {
                 """;
 
     jdbcTemplate.update(sql, pessoaId, veiculoId, ativo);
+    invalidarVinculo(pessoaId, veiculoId);
+  }
+
+  /** Dono anterior (exibe o veículo) e dono novo. */
+  private void invalidarVinculo(Long pessoaId, Long veiculoId) {
+    pessoaCache.invalidarVeiculos(Collections.singletonList(veiculoId));
+    pessoaCache.invalidarPessoas(Collections.singletonList(pessoaId));
   }
 }
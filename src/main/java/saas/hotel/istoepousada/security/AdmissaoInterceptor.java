@@ -0,0 +1,72 @@
+package saas.hotel.istoepousada.security;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+
+/**
+ * Passa cada handler pelo {@link AdmissaoBanco} com a classe do {@link Prioridade}, menos os
+ * marcados com {@link SemBanco}. A vaga é devolvida ao fim da requisição ou, em respostas
+ * assíncronas, quando o handler retorna; o dispatch {@code ASYNC} que completa a resposta não entra
+ * de novo.
+ */
+@Component
+public class AdmissaoInterceptor implements AsyncHandlerInterceptor {
+  private static final String ATRIBUTO = AdmissaoInterceptor.class.getName() + ".classe";
+
+  private final AdmissaoBanco admissaoBanco;
+  /** Vazio para {@link SemBanco}. */
+  private final Map<Method, Optional<AdmissaoBanco.Classe>> classes = new ConcurrentHashMap<>();
+
+  public AdmissaoInterceptor(AdmissaoBanco admissaoBanco) {
+    this.admissaoBanco = admissaoBanco;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod handlerMethod)) return true;
+    if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+    Optional<AdmissaoBanco.Classe> classe =
+        classes.computeIfAbsent(handlerMethod.getMethod(), m -> resolver(handlerMethod));
+    if (classe.isEmpty()) return true;
+    admissaoBanco.entrar(classe.get());
+    request.setAttribute(ATRIBUTO, classe.get());
+    return true;
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    liberar(request);
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    liberar(request);
+  }
+
+  private void liberar(HttpServletRequest request) {
+    if (!(request.getAttribute(ATRIBUTO) instanceof AdmissaoBanco.Classe classe)) return;
+    request.removeAttribute(ATRIBUTO);
+    admissaoBanco.sair(classe);
+  }
+
+  private static Optional<AdmissaoBanco.Classe> resolver(HandlerMethod handlerMethod) {
+    if (handlerMethod.hasMethodAnnotation(SemBanco.class)
+        || handlerMethod.getBeanType().isAnnotationPresent(SemBanco.class)) return Optional.empty();
+    Prioridade prioridade = handlerMethod.getMethodAnnotation(Prioridade.class);
+    if (prioridade == null)
+      prioridade = handlerMethod.getBeanType().getAnnotation(Prioridade.class);
+    return Optional.of(prioridade == null ? AdmissaoBanco.Classe.NORMAL : prioridade.value());
+  }
+}
@@ -5,7 +5,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.util.Map;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
 
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
@@ -22,35 +24,37 @@ public class JwtInterceptor implements HandlerInterceptor {
       throws Exception {
     if ("OPTIONS".equals(request.getMethod())) return true;
     String authHeader = request.getHeader("Authorization");
-    if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-      response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-      response.setContentType("application/json");
-      response.setCharacterEncoding("UTF-8");
-      Map<String, String> error =
-          Map.of(
-              "error", "Unauthorized",
-              "message", "Token JWT não fornecido ou inválido");
-      response.getWriter().write(objectMapper.writeValueAsString(error));
-      return false;
+    if (authHeader == null
+        && handler instanceof HandlerMethod handlerMethod
+        && handlerMethod.hasMethodAnnotation(TokenNaUrl.class)) {
+      var funcionario = jwtUtil.autenticarStream(request.getParameter("token"));
+      if (funcionario == null)
+        return naoAutorizado(response, "Token de stream não fornecido, inválido ou expirado");
+      autenticado(request, funcionario);
+      return true;
     }
+    if (authHeader == null || !authHeader.startsWith("Bearer "))
+      return naoAutorizado(response, "Token JWT não fornecido ou inválido");
     String token = authHeader.substring(7);
-    if (!jwtUtil.validateToken(token)) {
-      response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-      response.setContentType("application/json");
-      response.setCharacterEncoding("UTF-8");
-      Map<String, String> error =
-          Map.of(
-              "error", "Unauthorized",
-              "message", "Token JWT inválido ou expirado");
+    var funcionario = jwtUtil.autenticar(token);
+    if (funcionario == null) return naoAutorizado(response, "Token JWT inválido ou expirado");
+    autenticado(request, funcionario);
+    return true;
+  }
 
-      response.getWriter().write(objectMapper.writeValueAsString(error));
-      return false;
-    }
-    var funcionario = jwtUtil.getFuncionarioFromToken(token);
+  private static void autenticado(HttpServletRequest request, FuncionarioAuth funcionario) {
     request.setAttribute("funcionario", funcionario);
     request.setAttribute("funcionarioId", funcionario.id());
     request.setAttribute("usuarioId", funcionario.usuarioId());
     request.setAttribute("pessoaId", funcionario.pessoaId());
-    return true;
+  }
+
+  private boolean naoAutorizado(HttpServletResponse response, String mensagem) throws Exception {
+    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    response.setContentType("application/json");
+    response.setCharacterEncoding("UTF-8");
+    Map<String, String> error = Map.of("error", "Unauthorized", "message", mensagem);
+    response.getWriter().write(objectMapper.writeValueAsString(error));
+    return false;
   }
 }
@@ -0,0 +1,82 @@
+package saas.hotel.istoepousada.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
+
+/**
+ * Cache de tokens JWT já verificados.
+ *
+ * <p>A chave é o SHA-256 do token (o token em si não fica em memória) e cada entrada expira junto
+ * com o claim {@code exp} do token. Um token repetido não passa de novo pela verificação HMAC nem
+ * pela conversão das claims em {@link FuncionarioAuth}.
+ */
+@Component
+public class JwtTokenCache {
+  private final Cache<String, Entrada> cache;
+
+  private record Entrada(FuncionarioAuth funcionario, Instant expiraEm) {}
+
+  public JwtTokenCache(
+      @Value("${jwt.cache.maximum-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(
+                new Expiry<String, Entrada>() {
+                  @Override
+                  public long expireAfterCreate(String key, Entrada value, long currentTime) {
+                    long restante = value.expiraEm().toEpochMilli() - System.currentTimeMillis();
+                    return Math.max(0, restante) * 1_000_000L;
+                  }
+
+                  @Override
+                  public long expireAfterUpdate(
+                      String key, Entrada value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                  }
+
+                  @Override
+                  public long expireAfterRead(
+                      String key, Entrada value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                  }
+                })
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.token");
+  }
+
+  public FuncionarioAuth get(String token) {
+    Entrada entrada = cache.getIfPresent(hash(token));
+    return entrada == null ? null : entrada.funcionario();
+  }
+
+  public void put(String token, FuncionarioAuth funcionario, Instant expiraEm) {
+    if (funcionario == null || expiraEm == null || !expiraEm.isAfter(Instant.now())) return;
+    cache.put(hash(token), new Entrada(funcionario, expiraEm));
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static String hash(String token) {
+    try {
+      MessageDigest md = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 indisponível", e);
+    }
+  }
+}
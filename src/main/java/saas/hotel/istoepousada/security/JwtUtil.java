@@ -1,11 +1,13 @@
 package saas.hotel.istoepousada.security;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Map;
@@ -16,60 +18,116 @@ import saas.hotel.istoepousada.dto.FuncionarioAuth;
 
 @Component
 public class JwtUtil {
+  private static final String ESCOPO = "escopo";
+  private static final String ESCOPO_STREAM = "notificacoes-stream";
+
   @Value("${jwt.secret}")
   private String jwtSecret;
 
   @Value("${jwt.expiration}")
   private long jwtExpiration;
 
+  @Value("${notificacao.stream.token-segundos:60}")
+  private long streamTokenSegundos;
+
   private final ObjectMapper objectMapper;
+  private final JwtTokenCache tokenCache;
+
+  private SecretKey signingKey;
+  private JwtParser parser;
 
-  public JwtUtil(ObjectMapper objectMapper) {
+  public JwtUtil(ObjectMapper objectMapper, JwtTokenCache tokenCache) {
     this.objectMapper = objectMapper;
+    this.tokenCache = tokenCache;
   }
 
-  private SecretKey getSigningKey() {
-    byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-    return Keys.hmacShaKeyFor(keyBytes);
+  @PostConstruct
+  void init() {
+    this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.parser = Jwts.parser().verifyWith(signingKey).build();
   }
 
   public String generateToken(FuncionarioAuth funcionario) {
+    return token(funcionario)
+        .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
+        .compact();
+  }
+
+  /**
+   * Token para o parâmetro {@code token} de {@code /notificacoes/stream}: vale {@code
+   * notificacao.stream.token-segundos} e é recusado por {@link #autenticar} (não serve como
+   * Bearer), para que uma URL que vazou em log não dê acesso ao resto da API.
+   */
+  public String gerarTokenStream(FuncionarioAuth funcionario) {
+    return token(funcionario)
+        .claim(ESCOPO, ESCOPO_STREAM)
+        .expiration(new Date(System.currentTimeMillis() + streamTokenSegundos * 1000))
+        .compact();
+  }
+
+  public long getStreamTokenSegundos() {
+    return streamTokenSegundos;
+  }
+
+  private JwtBuilder token(FuncionarioAuth funcionario) {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> funcionarioMap = objectMapper.convertValue(funcionario, Map.class);
+    return Jwts.builder()
+        .subject(funcionario.username())
+        .claim("funcionario", funcionarioMap)
+        .claim("usuarioId", funcionario.usuarioId())
+        .claim("funcionarioId", funcionario.id())
+        .claim("pessoaId", funcionario.pessoaId())
+        .issuedAt(new Date())
+        .signWith(signingKey);
+  }
+
+  /**
+   * Valida o token e devolve o funcionário autenticado, ou {@code null} se o token for inválido ou
+   * estiver expirado. Verifica a assinatura no máximo uma vez por token enquanto ele estiver no
+   * {@link JwtTokenCache}.
+   */
+  public FuncionarioAuth autenticar(String token) {
+    if (token == null || token.isBlank()) return null;
+
+    FuncionarioAuth cached = tokenCache.get(token);
+    if (cached != null) return cached;
+
+    Claims claims;
+    FuncionarioAuth funcionario;
+    try {
+      claims = parseClaims(token);
+      if (claims.get(ESCOPO) != null) return null;
+      funcionario = toFuncionario(claims);
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
+    }
+
+    if (funcionario == null) return null;
+    if (claims.getExpiration() != null)
+      tokenCache.put(token, funcionario, claims.getExpiration().toInstant());
+    return funcionario;
+  }
+
+  /** Como {@link #autenticar}, mas só para tokens de {@link #gerarTokenStream}; sem cache. */
+  public FuncionarioAuth autenticarStream(String token) {
+    if (token == null || token.isBlank()) return null;
     try {
-      String funcionarioJson = objectMapper.writeValueAsString(funcionario);
-      @SuppressWarnings("unchecked")
-      Map<String, Object> funcionarioMap = objectMapper.readValue(funcionarioJson, Map.class);
-      return Jwts.builder()
-          .subject(funcionario.username())
-          .claim("funcionario", funcionarioMap)
-          .claim("usuarioId", funcionario.usuarioId())
-          .claim("funcionarioId", funcionario.id())
-          .claim("pessoaId", funcionario.pessoaId())
-          .issuedAt(new Date())
-          .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-          .signWith(getSigningKey())
-          .compact();
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException("Erro ao gerar token JWT", e);
+      Claims claims = parseClaims(token);
+      if (!ESCOPO_STREAM.equals(claims.get(ESCOPO))) return null;
+      return toFuncionario(claims);
+    } catch (JwtException | IllegalArgumentException e) {
+      return null;
     }
   }
 
   public String getUsernameFromToken(String token) {
-    return Jwts.parser()
-        .verifyWith(getSigningKey())
-        .build()
-        .parseSignedClaims(token)
-        .getPayload()
-        .getSubject();
+    return parseClaims(token).getSubject();
   }
 
   public FuncionarioAuth getFuncionarioFromToken(String token) {
     try {
-      Claims claims =
-          Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
-      @SuppressWarnings("unchecked")
-      Map<String, Object> funcionarioMap = (Map<String, Object>) claims.get("funcionario");
-      String funcionarioJson = objectMapper.writeValueAsString(funcionarioMap);
-      return objectMapper.readValue(funcionarioJson, FuncionarioAuth.class);
+      return toFuncionario(parseClaims(token));
     } catch (Exception e) {
       throw new RuntimeException("Erro ao extrair funcionário do token", e);
     }
@@ -77,7 +135,7 @@ public class JwtUtil {
 
   public boolean validateToken(String token) {
     try {
-      Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
+      parseClaims(token);
       return true;
     } catch (JwtException | IllegalArgumentException e) {
       return false;
@@ -85,20 +143,23 @@ public class JwtUtil {
   }
 
   public Long getFuncionarioIdFromToken(String token) {
-    Claims claims =
-        Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
-    return claims.get("funcionarioId", Long.class);
+    return parseClaims(token).get("funcionarioId", Long.class);
   }
 
   public Long getUsuarioIdFromToken(String token) {
-    Claims claims =
-        Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
-    return claims.get("usuarioId", Long.class);
+    return parseClaims(token).get("usuarioId", Long.class);
   }
 
   public Long getPessoaIdFromToken(String token) {
-    Claims claims =
-        Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload();
-    return claims.get("pessoaId", Long.class);
+    return parseClaims(token).get("pessoaId", Long.class);
+  }
+
+  private Claims parseClaims(String token) {
+    return parser.parseSignedClaims(token).getPayload();
+  }
+
+  private FuncionarioAuth toFuncionario(Claims claims) {
+    Object funcionarioMap = claims.get("funcionario");
+    return objectMapper.convertValue(funcionarioMap, FuncionarioAuth.class);
   }
 }
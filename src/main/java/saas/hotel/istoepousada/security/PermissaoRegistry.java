@@ -0,0 +1,199 @@
+package saas.hotel.istoepousada.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
+
+/**
+ * Índice pré-compilado de {@link RequireTela}/{@link RequirePermissao}.
+ *
+ * <p>Na subida da aplicação cada handler é resolvido uma única vez (anotação do método com
+ * fallback para a classe) e cada tela/permissão referenciada recebe um bit. As permissões do
+ * {@link FuncionarioAuth.CargoAuth} são compiladas para os mesmos bits, de forma que a checagem
+ * por requisição é um teste de bits sem alocação.
+ */
+@Component
+public class PermissaoRegistry implements ApplicationListener<ContextRefreshedEvent> {
+  private static final Logger log = LoggerFactory.getLogger(PermissaoRegistry.class);
+  private static final String ADMINISTRADOR = "ADMINISTRADOR";
+
+  private final Map<Method, Requisito> requisitos = new ConcurrentHashMap<>();
+  private final Map<String, Integer> bitsTela = new ConcurrentHashMap<>();
+  private final Map<String, Integer> bitsPermissao = new ConcurrentHashMap<>();
+
+  /** Atribuição de bits novos: {@code size()} só vale como próximo bit sem outro escritor. */
+  private final ReentrantLock novosBits = new ReentrantLock();
+
+  /** Chave por identidade: o mesmo FuncionarioAuth sai do cache de tokens a cada requisição. */
+  private final Cache<FuncionarioAuth, PermissoesCompiladas> compilados =
+      Caffeine.newBuilder().weakKeys().maximumSize(10_000).build();
+
+  /** Marca de "handler sem anotação", para não resolver de novo a cada requisição. */
+  private static final Requisito LIVRE = new Requisito(null, -1, new long[0], Set.of());
+
+  @Override
+  public void onApplicationEvent(ContextRefreshedEvent event) {
+    event
+        .getApplicationContext()
+        .getBeansOfType(RequestMappingHandlerMapping.class)
+        .values()
+        .forEach(mapping -> mapping.getHandlerMethods().values().forEach(this::requisito));
+    compilados.invalidateAll();
+    log.info(
+        "Índice de permissões: {} handlers, {} telas, {} permissões",
+        requisitos.size(),
+        bitsTela.size(),
+        bitsPermissao.size());
+  }
+
+  /** Requisito do handler, ou {@code null} quando não há {@code @RequireTela}/{@code @Require…}. */
+  public Requisito requisito(HandlerMethod handlerMethod) {
+    Method method = handlerMethod.getMethod();
+    Requisito requisito = requisitos.get(method);
+    if (requisito == null)
+      requisito = requisitos.computeIfAbsent(method, m -> resolver(handlerMethod));
+    return requisito == LIVRE ? null : requisito;
+  }
+
+  public PermissoesCompiladas compilar(FuncionarioAuth funcionario) {
+    return compilados.get(funcionario, this::compilarSemCache);
+  }
+
+  /** Se o funcionário passaria num {@code @RequireTela(tela)}; para respostas que variam. */
+  public boolean temTela(FuncionarioAuth funcionario, String tela) {
+    String nome = normalizar(tela);
+    Requisito requisito = new Requisito(nome, bit(bitsTela, nome), new long[0], Set.of());
+    return requisito.verificar(compilar(funcionario)) == Resultado.PERMITIDO;
+  }
+
+  private Requisito resolver(HandlerMethod handlerMethod) {
+    RequireTela requireTela = handlerMethod.getMethodAnnotation(RequireTela.class);
+    if (requireTela == null)
+      requireTela = handlerMethod.getBeanType().getAnnotation(RequireTela.class);
+
+    RequirePermissao requirePermissao = handlerMethod.getMethodAnnotation(RequirePermissao.class);
+    if (requirePermissao == null)
+      requirePermissao = handlerMethod.getBeanType().getAnnotation(RequirePermissao.class);
+
+    if (requireTela == null && requirePermissao == null) return LIVRE;
+
+    String tela = requireTela == null ? null : normalizar(requireTela.value());
+    int telaBit = tela == null ? -1 : bit(bitsTela, tela);
+
+    Set<String> exigidas = new LinkedHashSet<>();
+    if (requirePermissao != null && requirePermissao.value() != null) {
+      for (String s : requirePermissao.value()) {
+        String n = normalizar(s);
+        if (n != null) exigidas.add(n);
+      }
+    }
+
+    List<Integer> bits = new ArrayList<>(exigidas.size());
+    for (String codigo : exigidas) bits.add(bit(bitsPermissao, codigo));
+
+    int maiorBit = bits.stream().mapToInt(Integer::intValue).max().orElse(-1);
+    long[] mascara = new long[(maiorBit >> 6) + 1];
+    for (int bit : bits) mascara[bit >> 6] |= 1L << bit;
+
+    return new Requisito(tela, telaBit, mascara, Set.copyOf(exigidas));
+  }
+
+  /**
+   * Bit do código, atribuindo o próximo livre se for novo. Handlers resolvidos sob demanda em
+   * requisições concorrentes não podem receber o mesmo bit para códigos diferentes.
+   */
+  private int bit(Map<String, Integer> bits, String codigo) {
+    Integer bit = bits.get(codigo);
+    if (bit != null) return bit;
+    novosBits.lock();
+    try {
+      bit = bits.get(codigo);
+      if (bit != null) return bit;
+      bit = bits.size();
+      bits.put(codigo, bit);
+    } finally {
+      novosBits.unlock();
+    }
+    // um código novo depois da compilação de algum principal deixaria bits faltando
+    compilados.invalidateAll();
+    return bit;
+  }
+
+  private PermissoesCompiladas compilarSemCache(FuncionarioAuth funcionario) {
+    FuncionarioAuth.CargoAuth cargo = funcionario.cargo();
+    boolean admin = cargo != null && ADMINISTRADOR.equals(normalizar(cargo.nome()));
+
+    int palavras = (bitsPermissao.size() >> 6) + 1;
+    long[][] porTela = new long[bitsTela.size()][];
+    long[] todas = new long[palavras];
+
+    List<FuncionarioAuth.CargoAuth.TelaAuth> telas =
+        cargo == null || cargo.telas() == null ? List.of() : cargo.telas();
+
+    for (FuncionarioAuth.CargoAuth.TelaAuth tela : telas) {
+      if (tela == null) continue;
+      long[] perms = new long[palavras];
+      if (tela.permissoes() != null) {
+        for (FuncionarioAuth.CargoAuth.PermissaoAuth p : tela.permissoes()) {
+          if (p == null) continue;
+          Integer bit = bitsPermissao.get(normalizar(p.permissao()));
+          if (bit != null) perms[bit >> 6] |= 1L << bit;
+        }
+      }
+      for (int i = 0; i < palavras; i++) todas[i] |= perms[i];
+
+      Integer telaBit = bitsTela.get(normalizar(tela.nome()));
+      if (telaBit == null || telaBit >= porTela.length) continue;
+      if (porTela[telaBit] == null) porTela[telaBit] = perms;
+      else for (int i = 0; i < palavras; i++) porTela[telaBit][i] |= perms[i];
+    }
+
+    return new PermissoesCompiladas(admin, porTela, todas);
+  }
+
+  private static String normalizar(String s) {
+    if (s == null) return null;
+    String n = s.trim().toUpperCase(Locale.ROOT);
+    return n.isEmpty() ? null : n;
+  }
+
+  /** Permissões de um principal já convertidas em bits do índice. */
+  public record PermissoesCompiladas(boolean admin, long[][] porTela, long[] todas) {}
+
+  /** Tela e permissões exigidas por um handler. */
+  public record Requisito(String tela, int telaBit, long[] mascara, Set<String> permissoes) {
+
+    public Resultado verificar(PermissoesCompiladas p) {
+      if (p.admin()) return Resultado.PERMITIDO;
+
+      long[] concedidas = p.todas();
+      if (telaBit >= 0) {
+        concedidas = telaBit < p.porTela().length ? p.porTela()[telaBit] : null;
+        if (concedidas == null) return Resultado.SEM_TELA;
+      }
+
+      for (int i = 0; i < mascara.length; i++) {
+        long concedida = i < concedidas.length ? concedidas[i] : 0L;
+        if ((concedida & mascara[i]) != mascara[i]) return Resultado.SEM_PERMISSAO;
+      }
+      return Resultado.PERMITIDO;
+    }
+  }
+
+  public enum Resultado {
+    PERMITIDO,
+    SEM_TELA,
+    SEM_PERMISSAO
+  }
+}
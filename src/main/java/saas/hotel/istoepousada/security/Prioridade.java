@@ -0,0 +1,17 @@
+package saas.hotel.istoepousada.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+
+/**
+ * Classe do handler na fila do {@link AdmissaoBanco}. Sem a anotação (no método ou na classe) a
+ * prioridade é {@link AdmissaoBanco.Classe#NORMAL}.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Prioridade {
+  AdmissaoBanco.Classe value();
+}
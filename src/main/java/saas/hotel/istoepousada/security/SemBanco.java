@@ -0,0 +1,18 @@
+package saas.hotel.istoepousada.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+
+/**
+ * Handler que responde da memória (localidades, catálogo, buffer de notificações) e por isso não
+ * passa pelo {@link AdmissaoBanco}. A recarga do catálogo depois de uma escrita em cargo é rara e
+ * fica fora; uma ida frequente ao banco, como a das listagens de notificações quando o buffer não
+ * responde, entra no {@link AdmissaoBanco} por conta própria. Também os handlers que chamam uma API
+ * externa (CEP, CNPJ): a vaga é pedida só em volta do SQL, não durante a chamada de rede.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SemBanco {}
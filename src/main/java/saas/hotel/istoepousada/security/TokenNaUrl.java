@@ -0,0 +1,15 @@
+package saas.hotel.istoepousada.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Handler que, sem o header {@code Authorization}, aceita o token no parâmetro {@code token} da
+ * URL: o {@code EventSource} do navegador não envia headers. Só vale um token de {@link
+ * JwtUtil#gerarTokenStream}, de vida curta e que não serve como Bearer.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface TokenNaUrl {}
@@ -9,10 +9,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
   private final JwtInterceptor jwtInterceptor;
   private final PermissionInterceptor permissionInterceptor;
+  private final AdmissaoInterceptor admissaoInterceptor;
 
-  public WebConfig(JwtInterceptor jwtInterceptor, PermissionInterceptor permissionInterceptor) {
+  public WebConfig(
+      JwtInterceptor jwtInterceptor,
+      PermissionInterceptor permissionInterceptor,
+      AdmissaoInterceptor admissaoInterceptor) {
     this.jwtInterceptor = jwtInterceptor;
     this.permissionInterceptor = permissionInterceptor;
+    this.admissaoInterceptor = admissaoInterceptor;
   }
 
   @Override
@@ -37,6 +42,12 @@ public class WebConfig implements WebMvcConfigurer {
             "/swagger-ui.html",
             "/v3/api-docs/**",
             "/error");
+    // depois da autenticação, para requisições recusadas não ocuparem vaga
+    registry
+        .addInterceptor(admissaoInterceptor)
+        .addPathPatterns("/**")
+        .excludePathPatterns(
+            "/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/error");
   }
 
   @Override
@@ -48,7 +48,8 @@ public class AuthService {
   }
 
   public FuncionarioAuth validarToken(String token) {
-    if (!jwtUtil.validateToken(token)) throw new InvalidTokenException("Token inválido");
-    return jwtUtil.getFuncionarioFromToken(token);
+    FuncionarioAuth funcionario = jwtUtil.autenticar(token);
+    if (funcionario == null) throw new InvalidTokenException("Token inválido");
+    return funcionario;
   }
 }
@@ -0,0 +1,144 @@
+package saas.hotel.istoepousada.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+import saas.hotel.istoepousada.dto.CepSalvo;
+import saas.hotel.istoepousada.dto.Endereco;
+import saas.hotel.istoepousada.dto.Objeto;
+import saas.hotel.istoepousada.dto.ViaCep;
+import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/**
+ * Resolve CEP em {@link Endereco} com ids de país/estado/município.
+ *
+ * <p>Ordem: endereço já resolvido em memória (LRU, vencido junto com {@code
+ * cep.cache.validade-dias}), resposta guardada em {@code cep_cache} e, só então, a ViaCEP. Os nomes
+ * são casados com o {@link LocalidadeIndice}, então um CEP repetido não faz chamada de rede nem
+ * SQL. Se a ViaCEP falhar e houver uma resposta vencida em {@code cep_cache}, ela é usada.
+ *
+ * <p>O endpoint não passa pelo {@link AdmissaoBanco}, para não segurar uma vaga durante a chamada à
+ * ViaCEP; só as idas a {@code cep_cache} entram nele.
+ */
+@Service
+public class CepService {
+  private static final Logger log = LoggerFactory.getLogger(CepService.class);
+
+  private final LocalidadeRepository localidadeRepository;
+  private final LocalidadeIndice localidadeIndice;
+  private final Duration validade;
+  private final Cache<String, Endereco> enderecos;
+  private final Counter consultasBanco;
+  private final Counter consultasViaCep;
+  private final AdmissaoBanco admissaoBanco;
+
+  public CepService(
+      LocalidadeRepository localidadeRepository,
+      LocalidadeIndice localidadeIndice,
+      @Value("${cep.cache.tamanho:10000}") long tamanho,
+      @Value("${cep.cache.validade-dias:90}") long validadeDias,
+      MeterRegistry meterRegistry,
+      AdmissaoBanco admissaoBanco) {
+    this.localidadeRepository = localidadeRepository;
+    this.admissaoBanco = admissaoBanco;
+    this.localidadeIndice = localidadeIndice;
+    this.validade = Duration.ofDays(validadeDias);
+    this.enderecos =
+        Caffeine.newBuilder().maximumSize(tamanho).expireAfterWrite(validade).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, enderecos, "cep");
+    this.consultasBanco =
+        Counter.builder("cep.consultas")
+            .tag("origem", "banco")
+            .description("CEPs resolvidos fora da memória")
+            .register(meterRegistry);
+    this.consultasViaCep =
+        Counter.builder("cep.consultas").tag("origem", "viacep").register(meterRegistry);
+  }
+
+  public Endereco resolver(String cep) {
+    String digitos = cep == null ? "" : cep.replaceAll("\\D", "");
+    if (digitos.length() != 8) throw new IllegalArgumentException("CEP deve ter 8 dígitos.");
+    return enderecos.get(digitos, this::carregar);
+  }
+
+  private Endereco carregar(String cep) {
+    ViaCep viaCep = consultar(cep);
+
+    Objeto pais =
+        localidadeIndice
+            .pais("Brasil")
+            .orElseThrow(
+                () -> new NotFoundException("País 'Brasil' não encontrado no banco de dados"));
+
+    Objeto estado =
+        localidadeIndice
+            .estado(viaCep.estado())
+            .orElseThrow(
+                () ->
+                    new NotFoundException(
+                        "Estado '" + viaCep.estado() + "' não encontrado no banco de dados"));
+
+    Objeto municipio =
+        localidadeIndice
+            .municipio(viaCep.localidade(), estado.id())
+            .orElseThrow(
+                () ->
+                    new NotFoundException(
+                        "Município '"
+                            + viaCep.localidade()
+                            + "' não encontrado no banco de dados"));
+
+    return new Endereco(
+        cep, viaCep.logradouro(), viaCep.bairro(), viaCep.complemento(), pais, estado, municipio);
+  }
+
+  private ViaCep consultar(String cep) {
+    Optional<CepSalvo> salvo = doBanco(() -> localidadeRepository.buscarCepCache(cep));
+    consultasBanco.increment();
+    LocalDateTime vencimento = LocalDateTime.now().minus(validade);
+    if (salvo.isPresent() && salvo.get().atualizadoEm().isAfter(vencimento))
+      return salvo.get().viaCep();
+
+    ViaCep viaCep;
+    try {
+      consultasViaCep.increment();
+      viaCep = localidadeRepository.buscarPorCep(cep);
+    } catch (RestClientException e) {
+      if (salvo.isEmpty()) throw e;
+      log.warn("ViaCEP indisponível; usando cep_cache vencido para {}: {}", cep, e.getMessage());
+      return salvo.get().viaCep();
+    }
+
+    if (viaCep == null || Boolean.TRUE.equals(viaCep.erro()))
+      throw new NotFoundException("CEP não encontrado ou invalido");
+
+    doBanco(
+        () -> {
+          localidadeRepository.salvarCepCache(cep, viaCep);
+          return null;
+        });
+    return viaCep;
+  }
+
+  private <T> T doBanco(Supplier<T> acesso) {
+    admissaoBanco.entrar(AdmissaoBanco.Classe.NORMAL);
+    try {
+      return acesso.get();
+    } finally {
+      admissaoBanco.sair(AdmissaoBanco.Classe.NORMAL);
+    }
+  }
+}
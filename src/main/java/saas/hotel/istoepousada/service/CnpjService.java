@@ -0,0 +1,158 @@
+package saas.hotel.istoepousada.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import saas.hotel.istoepousada.dto.CnpjaResponse;
+import saas.hotel.istoepousada.handler.exceptions.UnavaiableException;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/**
+ * Consulta de CNPJ na CNPJá com cache em memória.
+ *
+ * <p>Consultas simultâneas do mesmo CNPJ esperam a mesma chamada. As chamadas respeitam o limite
+ * por minuto da CNPJá: passado o limite, a consulta espera a vez por até {@code
+ * cnpj.limite.espera-maxima-ms} e, se a espera for maior, é recusada com 503 sem chamar a API. Um
+ * 429 da CNPJá suspende as chamadas pelo tempo do {@code Retry-After}. As recusas levam o tempo
+ * até a próxima vaga no {@code Retry-After} da resposta.
+ */
+@Service
+public class CnpjService {
+  private static final Logger log = LoggerFactory.getLogger(CnpjService.class);
+  private static final long BLOQUEIO_PADRAO_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final LocalidadeRepository localidadeRepository;
+  private final AsyncCache<String, CnpjaResponse> empresas;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final long intervaloNanos;
+  private final long rajadaNanos;
+  private final long esperaMaximaNanos;
+  private final Counter chamadas;
+  private final Counter recusadas;
+  private final Timer espera;
+
+  /** Próximo horário teórico de chamada (GCRA); acima de {@code agora + rajada} há fila. */
+  private long proximaChamada;
+
+  private long bloqueadoAte;
+
+  public CnpjService(
+      LocalidadeRepository localidadeRepository,
+      @Value("${cnpj.cache.tamanho:2000}") long tamanho,
+      @Value("${cnpj.cache.ttl-horas:24}") long ttlHoras,
+      @Value("${cnpj.limite.por-minuto:5}") int porMinuto,
+      @Value("${cnpj.limite.espera-maxima-ms:15000}") long esperaMaximaMs,
+      MeterRegistry meterRegistry) {
+    if (porMinuto < 1) throw new IllegalArgumentException("cnpj.limite.por-minuto deve ser >= 1");
+    this.localidadeRepository = localidadeRepository;
+    this.empresas =
+        Caffeine.newBuilder()
+            .maximumSize(tamanho)
+            .expireAfterWrite(Duration.ofHours(ttlHoras))
+            .executor(executor)
+            .recordStats()
+            .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, empresas.synchronous(), "cnpj");
+    this.intervaloNanos = TimeUnit.MINUTES.toNanos(1) / porMinuto;
+    this.rajadaNanos = (porMinuto - 1) * intervaloNanos;
+    this.esperaMaximaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+    long agora = System.nanoTime();
+    this.proximaChamada = agora;
+    this.bloqueadoAte = agora;
+    this.chamadas =
+        Counter.builder("cnpj.cnpja.chamadas")
+            .description("Consultas feitas à CNPJá")
+            .register(meterRegistry);
+    this.recusadas =
+        Counter.builder("cnpj.cnpja.recusadas")
+            .description("Consultas recusadas por limite da CNPJá")
+            .register(meterRegistry);
+    this.espera =
+        Timer.builder("cnpj.cnpja.espera")
+            .description("Tempo na fila do limite da CNPJá")
+            .register(meterRegistry);
+  }
+
+  /** Falhas não ficam em cache: a próxima consulta do CNPJ tenta de novo. */
+  public CnpjaResponse buscar(String cnpj) {
+    String digitos = cnpj == null ? "" : cnpj.replaceAll("\\D", "");
+    if (digitos.length() != 14) throw new IllegalArgumentException("CNPJ deve ter 14 dígitos.");
+    try {
+      return empresas
+          .get(digitos, (c, e) -> CompletableFuture.supplyAsync(() -> consultar(c), e))
+          .join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException causa) throw causa;
+      throw e;
+    }
+  }
+
+  private CnpjaResponse consultar(String cnpj) {
+    aguardarVez();
+    try {
+      chamadas.increment();
+      return localidadeRepository.buscarPorCnpj(cnpj);
+    } catch (HttpClientErrorException.TooManyRequests e) {
+      long segundos = bloquear(e);
+      log.warn("CNPJá devolveu 429; chamadas suspensas por {}s", segundos);
+      recusadas.increment();
+      throw new UnavaiableException(
+          "Limite de consultas da CNPJá atingido; tente novamente em " + segundos + "s",
+          e,
+          Duration.ofSeconds(segundos));
+    }
+  }
+
+  private void aguardarVez() {
+    long esperaNanos = reservar();
+    if (esperaNanos <= 0) return;
+    espera.record(esperaNanos, TimeUnit.NANOSECONDS);
+    try {
+      TimeUnit.NANOSECONDS.sleep(esperaNanos);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UnavaiableException("Consulta de CNPJ interrompida", e);
+    }
+  }
+
+  /** Reserva a próxima vaga e devolve quanto esperar por ela; recusa se passar da espera máxima. */
+  private synchronized long reservar() {
+    long agora = System.nanoTime();
+    long proxima = Math.max(proximaChamada, agora);
+    long liberada = Math.max(proxima - rajadaNanos, bloqueadoAte);
+    long esperaNanos = Math.max(0, liberada - agora);
+    if (esperaNanos > esperaMaximaNanos) {
+      recusadas.increment();
+      long segundos = Math.ceilDiv(esperaNanos, TimeUnit.SECONDS.toNanos(1));
+      throw new UnavaiableException(
+          "Limite de consultas da CNPJá atingido; tente novamente em " + segundos + "s",
+          Duration.ofSeconds(segundos));
+    }
+    proximaChamada = Math.max(proxima, liberada) + intervaloNanos;
+    return esperaNanos;
+  }
+
+  private synchronized long bloquear(HttpClientErrorException e) {
+    long nanos = BLOQUEIO_PADRAO_NANOS;
+    String retryAfter =
+        e.getResponseHeaders() == null ? null : e.getResponseHeaders().getFirst("Retry-After");
+    if (retryAfter != null && retryAfter.strip().matches("\\d+"))
+      nanos = TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.strip()));
+    bloqueadoAte = Math.max(bloqueadoAte, System.nanoTime() + nanos);
+    return TimeUnit.NANOSECONDS.toSeconds(nanos);
+  }
+}
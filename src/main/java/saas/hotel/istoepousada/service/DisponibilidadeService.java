@@ -0,0 +1,168 @@
+package saas.hotel.istoepousada.service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import saas.hotel.istoepousada.dto.Disponibilidade;
+import saas.hotel.istoepousada.dto.Quarto;
+import saas.hotel.istoepousada.repository.QuartoRepository;
+
+/**
+ * Disponibilidade de quartos a partir de um índice de ocupação em memória.
+ *
+ * <p>Para cada quarto os períodos das diárias são fundidos em intervalos disjuntos ordenados
+ * (dias em epoch), então "o quarto está livre em [inicio, fim)?" é uma busca binária. O índice é
+ * sincronizado com {@code quarto_ocupacao_versao}: no máximo uma vez por intervalo configurado,
+ * e recarregando apenas os quartos cuja versão mudou.
+ */
+@Service
+public class DisponibilidadeService {
+  private static final Logger log = LoggerFactory.getLogger(DisponibilidadeService.class);
+
+  private final QuartoRepository quartoRepository;
+  private final long intervaloSincronizacaoNanos;
+  private final ReentrantLock sincronizacao = new ReentrantLock();
+
+  private volatile Map<Long, OcupacaoQuarto> indice = Map.of();
+  private Map<Long, Long> versoes = Map.of();
+  private volatile long ultimaSincronizacao;
+  private volatile boolean sincronizado;
+
+  public DisponibilidadeService(
+      QuartoRepository quartoRepository,
+      @Value("${quarto.disponibilidade.sincronizacao-ms:1000}") long intervaloSincronizacaoMs) {
+    this.quartoRepository = quartoRepository;
+    this.intervaloSincronizacaoNanos = intervaloSincronizacaoMs * 1_000_000L;
+  }
+
+  public Disponibilidade buscar(LocalDate inicio, LocalDate fim, Integer pessoas) {
+    if (inicio == null) throw new IllegalArgumentException("inicio é obrigatório.");
+    if (fim == null) throw new IllegalArgumentException("fim é obrigatório.");
+    if (!fim.isAfter(inicio))
+      throw new IllegalArgumentException("fim deve ser posterior a inicio.");
+    if (pessoas != null && pessoas <= 0)
+      throw new IllegalArgumentException("pessoas deve ser maior que 0.");
+
+    sincronizarSeNecessario();
+
+    int ini = (int) inicio.toEpochDay();
+    int fimDia = (int) fim.toEpochDay();
+
+    List<Disponibilidade.QuartoDisponibilidade> quartos = new ArrayList<>();
+    for (OcupacaoQuarto ocupacao : indice.values()) {
+      Quarto quarto = ocupacao.quarto();
+      if (pessoas != null
+          && quarto.quantidade_pessoas() != null
+          && quarto.quantidade_pessoas() < pessoas) continue;
+
+      List<Disponibilidade.Periodo> periodos = ocupacao.ocupacoes(ini, fimDia);
+      quartos.add(
+          new Disponibilidade.QuartoDisponibilidade(quarto, periodos.isEmpty(), periodos));
+    }
+
+    quartos.sort(
+        Comparator.comparing(
+                (Disponibilidade.QuartoDisponibilidade q) -> q.quarto().descricao(),
+                Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(q -> q.quarto().id()));
+
+    return new Disponibilidade(inicio, fim, quartos);
+  }
+
+  private void sincronizarSeNecessario() {
+    if (sincronizado && System.nanoTime() - ultimaSincronizacao < intervaloSincronizacaoNanos)
+      return;
+    // lock em vez de synchronized: a sincronização consulta o banco e prenderia a thread virtual
+    sincronizacao.lock();
+    try {
+      if (sincronizado && System.nanoTime() - ultimaSincronizacao < intervaloSincronizacaoNanos)
+        return;
+      sincronizar();
+      ultimaSincronizacao = System.nanoTime();
+      sincronizado = true;
+    } finally {
+      sincronizacao.unlock();
+    }
+  }
+
+  private void sincronizar() {
+    Map<Long, Long> atuais = quartoRepository.buscarVersoesOcupacao();
+
+    Set<Long> alterados = new HashSet<>();
+    for (Map.Entry<Long, Long> e : atuais.entrySet())
+      if (!e.getValue().equals(versoes.get(e.getKey()))) alterados.add(e.getKey());
+
+    Set<Long> removidos = new HashSet<>(indice.keySet());
+    removidos.removeAll(atuais.keySet());
+
+    if (alterados.isEmpty() && removidos.isEmpty()) return;
+
+    Map<Long, OcupacaoQuarto> novo = new HashMap<>(indice);
+    novo.keySet().removeAll(removidos);
+
+    if (!alterados.isEmpty()) {
+      List<Quarto> quartos = quartoRepository.listarPorIds(alterados);
+      Map<Long, List<Disponibilidade.Periodo>> ocupacoes =
+          quartoRepository.listarOcupacoes(alterados);
+
+      // versão de quarto excluído continua na tabela, mas o quarto não volta na consulta
+      novo.keySet().removeAll(alterados);
+      for (Quarto q : quartos)
+        novo.put(q.id(), OcupacaoQuarto.de(q, ocupacoes.getOrDefault(q.id(), List.of())));
+    }
+
+    indice = Map.copyOf(novo);
+    versoes = atuais;
+    log.debug(
+        "Índice de ocupação sincronizado: {} quartos recarregados, {} removidos",
+        alterados.size(),
+        removidos.size());
+  }
+
+  /** Intervalos [inicios[i], fins[i]) disjuntos e ordenados, em dias desde a época. */
+  private record OcupacaoQuarto(Quarto quarto, int[] inicios, int[] fins) {
+
+    static OcupacaoQuarto de(Quarto quarto, List<Disponibilidade.Periodo> periodos) {
+      List<Disponibilidade.Periodo> ordenados = new ArrayList<>(periodos);
+      ordenados.sort(Comparator.comparing(Disponibilidade.Periodo::inicio));
+
+      int[] inicios = new int[ordenados.size()];
+      int[] fins = new int[ordenados.size()];
+      int n = 0;
+      for (Disponibilidade.Periodo p : ordenados) {
+        int ini = (int) p.inicio().toEpochDay();
+        int fim = (int) p.fim().toEpochDay();
+        // diárias consecutivas do mesmo pernoite viram um intervalo só
+        if (n > 0 && ini <= fins[n - 1]) {
+          fins[n - 1] = Math.max(fins[n - 1], fim);
+        } else {
+          inicios[n] = ini;
+          fins[n] = fim;
+          n++;
+        }
+      }
+      return new OcupacaoQuarto(quarto, Arrays.copyOf(inicios, n), Arrays.copyOf(fins, n));
+    }
+
+    /** Ocupações que cruzam [ini, fim), recortadas à janela. */
+    List<Disponibilidade.Periodo> ocupacoes(int ini, int fim) {
+      // primeiro intervalo que termina depois do início da janela (fins é estritamente crescente)
+      int i = Arrays.binarySearch(fins, ini + 1);
+      if (i < 0) i = -i - 1;
+
+      List<Disponibilidade.Periodo> resultado = null;
+      for (; i < inicios.length && inicios[i] < fim; i++) {
+        if (resultado == null) resultado = new ArrayList<>();
+        resultado.add(
+            new Disponibilidade.Periodo(
+                LocalDate.ofEpochDay(Math.max(inicios[i], ini)),
+                LocalDate.ofEpochDay(Math.min(fins[i], fim))));
+      }
+      return resultado == null ? List.of() : resultado;
+    }
+  }
+}
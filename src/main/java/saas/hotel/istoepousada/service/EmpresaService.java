@@ -33,7 +33,7 @@ public class EmpresaService {
     validarEmpresa(empresa);
     var novaEmpresa = empresaRepository.save(empresa);
     Long funcionarioIdLogado = pessoaRepository.getFuncionarioPessoaIdFromRequest();
-    var funcionario = pessoaRepository.findById(funcionarioIdLogado);
+    var funcionario = pessoaRepository.findByIdEmCache(funcionarioIdLogado);
     notificacaoService.criar(
         funcionario, "ATUALIZOU OS DADOS DA EMPRESA: " + novaEmpresa.razaoSocial());
     return novaEmpresa;
@@ -47,9 +47,9 @@ public class EmpresaService {
       throw new IllegalArgumentException("pessoaIds é obrigatório.");
     }
     Long funcionarioIdLogado = pessoaRepository.getFuncionarioPessoaIdFromRequest();
-    var funcionario = pessoaRepository.findById(funcionarioIdLogado);
+    var funcionario = pessoaRepository.findByIdEmCache(funcionarioIdLogado);
 
-    var pessoa = pessoaRepository.findById(pessoaId);
+    var pessoa = pessoaRepository.findByIdEmCache(pessoaId);
     var empresa =
         empresaRepository
             .findById(empresaId)
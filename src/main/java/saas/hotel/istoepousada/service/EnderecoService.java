@@ -7,70 +7,47 @@ import org.springframework.web.client.RestClientException;
 import saas.hotel.istoepousada.dto.*;
 import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
 import saas.hotel.istoepousada.handler.exceptions.UnavaiableException;
-import saas.hotel.istoepousada.repository.LocalidadeRepository;
 
 @Service
 public class EnderecoService {
 
-  private final LocalidadeRepository localidadeRepository;
+  private final CepService cepService;
+  private final CnpjService cnpjService;
+  private final LocalidadeSnapshot localidadeSnapshot;
+  private final LocalidadeIndice localidadeIndice;
+
+  public EnderecoService(
+      CepService cepService,
+      CnpjService cnpjService,
+      LocalidadeSnapshot localidadeSnapshot,
+      LocalidadeIndice localidadeIndice) {
+    this.cepService = cepService;
+    this.cnpjService = cnpjService;
+    this.localidadeSnapshot = localidadeSnapshot;
+    this.localidadeIndice = localidadeIndice;
+  }
 
-  public EnderecoService(LocalidadeRepository localidadeRepository) {
-    this.localidadeRepository = localidadeRepository;
+  public Objeto.Lista listarPaises() {
+    return localidadeSnapshot.paises();
   }
 
-  public List<Objeto> listarPaises() {
-    return localidadeRepository.listarPaises();
+  public Objeto.Lista listarEstados(Long pais) {
+    return localidadeSnapshot.estados(pais);
   }
 
-  public List<Objeto> listarEstados(Long pais) {
-    return localidadeRepository.listarEstadosPorPais(pais);
+  public Objeto.Lista listarMunicipios(Long estado) {
+    return localidadeSnapshot.municipios(estado);
   }
 
-  public List<Objeto> listarMunicipios(Long estado) {
-    return localidadeRepository.listarMunicipiosPorEstado(estado);
+  /** Depois de alterar pais/estado/municipio direto no banco. */
+  public void recarregarLocalidades() {
+    localidadeSnapshot.recarregar();
+    localidadeIndice.recarregar();
   }
 
   public Endereco buscarEnderecoPorCep(String cep) {
     try {
-      ViaCep viaCep = localidadeRepository.buscarPorCep(cep);
-
-      if (viaCep == null || Boolean.TRUE.equals(viaCep.erro())) {
-        throw new NotFoundException("CEP não encontrado ou invalido");
-      }
-
-      Objeto pais =
-          localidadeRepository
-              .buscarPaisPorNome("Brasil")
-              .orElseThrow(
-                  () -> new NotFoundException("País 'Brasil' não encontrado no banco de dados"));
-
-      Objeto estado =
-          localidadeRepository
-              .buscarEstadoPorNome(viaCep.estado())
-              .orElseThrow(
-                  () ->
-                      new NotFoundException(
-                          "Estado '" + viaCep.estado() + "' não encontrado no banco de dados"));
-
-      Objeto municipio =
-          localidadeRepository
-              .buscarMunicipioPorNome(viaCep.localidade(), estado.id())
-              .orElseThrow(
-                  () ->
-                      new NotFoundException(
-                          "Município '"
-                              + viaCep.localidade()
-                              + "' não encontrado no banco de dados"));
-
-      return new Endereco(
-          viaCep.cep().replaceAll("\\D", ""),
-          viaCep.logradouro(),
-          viaCep.bairro(),
-          viaCep.complemento(),
-          pais,
-          estado,
-          municipio);
-
+      return cepService.resolver(cep);
     } catch (RestClientException e) {
       throw new UnavaiableException("Erro ao consultar CEP na API ViaCEP: " + e.getMessage(), e);
     }
@@ -78,7 +55,7 @@ public class EnderecoService {
 
   public EmpresaResponse buscarEmpresaPorCnpj(String cnpj) {
     try {
-      CnpjaResponse cnpjaData = localidadeRepository.buscarPorCnpj(cnpj);
+      CnpjaResponse cnpjaData = cnpjService.buscar(cnpj);
 
       if (cnpjaData == null || cnpjaData.address() == null)
         throw new NotFoundException("CNPJ não encontrado");
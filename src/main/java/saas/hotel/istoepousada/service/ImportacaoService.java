@@ -0,0 +1,257 @@
+package saas.hotel.istoepousada.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import saas.hotel.istoepousada.dto.Importacao;
+import saas.hotel.istoepousada.repository.ImportacaoRepository;
+import saas.hotel.istoepousada.repository.PessoaRepository;
+
+/**
+ * Importação de hóspedes/empresas/veículos por CSV.
+ *
+ * <p>O cabeçalho é conferido na requisição; o resto roda numa thread própria, uma importação por
+ * vez: COPY para a staging, validação em SQL e gravação numa única transação. O andamento fica na
+ * tabela {@code importacao} e os bytes já enviados ao banco, em memória.
+ *
+ * <p>Cada importação registra a instância que a processa, que avança {@code atualizado_em} a cada
+ * fase e a cada {@value #SINAL_SEGUNDOS}s. Qualquer instância marca como interrompida a importação
+ * sem sinal há {@code importacao.heartbeat-expira-minutos}, mas não as que outra instância viva
+ * ainda está processando.
+ */
+@Service
+public class ImportacaoService {
+  private static final Logger log = LoggerFactory.getLogger(ImportacaoService.class);
+  private static final long SINAL_SEGUNDOS = 30;
+
+  private final ImportacaoRepository importacaoRepository;
+  private final PessoaRepository pessoaRepository;
+  private final long expiraMinutos;
+  private final String instancia = ManagementFactory.getRuntimeMXBean().getName();
+
+  /** Importações desta instância ainda não terminadas (na fila ou rodando). */
+  private final Map<Long, AtomicLong> bytesLidos = new ConcurrentHashMap<>();
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          r -> {
+            Thread t = new Thread(r, "importacao");
+            t.setDaemon(true);
+            return t;
+          });
+  private final ScheduledExecutorService sinal =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread t = new Thread(r, "importacao-sinal");
+            t.setDaemon(true);
+            return t;
+          });
+
+  public ImportacaoService(
+      ImportacaoRepository importacaoRepository,
+      PessoaRepository pessoaRepository,
+      @Value("${importacao.heartbeat-expira-minutos:5}") long expiraMinutos) {
+    if (TimeUnit.MINUTES.toSeconds(expiraMinutos) <= 2 * SINAL_SEGUNDOS)
+      throw new IllegalArgumentException(
+          "importacao.heartbeat-expira-minutos deve passar de " + 2 * SINAL_SEGUNDOS + "s");
+    this.importacaoRepository = importacaoRepository;
+    this.pessoaRepository = pessoaRepository;
+    this.expiraMinutos = expiraMinutos;
+  }
+
+  public Importacao iniciar(MultipartFile arquivo) {
+    if (arquivo == null || arquivo.isEmpty())
+      throw new IllegalArgumentException("arquivo é obrigatório.");
+
+    Path temporario;
+    Cabecalho cabecalho;
+    try {
+      temporario = Files.createTempFile("importacao-", ".csv");
+      arquivo.transferTo(temporario);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Falha ao receber o arquivo", e);
+    }
+    try {
+      cabecalho = lerCabecalho(temporario);
+    } catch (RuntimeException e) {
+      apagar(temporario);
+      throw e;
+    }
+
+    Long funcionarioId = pessoaRepository.getFuncionarioPessoaIdFromRequest();
+    String nome = arquivo.getOriginalFilename() != null ? arquivo.getOriginalFilename() : "";
+    Long id = importacaoRepository.criar(nome, arquivo.getSize(), funcionarioId, instancia);
+    bytesLidos.put(id, new AtomicLong());
+    executor.execute(() -> processar(id, temporario, cabecalho, funcionarioId));
+    return buscar(id);
+  }
+
+  public Importacao buscar(Long id) {
+    Importacao importacao = importacaoRepository.findByIdOrThrow(id);
+    AtomicLong lidos = bytesLidos.get(id);
+    return lidos == null ? importacao : importacao.withBytesLidos(lidos.get());
+  }
+
+  public Page<Importacao.Erro> listarErros(Long id, Pageable pageable) {
+    importacaoRepository.findByIdOrThrow(id);
+    return importacaoRepository.listarErros(id, pageable);
+  }
+
+  private void processar(Long id, Path arquivo, Cabecalho cabecalho, Long funcionarioId) {
+    long inicio = System.currentTimeMillis();
+    try {
+      importacaoRepository.atualizarFase(id, Importacao.Fase.CARREGANDO);
+      long linhas;
+      try (InputStream in = new Contador(Files.newInputStream(arquivo), bytesLidos.get(id));
+          BufferedReader reader =
+              new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+        reader.readLine(); // cabeçalho, já conferido
+        linhas =
+            importacaoRepository.carregar(id, cabecalho.colunas(), cabecalho.delimitador(), reader);
+      }
+
+      importacaoRepository.atualizarFase(id, Importacao.Fase.VALIDANDO);
+      importacaoRepository.validar(id);
+
+      importacaoRepository.atualizarFase(id, Importacao.Fase.GRAVANDO);
+      importacaoRepository.gravar(id, funcionarioId);
+      log.info(
+          "Importação {} concluída: {} linhas em {} ms",
+          id,
+          linhas,
+          System.currentTimeMillis() - inicio);
+    } catch (Exception e) {
+      log.error("Falha na importação {}", id, e);
+      importacaoRepository.falhar(id, mensagem(e));
+    } finally {
+      try {
+        importacaoRepository.limparStaging(id);
+      } catch (RuntimeException e) {
+        log.warn("Falha ao limpar a staging da importação {}", id, e);
+      }
+      apagar(arquivo);
+      bytesLidos.remove(id);
+    }
+  }
+
+  /** Lê a primeira linha: delimitador ({@code ;} ou {@code ,}) e colunas da staging. */
+  private static Cabecalho lerCabecalho(Path arquivo) {
+    String linha;
+    try (BufferedReader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+      linha = reader.readLine();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Arquivo ilegível: " + e.getMessage());
+    }
+    if (linha == null || linha.isBlank()) throw new IllegalArgumentException("Arquivo vazio.");
+    if (linha.charAt(0) == '\uFEFF') linha = linha.substring(1);
+
+    char delimitador = linha.indexOf(';') >= 0 ? ';' : ',';
+    List<String> colunas = new ArrayList<>();
+    Set<String> vistas = new HashSet<>();
+    for (String bruta : linha.split(String.valueOf(delimitador), -1)) {
+      String coluna = bruta.strip().replace("\"", "").toLowerCase(Locale.ROOT);
+      if (!ImportacaoRepository.COLUNAS.contains(coluna))
+        throw new IllegalArgumentException("Coluna desconhecida no cabeçalho: " + bruta.strip());
+      if (!vistas.add(coluna))
+        throw new IllegalArgumentException("Coluna repetida no cabeçalho: " + coluna);
+      colunas.add(coluna);
+    }
+    if (!vistas.contains("nome") || !vistas.contains("cpf"))
+      throw new IllegalArgumentException("O cabeçalho precisa das colunas nome e cpf.");
+    return new Cabecalho(colunas, delimitador);
+  }
+
+  private static String mensagem(Exception e) {
+    Throwable causa = e;
+    while (causa.getCause() != null) causa = causa.getCause();
+    return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+  }
+
+  private static void apagar(Path arquivo) {
+    try {
+      Files.deleteIfExists(arquivo);
+    } catch (IOException e) {
+      log.warn("Não foi possível apagar {}", arquivo, e);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void iniciarSinal() {
+    sinal.scheduleWithFixedDelay(this::sinalizar, 0, SINAL_SEGUNDOS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Avança o sinal das importações desta instância e interrompe as de instâncias que pararam: as
+   * destas não vão terminar.
+   */
+  private void sinalizar() {
+    try {
+      importacaoRepository.sinalizar(bytesLidos.keySet());
+      int interrompidas = importacaoRepository.interromperPendentes(expiraMinutos);
+      if (interrompidas > 0)
+        log.warn("{} importação(ões) interrompida(s) marcada(s) com erro", interrompidas);
+    } catch (RuntimeException e) {
+      log.warn("Falha ao atualizar o sinal das importações", e);
+    }
+  }
+
+  @PreDestroy
+  void encerrar() {
+    sinal.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  private record Cabecalho(List<String> colunas, char delimitador) {}
+
+  /** Conta os bytes lidos do arquivo para o acompanhamento. */
+  private static final class Contador extends FilterInputStream {
+    private final AtomicLong lidos;
+
+    private Contador(InputStream in, AtomicLong lidos) {
+      super(in);
+      this.lidos = lidos;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) lidos.incrementAndGet();
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) lidos.addAndGet(n);
+      return n;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package saas.hotel.istoepousada.service;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.Objeto;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/**
+ * Nome → id de país, estados do Brasil e municípios, com nomes normalizados (sem acento, caixa,
+ * pontuação ou espaços repetidos), para casar os nomes da ViaCEP/CNPJá sem consulta ao banco.
+ *
+ * <p>Países e estados são carregados no primeiro uso; os municípios, por estado, quando o estado é
+ * usado pela primeira vez. Um nome que não é encontrado provoca no máximo uma recarga por minuto.
+ */
+@Component
+public class LocalidadeIndice {
+  private static final Logger log = LoggerFactory.getLogger(LocalidadeIndice.class);
+  private static final long RECARGA_MINIMA_MS = 60_000;
+  private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private final LocalidadeRepository localidadeRepository;
+  private final ReentrantLock carga = new ReentrantLock();
+  private volatile Indice indice;
+  private volatile long carregadoEm;
+
+  private record Indice(
+      Map<String, Objeto> paises,
+      Map<String, Objeto> estados,
+      Map<Long, Map<String, Objeto>> municipiosPorEstado) {}
+
+  public LocalidadeIndice(LocalidadeRepository localidadeRepository) {
+    this.localidadeRepository = localidadeRepository;
+  }
+
+  public Optional<Objeto> pais(String nome) {
+    return buscar(i -> i.paises().get(normalizar(nome)));
+  }
+
+  /** Estado do Brasil pelo nome. */
+  public Optional<Objeto> estado(String nome) {
+    return buscar(i -> i.estados().get(normalizar(nome)));
+  }
+
+  public Optional<Objeto> municipio(String nome, Long estadoId) {
+    if (estadoId == null) return Optional.empty();
+    return buscar(i -> municipios(i, estadoId).get(normalizar(nome)));
+  }
+
+  /** Descarta o índice; a próxima busca recarrega do banco. */
+  public void recarregar() {
+    carga.lock();
+    try {
+      indice = null;
+    } finally {
+      carga.unlock();
+    }
+  }
+
+  /** "São Paulo", "SAO  PAULO" e "sao-paulo" viram "sao paulo". */
+  public static String normalizar(String nome) {
+    if (nome == null) return "";
+    String semAcento =
+        ACENTOS.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+    return SEPARADORES.matcher(semAcento.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+  }
+
+  private Optional<Objeto> buscar(Function<Indice, Objeto> busca) {
+    Objeto encontrado = busca.apply(atual());
+    if (encontrado == null && recarregarSeAntigo()) encontrado = busca.apply(atual());
+    return Optional.ofNullable(encontrado);
+  }
+
+  /**
+   * Sem {@code computeIfAbsent}: ele seguraria o lock do mapa (e a thread virtual) durante a
+   * consulta. Duas cargas simultâneas do mesmo estado dão o mesmo resultado; fica a primeira.
+   */
+  private Map<String, Objeto> municipios(Indice i, Long estadoId) {
+    Map<String, Objeto> municipios = i.municipiosPorEstado().get(estadoId);
+    if (municipios != null) return municipios;
+    municipios = porNome(localidadeRepository.listarMunicipiosPorEstado(estadoId));
+    Map<String, Objeto> anterior = i.municipiosPorEstado().putIfAbsent(estadoId, municipios);
+    return anterior != null ? anterior : municipios;
+  }
+
+  private Indice atual() {
+    Indice i = indice;
+    if (i != null) return i;
+    carga.lock();
+    try {
+      if (indice == null) indice = carregar();
+      return indice;
+    } finally {
+      carga.unlock();
+    }
+  }
+
+  private boolean recarregarSeAntigo() {
+    carga.lock();
+    try {
+      if (System.currentTimeMillis() - carregadoEm < RECARGA_MINIMA_MS) return false;
+      indice = null;
+      return true;
+    } finally {
+      carga.unlock();
+    }
+  }
+
+  private Indice carregar() {
+    Map<String, Objeto> paises = porNome(localidadeRepository.listarPaises());
+    Objeto brasil = paises.get("brasil");
+    Map<String, Objeto> estados =
+        brasil == null
+            ? Map.of()
+            : porNome(localidadeRepository.listarEstadosPorPais(brasil.id()));
+    carregadoEm = System.currentTimeMillis();
+    log.info(
+        "Índice de localidades carregado: {} países, {} estados", paises.size(), estados.size());
+    return new Indice(paises, estados, new ConcurrentHashMap<>());
+  }
+
+  private static Map<String, Objeto> porNome(List<Objeto> objetos) {
+    Map<String, Objeto> map = new HashMap<>(objetos.size() * 2);
+    for (Objeto o : objetos) map.putIfAbsent(normalizar(o.descricao()), o);
+    return Map.copyOf(map);
+  }
+}
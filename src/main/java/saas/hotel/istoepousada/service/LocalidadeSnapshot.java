@@ -0,0 +1,115 @@
+package saas.hotel.istoepousada.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.Objeto;
+import saas.hotel.istoepousada.dto.Objeto.Lista;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/**
+ * Cópia imutável de países, estados e municípios, carregada na inicialização com três consultas.
+ *
+ * <p>As listas dos combobox saem daqui sem consulta ao banco, cada uma com um ETag forte calculado
+ * do conteúdo: uma recarga que não muda a lista não muda o ETag. Estados e municípios ficam em
+ * índices por id do pai ({@code long[]} ordenado + busca binária). Alterações feitas no banco só
+ * aparecem depois de {@link #recarregar()}.
+ */
+@Component
+public class LocalidadeSnapshot {
+  private static final Logger log = LoggerFactory.getLogger(LocalidadeSnapshot.class);
+  private static final Lista VAZIA = Lista.de(List.of());
+
+  private final LocalidadeRepository localidadeRepository;
+  private final ReentrantLock carga = new ReentrantLock();
+  private volatile Dados dados;
+
+  private record Dados(Lista paises, PorPai estadosPorPais, PorPai municipiosPorEstado) {}
+
+  public LocalidadeSnapshot(LocalidadeRepository localidadeRepository) {
+    this.localidadeRepository = localidadeRepository;
+  }
+
+  public Lista paises() {
+    return atual().paises();
+  }
+
+  public Lista estados(long paisId) {
+    return atual().estadosPorPais().get(paisId);
+  }
+
+  public Lista municipios(long estadoId) {
+    return atual().municipiosPorEstado().get(estadoId);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void carregarNaInicializacao() {
+    atual();
+  }
+
+  /** Relê o banco e troca a cópia de uma vez; leituras em andamento terminam na cópia anterior. */
+  public void recarregar() {
+    carga.lock();
+    try {
+      dados = carregar();
+    } finally {
+      carga.unlock();
+    }
+  }
+
+  private Dados atual() {
+    Dados d = dados;
+    if (d != null) return d;
+    carga.lock();
+    try {
+      if (dados == null) dados = carregar();
+      return dados;
+    } finally {
+      carga.unlock();
+    }
+  }
+
+  private Dados carregar() {
+    long inicio = System.currentTimeMillis();
+    Lista paises = Lista.de(localidadeRepository.listarPaises());
+    PorPai estados = new PorPai(localidadeRepository.listarEstadosAgrupadosPorPais());
+    PorPai municipios = new PorPai(localidadeRepository.listarMunicipiosAgrupadosPorEstado());
+    log.info(
+        "Localidades carregadas em {} ms: {} países, {} estados, {} municípios",
+        System.currentTimeMillis() - inicio,
+        paises.itens().size(),
+        estados.total,
+        municipios.total);
+    return new Dados(paises, estados, municipios);
+  }
+
+  /** Listas por id do pai; id sem filhos devolve a lista vazia. */
+  private static final class PorPai {
+    private final long[] ids;
+    private final Lista[] listas;
+    private final int total;
+
+    PorPai(Map<Long, List<Objeto>> porPai) {
+      ids = porPai.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+      listas = new Lista[ids.length];
+      int soma = 0;
+      for (int i = 0; i < ids.length; i++) {
+        List<Objeto> itens = porPai.get(ids[i]);
+        listas[i] = Lista.de(itens);
+        soma += itens.size();
+      }
+      total = soma;
+    }
+
+    Lista get(long id) {
+      int i = Arrays.binarySearch(ids, id);
+      return i < 0 ? VAZIA : listas[i];
+    }
+  }
+}
@@ -0,0 +1,227 @@
+package saas.hotel.istoepousada.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import saas.hotel.istoepousada.dto.Notificacao;
+import saas.hotel.istoepousada.repository.NotificacaoRepository;
+
+/**
+ * Últimas notificações em memória: um anel global e um anel por pessoa.
+ *
+ * <p>O anel global é carregado do banco na subida e, a partir daí, recebe cada notificação assim
+ * que o {@link NotificacaoWriter} a grava, já com o id. Escrita e leitura não usam lock: cada
+ * posição guarda a sequência com que foi escrita e o leitor descarta posições sobrescritas ou ainda
+ * não preenchidas. Quando o anel não garante as {@code quantidade} mais recentes, as consultas
+ * devolvem vazio e quem chama vai ao banco.
+ *
+ * <p>O anel só vê as notificações gravadas por esta instância. Por isso as listagens só saem dele
+ * com {@code notificacao.buffer.instancia-unica}; com mais de uma instância elas vão sempre ao
+ * banco, e o anel serve apenas para reenviar eventos SSE desta instância.
+ */
+@Component
+public class NotificacaoBuffer implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(NotificacaoBuffer.class);
+
+  private final NotificacaoRepository notificacaoRepository;
+  private final Anel global;
+  private final int tamanhoPorPessoa;
+  private final Cache<Long, Anel> porPessoa;
+  private final boolean instanciaUnica;
+
+  /** O banco tinha menos notificações que o anel global comporta: o anel tem o histórico todo. */
+  private volatile boolean historicoCompleto;
+
+  /** Nenhum anel de pessoa foi descartado por tamanho desde a carga inicial. */
+  private volatile boolean pessoasCompletas = true;
+
+  private volatile boolean carregado;
+  private volatile boolean rodando;
+
+  public NotificacaoBuffer(
+      NotificacaoRepository notificacaoRepository,
+      @Value("${notificacao.buffer.tamanho:500}") int tamanho,
+      @Value("${notificacao.buffer.tamanho-por-pessoa:50}") int tamanhoPorPessoa,
+      @Value("${notificacao.buffer.maximo-pessoas:10000}") long maximoPessoas,
+      @Value("${notificacao.buffer.instancia-unica:false}") boolean instanciaUnica) {
+    this.notificacaoRepository = notificacaoRepository;
+    this.global = new Anel(tamanho);
+    this.tamanhoPorPessoa = tamanhoPorPessoa;
+    this.instanciaUnica = instanciaUnica;
+    this.porPessoa =
+        Caffeine.newBuilder()
+            .maximumSize(maximoPessoas)
+            .removalListener(
+                (Long k, Anel v, RemovalCause causa) -> {
+                  if (causa.wasEvicted()) pessoasCompletas = false;
+                })
+            .build();
+  }
+
+  /** Registra a notificação e devolve a sequência global atribuída a ela. */
+  public Entrada adicionar(Notificacao notificacao) {
+    long seq = global.reservar();
+    Entrada entrada = new Entrada(seq, notificacao);
+    global.gravar(seq, entrada);
+    if (notificacao.fkPessoa() != null) {
+      Anel anel = porPessoa.get(notificacao.fkPessoa(), k -> new Anel(tamanhoPorPessoa));
+      anel.gravar(anel.reservar(), entrada);
+    }
+    return entrada;
+  }
+
+  public Optional<List<Notificacao>> ultimas(Integer quantidade) {
+    return ultimasEntradas(null, quantidade).map(NotificacaoBuffer::notificacoes);
+  }
+
+  public Optional<List<Notificacao>> ultimasPorPessoa(Long pessoaId, Integer quantidade) {
+    if (pessoaId == null) return Optional.empty();
+    return ultimasEntradas(pessoaId, quantidade).map(NotificacaoBuffer::notificacoes);
+  }
+
+  /**
+   * As {@code quantidade} entradas mais recentes (da mais nova para a mais antiga); vazio se o anel
+   * não as garante ou se outra instância pode ter gravado notificações.
+   */
+  public Optional<List<Entrada>> ultimasEntradas(Long pessoaId, Integer quantidade) {
+    if (!instanciaUnica || !carregado || quantidade == null || quantidade <= 0)
+      return Optional.empty();
+
+    if (pessoaId == null) {
+      if (quantidade > global.capacidade()) return Optional.empty();
+      List<Entrada> entradas = global.ultimas(quantidade);
+      if (entradas.size() == quantidade || (historicoCompleto && !global.deuVolta()))
+        return Optional.of(entradas);
+      return Optional.empty();
+    }
+
+    if (quantidade > tamanhoPorPessoa) return Optional.empty();
+    Anel anel = porPessoa.getIfPresent(pessoaId);
+    boolean completo = historicoCompleto && pessoasCompletas;
+    if (anel == null) return completo ? Optional.of(List.of()) : Optional.empty();
+
+    List<Entrada> entradas = anel.ultimas(quantidade);
+    if (entradas.size() == quantidade || (completo && !anel.deuVolta()))
+      return Optional.of(entradas);
+    return Optional.empty();
+  }
+
+  /**
+   * Entradas com sequência maior que {@code sequencia}, da mais antiga para a mais nova, ou vazio
+   * se alguma delas já saiu do anel.
+   */
+  public Optional<List<Entrada>> desde(long sequencia, Long pessoaId) {
+    if (!carregado) return Optional.empty();
+    long proxima = global.proximaSequencia();
+    if (sequencia >= proxima) return Optional.empty();
+    if (proxima - sequencia - 1 > global.capacidade()) return Optional.empty();
+
+    List<Entrada> entradas = global.ultimas((int) (proxima - sequencia - 1));
+    if (entradas.size() != proxima - sequencia - 1) return Optional.empty();
+
+    List<Entrada> resultado = new ArrayList<>(entradas.size());
+    for (int i = entradas.size() - 1; i >= 0; i--) {
+      Entrada e = entradas.get(i);
+      if (pessoaId == null || pessoaId.equals(e.notificacao().fkPessoa())) resultado.add(e);
+    }
+    return Optional.of(resultado);
+  }
+
+  private static List<Notificacao> notificacoes(List<Entrada> entradas) {
+    List<Notificacao> lista = new ArrayList<>(entradas.size());
+    for (Entrada e : entradas) lista.add(e.notificacao());
+    return lista;
+  }
+
+  @Override
+  public void start() {
+    rodando = true;
+    try {
+      List<Notificacao> recentes = notificacaoRepository.listarPorQuantidade(global.capacidade());
+      for (int i = recentes.size() - 1; i >= 0; i--) adicionar(recentes.get(i));
+      historicoCompleto = recentes.size() < global.capacidade();
+      carregado = true;
+      log.info("Buffer de notificações carregado com {} notificações", recentes.size());
+    } catch (RuntimeException e) {
+      // sem a carga inicial as listagens continuam indo ao banco
+      log.warn("Não foi possível carregar o buffer de notificações", e);
+    }
+  }
+
+  @Override
+  public void stop() {
+    rodando = false;
+    carregado = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return rodando;
+  }
+
+  /** Carrega antes do servidor web começar a receber requisições. */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+
+  public record Entrada(long sequencia, Notificacao notificacao) {}
+
+  /** Anel de tamanho fixo com escritores e leitores concorrentes sem lock. */
+  static final class Anel {
+    private record Posicao(long sequencia, Entrada entrada) {}
+
+    private final AtomicReferenceArray<Posicao> posicoes;
+    private final AtomicLong cursor = new AtomicLong();
+
+    Anel(int capacidade) {
+      this.posicoes = new AtomicReferenceArray<>(capacidade);
+    }
+
+    int capacidade() {
+      return posicoes.length();
+    }
+
+    long proximaSequencia() {
+      return cursor.get();
+    }
+
+    boolean deuVolta() {
+      return cursor.get() > posicoes.length();
+    }
+
+    long reservar() {
+      return cursor.getAndIncrement();
+    }
+
+    void gravar(long sequencia, Entrada entrada) {
+      posicoes.set((int) (sequencia % posicoes.length()), new Posicao(sequencia, entrada));
+    }
+
+    /**
+     * Até {@code quantidade} entradas, da mais nova para a mais antiga. Para na primeira posição
+     * ainda não gravada ou já sobrescrita, para nunca devolver uma lista com buraco.
+     */
+    List<Entrada> ultimas(int quantidade) {
+      long fim = cursor.get();
+      long inicio = Math.max(0, fim - posicoes.length());
+      List<Entrada> entradas = new ArrayList<>(Math.min(quantidade, posicoes.length()));
+      for (long seq = fim - 1; seq >= inicio && entradas.size() < quantidade; seq--) {
+        Posicao p = posicoes.get((int) (seq % posicoes.length()));
+        if (p == null || p.sequencia() != seq) break;
+        entradas.add(p.entrada());
+      }
+      return entradas;
+    }
+  }
+}
@@ -1,8 +1,13 @@
 package saas.hotel.istoepousada.service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
 import saas.hotel.istoepousada.dto.Notificacao;
 import saas.hotel.istoepousada.dto.Pessoa;
 import saas.hotel.istoepousada.repository.NotificacaoRepository;
@@ -11,23 +16,72 @@ import saas.hotel.istoepousada.repository.NotificacaoRepository;
 public class NotificacaoService {
 
   private final NotificacaoRepository notificacaoRepository;
+  private final NotificacaoWriter notificacaoWriter;
+  private final NotificacaoBuffer notificacaoBuffer;
+  private final NotificacaoStream notificacaoStream;
+  private final AdmissaoBanco admissaoBanco;
 
-  public NotificacaoService(NotificacaoRepository notificacaoRepository) {
+  public NotificacaoService(
+      NotificacaoRepository notificacaoRepository,
+      NotificacaoWriter notificacaoWriter,
+      NotificacaoBuffer notificacaoBuffer,
+      NotificacaoStream notificacaoStream,
+      AdmissaoBanco admissaoBanco) {
     this.notificacaoRepository = notificacaoRepository;
+    this.notificacaoWriter = notificacaoWriter;
+    this.notificacaoBuffer = notificacaoBuffer;
+    this.notificacaoStream = notificacaoStream;
+    this.admissaoBanco = admissaoBanco;
   }
 
-  @Transactional(readOnly = true)
+  // sem @Transactional: servidas do buffer (instância única) não devem nem pegar conexão do pool.
+  // O controller é @SemBanco, então a ida ao banco passa pelo AdmissaoBanco aqui.
   public List<Notificacao> listarUltimas20(Integer quantidade) {
-    return notificacaoRepository.listarPorQuantidade(quantidade);
+    return notificacaoBuffer
+        .ultimas(quantidade)
+        .orElseGet(() -> doBanco(() -> notificacaoRepository.listarPorQuantidade(quantidade)));
   }
 
-  @Transactional(readOnly = true)
   public List<Notificacao> listarUltimasPorPessoa(Long pessoaId, Integer quantidade) {
-    return notificacaoRepository.listarPorPessoa(pessoaId, quantidade);
+    return notificacaoBuffer
+        .ultimasPorPessoa(pessoaId, quantidade)
+        .orElseGet(
+            () -> doBanco(() -> notificacaoRepository.listarPorPessoa(pessoaId, quantidade)));
   }
 
-  @Transactional
+  private List<Notificacao> doBanco(Supplier<List<Notificacao>> consulta) {
+    admissaoBanco.entrar(AdmissaoBanco.Classe.NORMAL);
+    try {
+      return consulta.get();
+    } finally {
+      admissaoBanco.sair(AdmissaoBanco.Classe.NORMAL);
+    }
+  }
+
+  public SseEmitter stream(Long pessoaId, Integer quantidade, String lastEventId) {
+    return notificacaoStream.inscrever(pessoaId, quantidade, lastEventId);
+  }
+
+  /**
+   * Publica a notificação para gravação assíncrona. Dentro de uma transação ela só é publicada
+   * depois do commit (e descartada no rollback); a notificação devolvida ainda não tem id. O buffer
+   * e o stream a recebem do {@link NotificacaoWriter}, depois de gravada.
+   */
   public Notificacao criar(Pessoa funcionario, String descricao) {
-    return notificacaoRepository.criar(funcionario, descricao);
+    Notificacao notificacao =
+        new Notificacao(null, funcionario.id(), funcionario.nome(), descricao, LocalDateTime.now());
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              notificacaoWriter.publicar(notificacao);
+            }
+          });
+    } else {
+      notificacaoWriter.publicar(notificacao);
+    }
+    return notificacao;
   }
 }
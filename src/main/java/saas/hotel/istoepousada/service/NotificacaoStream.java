@@ -0,0 +1,170 @@
+package saas.hotel.istoepousada.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import saas.hotel.istoepousada.dto.Notificacao;
+import saas.hotel.istoepousada.repository.NotificacaoRepository;
+
+/**
+ * Conexões SSE de notificações.
+ *
+ * <p>Todo envio (carga inicial, novas notificações e heartbeat) roda numa única thread, então uma
+ * conexão nunca recebe eventos fora de ordem e um cliente lento não segura quem publicou. O id de
+ * cada evento é {@code <instância>:<sequência>}; um cliente que reconecta com {@code
+ * Last-Event-ID} recebe só o que perdeu, direto do {@link NotificacaoBuffer}.
+ */
+@Component
+public class NotificacaoStream {
+  private static final long HEARTBEAT_SEGUNDOS = 25;
+
+  private final NotificacaoBuffer notificacaoBuffer;
+  private final NotificacaoRepository notificacaoRepository;
+  private final long timeoutMs;
+  private final String instancia = Long.toString(System.currentTimeMillis(), 36);
+  private final List<Inscricao> inscricoes = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread t = new Thread(r, "notificacao-sse");
+            t.setDaemon(true);
+            return t;
+          });
+
+  public NotificacaoStream(
+      NotificacaoBuffer notificacaoBuffer,
+      NotificacaoRepository notificacaoRepository,
+      MeterRegistry meterRegistry,
+      @Value("${notificacao.stream.timeout-ms:1800000}") long timeoutMs) {
+    this.notificacaoBuffer = notificacaoBuffer;
+    this.notificacaoRepository = notificacaoRepository;
+    this.timeoutMs = timeoutMs;
+    Gauge.builder("notificacao.stream.conexoes", inscricoes, Collection::size)
+        .description("Conexões SSE de notificações abertas")
+        .register(meterRegistry);
+    executor.scheduleAtFixedRate(
+        this::heartbeat, HEARTBEAT_SEGUNDOS, HEARTBEAT_SEGUNDOS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Abre a conexão e envia as {@code quantidade} últimas notificações, ou só as perdidas desde
+   * {@code lastEventId}.
+   */
+  public SseEmitter inscrever(Long pessoaId, Integer quantidade, String lastEventId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    Inscricao inscricao = new Inscricao(emitter, pessoaId);
+    emitter.onCompletion(() -> inscricoes.remove(inscricao));
+    emitter.onTimeout(() -> inscricoes.remove(inscricao));
+    emitter.onError(e -> inscricoes.remove(inscricao));
+    inscricoes.add(inscricao);
+
+    executor.execute(() -> enviarInicial(inscricao, quantidade, lastEventId));
+    return emitter;
+  }
+
+  public void publicar(NotificacaoBuffer.Entrada entrada) {
+    if (inscricoes.isEmpty()) return;
+    executor.execute(
+        () -> {
+          for (Inscricao inscricao : inscricoes) enviar(inscricao, entrada);
+        });
+  }
+
+  private void enviarInicial(Inscricao inscricao, Integer quantidade, String lastEventId) {
+    Long sequencia = sequencia(lastEventId);
+    if (sequencia != null) {
+      Optional<List<NotificacaoBuffer.Entrada>> perdidas =
+          notificacaoBuffer.desde(sequencia, inscricao.pessoaId);
+      if (perdidas.isPresent()) {
+        inscricao.ultimaSequencia = sequencia;
+        for (NotificacaoBuffer.Entrada e : perdidas.get()) enviar(inscricao, e);
+        return;
+      }
+    }
+
+    Optional<List<NotificacaoBuffer.Entrada>> ultimas =
+        notificacaoBuffer.ultimasEntradas(inscricao.pessoaId, quantidade);
+    if (ultimas.isPresent()) {
+      List<NotificacaoBuffer.Entrada> entradas = ultimas.get();
+      for (int i = entradas.size() - 1; i >= 0; i--) enviar(inscricao, entradas.get(i));
+      return;
+    }
+
+    // buffer ainda não carregado ou quantidade maior que o anel
+    List<Notificacao> doBanco =
+        inscricao.pessoaId == null
+            ? notificacaoRepository.listarPorQuantidade(quantidade)
+            : notificacaoRepository.listarPorPessoa(inscricao.pessoaId, quantidade);
+    for (int i = doBanco.size() - 1; i >= 0; i--) {
+      if (!enviar(inscricao, SseEmitter.event().name("notificacao").data(doBanco.get(i)))) return;
+    }
+  }
+
+  private void enviar(Inscricao inscricao, NotificacaoBuffer.Entrada entrada) {
+    if (entrada.sequencia() <= inscricao.ultimaSequencia) return;
+    Notificacao n = entrada.notificacao();
+    if (inscricao.pessoaId != null && !inscricao.pessoaId.equals(n.fkPessoa())) return;
+    inscricao.ultimaSequencia = entrada.sequencia();
+    enviar(
+        inscricao,
+        SseEmitter.event().id(instancia + ":" + entrada.sequencia()).name("notificacao").data(n));
+  }
+
+  private boolean enviar(Inscricao inscricao, SseEmitter.SseEventBuilder evento) {
+    try {
+      inscricao.emitter.send(evento);
+      return true;
+    } catch (IOException | IllegalStateException e) {
+      inscricoes.remove(inscricao);
+      inscricao.emitter.completeWithError(e);
+      return false;
+    }
+  }
+
+  private void heartbeat() {
+    for (Inscricao inscricao : inscricoes) enviar(inscricao, SseEmitter.event().comment(""));
+  }
+
+  /** Sequência do {@code Last-Event-ID} quando ele é desta instância. */
+  private Long sequencia(String lastEventId) {
+    if (lastEventId == null) return null;
+    int sep = lastEventId.indexOf(':');
+    if (sep < 0 || !instancia.equals(lastEventId.substring(0, sep))) return null;
+    try {
+      return Long.parseLong(lastEventId.substring(sep + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  @PreDestroy
+  void encerrar() {
+    executor.shutdownNow();
+    for (Inscricao inscricao : inscricoes) inscricao.emitter.complete();
+    inscricoes.clear();
+  }
+
+  private static final class Inscricao {
+    private final SseEmitter emitter;
+    private final Long pessoaId;
+
+    /** Só acessado pela thread de envio. */
+    private long ultimaSequencia = -1;
+
+    private Inscricao(SseEmitter emitter, Long pessoaId) {
+      this.emitter = emitter;
+      this.pessoaId = pessoaId;
+    }
+  }
+}
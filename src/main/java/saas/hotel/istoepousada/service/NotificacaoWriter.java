@@ -0,0 +1,189 @@
+package saas.hotel.istoepousada.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import saas.hotel.istoepousada.dto.Notificacao;
+import saas.hotel.istoepousada.repository.NotificacaoRepository;
+
+/**
+ * Gravação assíncrona de notificações em lote.
+ *
+ * <p>As notificações entram numa fila limitada e uma thread dedicada as grava em batches de até
+ * {@code notificacao.fila.lote-maximo}. Com a fila cheia quem publica espera até {@code
+ * notificacao.fila.espera-ms}; esgotado o tempo, grava a própria notificação direto no banco. No
+ * desligamento a fila é esvaziada antes do pool de conexões fechar.
+ *
+ * <p>Só depois que o lote é gravado, já com os ids, as notificações entram no {@link
+ * NotificacaoBuffer} e são enviadas pelo {@link NotificacaoStream}; a que é descartada por erro não
+ * aparece em nenhum dos dois.
+ */
+@Component
+public class NotificacaoWriter implements SmartLifecycle {
+  private static final Logger log = LoggerFactory.getLogger(NotificacaoWriter.class);
+  private static final long POLL_MS = 200;
+
+  private final NotificacaoRepository notificacaoRepository;
+  private final NotificacaoBuffer notificacaoBuffer;
+  private final NotificacaoStream notificacaoStream;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<Notificacao> fila;
+  private final long esperaMs;
+  private final int loteMaximo;
+
+  private final Timer flush;
+  private final DistributionSummary tamanhoLote;
+  private final Counter gravadasDireto;
+  private final Counter descartadas;
+
+  private volatile boolean rodando;
+  private Thread thread;
+
+  public NotificacaoWriter(
+      NotificacaoRepository notificacaoRepository,
+      NotificacaoBuffer notificacaoBuffer,
+      NotificacaoStream notificacaoStream,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${notificacao.fila.capacidade:10000}") int capacidade,
+      @Value("${notificacao.fila.espera-ms:2000}") long esperaMs,
+      @Value("${notificacao.fila.lote-maximo:500}") int loteMaximo) {
+    this.notificacaoRepository = notificacaoRepository;
+    this.notificacaoBuffer = notificacaoBuffer;
+    this.notificacaoStream = notificacaoStream;
+    // transação própria: a publicação acontece no afterCommit da transação de negócio
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.fila = new ArrayBlockingQueue<>(capacidade);
+    this.esperaMs = esperaMs;
+    this.loteMaximo = loteMaximo;
+
+    Gauge.builder("notificacao.fila.tamanho", fila, Collection::size)
+        .description("Notificações aguardando gravação")
+        .register(meterRegistry);
+    this.flush =
+        Timer.builder("notificacao.flush")
+            .description("Tempo de gravação de um lote de notificações")
+            .register(meterRegistry);
+    this.tamanhoLote =
+        DistributionSummary.builder("notificacao.flush.lote")
+            .description("Notificações por lote gravado")
+            .register(meterRegistry);
+    this.gravadasDireto =
+        Counter.builder("notificacao.fila.cheia")
+            .description("Notificações gravadas por quem publicou porque a fila estava cheia")
+            .register(meterRegistry);
+    this.descartadas =
+        Counter.builder("notificacao.descartadas")
+            .description("Notificações que falharam na gravação")
+            .register(meterRegistry);
+  }
+
+  public void publicar(Notificacao notificacao) {
+    boolean enfileirada = false;
+    if (rodando) {
+      try {
+        enfileirada = fila.offer(notificacao, esperaMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (!enfileirada) {
+      if (rodando) gravadasDireto.increment();
+      gravar(List.of(notificacao));
+    }
+  }
+
+  private void executar() {
+    List<Notificacao> lote = new ArrayList<>(loteMaximo);
+    while (rodando || !fila.isEmpty()) {
+      try {
+        Notificacao primeira = fila.poll(POLL_MS, TimeUnit.MILLISECONDS);
+        if (primeira == null) continue;
+        lote.add(primeira);
+        fila.drainTo(lote, loteMaximo - 1);
+        gravar(lote);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        log.error("Erro inesperado no gravador de notificações", e);
+      } finally {
+        lote.clear();
+      }
+    }
+  }
+
+  private void gravar(List<Notificacao> lote) {
+    Timer.Sample sample = Timer.start();
+    List<Notificacao> gravadas;
+    try {
+      gravadas = transactionTemplate.execute(s -> notificacaoRepository.inserirLote(lote));
+      tamanhoLote.record(lote.size());
+    } catch (RuntimeException e) {
+      if (lote.size() == 1) {
+        descartadas.increment();
+        log.error("Notificação descartada: {}", lote.getFirst().descricao(), e);
+        return;
+      }
+      // uma linha inválida não derruba o lote inteiro
+      log.warn("Falha ao gravar lote de {} notificações; gravando uma a uma", lote.size(), e);
+      for (Notificacao n : lote) gravar(List.of(n));
+      return;
+    } finally {
+      sample.stop(flush);
+    }
+    // depois do commit: o buffer e o stream só veem notificações gravadas, com id
+    for (Notificacao n : gravadas) notificacaoStream.publicar(notificacaoBuffer.adicionar(n));
+  }
+
+  @Override
+  public void start() {
+    rodando = true;
+    thread = new Thread(this::executar, "notificacao-writer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  @Override
+  public void stop() {
+    rodando = false;
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(30));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    List<Notificacao> restantes = new ArrayList<>();
+    fila.drainTo(restantes);
+    if (!restantes.isEmpty()) gravar(restantes);
+    log.info("Gravador de notificações encerrado");
+  }
+
+  @Override
+  public boolean isRunning() {
+    return rodando;
+  }
+
+  /** Para depois do servidor web, para que as requisições em andamento ainda publiquem na fila. */
+  @Override
+  public int getPhase() {
+    return SmartLifecycle.DEFAULT_PHASE - 4096;
+  }
+}
@@ -10,8 +10,10 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import saas.hotel.istoepousada.dto.Empresa;
 import saas.hotel.istoepousada.dto.Pessoa;
+import saas.hotel.istoepousada.dto.PessoaCursorPage;
 import saas.hotel.istoepousada.dto.Veiculo;
 import saas.hotel.istoepousada.repository.EmpresaRepository;
+import saas.hotel.istoepousada.repository.PessoaLoteRepository;
 import saas.hotel.istoepousada.repository.PessoaRepository;
 import saas.hotel.istoepousada.repository.VeiculoRepository;
 
@@ -19,16 +21,19 @@ import saas.hotel.istoepousada.repository.VeiculoRepository;
 public class PessoaService {
   Logger log = LoggerFactory.getLogger(PessoaService.class);
   private final PessoaRepository pessoaRepository;
+  private final PessoaLoteRepository pessoaLoteRepository;
   private final VeiculoRepository veiculoRepository;
   private final EmpresaRepository empresaRepository;
   private final NotificacaoService notificacaoService;
 
   public PessoaService(
       PessoaRepository pessoaRepository,
+      PessoaLoteRepository pessoaLoteRepository,
       VeiculoRepository veiculoRepository,
       EmpresaRepository empresaRepository,
       NotificacaoService notificacaoService) {
     this.pessoaRepository = pessoaRepository;
+    this.pessoaLoteRepository = pessoaLoteRepository;
     this.veiculoRepository = veiculoRepository;
     this.empresaRepository = empresaRepository;
     this.notificacaoService = notificacaoService;
@@ -40,11 +45,31 @@ public class PessoaService {
     return pessoaRepository.buscar(id, termoNormalizado, placaVeiculo, status, pageable);
   }
 
+  public PessoaCursorPage buscarPorCursor(
+      String termo,
+      String placaVeiculo,
+      Pessoa.Status status,
+      String after,
+      int size,
+      boolean contar) {
+    String termoNormalizado = StringUtils.hasText(termo) ? termo.trim() : null;
+    PessoaCursorPage.Cursor cursor = PessoaCursorPage.Cursor.decode(after);
+    return pessoaRepository.buscarPorCursor(
+        termoNormalizado, placaVeiculo, status, cursor, size, contar);
+  }
+
+  public List<Pessoa> pesquisar(String termo, Integer limite) {
+    if (!StringUtils.hasText(termo)) return List.of();
+    int k = limite == null ? 10 : limite;
+    if (k <= 0 || k > 50) throw new IllegalArgumentException("limite deve estar entre 1 e 50.");
+    return pessoaRepository.pesquisar(termo.trim(), k);
+  }
+
   @Transactional
   public Pessoa salvarPessoaIndividual(Pessoa pessoa) {
     validarPessoa(pessoa);
     Long funcionarioIdLogado = pessoaRepository.getFuncionarioPessoaIdFromRequest();
-    var funcionario = pessoaRepository.findById(funcionarioIdLogado);
+    var funcionario = pessoaRepository.findByIdEmCache(funcionarioIdLogado);
 
     Pessoa salva = pessoaRepository.save(pessoa, funcionarioIdLogado);
 
@@ -113,35 +138,44 @@ public class PessoaService {
           "Informe apenas 1 titular (somente um item com titularId = null).");
     }
 
+    pessoas.forEach(this::validarPessoa);
+
     Long funcionarioIdLogado = pessoaRepository.getFuncionarioPessoaIdFromRequest();
     Pessoa funcionario =
-        funcionarioIdLogado != null ? pessoaRepository.findById(funcionarioIdLogado) : null;
+        funcionarioIdLogado != null ? pessoaRepository.findByIdEmCache(funcionarioIdLogado) : null;
 
     Pessoa titularReq = titulares.getFirst();
-    Pessoa titularSalvo = salvarInternoSemVinculoEmpresa(titularReq, funcionarioIdLogado);
+    Long titularId =
+        pessoaLoteRepository.salvar(List.of(titularReq), funcionarioIdLogado).getFirst();
 
-    List<Pessoa> acompanhantesSalvos = new ArrayList<>();
-    for (Pessoa p : pessoas) {
-      if (p == titularReq) continue;
+    List<Pessoa> acompanhantesReq = new ArrayList<>(pessoas.size() - 1);
+    for (Pessoa p : pessoas) if (p != titularReq) acompanhantesReq.add(p.withTitular(titularId));
+    List<Long> acompanhantesIds =
+        pessoaLoteRepository.salvar(acompanhantesReq, funcionarioIdLogado);
 
-      Pessoa acompanhanteReq = p.withTitular(titularSalvo.id());
-      Pessoa acompanhanteSalvo =
-          salvarInternoSemVinculoEmpresa(acompanhanteReq, funcionarioIdLogado);
-      acompanhantesSalvos.add(acompanhanteSalvo);
-    }
+    List<Pessoa> requests = new ArrayList<>(pessoas.size());
+    requests.add(titularReq);
+    requests.addAll(acompanhantesReq);
+    List<Long> ids = new ArrayList<>(pessoas.size());
+    ids.add(titularId);
+    ids.addAll(acompanhantesIds);
 
-    if (!empresasIds.isEmpty()) {
-      List<Pessoa> todos = new ArrayList<>();
-      todos.add(titularSalvo);
-      todos.addAll(acompanhantesSalvos);
+    Map<Long, List<Veiculo>> veiculosSalvos = salvarVeiculosEmLote(requests, ids);
 
-      for (Long empresaId : empresasIds) {
-        for (Pessoa p : todos) {
-          empresaRepository.vincularPessoa(empresaId, p.id(), true);
-        }
-      }
+    if (empresasIds != null && !empresasIds.isEmpty()) {
+      pessoaLoteRepository.vincularEmpresas(new LinkedHashSet<>(empresasIds), ids);
+    }
+
+    Map<Long, Pessoa> salvas = new HashMap<>();
+    for (Pessoa p : pessoaRepository.listarPorIds(ids)) {
+      List<Veiculo> veiculos = veiculosSalvos.get(p.id());
+      salvas.put(p.id(), veiculos == null ? p : p.withVeiculos(veiculos));
     }
 
+    Pessoa titularSalvo = salvas.get(titularId);
+    List<Pessoa> acompanhantesSalvos = new ArrayList<>(acompanhantesIds.size());
+    for (Long id : acompanhantesIds) acompanhantesSalvos.add(salvas.get(id));
+
     Pessoa titularComAcompanhantes = titularSalvo.withAcompanhantes(acompanhantesSalvos);
 
     if (funcionario != null) {
@@ -166,53 +200,61 @@ public class PessoaService {
     return retorno;
   }
 
-  private Pessoa salvarInternoSemVinculoEmpresa(Pessoa pessoa, Long funcionarioIdLogado) {
-    validarPessoa(pessoa);
-
-    Pessoa salva = pessoaRepository.save(pessoa, funcionarioIdLogado);
-    salva = salvarOuAtualizarVeiculos(salva, pessoa.veiculos());
-
-    return salva;
-  }
-
-  private Pessoa salvarOuAtualizarVeiculos(Pessoa salva, List<Veiculo> veiculosRequest) {
-    if (veiculosRequest == null) return salva;
-
-    var veiculosExistentes = veiculoRepository.findAllByPessoaId(salva.id());
-
-    if (veiculosExistentes.isEmpty()) {
-      if (!veiculosRequest.isEmpty()) {
-        List<Veiculo> veiculosSalvos = new ArrayList<>(veiculosRequest.size());
-        for (Veiculo veiculo : veiculosRequest) {
-          Veiculo veiculoSalvo = veiculoRepository.save(salva.id(), veiculo);
-          if (veiculoSalvo.id() == null) {
-            throw new IllegalStateException("Veículo salvo sem ID (verifique o RETURNING id).");
-          }
-          veiculoRepository.setVinculoAtivo(salva.id(), veiculoSalvo.id(), true);
-          veiculosSalvos.add(veiculoSalvo);
-        }
-        return salva.withVeiculos(veiculosSalvos);
+  /**
+   * Veículos do grupo inteiro em lote: pessoa sem veículo recebe todos os informados; pessoa com
+   * veículo tem o primeiro atualizado pelo primeiro informado. Devolve os veículos gravados por
+   * pessoa.
+   */
+  private Map<Long, List<Veiculo>> salvarVeiculosEmLote(List<Pessoa> requests, List<Long> ids) {
+    List<Long> jaCadastradas = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++)
+      if (requests.get(i).id() != null && requests.get(i).veiculos() != null)
+        jaCadastradas.add(ids.get(i));
+    Map<Long, List<Veiculo>> existentes = pessoaLoteRepository.veiculosPorPessoa(jaCadastradas);
+
+    List<Veiculo> novos = new ArrayList<>();
+    List<Long> donosNovos = new ArrayList<>();
+    List<Veiculo> atualizados = new ArrayList<>();
+    Map<Long, Long> pessoaPorVeiculo = new LinkedHashMap<>();
+    Map<Long, List<Veiculo>> salvos = new HashMap<>();
+
+    for (int i = 0; i < requests.size(); i++) {
+      List<Veiculo> veiculosRequest = requests.get(i).veiculos();
+      if (veiculosRequest == null || veiculosRequest.isEmpty()) continue;
+      Long pessoaId = ids.get(i);
+
+      List<Veiculo> atuais = existentes.getOrDefault(pessoaId, List.of());
+      if (atuais.isEmpty()) {
+        novos.addAll(veiculosRequest);
+        for (int j = 0; j < veiculosRequest.size(); j++) donosNovos.add(pessoaId);
+      } else {
+        Veiculo oldVeiculo = atuais.getFirst();
+        Veiculo newVeiculo = veiculosRequest.getFirst();
+        Veiculo veiculoAtualizado =
+            new Veiculo(
+                oldVeiculo.id(),
+                newVeiculo.modelo(),
+                newVeiculo.marca(),
+                newVeiculo.ano(),
+                newVeiculo.placa(),
+                newVeiculo.cor());
+        atualizados.add(veiculoAtualizado);
+        pessoaPorVeiculo.put(oldVeiculo.id(), pessoaId);
+        salvos.put(pessoaId, List.of(veiculoAtualizado));
       }
-      return salva;
     }
-    if (!veiculosRequest.isEmpty()) {
-      var oldVeiculo = veiculosExistentes.getFirst();
-      var newVeiculo = veiculosRequest.getFirst();
-
-      Veiculo veiculoAtualizado =
-          new Veiculo(
-              oldVeiculo.id(),
-              newVeiculo.modelo(),
-              newVeiculo.marca(),
-              newVeiculo.ano(),
-              newVeiculo.placa(),
-              newVeiculo.cor());
-
-      veiculoRepository.save(salva.id(), veiculoAtualizado);
-      veiculoRepository.setVinculoAtivo(salva.id(), oldVeiculo.id(), true);
-      return salva.withVeiculos(List.of(veiculoAtualizado));
+
+    List<Long> novosIds = pessoaLoteRepository.inserirVeiculos(novos);
+    for (int i = 0; i < novos.size(); i++) {
+      Long pessoaId = donosNovos.get(i);
+      Veiculo salvo = novos.get(i).withId(novosIds.get(i));
+      pessoaPorVeiculo.put(salvo.id(), pessoaId);
+      salvos.computeIfAbsent(pessoaId, k -> new ArrayList<>()).add(salvo);
     }
-    return salva;
+
+    pessoaLoteRepository.atualizarVeiculos(atualizados);
+    pessoaLoteRepository.vincularVeiculos(pessoaPorVeiculo);
+    return salvos;
   }
 
   public void alterarStatus(Long id, Pessoa.Status status) {
@@ -0,0 +1,168 @@
+package saas.hotel.istoepousada.service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Escrita de planilha linha a linha direto no {@link OutputStream}, sem manter as linhas em
+ * memória. Células {@link Number} saem como número; o resto como texto.
+ */
+interface PlanilhaWriter extends Closeable {
+
+  void linha(Object... celulas) throws IOException;
+
+  private static String numero(Number n) {
+    return n instanceof BigDecimal b ? b.toPlainString() : n.toString();
+  }
+
+  static PlanilhaWriter csv(OutputStream out) throws IOException {
+    return new Csv(out);
+  }
+
+  static PlanilhaWriter xlsx(OutputStream out) throws IOException {
+    return new Xlsx(out);
+  }
+
+  /**
+   * CSV no formato que o Excel pt-BR abre direto: BOM UTF-8, {@code ;} e vírgula decimal. Texto que
+   * a planilha leria como fórmula ({@code = + - @}, TAB ou CR no início) sai com {@code '} na
+   * frente, entre aspas.
+   */
+  final class Csv implements PlanilhaWriter {
+    private final Writer writer;
+
+    private Csv(OutputStream out) throws IOException {
+      this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      writer.write('\uFEFF');
+    }
+
+    @Override
+    public void linha(Object... celulas) throws IOException {
+      for (int i = 0; i < celulas.length; i++) {
+        if (i > 0) writer.write(';');
+        Object c = celulas[i];
+        if (c == null) continue;
+        if (c instanceof Number n) writer.write(numero(n).replace('.', ','));
+        else writer.write(escapar(c.toString()));
+      }
+      writer.write("\r\n");
+    }
+
+    private static String escapar(String s) {
+      if (!s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0)
+        return "\"'" + s.replace("\"", "\"\"") + '"';
+      if (s.indexOf(';') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0)
+        return s;
+      return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.flush();
+    }
+  }
+
+  /**
+   * XLSX mínimo (uma aba, strings inline). As partes fixas do pacote vão primeiro e a aba é gravada
+   * em streaming dentro do zip até o {@link #close()}.
+   */
+  final class Xlsx implements PlanilhaWriter {
+    private static final String CONTENT_TYPES =
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+        <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+        <Default Extension="xml" ContentType="application/xml"/>
+        <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+        <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+        </Types>""";
+
+    private static final String RELS =
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+        <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+        </Relationships>""";
+
+    private static final String WORKBOOK =
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+        <sheets><sheet name="Extrato" sheetId="1" r:id="rId1"/></sheets>
+        </workbook>""";
+
+    private static final String WORKBOOK_RELS =
+        """
+        <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+        <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+        <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+        </Relationships>""";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+
+    private Xlsx(OutputStream out) throws IOException {
+      this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+      this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+      parte("[Content_Types].xml", CONTENT_TYPES);
+      parte("_rels/.rels", RELS);
+      parte("xl/workbook.xml", WORKBOOK);
+      parte("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+      zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+      writer.write(
+          "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+              + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+              + "<sheetData>");
+    }
+
+    private void parte(String nome, String conteudo) throws IOException {
+      zip.putNextEntry(new ZipEntry(nome));
+      writer.write(conteudo);
+      writer.flush();
+      zip.closeEntry();
+    }
+
+    @Override
+    public void linha(Object... celulas) throws IOException {
+      writer.write("<row>");
+      for (Object c : celulas) {
+        if (c == null) writer.write("<c/>");
+        else if (c instanceof Number n) writer.write("<c><v>" + numero(n) + "</v></c>");
+        else {
+          writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+          escapar(c.toString());
+          writer.write("</t></is></c>");
+        }
+      }
+      writer.write("</row>");
+    }
+
+    private void escapar(String s) throws IOException {
+      for (int i = 0; i < s.length(); i++) {
+        char ch = s.charAt(i);
+        switch (ch) {
+          case '<' -> writer.write("&lt;");
+          case '>' -> writer.write("&gt;");
+          case '&' -> writer.write("&amp;");
+          case '"' -> writer.write("&quot;");
+          default -> {
+            // caracteres de controle não são válidos em XML 1.0
+            if (ch >= 0x20 || ch == '\t' || ch == '\n' || ch == '\r') writer.write(ch);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      writer.write("</sheetData></worksheet>");
+      writer.flush();
+      zip.closeEntry();
+      zip.finish();
+    }
+  }
+}
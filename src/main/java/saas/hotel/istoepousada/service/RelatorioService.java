@@ -1,9 +1,20 @@
 package saas.hotel.istoepousada.service;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import saas.hotel.istoepousada.dto.Relatorio;
 import saas.hotel.istoepousada.dto.RelatorioExtratoResponse;
@@ -13,17 +24,24 @@ import saas.hotel.istoepousada.repository.RelatorioRepository;
 @Service
 public class RelatorioService {
 
+  private static final DateTimeFormatter DATA_HORA =
+      DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
   private final RelatorioRepository relatorioRepository;
   private final PessoaRepository pessoaRepository;
   private final NotificacaoService notificacaoService;
+  private final TransactionTemplate somenteLeitura;
 
   public RelatorioService(
       RelatorioRepository relatorioRepository,
       PessoaRepository pessoaRepository,
-      NotificacaoService notificacaoService) {
+      NotificacaoService notificacaoService,
+      PlatformTransactionManager transactionManager) {
     this.relatorioRepository = relatorioRepository;
     this.pessoaRepository = pessoaRepository;
     this.notificacaoService = notificacaoService;
+    this.somenteLeitura = new TransactionTemplate(transactionManager);
+    this.somenteLeitura.setReadOnly(true);
   }
 
   public RelatorioExtratoResponse buscar(
@@ -44,11 +62,90 @@ public class RelatorioService {
         id, dataInicio, dataFim, funcionarioId, quartoId, tipoPagamentoId, valores, pageable);
   }
 
+  /**
+   * Exporta o extrato com os mesmos filtros de {@link #buscar}. Os lançamentos saem do cursor (em
+   * transação somente leitura, para o driver usar o cursor) direto para um arquivo temporário; só
+   * depois do commit o arquivo é copiado para {@code out}, então um download lento não segura a
+   * conexão.
+   */
+  public void exportar(
+      Relatorio.Formato formato,
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      OutputStream out)
+      throws IOException {
+    if (dataInicio == null && dataFim == null) {
+      LocalDate hoje = LocalDate.now();
+      dataInicio = hoje.minusDays(1);
+      dataFim = hoje;
+    }
+
+    Path temporario = Files.createTempFile("extrato-", ".tmp");
+    try {
+      try (OutputStream arquivo = new BufferedOutputStream(Files.newOutputStream(temporario))) {
+        escrever(
+            formato,
+            dataInicio,
+            dataFim,
+            funcionarioId,
+            quartoId,
+            tipoPagamentoId,
+            valores,
+            arquivo);
+      }
+      Files.copy(temporario, out);
+    } finally {
+      Files.deleteIfExists(temporario);
+    }
+  }
+
+  private void escrever(
+      Relatorio.Formato formato,
+      LocalDate dataInicio,
+      LocalDate dataFim,
+      Long funcionarioId,
+      Long quartoId,
+      Long tipoPagamentoId,
+      Relatorio.Valores valores,
+      OutputStream out)
+      throws IOException {
+    try (PlanilhaWriter planilha =
+        formato == Relatorio.Formato.XLSX ? PlanilhaWriter.xlsx(out) : PlanilhaWriter.csv(out)) {
+      planilha.linha(
+          "ID", "Data/Hora", "Descrição", "Valor", "Tipo de pagamento", "Quarto", "Funcionário");
+
+      RowCallbackHandler linha =
+          rs -> {
+            Timestamp dataHora = rs.getTimestamp("data_hora");
+            try {
+              planilha.linha(
+                  rs.getLong("relatorio_id"),
+                  dataHora == null ? null : DATA_HORA.format(dataHora.toLocalDateTime()),
+                  rs.getString("relatorio"),
+                  rs.getBigDecimal("valor"),
+                  rs.getString("tipo_pagamento_descricao"),
+                  rs.getString("quarto_descricao"),
+                  rs.getString("funcionario_nome"));
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          };
+      somenteLeitura.executeWithoutResult(
+          s ->
+              relatorioRepository.exportar(
+                  dataInicio, dataFim, funcionarioId, quartoId, tipoPagamentoId, valores, linha));
+    }
+  }
+
   @Transactional
   public Relatorio criar(Relatorio.RelatorioRequest request) {
     validarRequest(request);
     Long funcionarioPessoaId = pessoaRepository.getFuncionarioPessoaIdFromRequest();
-    var funcionario = pessoaRepository.findById(funcionarioPessoaId);
+    var funcionario = pessoaRepository.findByIdEmCache(funcionarioPessoaId);
     Relatorio salvo = relatorioRepository.insert(request, funcionarioPessoaId);
     notificacaoService.criar(funcionario, "LANÇOU UM RELATÓRIO: " + request.relatorio());
     return salvo;
@@ -59,7 +156,7 @@ public class RelatorioService {
     if (id == null) throw new IllegalArgumentException("id é obrigatório.");
     validarRequest(request);
     Long funcionarioPessoaId = pessoaRepository.getFuncionarioPessoaIdFromRequest();
-    var funcionario = pessoaRepository.findById(funcionarioPessoaId);
+    var funcionario = pessoaRepository.findByIdEmCache(funcionarioPessoaId);
     Relatorio salvo = relatorioRepository.update(id, request, funcionarioPessoaId);
     notificacaoService.criar(
         funcionario, "ATUALIZOU O RELATÓRIO #" + id + ": " + request.relatorio());
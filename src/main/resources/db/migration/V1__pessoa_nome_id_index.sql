@@ -0,0 +1,2 @@
+-- Suporte à paginação por cursor (keyset) de /pessoa/cursor: ORDER BY nome, id
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_id ON pessoa (nome, id);
@@ -0,0 +1,31 @@
+-- Busca ranqueada de hóspedes (/pessoa/search): colunas normalizadas + índices
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() é STABLE; o wrapper IMMUTABLE permite usá-lo em colunas geradas/índices
+CREATE OR REPLACE FUNCTION public.f_unaccent(text)
+    RETURNS text
+    LANGUAGE sql
+    IMMUTABLE PARALLEL SAFE STRICT
+AS
+$$
+SELECT public.unaccent('public.unaccent', $1)
+$$;
+
+ALTER TABLE pessoa
+    ADD COLUMN IF NOT EXISTS nome_busca     text GENERATED ALWAYS AS (lower(public.f_unaccent(nome))) STORED,
+    ADD COLUMN IF NOT EXISTS cpf_busca      text GENERATED ALWAYS AS (regexp_replace(cpf, '\D', '', 'g')) STORED,
+    ADD COLUMN IF NOT EXISTS rg_busca       text GENERATED ALWAYS AS (regexp_replace(upper(rg), '[^0-9A-Z]', '', 'g')) STORED,
+    ADD COLUMN IF NOT EXISTS telefone_busca text GENERATED ALWAYS AS (regexp_replace(telefone, '\D', '', 'g')) STORED,
+    ADD COLUMN IF NOT EXISTS email_busca    text GENERATED ALWAYS AS (lower(trim(email))) STORED;
+
+-- nome: prefixo e substring sem acento via trigramas
+CREATE INDEX IF NOT EXISTS idx_pessoa_nome_busca_trgm ON pessoa USING gin (nome_busca gin_trgm_ops);
+
+-- documentos/contatos: igualdade e prefixo (operadores ~>=~ / ~<~ independem de collation)
+CREATE INDEX IF NOT EXISTS idx_pessoa_cpf_busca ON pessoa (cpf_busca text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_pessoa_rg_busca ON pessoa (rg_busca text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_pessoa_email_busca ON pessoa (email_busca text_pattern_ops);
+
+-- telefone: busca também pelos últimos dígitos
+CREATE INDEX IF NOT EXISTS idx_pessoa_telefone_busca_trgm ON pessoa USING gin (telefone_busca gin_trgm_ops);
@@ -0,0 +1,84 @@
+-- Extrato (/relatorios): totais diários pré-agregados por dia, tipo de pagamento, funcionário e quarto.
+-- Mantido por trigger em relatorio; o extrato só lê linhas cruas dos dias visíveis na página.
+CREATE TABLE IF NOT EXISTS relatorio_dia_agg
+(
+    dia               date    NOT NULL,
+    fk_tipo_pagamento bigint  NOT NULL, -- 0 quando o lançamento não tem tipo de pagamento
+    fk_funcionario    bigint  NOT NULL,
+    quarto_id         bigint  NOT NULL, -- 0 quando o lançamento não tem quarto
+    total_entradas    numeric NOT NULL DEFAULT 0,
+    total_saidas      numeric NOT NULL DEFAULT 0,
+    qtd_entradas      integer NOT NULL DEFAULT 0,
+    qtd_saidas        integer NOT NULL DEFAULT 0,
+    qtd               integer NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, fk_tipo_pagamento, fk_funcionario, quarto_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_relatorio_dia_agg_funcionario ON relatorio_dia_agg (fk_funcionario, dia);
+CREATE INDEX IF NOT EXISTS idx_relatorio_dia_agg_quarto ON relatorio_dia_agg (quarto_id, dia);
+
+CREATE OR REPLACE FUNCTION relatorio_dia_agg_aplicar(
+    p_dia date, p_tipo bigint, p_funcionario bigint, p_quarto bigint, p_valor numeric, p_sinal integer)
+    RETURNS void
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    INSERT INTO relatorio_dia_agg AS a
+    (dia, fk_tipo_pagamento, fk_funcionario, quarto_id,
+     total_entradas, total_saidas, qtd_entradas, qtd_saidas, qtd)
+    VALUES (p_dia, COALESCE(p_tipo, 0), p_funcionario, COALESCE(p_quarto, 0),
+            p_sinal * GREATEST(p_valor, 0), p_sinal * LEAST(p_valor, 0),
+            p_sinal * (p_valor > 0)::int, p_sinal * (p_valor < 0)::int, p_sinal)
+    ON CONFLICT (dia, fk_tipo_pagamento, fk_funcionario, quarto_id) DO UPDATE
+        SET total_entradas = a.total_entradas + EXCLUDED.total_entradas,
+            total_saidas   = a.total_saidas + EXCLUDED.total_saidas,
+            qtd_entradas   = a.qtd_entradas + EXCLUDED.qtd_entradas,
+            qtd_saidas     = a.qtd_saidas + EXCLUDED.qtd_saidas,
+            qtd            = a.qtd + EXCLUDED.qtd;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION relatorio_dia_agg_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.data_hora IS NOT NULL AND OLD.valor IS NOT NULL THEN
+        PERFORM relatorio_dia_agg_aplicar(OLD.data_hora::date, OLD.fk_tipo_pagamento,
+                                          OLD.fk_funcionario, OLD.quarto_id, OLD.valor::numeric, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.data_hora IS NOT NULL AND NEW.valor IS NOT NULL THEN
+        PERFORM relatorio_dia_agg_aplicar(NEW.data_hora::date, NEW.fk_tipo_pagamento,
+                                          NEW.fk_funcionario, NEW.quarto_id, NEW.valor::numeric, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_relatorio_dia_agg ON relatorio;
+CREATE TRIGGER trg_relatorio_dia_agg
+    AFTER INSERT OR UPDATE OF data_hora, valor, fk_tipo_pagamento, fk_funcionario, quarto_id OR DELETE
+    ON relatorio
+    FOR EACH ROW
+EXECUTE FUNCTION relatorio_dia_agg_trigger();
+
+-- carga inicial
+TRUNCATE relatorio_dia_agg;
+INSERT INTO relatorio_dia_agg
+(dia, fk_tipo_pagamento, fk_funcionario, quarto_id,
+ total_entradas, total_saidas, qtd_entradas, qtd_saidas, qtd)
+SELECT r.data_hora::date,
+       COALESCE(r.fk_tipo_pagamento, 0),
+       r.fk_funcionario,
+       COALESCE(r.quarto_id, 0),
+       COALESCE(SUM(CASE WHEN r.valor > 0 THEN r.valor ELSE 0 END), 0),
+       COALESCE(SUM(CASE WHEN r.valor < 0 THEN r.valor ELSE 0 END), 0),
+       COUNT(*) FILTER (WHERE r.valor > 0),
+       COUNT(*) FILTER (WHERE r.valor < 0),
+       COUNT(*)
+FROM relatorio r
+WHERE r.data_hora IS NOT NULL
+  AND r.valor IS NOT NULL
+GROUP BY 1, 2, 3, 4;
@@ -0,0 +1,106 @@
+-- Disponibilidade de quartos (/quarto/disponibilidade): período de cada diária como daterange,
+-- índice GiST por quarto e um contador de versão por quarto para o índice em memória.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- [data_inicio, data_fim); diária sem data_fim (ou com fim <= início) ocupa um dia
+ALTER TABLE diaria
+    ADD COLUMN IF NOT EXISTS periodo daterange GENERATED ALWAYS AS (
+        CASE
+            WHEN data_inicio IS NOT NULL THEN
+                daterange(data_inicio,
+                          GREATEST(COALESCE(data_fim, data_inicio + 1), data_inicio + 1), '[)')
+            END
+        ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_diaria_quarto_periodo ON diaria USING gist (quarto_id, periodo);
+
+-- versão por quarto: qualquer mudança em diária, status de pernoite ou no próprio quarto avança a
+-- versão e o serviço recarrega só os quartos cuja versão mudou
+CREATE SEQUENCE IF NOT EXISTS quarto_ocupacao_versao_seq;
+
+CREATE TABLE IF NOT EXISTS quarto_ocupacao_versao
+(
+    quarto_id bigint PRIMARY KEY,
+    versao    bigint NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION quarto_ocupacao_tocar(p_quarto_id bigint)
+    RETURNS void
+    LANGUAGE sql
+AS
+$$
+INSERT INTO quarto_ocupacao_versao (quarto_id, versao)
+SELECT p_quarto_id, nextval('quarto_ocupacao_versao_seq')
+WHERE p_quarto_id IS NOT NULL
+ON CONFLICT (quarto_id) DO UPDATE SET versao = EXCLUDED.versao;
+$$;
+
+CREATE OR REPLACE FUNCTION diaria_ocupacao_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM quarto_ocupacao_tocar(OLD.quarto_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM quarto_ocupacao_tocar(NEW.quarto_id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_diaria_ocupacao ON diaria;
+CREATE TRIGGER trg_diaria_ocupacao
+    AFTER INSERT OR UPDATE OF quarto_id, data_inicio, data_fim, pernoite_id OR DELETE
+    ON diaria
+    FOR EACH ROW
+EXECUTE FUNCTION diaria_ocupacao_trigger();
+
+CREATE OR REPLACE FUNCTION pernoite_ocupacao_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    PERFORM quarto_ocupacao_tocar(q.quarto_id)
+    FROM (SELECT DISTINCT d.quarto_id FROM diaria d WHERE d.pernoite_id = NEW.id) q;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_pernoite_ocupacao ON pernoite;
+CREATE TRIGGER trg_pernoite_ocupacao
+    AFTER UPDATE OF status
+    ON pernoite
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status)
+EXECUTE FUNCTION pernoite_ocupacao_trigger();
+
+CREATE OR REPLACE FUNCTION quarto_ocupacao_trigger()
+    RETURNS trigger
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM quarto_ocupacao_tocar(OLD.id);
+    ELSE
+        PERFORM quarto_ocupacao_tocar(NEW.id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_quarto_ocupacao ON quarto;
+CREATE TRIGGER trg_quarto_ocupacao
+    AFTER INSERT OR UPDATE OR DELETE
+    ON quarto
+    FOR EACH ROW
+EXECUTE FUNCTION quarto_ocupacao_trigger();
+
+INSERT INTO quarto_ocupacao_versao (quarto_id, versao)
+SELECT q.id, nextval('quarto_ocupacao_versao_seq')
+FROM quarto q
+ON CONFLICT (quarto_id) DO NOTHING;
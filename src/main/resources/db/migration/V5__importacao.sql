@@ -0,0 +1,90 @@
+-- Importação de pessoas/empresas/veículos por CSV (/importacao): acompanhamento, erros por linha
+-- e área de staging carregada por COPY.
+CREATE TABLE IF NOT EXISTS importacao
+(
+    id                  bigserial PRIMARY KEY,
+    arquivo             text        NOT NULL,
+    status              text        NOT NULL DEFAULT 'PROCESSANDO',
+    fase                text        NOT NULL DEFAULT 'RECEBIDO',
+    bytes_total         bigint      NOT NULL DEFAULT 0,
+    total_linhas        integer     NOT NULL DEFAULT 0,
+    linhas_com_erro     integer     NOT NULL DEFAULT 0,
+    pessoas_inseridas   integer     NOT NULL DEFAULT 0,
+    pessoas_atualizadas integer     NOT NULL DEFAULT 0,
+    empresas_inseridas  integer     NOT NULL DEFAULT 0,
+    veiculos_inseridos  integer     NOT NULL DEFAULT 0,
+    vinculos_empresa    integer     NOT NULL DEFAULT 0,
+    mensagem            text,
+    fk_funcionario      bigint,
+    criado_em           timestamptz NOT NULL DEFAULT now(),
+    concluido_em        timestamptz
+);
+
+CREATE TABLE IF NOT EXISTS importacao_erro
+(
+    importacao_id bigint  NOT NULL REFERENCES importacao (id) ON DELETE CASCADE,
+    linha         integer NOT NULL,
+    mensagem      text    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_importacao_erro ON importacao_erro (importacao_id, linha);
+
+-- UNLOGGED: os dados só vivem até o merge e não precisam de WAL. Todas as colunas do CSV entram
+-- como texto; importacao_id vem da configuração de sessão definida antes do COPY.
+CREATE UNLOGGED TABLE IF NOT EXISTS importacao_staging
+(
+    seq                   bigint GENERATED ALWAYS AS IDENTITY,
+    importacao_id         bigint  NOT NULL DEFAULT current_setting('importacao.id')::bigint,
+    valido                boolean NOT NULL DEFAULT true,
+    nome                  text,
+    cpf                   text,
+    data_nascimento       text,
+    rg                    text,
+    email                 text,
+    telefone              text,
+    pais                  text,
+    estado                text,
+    municipio             text,
+    endereco              text,
+    complemento           text,
+    cep                   text,
+    bairro                text,
+    sexo                  text,
+    numero                text,
+    empresa_cnpj          text,
+    empresa_razao_social  text,
+    empresa_nome_fantasia text,
+    empresa_telefone      text,
+    empresa_email         text,
+    veiculo_placa         text,
+    veiculo_modelo        text,
+    veiculo_marca         text,
+    veiculo_ano           text,
+    veiculo_cor           text,
+    cpf_norm              text GENERATED ALWAYS AS (regexp_replace(cpf, '\D', '', 'g')) STORED,
+    cnpj_norm             text GENERATED ALWAYS AS (NULLIF(regexp_replace(empresa_cnpj, '\D', '', 'g'), '')) STORED,
+    placa_norm            text GENERATED ALWAYS AS (NULLIF(upper(regexp_replace(veiculo_placa, '[^0-9A-Za-z]', '', 'g')), '')) STORED
+);
+
+CREATE INDEX IF NOT EXISTS idx_importacao_staging ON importacao_staging (importacao_id, seq);
+
+-- dd/MM/yyyy ou yyyy-MM-dd; NULL quando vazia ou inválida (a validação registra o erro)
+CREATE OR REPLACE FUNCTION importacao_data(p text)
+    RETURNS date
+    LANGUAGE plpgsql
+    IMMUTABLE
+AS
+$$
+BEGIN
+    IF p IS NULL OR btrim(p) = '' THEN
+        RETURN NULL;
+    ELSIF btrim(p) ~ '^\d{2}/\d{2}/\d{4}$' THEN
+        RETURN to_date(btrim(p), 'DD/MM/YYYY');
+    ELSIF btrim(p) ~ '^\d{4}-\d{2}-\d{2}$' THEN
+        RETURN btrim(p)::date;
+    END IF;
+    RETURN NULL;
+EXCEPTION
+    WHEN others THEN RETURN NULL;
+END;
+$$;
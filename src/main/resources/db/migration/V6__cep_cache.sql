@@ -0,0 +1,15 @@
+-- Respostas da ViaCEP guardadas por CEP (só dígitos): um CEP já consultado não volta à API
+-- enquanto estiver dentro de cep.cache.validade-dias.
+CREATE TABLE IF NOT EXISTS cep_cache
+(
+    cep           text PRIMARY KEY,
+    logradouro    text,
+    complemento   text,
+    bairro        text,
+    localidade    text        NOT NULL,
+    uf            text,
+    estado        text,
+    ibge          text,
+    ddd           text,
+    atualizado_em timestamptz NOT NULL DEFAULT now()
+);
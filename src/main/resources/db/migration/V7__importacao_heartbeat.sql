@@ -0,0 +1,8 @@
+-- Dono e sinal de vida de cada importação: uma instância só marca como interrompida a importação
+-- cujo atualizado_em parou de avançar, e não as que outra instância ainda está processando.
+ALTER TABLE importacao
+    ADD COLUMN IF NOT EXISTS instancia     text,
+    ADD COLUMN IF NOT EXISTS atualizado_em timestamptz NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS idx_importacao_processando
+    ON importacao (atualizado_em) WHERE status = 'PROCESSANDO';
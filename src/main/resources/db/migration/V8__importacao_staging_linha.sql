@@ -0,0 +1,4 @@
+-- Linha física do CSV em que o registro começa (um campo entre aspas pode ocupar várias linhas);
+-- é a linha informada em importacao_erro.
+ALTER TABLE importacao_staging
+    ADD COLUMN IF NOT EXISTS linha integer;
@@ -0,0 +1,34 @@
+package saas.hotel.istoepousada;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/** DataSource de teste que conta os statements criados nas conexões que entrega. */
+public final class ContadorStatements {
+  private ContadorStatements() {}
+
+  public static DataSource contarStatements(DataSource alvo, AtomicInteger statements) {
+    ClassLoader classLoader = ContadorStatements.class.getClassLoader();
+    return (DataSource)
+        Proxy.newProxyInstance(
+            classLoader,
+            new Class<?>[] {DataSource.class},
+            (proxy, method, args) -> {
+              Object resultado = method.invoke(alvo, args);
+              if (!"getConnection".equals(method.getName())) return resultado;
+              Connection conexao = (Connection) resultado;
+              return Proxy.newProxyInstance(
+                  classLoader,
+                  new Class<?>[] {Connection.class},
+                  (p, m, a) -> {
+                    String nome = m.getName();
+                    if (nome.equals("prepareStatement")
+                        || nome.equals("createStatement")
+                        || nome.equals("prepareCall")) statements.incrementAndGet();
+                    return m.invoke(conexao, a);
+                  });
+            });
+  }
+}
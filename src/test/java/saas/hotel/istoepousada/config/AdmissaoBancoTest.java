@@ -0,0 +1,201 @@
+package saas.hotel.istoepousada.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import saas.hotel.istoepousada.config.AdmissaoBanco.Classe;
+import saas.hotel.istoepousada.handler.ResourceExceptionHandler;
+import saas.hotel.istoepousada.handler.exceptions.UnavaiableException;
+
+/** Quem espera fica numa thread do executor; a fila de cada classe é lida do gauge. */
+class AdmissaoBancoTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final ExecutorService threads = Executors.newCachedThreadPool();
+  private final List<String> ordem = new CopyOnWriteArrayList<>();
+
+  @AfterEach
+  void encerrar() {
+    threads.shutdownNow();
+  }
+
+  /** Espera máxima de 10s em todas as classes, salvo o que vier em {@code propriedades}. */
+  private AdmissaoBanco admissao(
+      int limite, int reservaAlta, int limiteBaixa, String... propriedades) {
+    MockEnvironment environment = new MockEnvironment();
+    for (Classe classe : Classe.values())
+      environment.setProperty(
+          "db.admissao." + classe.name().toLowerCase() + ".espera-maxima-ms", "10000");
+    for (int i = 0; i < propriedades.length; i += 2)
+      environment.setProperty(propriedades[i], propriedades[i + 1]);
+    return new AdmissaoBanco(environment, registry, limite, reservaAlta, limiteBaixa, 2);
+  }
+
+  /** Entra em outra thread e só retorna quando ela já está na fila (ou já entrou). */
+  private Future<?> esperar(AdmissaoBanco admissao, Classe classe, String nome) {
+    double antes = fila(classe);
+    Future<?> entrada =
+        threads.submit(
+            () -> {
+              admissao.entrar(classe);
+              ordem.add(nome);
+            });
+    aguardarAte(() -> fila(classe) > antes || entrada.isDone());
+    return entrada;
+  }
+
+  private double fila(Classe classe) {
+    return registry
+        .get("db.admissao.fila")
+        .tag("prioridade", classe.name().toLowerCase())
+        .gauge()
+        .value();
+  }
+
+  private double recusadas(Classe classe, String motivo) {
+    return registry
+        .get("db.admissao.recusadas")
+        .tag("prioridade", classe.name().toLowerCase())
+        .tag("motivo", motivo)
+        .counter()
+        .count();
+  }
+
+  private static void aguardarAte(BooleanSupplier condicao) {
+    long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condicao.getAsBoolean()) {
+      if (System.nanoTime() > limite) fail("condição não atingida em 5s");
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+  }
+
+  @Test
+  void deveAtenderAltaAntesDeNormalQueChegouPrimeiro() throws Exception {
+    AdmissaoBanco admissao = admissao(1, 0, 1);
+    admissao.entrar(Classe.ALTA);
+    Future<?> normal = esperar(admissao, Classe.NORMAL, "normal");
+    Future<?> alta = esperar(admissao, Classe.ALTA, "alta");
+
+    admissao.sair(Classe.ALTA);
+    alta.get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("alta"), ordem);
+    assertEquals(1, fila(Classe.NORMAL));
+
+    admissao.sair(Classe.ALTA);
+    normal.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("alta", "normal"), ordem);
+  }
+
+  @Test
+  void deveManterAOrdemDeChegadaDentroDaClasse() throws Exception {
+    AdmissaoBanco admissao = admissao(1, 0, 1);
+    admissao.entrar(Classe.NORMAL);
+    List<Future<?>> entradas =
+        List.of(
+            esperar(admissao, Classe.NORMAL, "1"),
+            esperar(admissao, Classe.NORMAL, "2"),
+            esperar(admissao, Classe.NORMAL, "3"));
+
+    for (Future<?> entrada : entradas) {
+      admissao.sair(Classe.NORMAL);
+      entrada.get(5, TimeUnit.SECONDS);
+    }
+
+    assertEquals(List.of("1", "2", "3"), ordem);
+  }
+
+  @Test
+  void naoDeveNormalOcuparAsVagasReservadas() {
+    AdmissaoBanco admissao = admissao(3, 1, 3, "db.admissao.normal.espera-maxima-ms", "50");
+    admissao.entrar(Classe.NORMAL);
+    admissao.entrar(Classe.NORMAL);
+
+    UnavaiableException e =
+        assertThrows(UnavaiableException.class, () -> admissao.entrar(Classe.NORMAL));
+
+    assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+    assertEquals(1, recusadas(Classe.NORMAL, "espera"));
+    assertDoesNotThrow(() -> admissao.entrar(Classe.ALTA));
+  }
+
+  @Test
+  void deveLimitarBaixaALimiteBaixa() {
+    AdmissaoBanco admissao = admissao(5, 1, 2, "db.admissao.baixa.espera-maxima-ms", "50");
+    admissao.entrar(Classe.BAIXA);
+    admissao.entrar(Classe.BAIXA);
+
+    assertThrows(UnavaiableException.class, () -> admissao.entrar(Classe.BAIXA));
+
+    assertEquals(1, recusadas(Classe.BAIXA, "espera"));
+    assertDoesNotThrow(() -> admissao.entrar(Classe.NORMAL));
+    assertDoesNotThrow(() -> admissao.entrar(Classe.NORMAL));
+  }
+
+  @Test
+  void deveRecusarCom503ERetryAfterQuandoAFilaEstaCheia() throws Exception {
+    AdmissaoBanco admissao = admissao(1, 0, 1, "db.admissao.normal.fila-maxima", "1");
+    admissao.entrar(Classe.NORMAL);
+    Future<?> naFila = esperar(admissao, Classe.NORMAL, "na fila");
+
+    UnavaiableException e =
+        assertThrows(UnavaiableException.class, () -> admissao.entrar(Classe.NORMAL));
+
+    assertEquals(1, recusadas(Classe.NORMAL, "fila"));
+    ResponseEntity<Object> resposta =
+        new ResourceExceptionHandler()
+            .errorInternalServerErrorKeyException(e, new MockHttpServletRequest("GET", "/x"));
+    assertEquals(503, resposta.getStatusCode().value());
+    assertEquals("2", resposta.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+    admissao.sair(Classe.NORMAL);
+    naFila.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("na fila"), ordem);
+  }
+
+  @Test
+  void naoDevePerderAVagaQuandoOSinalizadoDesisteNaMesmaHora() throws Exception {
+    AdmissaoBanco admissao = admissao(1, 0, 1, "db.admissao.alta.espera-maxima-ms", "20");
+    for (int rodada = 0; rodada < 30; rodada++) {
+      admissao.entrar(Classe.NORMAL);
+      Future<?> normal = esperar(admissao, Classe.NORMAL, "normal");
+      Future<?> alta =
+          threads.submit(
+              () -> {
+                try {
+                  admissao.entrar(Classe.ALTA);
+                  admissao.sair(Classe.ALTA);
+                } catch (UnavaiableException desistiu) {
+                  // esperado em parte das rodadas
+                }
+              });
+      aguardarAte(() -> fila(Classe.ALTA) > 0 || alta.isDone());
+
+      // a vaga é liberada perto do fim da espera da ALTA, que pode ser sinalizada e desistir
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(16 + rodada % 8));
+      admissao.sair(Classe.NORMAL);
+
+      alta.get(5, TimeUnit.SECONDS);
+      normal.get(5, TimeUnit.SECONDS);
+      admissao.sair(Classe.NORMAL);
+    }
+    assertEquals(30, ordem.size());
+  }
+}
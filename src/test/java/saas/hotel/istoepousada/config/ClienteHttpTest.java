@@ -0,0 +1,148 @@
+package saas.hotel.istoepousada.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+/** Timeouts, limite de simultâneas e circuito contra um servidor HTTP local lento ou com falha. */
+class ClienteHttpTest {
+  private final AtomicInteger chamadas = new AtomicInteger();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private volatile int status = 200;
+  private volatile long demoraMs = 0;
+  private volatile CountDownLatch emAndamento = new CountDownLatch(0);
+  private HttpServer servidor;
+  private ExecutorService threads;
+
+  @BeforeEach
+  void setup() throws IOException {
+    threads = Executors.newVirtualThreadPerTaskExecutor();
+    servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    servidor.setExecutor(threads);
+    servidor.createContext(
+        "/",
+        troca -> {
+          chamadas.incrementAndGet();
+          emAndamento.countDown();
+          try {
+            Thread.sleep(demoraMs);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          byte[] bytes = "{}".getBytes(StandardCharsets.UTF_8);
+          troca.getResponseHeaders().add("Content-Type", "application/json");
+          troca.sendResponseHeaders(status, bytes.length);
+          try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+          } catch (IOException ignorada) {
+            // cliente desistiu (timeout)
+          }
+        });
+    servidor.start();
+  }
+
+  @AfterEach
+  void encerrar() {
+    servidor.stop(0);
+    threads.shutdownNow();
+  }
+
+  private RestClient cliente(long leituraMs, int maximo, int falhasParaAbrir, long abertoMs) {
+    return ClienteHttp.criar(
+        "teste",
+        new ClienteHttp.Config(
+            "http://127.0.0.1:" + servidor.getAddress().getPort(),
+            Duration.ofSeconds(1),
+            Duration.ofMillis(leituraMs),
+            maximo,
+            Duration.ofMillis(50),
+            falhasParaAbrir,
+            Duration.ofMillis(abertoMs)),
+        meterRegistry);
+  }
+
+  private static String get(RestClient cliente) {
+    return cliente.get().uri("/x").retrieve().body(String.class);
+  }
+
+  @Test
+  void deveDesistirDeUpstreamLentoNoTimeoutDeLeitura() {
+    RestClient cliente = cliente(200, 10, 5, 1_000);
+    demoraMs = 3_000;
+
+    long inicio = System.nanoTime();
+    assertThrows(ResourceAccessException.class, () -> get(cliente));
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio) < 2_000);
+    assertEquals(
+        1,
+        meterRegistry
+            .get("http.cliente.requisicoes")
+            .tags("cliente", "teste", "resultado", "erro")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void deveAbrirCircuitoAposFalhasSeguidasEFecharAposTeste() throws InterruptedException {
+    RestClient cliente = cliente(1_000, 10, 3, 200);
+    status = 503;
+
+    for (int i = 0; i < 3; i++) assertThrows(HttpServerErrorException.class, () -> get(cliente));
+    assertThrows(ResourceAccessException.class, () -> get(cliente));
+
+    assertEquals(3, chamadas.get());
+    assertEquals(1.0, meterRegistry.get("http.cliente.circuito.aberto").gauge().value());
+    assertEquals(
+        1.0,
+        meterRegistry.get("http.cliente.recusadas").tag("motivo", "circuito").counter().count());
+
+    Thread.sleep(300);
+    status = 200;
+    assertEquals("{}", get(cliente));
+    assertEquals("{}", get(cliente));
+    assertEquals(5, chamadas.get());
+    assertEquals(0.0, meterRegistry.get("http.cliente.circuito.aberto").gauge().value());
+  }
+
+  @Test
+  void deveRecusarAlemDoLimiteDeSimultaneas() throws Exception {
+    RestClient cliente = cliente(5_000, 2, 5, 1_000);
+    demoraMs = 500;
+    emAndamento = new CountDownLatch(2);
+
+    Future<String> primeira = threads.submit(() -> get(cliente));
+    Future<String> segunda = threads.submit(() -> get(cliente));
+    assertTrue(emAndamento.await(2, TimeUnit.SECONDS));
+
+    assertThrows(ResourceAccessException.class, () -> get(cliente));
+
+    assertEquals("{}", primeira.get());
+    assertEquals("{}", segunda.get());
+    assertEquals(2, chamadas.get());
+    assertEquals(
+        1.0,
+        meterRegistry.get("http.cliente.recusadas").tag("motivo", "limite").counter().count());
+    assertEquals(0.0, meterRegistry.get("http.cliente.em.uso").gauge().value());
+  }
+}
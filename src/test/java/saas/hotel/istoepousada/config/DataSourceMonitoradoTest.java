@@ -0,0 +1,126 @@
+package saas.hotel.istoepousada.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Consultas feitas daqui não têm quadro da aplicação fora de {@code config} na pilha, então são
+ * medidas como {@code outros}.
+ */
+class DataSourceMonitoradoTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private JdbcTemplate monitorado;
+
+  private ObjectProvider<JdbcMetricas> metricas() {
+    JdbcMetricas metricas = new JdbcMetricas(registry, 10_000, 25);
+    return new StaticListableBeanFactory(Map.of("jdbcMetricas", metricas))
+        .getBeanProvider(JdbcMetricas.class);
+  }
+
+  @BeforeEach
+  void setup() {
+    DriverManagerDataSource h2 =
+        new DriverManagerDataSource(
+            "jdbc:h2:mem:monitorado_" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    JdbcTemplate setup = new JdbcTemplate(h2);
+    setup.execute("CREATE TABLE item (id BIGINT PRIMARY KEY, valor INT)");
+    setup.update("INSERT INTO item VALUES (1, 0), (2, 0), (3, 0)");
+    monitorado = new JdbcTemplate(new DataSourceMonitorado(h2, metricas()));
+  }
+
+  private double linhas() {
+    return registry.get("jdbc.linhas").tag("consulta", "outros").summary().totalAmount();
+  }
+
+  @Test
+  void deveContarAsLinhasLidasNoNext() {
+    List<Long> ids = monitorado.queryForList("SELECT id FROM item ORDER BY id", Long.class);
+
+    assertEquals(3, ids.size());
+    assertEquals(3, linhas());
+    assertEquals(
+        1,
+        registry
+            .get("jdbc.consultas")
+            .tag("consulta", "outros")
+            .tag("resultado", "ok")
+            .timer()
+            .count());
+  }
+
+  @Test
+  void deveContarAsLinhasAlteradasPeloUpdateCount() {
+    monitorado.update("UPDATE item SET valor = 1 WHERE id <= ?", 2);
+    monitorado.batchUpdate(
+        "UPDATE item SET valor = 2 WHERE id = 1", "UPDATE item SET valor = 2 WHERE id = 3");
+
+    assertEquals(4, linhas());
+  }
+
+  @Test
+  void deveCriarOTimerDeErroSoNoPrimeiroErro() {
+    monitorado.queryForList("SELECT id FROM item", Long.class);
+    assertNull(registry.find("jdbc.consultas").tag("resultado", "erro").timer());
+
+    assertThrows(
+        DataAccessException.class, () -> monitorado.update("INSERT INTO item VALUES (1, 0)"));
+
+    assertEquals(1, registry.get("jdbc.consultas").tag("resultado", "erro").timer().count());
+  }
+
+  @Test
+  void deveDesembrulharAConexaoDoDriver() throws SQLException {
+    DataSource alvo = mock(DataSource.class);
+    Connection conexao = mock(Connection.class);
+    PGConnection pg = mock(PGConnection.class);
+    when(alvo.getConnection()).thenReturn(conexao);
+    when(conexao.unwrap(PGConnection.class)).thenReturn(pg);
+    when(conexao.isWrapperFor(PGConnection.class)).thenReturn(true);
+
+    Connection proxy = new DataSourceMonitorado(alvo, metricas()).getConnection();
+
+    assertTrue(proxy.isWrapperFor(PGConnection.class));
+    assertSame(pg, proxy.unwrap(PGConnection.class));
+  }
+
+  @Test
+  void deveNomearAConsultaPelaClasseEMetodoSemSufixos() {
+    String repositorio = "saas.hotel.istoepousada.repository.PessoaRepository";
+
+    assertEquals(
+        "PessoaRepository.listarPorIds", DataSourceMonitorado.nome(repositorio, "listarPorIds"));
+    assertEquals(
+        "PessoaRepository.listarPorIds",
+        DataSourceMonitorado.nome(repositorio, "lambda$listarPorIds$3"));
+    assertEquals(
+        "PessoaRepository.mapRow", DataSourceMonitorado.nome(repositorio + "$Mapeador", "mapRow"));
+    assertEquals(
+        "PessoaRepository.processRow",
+        DataSourceMonitorado.nome(repositorio + "$1", "lambda$processRow$0"));
+  }
+
+  @Test
+  void deveIgnorarQuadrosDoPacoteConfig() {
+    assertEquals("outros", DataSourceMonitorado.consultaChamadora());
+  }
+}
@@ -0,0 +1,77 @@
+package saas.hotel.istoepousada.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class JdbcMetricasTest {
+
+  /** Texto que conta quantas vezes o tamanho foi lido (a formatação lê o tamanho). */
+  private static final class TextoContado implements CharSequence {
+    private int leituras;
+
+    @Override
+    public int length() {
+      leituras++;
+      return 3;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return 'x';
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return "x";
+    }
+  }
+
+  @Test
+  void deveRedigirTextosEDatasEMostrarNumerosEBooleanos() {
+    assertEquals("'***'(11)", JdbcMetricas.redigir("12345678901"));
+    assertEquals("LocalDate", JdbcMetricas.redigir(LocalDate.of(1990, 2, 1)));
+    assertEquals("LocalDateTime", JdbcMetricas.redigir(LocalDateTime.of(1990, 2, 1, 10, 0)));
+    assertEquals("Date", JdbcMetricas.redigir(Date.valueOf("1990-02-01")));
+    assertEquals("Timestamp", JdbcMetricas.redigir(Timestamp.valueOf("1990-02-01 10:00:00")));
+    assertEquals("42", JdbcMetricas.redigir(42L));
+    assertEquals("150.50", JdbcMetricas.redigir(new BigDecimal("150.50")));
+    assertEquals("true", JdbcMetricas.redigir(true));
+    assertEquals("null", JdbcMetricas.redigir(null));
+  }
+
+  @Test
+  void naoDeveFormatarParametrosDeConsultaRapida() {
+    JdbcMetricas metricas = new JdbcMetricas(new SimpleMeterRegistry(), 10_000, 25);
+    TextoContado cpf = new TextoContado();
+    Map<Integer, Object> parametros = new TreeMap<>(Map.of(1, cpf));
+
+    metricas.iniciar("PessoaRepository.buscar", "SELECT ?", parametros).terminar();
+
+    assertEquals(0, cpf.leituras);
+  }
+
+  @Test
+  void deveFormatarOsParametrosDaExecucaoQuandoAConsultaELenta() {
+    JdbcMetricas metricas = new JdbcMetricas(new SimpleMeterRegistry(), 0, 25);
+    TextoContado cpf = new TextoContado();
+    Map<Integer, Object> parametros = new TreeMap<>(Map.of(1, cpf));
+
+    JdbcMetricas.Execucao execucao =
+        metricas.iniciar("PessoaRepository.buscar", "SELECT ?", parametros);
+    // o Monitor limpa o mapa para o próximo execute antes de a execução terminar
+    parametros.clear();
+    execucao.terminar();
+
+    assertTrue(cpf.leituras > 0);
+  }
+}
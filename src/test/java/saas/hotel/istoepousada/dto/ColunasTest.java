@@ -0,0 +1,60 @@
+package saas.hotel.istoepousada.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import org.junit.jupiter.api.Test;
+
+class ColunasTest {
+  private final Colunas colunas = new Colunas();
+  private final int id = colunas.coluna("id");
+  private final int apelido = colunas.coluna("apelido");
+
+  /** ResultSet cuja linha atual devolve o número da coluna em {@code getLong}. */
+  private static ResultSet resultSet(String... rotulos) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    ResultSetMetaData md = mock(ResultSetMetaData.class);
+    when(rs.getMetaData()).thenReturn(md);
+    when(md.getColumnCount()).thenReturn(rotulos.length);
+    for (int i = 1; i <= rotulos.length; i++) {
+      when(md.getColumnLabel(i)).thenReturn(rotulos[i - 1]);
+      when(rs.getLong(i)).thenReturn((long) i);
+    }
+    return rs;
+  }
+
+  @Test
+  void deveFalharPelaColunaAusenteSoQuandoElaForLida() throws SQLException {
+    Colunas.Linha linha = colunas.linha(resultSet("pessoa_nome", "pessoa_id"), "pessoa_");
+
+    assertEquals(2L, linha.getLong(id));
+    SQLException erro = assertThrows(SQLException.class, () -> linha.getString(apelido));
+    assertEquals("Coluna não encontrada: pessoa_apelido", erro.getMessage());
+  }
+
+  @Test
+  void deveLerAPrimeiraDasColunasComOMesmoRotulo() throws SQLException {
+    ResultSet rs = resultSet("quarto_descricao", "PESSOA_ID", "pessoa_id");
+
+    assertEquals(2L, colunas.linha(rs, "pessoa_").getLong(id));
+  }
+
+  @Test
+  void deveResolverCadaPrefixoDoMesmoResultSetUmaVez() throws SQLException {
+    ResultSet rs = resultSet("diaria_id", "quarto_id");
+
+    assertEquals(1L, colunas.linha(rs, "diaria_").getLong(id));
+    assertEquals(2L, colunas.linha(rs, "quarto_").getLong(id));
+    assertEquals(1L, colunas.linha(rs, "diaria_").getLong(id));
+    assertEquals(2L, colunas.linha(rs, "quarto_").getLong(id));
+
+    verify(rs, times(2)).getMetaData();
+  }
+}
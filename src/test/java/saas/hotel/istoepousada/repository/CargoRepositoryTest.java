@@ -0,0 +1,98 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static saas.hotel.istoepousada.ContadorStatements.contarStatements;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import saas.hotel.istoepousada.dto.Cargo;
+import saas.hotel.istoepousada.dto.Tela;
+
+/** Regressão de N+1: a listagem de cargos precisa de um número fixo de comandos SQL. */
+class CargoRepositoryTest {
+  private static final int CARGOS = 20;
+  private static final int TELAS = 15;
+  private static final int PERMISSOES_POR_TELA = 3;
+
+  private final AtomicInteger statements = new AtomicInteger();
+  private CargoRepository cargoRepository;
+
+  @BeforeEach
+  void setup() {
+    DriverManagerDataSource h2 =
+        new DriverManagerDataSource(
+            "jdbc:h2:mem:cargo_" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    JdbcTemplate setup = new JdbcTemplate(h2);
+    setup.execute("CREATE TABLE cargo (id BIGINT PRIMARY KEY, cargo VARCHAR(100))");
+    setup.execute(
+        "CREATE TABLE tela (id BIGINT PRIMARY KEY, nome VARCHAR(100), descricao VARCHAR(100))");
+    setup.execute(
+        "CREATE TABLE permissao (id BIGINT PRIMARY KEY, permissao VARCHAR(100),"
+            + " descricao VARCHAR(100), fk_tela BIGINT)");
+    setup.execute("CREATE TABLE cargo_tela (cargo_id BIGINT, tela_id BIGINT)");
+    setup.execute("CREATE TABLE cargo_permissao (fk_cargo BIGINT, fk_permissao BIGINT)");
+
+    long permissaoId = 0;
+    for (long t = 1; t <= TELAS; t++) {
+      setup.update("INSERT INTO tela VALUES (?, ?, ?)", t, "TELA_%02d".formatted(t), "Tela " + t);
+      for (int p = 0; p < PERMISSOES_POR_TELA; p++) {
+        permissaoId++;
+        setup.update(
+            "INSERT INTO permissao VALUES (?, ?, ?, ?)",
+            permissaoId,
+            "PERM_%02d_%d".formatted(t, p),
+            "",
+            t);
+      }
+    }
+    for (long c = 1; c <= CARGOS; c++) {
+      setup.update("INSERT INTO cargo VALUES (?, ?)", c, "CARGO_%02d".formatted(c));
+      for (long t = 1; t <= TELAS; t++) {
+        setup.update("INSERT INTO cargo_tela VALUES (?, ?)", c, t);
+        // cada cargo recebe só a primeira permissão de cada tela
+        setup.update(
+            "INSERT INTO cargo_permissao VALUES (?, ?)", c, (t - 1) * PERMISSOES_POR_TELA + 1);
+      }
+    }
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(contarStatements(h2, statements));
+    cargoRepository =
+        new CargoRepository(
+            jdbcTemplate, new CatalogoCache(new ObjectRepository(jdbcTemplate), 300));
+  }
+
+  @Test
+  void deveListarCargosComNumeroFixoDeQueries() {
+    Page<Cargo> page =
+        cargoRepository.buscarCargoPorIdOuNome(null, null, null, PageRequest.of(0, CARGOS));
+
+    assertEquals(3, statements.get(), "count + ids + página");
+    assertEquals(CARGOS, page.getContent().size());
+    for (Cargo cargo : page.getContent()) {
+      assertEquals(TELAS, cargo.telas().size());
+      for (Tela tela : cargo.telas()) {
+        assertEquals(1, tela.permissoes().size());
+        assertEquals(tela.id(), tela.permissoes().getFirst().telaId());
+      }
+    }
+  }
+
+  @Test
+  void deveManterPermissoesSeparadasPorCargo() {
+    cargoRepository.vincularPermissoesCargo(2L, List.of(2L, 3L), true);
+    statements.set(0);
+
+    Cargo cargo1 = cargoRepository.findByIdOrThrow(1L);
+    Cargo cargo2 = cargoRepository.findByIdOrThrow(2L);
+
+    assertEquals(6, statements.get());
+    assertEquals(1, cargo1.telas().getFirst().permissoes().size());
+    assertEquals(3, cargo2.telas().getFirst().permissoes().size());
+  }
+}
@@ -0,0 +1,76 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import saas.hotel.istoepousada.dto.Objeto;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogoCacheTest {
+  @Mock private ObjectRepository objectRepository;
+
+  private final List<Objeto> tiposPagamento = List.of(new Objeto(1L, "PIX"));
+
+  @BeforeEach
+  void setup() {
+    when(objectRepository.tipoPagamento()).thenReturn(tiposPagamento);
+    when(objectRepository.telas()).thenReturn(List.of(new Objeto(1L, "ADMIN")));
+    when(objectRepository.permissoesPorTela())
+        .thenReturn(Map.of(1L, List.of(new Objeto(10L, "CARGO_CRIAR"))));
+    when(objectRepository.cargos()).thenReturn(List.of(new Objeto(1L, "ADMINISTRADOR")));
+  }
+
+  @Test
+  void deveServirASemAdminSoComTiposDePagamentoEETagProprio() {
+    CatalogoCache catalogoCache = new CatalogoCache(objectRepository, 300);
+
+    CatalogoCache.Catalogo completo = catalogoCache.get();
+    CatalogoCache.Catalogo semAdmin = catalogoCache.semAdmin();
+
+    assertEquals(tiposPagamento, semAdmin.tiposPagamento().itens());
+    assertNull(semAdmin.telas());
+    assertNull(semAdmin.permissoesPorTela());
+    assertNull(semAdmin.cargos());
+    assertEquals(List.of(), semAdmin.permissoes(1L).itens());
+    assertEquals(1, completo.permissoes(1L).itens().size());
+    assertNotEquals(completo.etag(), semAdmin.etag());
+    verify(objectRepository, times(1)).tipoPagamento();
+  }
+
+  @Test
+  void deveRecarregarSoDepoisDeInvalidar() {
+    CatalogoCache catalogoCache = new CatalogoCache(objectRepository, 300);
+    CatalogoCache.Catalogo primeiro = catalogoCache.get();
+
+    assertSame(primeiro, catalogoCache.get());
+    catalogoCache.invalidar();
+    CatalogoCache.Catalogo segundo = catalogoCache.get();
+
+    assertNotEquals(primeiro.versao(), segundo.versao());
+    // mesmo conteúdo, mesmo ETag: o navegador continua recebendo 304
+    assertEquals(primeiro.etag(), segundo.etag());
+    verify(objectRepository, times(2)).cargos();
+  }
+
+  @Test
+  void deveRecarregarQuandoOTtlVence() {
+    CatalogoCache catalogoCache = new CatalogoCache(objectRepository, 0);
+
+    catalogoCache.get();
+    catalogoCache.semAdmin();
+
+    verify(objectRepository, times(2)).telas();
+  }
+}
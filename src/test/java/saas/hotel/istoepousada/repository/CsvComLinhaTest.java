@@ -0,0 +1,48 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+class CsvComLinhaTest {
+
+  private static String numerar(String csv, char delimitador) throws IOException {
+    StringWriter saida = new StringWriter();
+    try (Reader reader = new CsvComLinha(new StringReader(csv), delimitador, 2)) {
+      reader.transferTo(saida);
+    }
+    return saida.toString();
+  }
+
+  @Test
+  void deveAcrescentarALinhaDeCadaRegistro() throws IOException {
+    assertEquals("a;1;2\nb;2;3\n", numerar("a;1\nb;2\n", ';'));
+    assertEquals("x,1,2\ny,2,3\n", numerar("x,1\ny,2", ','));
+  }
+
+  @Test
+  void deveContarAsLinhasDeCampoEntreAspasComQuebra() throws IOException {
+    assertEquals("a;\"x\ny\";1;2\nb;2;4\n", numerar("a;\"x\ny\";1\nb;2", ';'));
+    assertEquals(
+        "a;1;2\nb;\"q\r\nw\";3;3\n\nc;4;6\n", numerar("a;1\r\nb;\"q\r\nw\";3\r\n\r\nc;4\r\n", ';'));
+  }
+
+  @Test
+  void naoDeveConfundirAspasEscapadasComFimDoCampo() throws IOException {
+    assertEquals("\"a\"\"b\n\";1;2\nc;3;4\n", numerar("\"a\"\"b\n\";1\nc;3\n", ';'));
+  }
+
+  @Test
+  void deveNumerarArquivoMaiorQueOBufferDeLeitura() throws IOException {
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < 20_000; i++) csv.append("nome ").append(i).append(";\"a\nb\"\n");
+    String saida = numerar(csv.toString(), ';');
+    assertTrue(saida.startsWith("nome 0;\"a\nb\";2\n"));
+    assertTrue(saida.endsWith("nome 19999;\"a\nb\";40000\n"));
+  }
+}
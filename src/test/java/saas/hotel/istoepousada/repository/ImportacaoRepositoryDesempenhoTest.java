@@ -0,0 +1,78 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import saas.hotel.istoepousada.dto.Importacao;
+
+/**
+ * Meta da importação: 100 mil linhas por minuto (COPY, validação e gravação). Precisa de um
+ * PostgreSQL com o schema da aplicação em {@code TESTE_PG_URL} (usuário e senha em {@code
+ * TESTE_PG_USUARIO} e {@code TESTE_PG_SENHA}); tudo roda numa transação desfeita no fim.
+ */
+@EnabledIfEnvironmentVariable(named = "TESTE_PG_URL", matches = ".+")
+class ImportacaoRepositoryDesempenhoTest {
+  private static final int LINHAS = 100_000;
+  private static final Duration META = Duration.ofMinutes(1);
+
+  @Test
+  void deveImportarCemMilLinhasPorMinuto() {
+    DriverManagerDataSource postgres =
+        new DriverManagerDataSource(
+            System.getenv("TESTE_PG_URL"),
+            System.getenv("TESTE_PG_USUARIO"),
+            System.getenv("TESTE_PG_SENHA"));
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres);
+    ImportacaoRepository repository =
+        new ImportacaoRepository(
+            jdbcTemplate, new PessoaCache(2000, 300, new SimpleMeterRegistry()));
+    TransactionTemplate transacao =
+        new TransactionTemplate(new DataSourceTransactionManager(postgres));
+
+    StringBuilder csv = new StringBuilder();
+    for (int i = 0; i < LINHAS; i++) {
+      // uma empresa nova a cada 10 linhas; a cada 1000, um nome entre aspas com quebra de linha
+      if (i % 1000 == 0) csv.append("\"Hóspede ").append(i).append("\nSegunda linha\"");
+      else csv.append("Hóspede ").append(i);
+      csv.append(';').append("%011d".formatted(90_000_000_000L + i));
+      csv.append(';').append("01/02/1990");
+      csv.append(';').append("%014d".formatted(90_000_000_000_000L + i / 10));
+      csv.append(';').append("Empresa ").append(i / 10).append('\n');
+    }
+
+    transacao.executeWithoutResult(
+        status -> {
+          long inicio = System.nanoTime();
+          Long id = repository.criar("desempenho.csv", csv.length(), null, "teste");
+          long carregadas =
+              repository.carregar(
+                  id,
+                  List.of("nome", "cpf", "data_nascimento", "empresa_cnpj", "empresa_razao_social"),
+                  ';',
+                  new StringReader(csv.toString()));
+          repository.validar(id);
+          repository.gravar(id, null);
+          Duration duracao = Duration.ofNanos(System.nanoTime() - inicio);
+
+          Importacao importacao = repository.findByIdOrThrow(id);
+          status.setRollbackOnly();
+
+          assertEquals(LINHAS, carregadas);
+          assertEquals(0, importacao.linhasComErro());
+          System.out.printf(
+              "importação: %d linhas em %d ms (%.0f linhas/min)%n",
+              LINHAS, duracao.toMillis(), LINHAS * 60_000.0 / Math.max(1, duracao.toMillis()));
+          assertTrue(duracao.compareTo(META) <= 0, "levou " + duracao);
+        });
+  }
+}
@@ -0,0 +1,84 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import saas.hotel.istoepousada.dto.Notificacao;
+
+/**
+ * Os ids gerados do batch voltam na ordem das notificações. No PostgreSQL o teste liga {@code
+ * reWriteBatchedInserts}, como a aplicação: o driver junta o batch em INSERTs multi-linha e as
+ * chaves ainda precisam casar uma a uma.
+ */
+class NotificacaoRepositoryTest {
+  private static final int NOTIFICACOES = 300;
+
+  private static List<Notificacao> notificacoes() {
+    List<Notificacao> notificacoes = new ArrayList<>();
+    LocalDateTime agora = LocalDateTime.now().withNano(0);
+    for (int i = 0; i < NOTIFICACOES; i++)
+      notificacoes.add(new Notificacao(null, null, "Lote", "notificação " + i, agora));
+    return notificacoes;
+  }
+
+  private static void conferir(JdbcTemplate jdbcTemplate, List<Notificacao> gravadas) {
+    assertEquals(NOTIFICACOES, gravadas.size());
+    assertEquals(
+        NOTIFICACOES, new HashSet<>(gravadas.stream().map(Notificacao::id).toList()).size());
+    for (int i = 0; i < NOTIFICACOES; i++) {
+      Notificacao n = gravadas.get(i);
+      assertEquals("notificação " + i, n.descricao());
+      assertEquals(
+          n.descricao(),
+          jdbcTemplate.queryForObject(
+              "SELECT descricao FROM notificacao WHERE id = ?", String.class, n.id()));
+    }
+  }
+
+  @Test
+  void deveDevolverOIdGeradoDeCadaNotificacaoDoLote() {
+    DataSource h2 =
+        new DriverManagerDataSource(
+            "jdbc:h2:mem:notificacao_" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(h2);
+    jdbcTemplate.execute(
+        """
+        CREATE TABLE notificacao (
+            id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, fk_pessoa BIGINT,
+            nome_pessoa VARCHAR(200), descricao VARCHAR(500), data_hora TIMESTAMP)
+        """);
+
+    conferir(jdbcTemplate, new NotificacaoRepository(jdbcTemplate).inserirLote(notificacoes()));
+  }
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "TESTE_PG_URL", matches = ".+")
+  void deveDevolverOsIdsComReWriteBatchedInserts() {
+    String url = System.getenv("TESTE_PG_URL");
+    DriverManagerDataSource postgres =
+        new DriverManagerDataSource(
+            url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true",
+            System.getenv("TESTE_PG_USUARIO"),
+            System.getenv("TESTE_PG_SENHA"));
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres);
+
+    new TransactionTemplate(new DataSourceTransactionManager(postgres))
+        .executeWithoutResult(
+            status -> {
+              List<Notificacao> gravadas =
+                  new NotificacaoRepository(jdbcTemplate).inserirLote(notificacoes());
+              status.setRollbackOnly();
+              conferir(jdbcTemplate, gravadas);
+            });
+  }
+}
@@ -0,0 +1,179 @@
+package saas.hotel.istoepousada.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import saas.hotel.istoepousada.dto.Pessoa;
+import saas.hotel.istoepousada.dto.Veiculo;
+
+/**
+ * Os ids do INSERT em lote são casados pela posição ({@code ordem}) que volta do banco, não pela
+ * ordem das linhas. Sem banco, o {@link JdbcTemplate} devolve as linhas fora de ordem; o último
+ * teste roda contra o PostgreSQL de {@code TESTE_PG_URL}, numa transação desfeita no fim.
+ */
+class PessoaLoteRepositoryTest {
+
+  /** Guarda o SQL e os parâmetros e responde com as linhas (ordem, id) dadas, na ordem dada. */
+  private static class JdbcFalso extends JdbcTemplate {
+    private final long[][] linhas;
+    private final List<String> sqls = new ArrayList<>();
+    private final List<Object[]> parametros = new ArrayList<>();
+
+    JdbcFalso(long[]... linhas) {
+      this.linhas = linhas;
+    }
+
+    @Override
+    public void query(String sql, RowCallbackHandler rch, Object... args) {
+      sqls.add(sql);
+      parametros.add(args);
+      try {
+        for (long[] linha : linhas) {
+          ResultSet rs = mock(ResultSet.class);
+          when(rs.getInt("ordem")).thenReturn((int) linha[0]);
+          when(rs.getLong("id")).thenReturn(linha[1]);
+          rch.processRow(rs);
+        }
+      } catch (SQLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+      int[] afetadas = new int[batchArgs.size()];
+      Arrays.fill(afetadas, 1);
+      return afetadas;
+    }
+  }
+
+  private static PessoaLoteRepository repository(JdbcTemplate jdbcTemplate) {
+    return new PessoaLoteRepository(
+        jdbcTemplate, new PessoaCache(2000, 300, new SimpleMeterRegistry()));
+  }
+
+  private static Pessoa pessoa(Long id, String nome, String cpf) {
+    return new Pessoa(
+        id,
+        null,
+        nome,
+        null,
+        cpf,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        null,
+        0,
+        null,
+        null,
+        null,
+        null,
+        null,
+        Pessoa.Status.ATIVO);
+  }
+
+  @Test
+  void deveCasarOsIdsPelaOrdemDevolvidaEIntercalarAsExistentes() {
+    JdbcFalso jdbc = new JdbcFalso(new long[] {3, 30}, new long[] {1, 10}, new long[] {2, 20});
+
+    List<Long> ids =
+        repository(jdbc)
+            .salvar(
+                List.of(
+                    pessoa(null, "Ana", "1"),
+                    pessoa(99L, "Bruno", "2"),
+                    pessoa(null, "Carla", "3"),
+                    pessoa(null, "Davi", "4")),
+                7L);
+
+    assertEquals(List.of(10L, 99L, 20L, 30L), ids);
+    Object[] parametros = jdbc.parametros.getFirst();
+    assertEquals(18, parametros.length);
+    assertEquals("text[3]", parametros[0].toString());
+    assertEquals("bigint[3]", parametros[16].toString());
+    assertEquals(7L, parametros[17]);
+  }
+
+  @Test
+  void deveUsarOMesmoSqlParaQualquerTamanhoDeGrupo() {
+    JdbcFalso um = new JdbcFalso(new long[] {1, 1});
+    JdbcFalso mil = new JdbcFalso();
+    List<Veiculo> veiculos = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) veiculos.add(new Veiculo(null, "Gol", "VW", 2020, "P" + i, ""));
+
+    repository(um).inserirVeiculos(List.of(new Veiculo(null, "Uno", "Fiat", 2010, "ABC", "")));
+    assertThrows(IllegalStateException.class, () -> repository(mil).inserirVeiculos(veiculos));
+
+    assertEquals(um.sqls, mil.sqls);
+    assertEquals("integer[1000]", mil.parametros.getFirst()[2].toString());
+  }
+
+  @Test
+  void deveFalharSeOBancoNaoDevolverTodosOsIds() {
+    JdbcFalso jdbc = new JdbcFalso(new long[] {2, 20});
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            repository(jdbc)
+                .salvar(List.of(pessoa(null, "Ana", "1"), pessoa(null, "Bia", "2")), null));
+  }
+
+  @Test
+  @EnabledIfEnvironmentVariable(named = "TESTE_PG_URL", matches = ".+")
+  void deveGravarCadaPessoaEVeiculoNoIdDevolvidoParaEla() {
+    DriverManagerDataSource postgres =
+        new DriverManagerDataSource(
+            System.getenv("TESTE_PG_URL"),
+            System.getenv("TESTE_PG_USUARIO"),
+            System.getenv("TESTE_PG_SENHA"));
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(postgres);
+    PessoaLoteRepository repository = repository(jdbcTemplate);
+
+    List<Pessoa> pessoas = new ArrayList<>();
+    List<Veiculo> veiculos = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      pessoas.add(pessoa(null, "Lote " + i, "%011d".formatted(80_000_000_000L + i)));
+      String placa = "LT%05d".formatted(i);
+      veiculos.add(new Veiculo(null, "Modelo " + i, "Marca", 2000 + i % 25, placa, ""));
+    }
+
+    new TransactionTemplate(new DataSourceTransactionManager(postgres))
+        .executeWithoutResult(
+            status -> {
+              List<Long> pessoaIds = repository.salvar(pessoas, null);
+              List<Long> veiculoIds = repository.inserirVeiculos(veiculos);
+              status.setRollbackOnly();
+
+              for (int i = 0; i < pessoas.size(); i++) {
+                assertEquals(
+                    pessoas.get(i).cpf(),
+                    jdbcTemplate.queryForObject(
+                        "SELECT cpf FROM pessoa WHERE id = ?", String.class, pessoaIds.get(i)));
+                assertEquals(
+                    veiculos.get(i).placa(),
+                    jdbcTemplate.queryForObject(
+                        "SELECT placa FROM veiculo WHERE id = ?", String.class, veiculoIds.get(i)));
+              }
+            });
+  }
+}
@@ -0,0 +1,65 @@
+package saas.hotel.istoepousada.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import saas.hotel.istoepousada.dto.FuncionarioAuth;
+
+/** O token do stream só serve na URL do stream, e o Bearer comum não serve lá. */
+class JwtUtilTest {
+  private final FuncionarioAuth funcionario =
+      new FuncionarioAuth(
+          1L,
+          2L,
+          "recepcao",
+          3L,
+          "Ana",
+          "ana@hotel.com",
+          null,
+          new FuncionarioAuth.CargoAuth(4L, "RECEPCIONISTA", List.of()));
+
+  private JwtUtil jwtUtil;
+
+  @BeforeEach
+  void setup() {
+    jwtUtil =
+        new JwtUtil(
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            new JwtTokenCache(100, new SimpleMeterRegistry()));
+    ReflectionTestUtils.setField(
+        jwtUtil, "jwtSecret", "chave-de-teste-com-no-minimo-256-bits-para-assinar-hs256");
+    ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 60_000L);
+    ReflectionTestUtils.setField(jwtUtil, "streamTokenSegundos", 60L);
+    jwtUtil.init();
+  }
+
+  @Test
+  void deveAceitarOTokenDoStreamSoNoStream() {
+    String token = jwtUtil.gerarTokenStream(funcionario);
+
+    assertEquals("recepcao", jwtUtil.autenticarStream(token).username());
+    assertNull(jwtUtil.autenticar(token));
+  }
+
+  @Test
+  void deveRecusarOBearerComumNoStream() {
+    String token = jwtUtil.generateToken(funcionario);
+
+    assertEquals("recepcao", jwtUtil.autenticar(token).username());
+    assertNull(jwtUtil.autenticarStream(token));
+  }
+
+  @Test
+  void deveRecusarOTokenDoStreamExpirado() {
+    ReflectionTestUtils.setField(jwtUtil, "streamTokenSegundos", -1L);
+
+    assertNull(jwtUtil.autenticarStream(jwtUtil.gerarTokenStream(funcionario)));
+  }
+}
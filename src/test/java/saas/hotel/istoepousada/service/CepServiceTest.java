@@ -0,0 +1,172 @@
+package saas.hotel.istoepousada.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static saas.hotel.istoepousada.ContadorStatements.contarStatements;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.RestClient;
+import saas.hotel.istoepousada.config.AdmissaoBanco;
+import saas.hotel.istoepousada.dto.Endereco;
+import saas.hotel.istoepousada.handler.exceptions.NotFoundException;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/** CEP repetido não pode ir à rede nem ao banco; a ViaCEP é um servidor HTTP local. */
+class CepServiceTest {
+  private static final String SE =
+      """
+      {"cep": "01001-000", "logradouro": "Praça da Sé", "complemento": "lado ímpar",
+       "bairro": "Sé", "localidade": "São Paulo", "uf": "SP", "estado": "São Paulo"}
+      """;
+
+  private final AtomicInteger chamadasViaCep = new AtomicInteger();
+  private final AtomicInteger statements = new AtomicInteger();
+  private volatile int statusViaCep = 200;
+  private HttpServer viaCep;
+  private JdbcTemplate banco;
+  private LocalidadeRepository localidadeRepository;
+
+  @BeforeEach
+  void setup() throws IOException {
+    viaCep = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    viaCep.createContext(
+        "/ws/",
+        troca -> {
+          chamadasViaCep.incrementAndGet();
+          boolean existe = troca.getRequestURI().getPath().contains("01001000");
+          String corpo = existe ? SE : "{\"erro\": \"true\"}";
+          byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+          troca.getResponseHeaders().add("Content-Type", "application/json");
+          troca.sendResponseHeaders(statusViaCep, bytes.length);
+          try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+          }
+        });
+    viaCep.start();
+
+    DriverManagerDataSource h2 =
+        new DriverManagerDataSource(
+            "jdbc:h2:mem:cep_" + System.nanoTime() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    banco = new JdbcTemplate(h2);
+    banco.execute("CREATE TABLE pais (id BIGINT PRIMARY KEY, descricao VARCHAR(100))");
+    banco.execute(
+        "CREATE TABLE estado (id BIGINT PRIMARY KEY, descricao VARCHAR(100), fk_pais BIGINT)");
+    banco.execute(
+        "CREATE TABLE municipio (id BIGINT PRIMARY KEY, descricao VARCHAR(100), fk_estado BIGINT)");
+    banco.execute(
+        """
+        CREATE TABLE cep_cache (
+            cep VARCHAR(8) PRIMARY KEY, logradouro VARCHAR(200), complemento VARCHAR(200),
+            bairro VARCHAR(200), localidade VARCHAR(200) NOT NULL, uf VARCHAR(2),
+            estado VARCHAR(100), ibge VARCHAR(10), ddd VARCHAR(3), atualizado_em TIMESTAMP)
+        """);
+    banco.update("INSERT INTO pais VALUES (1, 'Brasil'), (2, 'Argentina')");
+    // nomes no banco sem acento/caixa da ViaCEP
+    banco.update("INSERT INTO estado VALUES (25, 'Sao Paulo', 1), (33, 'Rio de Janeiro', 1)");
+    banco.update(
+        "INSERT INTO municipio VALUES (3550308, 'SÃO  PAULO', 25), (3509502, 'Campinas', 25)");
+
+    RestClient cliente =
+        RestClient.builder()
+            .baseUrl("http://127.0.0.1:" + viaCep.getAddress().getPort())
+            .build();
+    JdbcTemplate contado = new JdbcTemplate(contarStatements(h2, statements));
+    localidadeRepository = new LocalidadeRepository(contado, cliente, cliente);
+  }
+
+  @AfterEach
+  void encerrar() {
+    viaCep.stop(0);
+  }
+
+  private CepService novoServico() {
+    return new CepService(
+        localidadeRepository,
+        new LocalidadeIndice(localidadeRepository),
+        100,
+        90,
+        new SimpleMeterRegistry(),
+        new AdmissaoBanco(new MockEnvironment(), new SimpleMeterRegistry(), 10, 2, 3, 2));
+  }
+
+  @Test
+  void devePrimeiraConsultaIrAViaCepGravarECasarNomesNormalizados() {
+    Endereco endereco = novoServico().resolver("01001-000");
+
+    assertEquals(1, chamadasViaCep.get());
+    assertEquals("01001000", endereco.cep());
+    assertEquals("Praça da Sé", endereco.endereco());
+    assertEquals(1L, endereco.pais().id());
+    assertEquals(25L, endereco.estado().id());
+    assertEquals(3550308L, endereco.municipio().id());
+    assertEquals(
+        "São Paulo",
+        banco.queryForObject(
+            "SELECT localidade FROM cep_cache WHERE cep = '01001000'", String.class));
+  }
+
+  @Test
+  void deveResolverCepRepetidoSemRedeNemSql() {
+    CepService cepService = novoServico();
+    Endereco primeiro = cepService.resolver("01001000");
+    chamadasViaCep.set(0);
+    statements.set(0);
+
+    Endereco segundo = cepService.resolver("01001-000");
+
+    assertEquals(primeiro, segundo);
+    assertEquals(0, chamadasViaCep.get());
+    assertEquals(0, statements.get());
+  }
+
+  @Test
+  void deveUsarCepCachePersistidoSemChamarViaCep() {
+    novoServico().resolver("01001000");
+    chamadasViaCep.set(0);
+
+    // outra instância (reinício da aplicação): memória vazia, cep_cache preenchido
+    Endereco endereco = novoServico().resolver("01001000");
+
+    assertEquals(0, chamadasViaCep.get());
+    assertEquals(3550308L, endereco.municipio().id());
+  }
+
+  @Test
+  void deveUsarCepCacheVencidoQuandoViaCepFalha() {
+    novoServico().resolver("01001000");
+    banco.update(
+        "UPDATE cep_cache SET atualizado_em = ?",
+        Timestamp.valueOf(LocalDateTime.now().minusDays(365)));
+    statusViaCep = 503;
+
+    Endereco endereco = novoServico().resolver("01001000");
+
+    assertEquals(2, chamadasViaCep.get());
+    assertEquals(25L, endereco.estado().id());
+  }
+
+  @Test
+  void deveLancarNotFoundSemGravarCepInexistente() {
+    CepService cepService = novoServico();
+
+    assertThrows(NotFoundException.class, () -> cepService.resolver("99999-999"));
+    assertThrows(IllegalArgumentException.class, () -> cepService.resolver("123"));
+
+    assertEquals(1, chamadasViaCep.get());
+    assertEquals(0, banco.queryForObject("SELECT COUNT(*) FROM cep_cache", Integer.class));
+  }
+}
@@ -0,0 +1,145 @@
+package saas.hotel.istoepousada.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestClient;
+import saas.hotel.istoepousada.dto.CnpjaResponse;
+import saas.hotel.istoepousada.handler.exceptions.UnavaiableException;
+import saas.hotel.istoepousada.repository.LocalidadeRepository;
+
+/** Deduplicação, limite por minuto e 429 contra uma CNPJá local. */
+class CnpjServiceTest {
+  private static final String CNPJ = "11222333000181";
+  private static final String OUTRO_CNPJ = "44555666000172";
+
+  private final AtomicInteger chamadas = new AtomicInteger();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private volatile int status = 200;
+  private volatile String retryAfter;
+  private volatile CountDownLatch liberar = new CountDownLatch(0);
+  private HttpServer cnpja;
+  private ExecutorService threads;
+  private LocalidadeRepository localidadeRepository;
+
+  @BeforeEach
+  void setup() throws IOException {
+    threads = Executors.newVirtualThreadPerTaskExecutor();
+    cnpja = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    cnpja.setExecutor(threads);
+    cnpja.createContext(
+        "/office/",
+        troca -> {
+          chamadas.incrementAndGet();
+          try {
+            liberar.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          String cnpj = troca.getRequestURI().getPath().substring("/office/".length());
+          byte[] bytes = ("{\"taxId\": \"" + cnpj + "\"}").getBytes(StandardCharsets.UTF_8);
+          troca.getResponseHeaders().add("Content-Type", "application/json");
+          if (retryAfter != null) troca.getResponseHeaders().add("Retry-After", retryAfter);
+          troca.sendResponseHeaders(status, bytes.length);
+          try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+          }
+        });
+    cnpja.start();
+
+    RestClient cliente =
+        RestClient.builder().baseUrl("http://127.0.0.1:" + cnpja.getAddress().getPort()).build();
+    localidadeRepository = new LocalidadeRepository(new JdbcTemplate(), cliente, cliente);
+  }
+
+  @AfterEach
+  void encerrar() {
+    cnpja.stop(0);
+    threads.shutdownNow();
+  }
+
+  private CnpjService novoServico(int porMinuto) {
+    return new CnpjService(localidadeRepository, 100, 24, porMinuto, 100, meterRegistry);
+  }
+
+  private double recusadas() {
+    return meterRegistry.get("cnpj.cnpja.recusadas").counter().count();
+  }
+
+  @Test
+  void deveFazerUmaChamadaParaConsultasSimultaneasDoMesmoCnpj() throws Exception {
+    CnpjService cnpjService = novoServico(5);
+    liberar = new CountDownLatch(1);
+    CountDownLatch iniciadas = new CountDownLatch(5);
+
+    List<Future<CnpjaResponse>> consultas = new ArrayList<>();
+    for (int i = 0; i < 5; i++)
+      consultas.add(
+          threads.submit(
+              () -> {
+                iniciadas.countDown();
+                return cnpjService.buscar("11.222.333/0001-81");
+              }));
+    assertTrue(iniciadas.await(2, TimeUnit.SECONDS));
+    Thread.sleep(200);
+    liberar.countDown();
+
+    for (Future<CnpjaResponse> consulta : consultas) assertEquals(CNPJ, consulta.get().taxId());
+    assertEquals(CNPJ, cnpjService.buscar(CNPJ).taxId());
+    assertEquals(1, chamadas.get());
+  }
+
+  @Test
+  void deveRecusarComRetryAfterQuandoOLimiteNaoLiberaAVagaATempo() {
+    CnpjService cnpjService = novoServico(1);
+
+    cnpjService.buscar(CNPJ);
+    UnavaiableException erro =
+        assertThrows(UnavaiableException.class, () -> cnpjService.buscar(OUTRO_CNPJ));
+
+    assertEquals(1, chamadas.get());
+    assertEquals(1.0, recusadas());
+    assertTrue(erro.getRetryAfter().compareTo(Duration.ofSeconds(59)) >= 0);
+    assertTrue(erro.getRetryAfter().compareTo(Duration.ofSeconds(60)) <= 0);
+  }
+
+  @Test
+  void deveSuspenderAsChamadasPeloRetryAfterDo429() {
+    CnpjService cnpjService = novoServico(5);
+    status = 429;
+    retryAfter = "7";
+
+    UnavaiableException primeiro =
+        assertThrows(UnavaiableException.class, () -> cnpjService.buscar(CNPJ));
+    status = 200;
+    retryAfter = null;
+    UnavaiableException segundo =
+        assertThrows(UnavaiableException.class, () -> cnpjService.buscar(OUTRO_CNPJ));
+
+    assertEquals(Duration.ofSeconds(7), primeiro.getRetryAfter());
+    assertEquals(Duration.ofSeconds(7), segundo.getRetryAfter());
+    // a falha não fica em cache e o bloqueio evita a segunda chamada
+    assertEquals(1, chamadas.get());
+    assertEquals(2.0, recusadas());
+  }
+}
@@ -1,14 +1,16 @@
 package saas.hotel.istoepousada.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import saas.hotel.istoepousada.dto.Objeto;
@@ -18,19 +20,28 @@ import saas.hotel.istoepousada.repository.LocalidadeRepository;
 class EnderecoServiceTest {
   @Mock private LocalidadeRepository localidadeRepository;
 
-  @InjectMocks private EnderecoService enderecoService;
+  private EnderecoService enderecoService;
 
   private List<Objeto> objetosMock;
 
   @BeforeEach
   void setup() {
     objetosMock = List.of(new Objeto(1L, "Item 1"), new Objeto(2L, "Item 2"));
+    LocalidadeSnapshot snapshot = new LocalidadeSnapshot(localidadeRepository);
+    enderecoService = new EnderecoService(null, null, snapshot, null);
+  }
+
+  private void carga(
+      List<Objeto> paises, Map<Long, List<Objeto>> estados, Map<Long, List<Objeto>> municipios) {
+    when(localidadeRepository.listarPaises()).thenReturn(paises);
+    when(localidadeRepository.listarEstadosAgrupadosPorPais()).thenReturn(estados);
+    when(localidadeRepository.listarMunicipiosAgrupadosPorEstado()).thenReturn(municipios);
   }
 
   @Test
   void deveListarPaises() {
-    when(localidadeRepository.listarPaises()).thenReturn(objetosMock);
-    List<Objeto> result = enderecoService.listarPaises();
+    carga(objetosMock, Map.of(), Map.of());
+    List<Objeto> result = enderecoService.listarPaises().itens();
     assertEquals(objetosMock, result);
     verify(localidadeRepository).listarPaises();
   }
@@ -38,18 +49,38 @@ class EnderecoServiceTest {
   @Test
   void deveListarEstadosPorPais() {
     Long paisId = 1L;
-    when(localidadeRepository.listarEstadosPorPais(paisId)).thenReturn(objetosMock);
-    List<Objeto> result = enderecoService.listarEstados(paisId);
+    carga(List.of(), Map.of(paisId, objetosMock), Map.of());
+    List<Objeto> result = enderecoService.listarEstados(paisId).itens();
     assertEquals(objetosMock, result);
-    verify(localidadeRepository).listarEstadosPorPais(paisId);
+    assertEquals(List.of(), enderecoService.listarEstados(2L).itens());
+    verify(localidadeRepository).listarEstadosAgrupadosPorPais();
   }
 
   @Test
   void deveListarMunicipiosPorEstado() {
     Long estadoId = 10L;
-    when(localidadeRepository.listarMunicipiosPorEstado(estadoId)).thenReturn(objetosMock);
-    List<Objeto> result = enderecoService.listarMunicipios(estadoId);
+    carga(List.of(), Map.of(), Map.of(estadoId, objetosMock));
+    List<Objeto> result = enderecoService.listarMunicipios(estadoId).itens();
     assertEquals(objetosMock, result);
-    verify(localidadeRepository).listarMunicipiosPorEstado(estadoId);
+    verify(localidadeRepository).listarMunicipiosAgrupadosPorEstado();
+  }
+
+  @Test
+  void deveServirDaMemoriaComEtagEstavelEntreRecargas() {
+    carga(objetosMock, Map.of(1L, objetosMock), Map.of(10L, objetosMock));
+    String etag = enderecoService.listarMunicipios(10L).etag();
+    enderecoService.listarMunicipios(10L);
+    enderecoService.listarEstados(1L);
+
+    verify(localidadeRepository, times(1)).listarMunicipiosAgrupadosPorEstado();
+
+    LocalidadeSnapshot snapshot = new LocalidadeSnapshot(localidadeRepository);
+    snapshot.recarregar();
+    assertEquals(etag, snapshot.municipios(10L).etag());
+
+    when(localidadeRepository.listarMunicipiosAgrupadosPorEstado())
+        .thenReturn(Map.of(10L, List.of(new Objeto(1L, "Item 1"))));
+    snapshot.recarregar();
+    assertNotEquals(etag, snapshot.municipios(10L).etag());
   }
 }
@@ -0,0 +1,52 @@
+package saas.hotel.istoepousada.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class PlanilhaWriterTest {
+
+  private static String csv(Object... celulas) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (PlanilhaWriter planilha = PlanilhaWriter.csv(out)) {
+      planilha.linha(celulas);
+    }
+    String texto = out.toString(StandardCharsets.UTF_8);
+    assertEquals('\uFEFF', texto.charAt(0));
+    return texto.substring(1);
+  }
+
+  @Test
+  void deveSepararComPontoEVirgulaEUsarVirgulaDecimal() throws IOException {
+    assertEquals(
+        "1;texto;150,50;;-20\r\n", csv(1L, "texto", new BigDecimal("150.50"), null, -20));
+  }
+
+  @Test
+  void deveColocarEntreAspasTextoComSeparadorAspasOuQuebraDeLinha() throws IOException {
+    assertEquals("\"a;b\"\r\n", csv("a;b"));
+    assertEquals("\"diz \"\"oi\"\"\"\r\n", csv("diz \"oi\""));
+    assertEquals("\"linha 1\nlinha 2\"\r\n", csv("linha 1\nlinha 2"));
+    assertEquals("\"a\r\nb\"\r\n", csv("a\r\nb"));
+  }
+
+  @Test
+  void deveNeutralizarTextoQueSeriaLidoComoFormula() throws IOException {
+    assertEquals("\"'=HYPERLINK(\"\"x\"\")\"\r\n", csv("=HYPERLINK(\"x\")"));
+    assertEquals("\"'+1\"\r\n", csv("+1"));
+    assertEquals("\"'-1+2\"\r\n", csv("-1+2"));
+    assertEquals("\"'@SOMA(A1)\"\r\n", csv("@SOMA(A1)"));
+    assertEquals("\"'\tx\"\r\n", csv("\tx"));
+    assertEquals("\"'\rx\"\r\n", csv("\rx"));
+    assertEquals("\"'=1;2\"\r\n", csv("=1;2"));
+  }
+
+  @Test
+  void naoDeveAlterarTextoComumNemNumeroNegativo() throws IOException {
+    assertEquals("Maria da Silva;a=b;-5\r\n", csv("Maria da Silva", "a=b", -5));
+  }
+}